@@ -1,5 +1,7 @@
 package ca.bc.gov.open.jci.test.controllers;
 
+import ca.bc.gov.open.jci.test.models.LoadTestReport;
+import ca.bc.gov.open.jci.test.services.LoadTestService;
 import ca.bc.gov.open.jci.test.services.TestService;
 import java.io.File;
 import java.io.FileInputStream;
@@ -11,17 +13,21 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping("/tests")
 public class TestController {
     private TestService testService;
+    private LoadTestService loadTestService;
 
     @Autowired
-    public TestController(TestService testService) throws IOException {
+    public TestController(TestService testService, LoadTestService loadTestService)
+            throws IOException {
 
         this.testService = testService;
+        this.loadTestService = loadTestService;
         this.testService.setAuthentication("CCDUserMapping-soapui-project-template.xml");
         this.testService.setAuthentication("CCDCivilFileContent-soapui-project-template.xml");
         this.testService.setAuthentication("CCDCodeValues-soapui-project-template.xml");
@@ -61,6 +67,44 @@ public class TestController {
         }
     }
 
+    /**
+     * Replays the SoapUI project requests concurrently for duration seconds and returns per
+     * operation throughput, latency percentiles and error counts. Rate is the arrival rate in
+     * requests per second, or 0 to send as fast as concurrency allows. Projects optionally limits
+     * the run to some projects, e.g. CodeValues,CourtListSecure.
+     */
+    @GetMapping(value = "/load")
+    public ResponseEntity runLoadTest(
+            @RequestParam(defaultValue = "0") double rate,
+            @RequestParam(defaultValue = "10") int concurrency,
+            @RequestParam(defaultValue = "60") long duration,
+            @RequestParam(required = false) String projects)
+            throws IOException, InterruptedException {
+
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.add("Content-Type", "application/json");
+        if (rate < 0 || concurrency < 1 || duration < 1) {
+            return new ResponseEntity<String>(
+                    "{\"status\": \"rate must be 0 or more, concurrency and duration 1 or more\"}",
+                    responseHeaders,
+                    HttpStatus.BAD_REQUEST);
+        }
+        try {
+            LoadTestReport report = loadTestService.run(rate, concurrency, duration, projects);
+            return new ResponseEntity<LoadTestReport>(report, responseHeaders, HttpStatus.OK);
+        } catch (IllegalStateException ex) {
+            return new ResponseEntity<String>(
+                    "{\"status\": \"" + ex.getMessage() + "\"}",
+                    responseHeaders,
+                    HttpStatus.CONFLICT);
+        } catch (IllegalArgumentException ex) {
+            return new ResponseEntity<String>(
+                    "{\"status\": \"" + ex.getMessage() + "\"}",
+                    responseHeaders,
+                    HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @GetMapping("/ping")
     public String ping() {
         return "ping";
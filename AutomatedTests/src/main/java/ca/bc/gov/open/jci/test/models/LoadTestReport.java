@@ -0,0 +1,76 @@
+package ca.bc.gov.open.jci.test.models;
+
+import java.util.List;
+
+/** The settings and results of one load test run. */
+public class LoadTestReport {
+    private final double rate;
+    private final int concurrency;
+    private final long durationSeconds;
+    private final double elapsedSeconds;
+    private final long dropped;
+    private final int inFlight;
+    private final OperationStats total;
+    private final List<OperationStats> operations;
+
+    public LoadTestReport(
+            double rate,
+            int concurrency,
+            long durationSeconds,
+            double elapsedSeconds,
+            long dropped,
+            int inFlight,
+            OperationStats total,
+            List<OperationStats> operations) {
+        this.rate = rate;
+        this.concurrency = concurrency;
+        this.durationSeconds = durationSeconds;
+        this.elapsedSeconds = elapsedSeconds;
+        this.dropped = dropped;
+        this.inFlight = inFlight;
+        this.total = total;
+        this.operations = operations;
+    }
+
+    /** The arrival rate asked for in requests per second, 0 for as fast as concurrency allows. */
+    public double getRate() {
+        return rate;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public long getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    /** The time from the first request to the last response. */
+    public double getElapsedSeconds() {
+        return elapsedSeconds;
+    }
+
+    /**
+     * Arrivals not sent because every concurrency slot was busy. Any at all means the API could
+     * not keep up with the rate.
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Requests still without a response when the report was built, after waiting out the request
+     * timeout. Any at all means the elapsed time and latencies leave them out.
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public OperationStats getTotal() {
+        return total;
+    }
+
+    public List<OperationStats> getOperations() {
+        return operations;
+    }
+}
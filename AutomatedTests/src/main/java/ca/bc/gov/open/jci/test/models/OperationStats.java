@@ -0,0 +1,76 @@
+package ca.bc.gov.open.jci.test.models;
+
+import java.util.Map;
+
+/** Throughput, latency and errors for one operation, or for all of them, over a load test. */
+public class OperationStats {
+    private final String operation;
+    private final long requests;
+    private final long errors;
+    private final Map<String, Long> errorTypes;
+    private final double throughput;
+    private final double p50Ms;
+    private final double p95Ms;
+    private final double p99Ms;
+    private final double maxMs;
+
+    public OperationStats(
+            String operation,
+            long requests,
+            long errors,
+            Map<String, Long> errorTypes,
+            double throughput,
+            double p50Ms,
+            double p95Ms,
+            double p99Ms,
+            double maxMs) {
+        this.operation = operation;
+        this.requests = requests;
+        this.errors = errors;
+        this.errorTypes = errorTypes;
+        this.throughput = throughput;
+        this.p50Ms = p50Ms;
+        this.p95Ms = p95Ms;
+        this.p99Ms = p99Ms;
+        this.maxMs = maxMs;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    /** Completed requests, including errors. */
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /** Errors by HTTP status, or by exception name when no response came back. */
+    public Map<String, Long> getErrorTypes() {
+        return errorTypes;
+    }
+
+    /** Completed requests per second. */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public double getP50Ms() {
+        return p50Ms;
+    }
+
+    public double getP95Ms() {
+        return p95Ms;
+    }
+
+    public double getP99Ms() {
+        return p99Ms;
+    }
+
+    public double getMaxMs() {
+        return maxMs;
+    }
+}
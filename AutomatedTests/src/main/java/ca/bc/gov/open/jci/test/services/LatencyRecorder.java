@@ -0,0 +1,61 @@
+package ca.bc.gov.open.jci.test.services;
+
+import ca.bc.gov.open.jci.test.models.OperationStats;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Keeps every latency of one operation, so percentiles are exact rather than bucketed. */
+class LatencyRecorder {
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+    private final Map<String, Long> errorTypes = new TreeMap<>();
+
+    synchronized void record(long nanos, String errorType) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        if (errorType != null) {
+            errors++;
+            errorTypes.merge(errorType, 1L, Long::sum);
+        }
+    }
+
+    synchronized void addTo(LatencyRecorder total) {
+        for (int i = 0; i < count; i++) {
+            total.record(latencies[i], null);
+        }
+        total.addErrors(errors, errorTypes);
+    }
+
+    synchronized OperationStats stats(String operation, double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new OperationStats(
+                operation,
+                count,
+                errors,
+                new TreeMap<>(errorTypes),
+                elapsedSeconds > 0 ? count / elapsedSeconds : 0,
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.95),
+                percentile(sorted, 0.99),
+                percentile(sorted, 1.0));
+    }
+
+    private synchronized void addErrors(long errors, Map<String, Long> errorTypes) {
+        this.errors += errors;
+        errorTypes.forEach((type, n) -> this.errorTypes.merge(type, n, Long::sum));
+    }
+
+    /** Nearest rank percentile in milliseconds. */
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,256 @@
+package ca.bc.gov.open.jci.test.services;
+
+import ca.bc.gov.open.jci.test.models.LoadTestReport;
+import ca.bc.gov.open.jci.test.models.OperationStats;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.commons.io.filefilter.WildcardFileFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Replays the request steps of the SoapUI projects concurrently and measures them. With a rate the
+ * requests arrive on a fixed schedule, open loop, up to concurrency in flight at once; arrivals
+ * that find every slot busy are dropped and counted. Without a rate, concurrency clients each
+ * send their next request as soon as the last one completes.
+ *
+ * <p>The projects are the ones {@link TestService#setAuthentication} writes out, so they carry the
+ * same credentials as the functional tests.
+ */
+@Service
+public class LoadTestService {
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    @Value("${test.api-host}")
+    private String apiHostCommon;
+
+    @Value("${test.api-host-secure}")
+    private String apiHostSecure;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LoadTestService() {}
+
+    /**
+     * Runs one load test and returns its report. Projects, when given, is a comma separated list
+     * of project file name parts, e.g. CodeValues,CourtListSecure, to replay only those.
+     *
+     * @throws IllegalStateException if a load test is already running
+     * @throws IllegalArgumentException if no request steps match projects
+     */
+    public LoadTestReport run(double rate, int concurrency, long durationSeconds, String projects)
+            throws IOException, InterruptedException {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A load test is already running");
+        }
+        try {
+            List<SoapRequest> requests = readRequests(projects);
+            if (requests.isEmpty()) {
+                throw new IllegalArgumentException("No request steps match " + projects);
+            }
+            return replay(requests, rate, concurrency, durationSeconds);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private List<SoapRequest> readRequests(String projects) throws IOException {
+        FileFilter fileFilter = new WildcardFileFilter("*-soapui-project.xml");
+        File[] files = new File(".").listFiles(fileFilter);
+        if (files == null) {
+            return List.of();
+        }
+        Arrays.sort(files);
+        List<String> wanted = new ArrayList<>();
+        if (projects != null) {
+            for (String project : projects.split(",")) {
+                if (!project.isBlank()) {
+                    wanted.add(project.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        List<SoapRequest> requests = new ArrayList<>();
+        for (File file : files) {
+            String name = file.getName().toLowerCase(Locale.ROOT);
+            if (wanted.isEmpty() || wanted.stream().anyMatch(name::contains)) {
+                requests.addAll(SoapRequest.read(file));
+            }
+        }
+        return requests;
+    }
+
+    private LoadTestReport replay(
+            List<SoapRequest> requests, double rate, int concurrency, long durationSeconds)
+            throws InterruptedException {
+        Map<String, LatencyRecorder> recorders = new TreeMap<>();
+        List<Target> targets = new ArrayList<>();
+        for (SoapRequest request : requests) {
+            recorders.putIfAbsent(request.getOperation(), new LatencyRecorder());
+            targets.add(
+                    new Target(httpRequest(request), recorders.get(request.getOperation())));
+        }
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        HttpClient client =
+                HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(CONNECT_TIMEOUT)
+                        .executor(executor)
+                        .build();
+        Semaphore slots = new Semaphore(concurrency);
+        AtomicLong next = new AtomicLong();
+        LongAdder dropped = new LongAdder();
+        ScheduledExecutorService scheduler =
+                rate > 0 ? Executors.newSingleThreadScheduledExecutor() : null;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        int inFlight = 0;
+
+        try {
+            if (scheduler != null) {
+                scheduler.scheduleAtFixedRate(
+                        () -> {
+                            if (System.nanoTime() >= end) {
+                                return;
+                            }
+                            if (slots.tryAcquire()) {
+                                send(client, targets, next, slots::release);
+                            } else {
+                                dropped.increment();
+                            }
+                        },
+                        0,
+                        Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate)),
+                        TimeUnit.NANOSECONDS);
+                TimeUnit.NANOSECONDS.sleep(end - System.nanoTime());
+                scheduler.shutdownNow();
+            } else {
+                for (int i = 0; i < concurrency; i++) {
+                    slots.acquire();
+                    sendUntil(client, targets, next, end, slots);
+                }
+            }
+            // Wait for the requests still in flight
+            if (!slots.tryAcquire(
+                    concurrency,
+                    REQUEST_TIMEOUT.toSeconds() + durationSeconds,
+                    TimeUnit.SECONDS)) {
+                inFlight = concurrency - slots.availablePermits();
+            }
+        } finally {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+            executor.shutdownNow();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        LatencyRecorder total = new LatencyRecorder();
+        List<OperationStats> operations = new ArrayList<>();
+        recorders.forEach(
+                (operation, recorder) -> {
+                    recorder.addTo(total);
+                    operations.add(recorder.stats(operation, elapsedSeconds));
+                });
+        return new LoadTestReport(
+                rate,
+                concurrency,
+                durationSeconds,
+                elapsedSeconds,
+                dropped.sum(),
+                inFlight,
+                total.stats("total", elapsedSeconds),
+                operations);
+    }
+
+    /** Sends requests one after another until the end, then frees the slot. */
+    private void sendUntil(
+            HttpClient client, List<Target> targets, AtomicLong next, long end, Semaphore slots) {
+        send(
+                client,
+                targets,
+                next,
+                () -> {
+                    if (System.nanoTime() < end) {
+                        sendUntil(client, targets, next, end, slots);
+                    } else {
+                        slots.release();
+                    }
+                });
+    }
+
+    /** Sends the next request, round robin over the targets, and records it when done. */
+    private void send(HttpClient client, List<Target> targets, AtomicLong next, Runnable done) {
+        Target target = targets.get((int) (next.getAndIncrement() % targets.size()));
+        long sent = System.nanoTime();
+        client.sendAsync(target.request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete(
+                        (response, ex) -> {
+                            String error = null;
+                            if (ex != null) {
+                                Throwable cause =
+                                        ex instanceof CompletionException && ex.getCause() != null
+                                                ? ex.getCause()
+                                                : ex;
+                                error = cause.getClass().getSimpleName();
+                            } else if (response.statusCode() != 200) {
+                                error = String.valueOf(response.statusCode());
+                            }
+                            target.recorder.record(System.nanoTime() - sent, error);
+                            done.run();
+                        });
+    }
+
+    private HttpRequest httpRequest(SoapRequest soapRequest) {
+        HttpRequest.Builder builder =
+                HttpRequest.newBuilder(
+                                URI.create(soapRequest.isSecure() ? apiHostSecure : apiHostCommon))
+                        .timeout(REQUEST_TIMEOUT)
+                        .header("Content-Type", soapRequest.getContentType())
+                        .POST(HttpRequest.BodyPublishers.ofString(soapRequest.getEnvelope()));
+        if (soapRequest.getUsername() != null && !soapRequest.getUsername().isEmpty()) {
+            String credentials = soapRequest.getUsername() + ":" + soapRequest.getPassword();
+            builder.header(
+                    "Authorization",
+                    "Basic "
+                            + Base64.getEncoder()
+                                    .encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+        }
+        return builder.build();
+    }
+
+    /** A request to send and where its latencies go. */
+    private static class Target {
+        private final HttpRequest request;
+        private final LatencyRecorder recorder;
+
+        Target(HttpRequest request, LatencyRecorder recorder) {
+            this.request = request;
+            this.recorder = recorder;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ca.bc.gov.open.jci.test.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * One request test step of a SoapUI project, with the envelope and credentials it sends. The
+ * endpoint is not taken from the step, the projects point at old hosts, so SOAP 1.1 steps are
+ * sent to API_HOST and SOAP 1.2 steps to API_HOST_SECURE.
+ */
+class SoapRequest {
+    private static final String CON = "http://eviware.com/soapui/config";
+
+    private final String operation;
+    private final String envelope;
+    private final String username;
+    private final String password;
+    private final boolean secure;
+
+    SoapRequest(
+            String operation, String envelope, String username, String password, boolean secure) {
+        this.operation = operation;
+        this.envelope = envelope;
+        this.username = username;
+        this.password = password;
+        this.secure = secure;
+    }
+
+    /** The request steps of every test case in the project file, in file order. */
+    static List<SoapRequest> read(File project) throws IOException {
+        Document document;
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            document = builder.parse(project);
+        } catch (ParserConfigurationException | SAXException ex) {
+            throw new IOException("Could not read " + project.getName(), ex);
+        }
+
+        String projectName = document.getDocumentElement().getAttribute("name");
+        Map<String, String> soapVersions = new HashMap<>();
+        NodeList interfaces = document.getElementsByTagNameNS(CON, "interface");
+        for (int i = 0; i < interfaces.getLength(); i++) {
+            Element element = (Element) interfaces.item(i);
+            if (element.hasAttribute("soapVersion")) {
+                soapVersions.put(element.getAttribute("name"), element.getAttribute("soapVersion"));
+            }
+        }
+
+        List<SoapRequest> requests = new ArrayList<>();
+        NodeList steps = document.getElementsByTagNameNS(CON, "testStep");
+        for (int i = 0; i < steps.getLength(); i++) {
+            Element step = (Element) steps.item(i);
+            Element config = child(step, "config");
+            if (!"request".equals(step.getAttribute("type")) || config == null) {
+                continue;
+            }
+            Element request = child(config, "request");
+            Element envelope = request == null ? null : child(request, "request");
+            if (envelope == null) {
+                continue;
+            }
+            Element credentials = child(request, "credentials");
+            requests.add(
+                    new SoapRequest(
+                            projectName + "." + text(child(config, "operation")),
+                            envelope.getTextContent().trim(),
+                            credentials == null ? null : text(child(credentials, "username")),
+                            credentials == null ? null : text(child(credentials, "password")),
+                            "1_2".equals(soapVersions.get(text(child(config, "interface"))))));
+        }
+        return requests;
+    }
+
+    /** The project name and operation, e.g. CodeValues.getCodeValues. */
+    String getOperation() {
+        return operation;
+    }
+
+    String getEnvelope() {
+        return envelope;
+    }
+
+    String getUsername() {
+        return username;
+    }
+
+    String getPassword() {
+        return password;
+    }
+
+    boolean isSecure() {
+        return secure;
+    }
+
+    String getContentType() {
+        return secure ? "application/soap+xml; charset=utf-8" : "text/xml; charset=utf-8";
+    }
+
+    private static Element child(Element parent, String localName) {
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element
+                    && CON.equals(node.getNamespaceURI())
+                    && localName.equals(node.getLocalName())) {
+                return (Element) node;
+            }
+        }
+        return null;
+    }
+
+    private static String text(Element element) {
+        return element == null ? null : element.getTextContent().trim();
+    }
+}
@@ -2,8 +2,10 @@ package ca.bc.gov.open.jci;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class JciApplication {
     public static void main(String[] args) {
         SpringApplication.run(JciApplication.class, args);
@@ -0,0 +1,160 @@
+package ca.bc.gov.open.jci.configuration;
+
+import jakarta.activation.DataHandler;
+import jakarta.activation.DataSource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.xml.soap.AttachmentPart;
+import jakarta.xml.soap.SOAPException;
+import jakarta.xml.soap.SOAPMessage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.EndpointInterceptor;
+import org.springframework.ws.soap.saaj.SaajSoapMessage;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Sends B64Content as a binary MTOM/XOP attachment instead of inline base64 text, for clients
+ * that ask for it by sending an MTOM request or by accepting multipart/related or
+ * application/xop+xml. Other clients keep the inline content.
+ *
+ * <p>A document streamed by {@link DocumentStreamingFilter} is attached as the open ORDS response,
+ * so it is still never held in memory.
+ */
+public class MtomResponseInterceptor implements EndpointInterceptor {
+
+    static final String XOP_NAMESPACE = "http://www.w3.org/2004/08/xop/include";
+    static final String CONTENT_ELEMENT = "B64Content";
+
+    @Override
+    public boolean handleRequest(MessageContext messageContext, Object endpoint) {
+        return true;
+    }
+
+    @Override
+    public boolean handleResponse(MessageContext messageContext, Object endpoint)
+            throws SOAPException {
+        if (!(messageContext.getRequest() instanceof SaajSoapMessage)
+                || !(messageContext.getResponse() instanceof SaajSoapMessage)
+                || !accepted((SaajSoapMessage) messageContext.getRequest())) {
+            return true;
+        }
+        SaajSoapMessage response = (SaajSoapMessage) messageContext.getResponse();
+        SOAPMessage saajMessage = response.getSaajMessage();
+
+        NodeList nodes = saajMessage.getSOAPBody().getElementsByTagNameNS("*", CONTENT_ELEMENT);
+        List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            elements.add((Element) nodes.item(i));
+        }
+        boolean converted = false;
+        for (Element element : elements) {
+            String content = element.getTextContent();
+            if (content == null || content.isEmpty()) {
+                continue;
+            }
+            String contentId = UUID.randomUUID() + "@jci";
+            AttachmentPart part =
+                    saajMessage.createAttachmentPart(new DataHandler(dataSource(content)));
+            part.setContentId("<" + contentId + ">");
+            // Otherwise the encoding is chosen by reading the content, which can only be read once
+            part.setMimeHeader("Content-Transfer-Encoding", "binary");
+            saajMessage.addAttachmentPart(part);
+
+            while (element.getFirstChild() != null) {
+                element.removeChild(element.getFirstChild());
+            }
+            Element include =
+                    element.getOwnerDocument().createElementNS(XOP_NAMESPACE, "xop:Include");
+            include.setAttribute("href", "cid:" + contentId);
+            element.appendChild(include);
+            converted = true;
+        }
+        if (converted) {
+            response.convertToXopPackage();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean handleFault(MessageContext messageContext, Object endpoint) {
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(MessageContext messageContext, Object endpoint, Exception ex) {}
+
+    private static boolean accepted(SaajSoapMessage request) {
+        if (request.isXopPackage()) {
+            return true;
+        }
+        String[] accept = request.getSaajMessage().getMimeHeaders().getHeader("Accept");
+        if (accept != null) {
+            for (String value : accept) {
+                if (value.contains("multipart/related") || value.contains("application/xop+xml")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static DataSource dataSource(String content) {
+        HttpServletRequest servletRequest = DocumentStreamingFilter.currentRequest();
+        ClientHttpResponse document =
+                servletRequest != null
+                        ? DocumentStreamingFilter.registered(servletRequest, content)
+                        : null;
+        if (document != null) {
+            MediaType contentType = document.getHeaders().getContentType();
+            return new ContentDataSource(
+                    contentType != null
+                            ? contentType.toString()
+                            : MediaType.APPLICATION_OCTET_STREAM_VALUE) {
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    return document.getBody();
+                }
+            };
+        }
+        byte[] decoded = Base64.getMimeDecoder().decode(content);
+        return new ContentDataSource(MediaType.APPLICATION_OCTET_STREAM_VALUE) {
+            @Override
+            public InputStream getInputStream() {
+                return new ByteArrayInputStream(decoded);
+            }
+        };
+    }
+
+    private abstract static class ContentDataSource implements DataSource {
+        private final String contentType;
+
+        ContentDataSource(String contentType) {
+            this.contentType = contentType;
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            throw new IOException("Read only");
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public String getName() {
+            return CONTENT_ELEMENT;
+        }
+    }
+}
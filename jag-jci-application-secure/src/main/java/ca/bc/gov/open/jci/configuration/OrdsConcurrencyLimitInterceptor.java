@@ -0,0 +1,340 @@
+package ca.bc.gov.open.jci.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Limits the ORDS calls in flight on each route to a limit learned from the route's latency, so
+ * that under overload the excess fails fast instead of every call slowing down together. Routes
+ * are named as in {@link OrdsMetricsInterceptor}, so slow criminal/file calls do not hold back
+ * the fast codevalues and courtlist reads.
+ *
+ * <p>The limit follows the gradient between the long term average latency and the latency of
+ * each call: while calls take no longer than rttTolerance times the average the limit grows, by
+ * about its square root per call, and as they slow down it shrinks by up to half. A failed call,
+ * an exception or a 5xx, cuts the limit by a tenth. Calls beyond the limit wait up to queueTimeout
+ * for a free place and then throw {@link LimitExceededException}, which the controllers report as
+ * the usual ORDSException fault. Calls to other hosts, such as Adobe, are not limited.
+ *
+ * <p>Background calls, see {@link OrdsCallPriority}, are only let in while the calls in flight
+ * are below backgroundShare of the limit, and a freed place goes to a waiting foreground call
+ * first.
+ */
+public class OrdsConcurrencyLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    // The long term latency average is taken over about this many calls
+    private static final int LONG_WINDOW = 100;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final MeterRegistry meterRegistry;
+    private final URI ordsHost;
+    private final Settings settings;
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    public OrdsConcurrencyLimitInterceptor(
+            ObjectProvider<MeterRegistry> meterRegistry, String host, Settings settings) {
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.ordsHost = URI.create(host);
+        this.settings = settings;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(
+            HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!ords(request.getURI())) {
+            return execution.execute(request, body);
+        }
+
+        Route route = route(request.getURI());
+        boolean background = OrdsCallPriority.background();
+        int inFlightAtStart = route.acquire(background);
+        long start = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException ex) {
+            route.onDropped();
+            route.release();
+            throw ex;
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            route.onDropped();
+        } else {
+            route.onSample(Math.max(System.nanoTime() - start, 1), inFlightAtStart);
+        }
+        return new ReleasingClientHttpResponse(response, route::release);
+    }
+
+    /**
+     * Takes a place for a call made outside the interceptor chain, such as a hedge, without
+     * waiting. Returns what releases the place, or null when the limit is reached.
+     */
+    public Runnable tryAcquire(URI uri) {
+        if (!ords(uri)) {
+            return () -> {};
+        }
+        Route route = route(uri);
+        return route.tryAcquire(OrdsCallPriority.background()) ? route::release : null;
+    }
+
+    /** The route's current limit, rounded down to the calls it lets in. */
+    public int limit(String route) {
+        Route r = routes.get(route);
+        return r == null ? settings.initialLimit : r.limit();
+    }
+
+    public int inFlight(String route) {
+        Route r = routes.get(route);
+        return r == null ? 0 : r.inFlight();
+    }
+
+    /** Thrown instead of calling ORDS when the limit is reached and no place frees up in time. */
+    public static class LimitExceededException extends IOException {
+        public LimitExceededException(String message) {
+            super(message);
+        }
+    }
+
+    /** Concurrency limit settings, shared by every route. */
+    public static class Settings {
+        private int initialLimit = 100;
+        private int minLimit = 5;
+        private int maxLimit = 200;
+        private Duration queueTimeout = Duration.ofSeconds(10);
+        private double rttTolerance = 1.5;
+        private double backgroundShare = 0.5;
+
+        /** The limit before any calls have been measured, e.g. the pool's per route size. */
+        public Settings initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /** The limit never drops below this, however slow ORDS gets. */
+        public Settings minLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        /** The limit never grows past this, e.g. the size of the ORDS connection pool. */
+        public Settings maxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /** How long a call beyond the limit waits for a place, zero to fail it at once. */
+        public Settings queueTimeout(Duration queueTimeout) {
+            this.queueTimeout = queueTimeout;
+            return this;
+        }
+
+        /** How much slower than average a call may be before the limit stops growing. */
+        public Settings rttTolerance(double rttTolerance) {
+            this.rttTolerance = rttTolerance;
+            return this;
+        }
+
+        /** The fraction of the limit that background calls may fill. */
+        public Settings backgroundShare(double backgroundShare) {
+            this.backgroundShare = backgroundShare;
+            return this;
+        }
+    }
+
+    private boolean ords(URI uri) {
+        return Objects.equals(uri.getHost(), ordsHost.getHost())
+                && uri.getPort() == ordsHost.getPort();
+    }
+
+    private Route route(URI uri) {
+        return routes.computeIfAbsent(OrdsMetricsInterceptor.route(ordsHost, uri), Route::new);
+    }
+
+    private class Route {
+        private final String name;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition foregroundFreed = lock.newCondition();
+        private final Condition backgroundFreed = lock.newCondition();
+        private double limit;
+        private int inFlight;
+        private int foregroundWaiting;
+        private double longRttNanos;
+
+        Route(String name) {
+            this.name = name;
+            this.limit = settings.initialLimit;
+            Gauge.builder("jci.ords.concurrency.limit", this, Route::limit)
+                    .description("Learned limit on ORDS calls in flight")
+                    .tag("route", name)
+                    .register(meterRegistry);
+            Gauge.builder("jci.ords.concurrency.in_flight", this, Route::inFlight)
+                    .description("ORDS calls in flight under the concurrency limit")
+                    .tag("route", name)
+                    .register(meterRegistry);
+        }
+
+        int limit() {
+            lock.lock();
+            try {
+                return (int) limit;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int inFlight() {
+            lock.lock();
+            try {
+                return inFlight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** Takes a place, waiting up to queueTimeout, and returns the calls now in flight. */
+        int acquire(boolean background) throws IOException {
+            lock.lock();
+            try {
+                long wait = settings.queueTimeout.toNanos();
+                boolean queued = false;
+                while (!free(background)) {
+                    if (wait <= 0) {
+                        throw reject(queued ? "queue_timeout" : "limit", background);
+                    }
+                    queued = true;
+                    if (background) {
+                        wait = backgroundFreed.awaitNanos(wait);
+                    } else {
+                        foregroundWaiting++;
+                        try {
+                            wait = foregroundFreed.awaitNanos(wait);
+                        } finally {
+                            foregroundWaiting--;
+                        }
+                    }
+                }
+                return ++inFlight;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for an ORDS place");
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean tryAcquire(boolean background) {
+            lock.lock();
+            try {
+                if (!free(background)) {
+                    return false;
+                }
+                inFlight++;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release() {
+            lock.lock();
+            try {
+                inFlight--;
+                signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void onSample(long rttNanos, int inFlightAtStart) {
+            lock.lock();
+            try {
+                if (longRttNanos == 0) {
+                    longRttNanos = rttNanos;
+                } else {
+                    longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+                }
+                if (longRttNanos / rttNanos > 2) {
+                    // Latency has dropped well below the average, let the average catch up
+                    longRttNanos *= 0.95;
+                }
+                double gradient =
+                        Math.max(
+                                0.5,
+                                Math.min(1.0, settings.rttTolerance * longRttNanos / rttNanos));
+                double target = limit * gradient + Math.sqrt(limit);
+                double newLimit = limit * (1 - SMOOTHING) + target * SMOOTHING;
+                if (newLimit > limit && inFlightAtStart * 2 < limit) {
+                    // Too few calls in flight to show that a higher limit would be used
+                    return;
+                }
+                setLimit(newLimit);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void onDropped() {
+            lock.lock();
+            try {
+                setLimit(limit * BACKOFF_RATIO);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean free(boolean background) {
+            if (background) {
+                // Background calls also give way to foreground calls already waiting
+                return foregroundWaiting == 0
+                        && inFlight < Math.max(1, (int) (limit * settings.backgroundShare));
+            }
+            return inFlight < (int) limit;
+        }
+
+        private void signal() {
+            if (foregroundWaiting > 0) {
+                foregroundFreed.signal();
+            } else {
+                backgroundFreed.signal();
+            }
+        }
+
+        private void setLimit(double newLimit) {
+            double previous = limit;
+            limit = Math.max(settings.minLimit, Math.min(settings.maxLimit, newLimit));
+            if ((int) limit > (int) previous) {
+                foregroundFreed.signalAll();
+                backgroundFreed.signalAll();
+            }
+        }
+
+        private LimitExceededException reject(String reason, boolean background) {
+            Counter.builder("jci.ords.concurrency.rejected")
+                    .description("ORDS calls failed fast by the concurrency limit")
+                    .tag("route", name)
+                    .tag("reason", background ? "background_" + reason : reason)
+                    .register(meterRegistry)
+                    .increment();
+            return new LimitExceededException(
+                    "ORDS concurrency limit of " + (int) limit + " reached for " + name);
+        }
+    }
+}
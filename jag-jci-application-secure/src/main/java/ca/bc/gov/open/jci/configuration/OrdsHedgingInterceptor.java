@@ -0,0 +1,405 @@
+package ca.bc.gov.open.jci.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Hedges GETs on idempotent ORDS routes. When the call has not answered within the route's recent
+ * latency percentile, a second identical call is sent and whichever answers first is used; the
+ * other response is closed when it arrives. Hedges are paid for from a budget that every hedged
+ * route call adds a fraction of a token to, so they stay within budgetPercent of ORDS traffic.
+ *
+ * <p>Both calls are made with the request factory given here, so this must be the last
+ * interceptor: those after it would only see the calls it does not hedge. Interceptors ahead of
+ * it see one call, with the latency of the winner, so a hedge first takes its own place in the
+ * route's bulkhead and under the concurrency limit, and is not sent when either is full. Calls
+ * run on at most maxThreads threads, the size of the ORDS connection pool; beyond that they are
+ * made on the calling thread without a hedge.
+ */
+public class OrdsHedgingInterceptor implements ClientHttpRequestInterceptor, AutoCloseable {
+
+    private static final Runnable NO_PLACE = () -> {};
+
+    private final ClientHttpRequestFactory requestFactory;
+    private final OrdsResilienceInterceptor resilienceInterceptor;
+    private final OrdsConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+    private final MeterRegistry meterRegistry;
+    private final URI ordsHost;
+    private final Settings settings;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private double budget;
+
+    public OrdsHedgingInterceptor(
+            ClientHttpRequestFactory requestFactory,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            String host,
+            Settings settings) {
+        this(requestFactory, null, null, meterRegistry, host, settings);
+    }
+
+    /** Hedges take a place from the interceptors given here, either of which may be null. */
+    public OrdsHedgingInterceptor(
+            ClientHttpRequestFactory requestFactory,
+            OrdsResilienceInterceptor resilienceInterceptor,
+            OrdsConcurrencyLimitInterceptor concurrencyLimitInterceptor,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            String host,
+            Settings settings) {
+        this.requestFactory = requestFactory;
+        this.resilienceInterceptor = resilienceInterceptor;
+        this.concurrencyLimitInterceptor = concurrencyLimitInterceptor;
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.ordsHost = URI.create(host);
+        this.settings = settings;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor =
+                new ThreadPoolExecutor(
+                        0,
+                        settings.maxThreads,
+                        60,
+                        TimeUnit.SECONDS,
+                        new SynchronousQueue<>(),
+                        runnable -> {
+                            Thread thread =
+                                    new Thread(runnable, "ords-hedge-" + threads.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+    }
+
+    @Override
+    public ClientHttpResponse intercept(
+            HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String route = OrdsMetricsInterceptor.route(ordsHost, request.getURI());
+        if (!HttpMethod.GET.equals(request.getMethod()) || !settings.hedged(route)) {
+            return execution.execute(request, body);
+        }
+
+        addToBudget();
+        LatencyWindow window =
+                latencies.computeIfAbsent(route, r -> new LatencyWindow(settings));
+        long delay = window.delayNanos();
+        long start = System.nanoTime();
+        if (delay < 0) {
+            // Not enough calls seen yet to know what a straggler is
+            ClientHttpResponse response = call(request, body);
+            window.record(System.nanoTime() - start);
+            return response;
+        }
+
+        CompletableFuture<ClientHttpResponse> primary;
+        try {
+            primary = attempt(request, body, NO_PLACE);
+        } catch (RejectedExecutionException ex) {
+            counter("jci.ords.hedging.requests", route, "outcome", "no_thread").increment();
+            ClientHttpResponse response = call(request, body);
+            window.record(System.nanoTime() - start);
+            return response;
+        }
+        primary.thenRun(() -> window.record(System.nanoTime() - start));
+        try {
+            ClientHttpResponse response = primary.get(delay, TimeUnit.NANOSECONDS);
+            counter("jci.ords.hedging.requests", route, "outcome", "primary").increment();
+            return response;
+        } catch (TimeoutException ex) {
+            // A straggler, hedge it below if the budget allows
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            primary.thenAccept(ClientHttpResponse::close);
+            throw new InterruptedIOException("Interrupted waiting for ORDS");
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        }
+
+        Runnable release = takePlace(request.getURI());
+        if (release == null) {
+            counter("jci.ords.hedging.requests", route, "outcome", "no_place").increment();
+            return await(primary);
+        }
+        if (!takeFromBudget()) {
+            release.run();
+            counter("jci.ords.hedging.requests", route, "outcome", "budget_exhausted")
+                    .increment();
+            return await(primary);
+        }
+        CompletableFuture<ClientHttpResponse> hedge;
+        try {
+            hedge = attempt(request, body, release);
+        } catch (RejectedExecutionException ex) {
+            release.run();
+            counter("jci.ords.hedging.requests", route, "outcome", "no_thread").increment();
+            return await(primary);
+        }
+        counter("jci.ords.hedging.requests", route, "outcome", "hedged").increment();
+
+        CompletableFuture<String> winner = new CompletableFuture<>();
+        CompletableFuture<ClientHttpResponse> first = new CompletableFuture<>();
+        AtomicInteger failed = new AtomicInteger();
+        settle(primary, "primary", first, winner, failed);
+        settle(hedge, "hedge", first, winner, failed);
+        ClientHttpResponse response = await(first);
+        counter("jci.ords.hedging.wins", route, "winner", winner.join()).increment();
+        return response;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /** Hedging settings, shared by every hedged route. */
+    public static class Settings {
+        private List<String> routes = new ArrayList<>();
+        private double percentile = 95;
+        private Duration minDelay = Duration.ofMillis(50);
+        private double budgetPercent = 5;
+        private int minSamples = 20;
+        private int windowSize = 256;
+        private int maxThreads = 200;
+
+        /**
+         * The routes to hedge, comma separated, e.g. criminal/file,common/courtlist. A route also
+         * covers its /secure variant.
+         */
+        public Settings routes(String routes) {
+            this.routes = new ArrayList<>();
+            for (String route : routes.split(",")) {
+                if (!route.isBlank()) {
+                    this.routes.add(route.trim());
+                }
+            }
+            return this;
+        }
+
+        /** The percentile of the route's recent latencies to hedge after. */
+        public Settings percentile(double percentile) {
+            this.percentile = percentile;
+            return this;
+        }
+
+        /** The shortest wait before hedging, however fast the route has been. */
+        public Settings minDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        /** Hedges allowed as a percentage of hedged route calls. */
+        public Settings budgetPercent(double budgetPercent) {
+            this.budgetPercent = budgetPercent;
+            return this;
+        }
+
+        /** Calls on a route before it is hedged, so the percentile means something. */
+        public Settings minSamples(int minSamples) {
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        /** The threads calls are made on, e.g. the size of the ORDS connection pool. */
+        public Settings maxThreads(int maxThreads) {
+            this.maxThreads = Math.max(1, maxThreads);
+            return this;
+        }
+
+        boolean hedged(String route) {
+            for (String hedged : routes) {
+                if (route.equals(hedged) || route.equals(hedged + "/secure")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private ClientHttpResponse call(HttpRequest request, byte[] body) throws IOException {
+        ClientHttpRequest call =
+                requestFactory.createRequest(request.getURI(), request.getMethod());
+        call.getHeaders().putAll(request.getHeaders());
+        if (body.length > 0) {
+            StreamUtils.copy(body, call.getBody());
+        }
+        return call.execute();
+    }
+
+    /** Makes the call on the executor, releasing the place it holds once the response closes. */
+    private CompletableFuture<ClientHttpResponse> attempt(
+            HttpRequest request, byte[] body, Runnable release) {
+        return CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        return new ReleasingClientHttpResponse(call(request, body), release);
+                    } catch (IOException ex) {
+                        release.run();
+                        throw new UncheckedIOException(ex);
+                    } catch (RuntimeException ex) {
+                        release.run();
+                        throw ex;
+                    }
+                },
+                executor);
+    }
+
+    /**
+     * Takes a place for a hedge in the route's bulkhead and under the concurrency limit, and
+     * returns what releases both, or null when either is full.
+     */
+    private Runnable takePlace(URI uri) {
+        Runnable bulkhead =
+                resilienceInterceptor == null ? NO_PLACE : resilienceInterceptor.tryAcquire(uri);
+        if (bulkhead == null) {
+            return null;
+        }
+        Runnable limit =
+                concurrencyLimitInterceptor == null
+                        ? NO_PLACE
+                        : concurrencyLimitInterceptor.tryAcquire(uri);
+        if (limit == null) {
+            bulkhead.run();
+            return null;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                limit.run();
+                bulkhead.run();
+            }
+        };
+    }
+
+    /** Completes first with the first response, or with an error once both calls have failed. */
+    private static void settle(
+            CompletableFuture<ClientHttpResponse> attempt,
+            String name,
+            CompletableFuture<ClientHttpResponse> first,
+            CompletableFuture<String> winner,
+            AtomicInteger failed) {
+        attempt.whenComplete(
+                (response, ex) -> {
+                    if (ex != null) {
+                        if (failed.incrementAndGet() == 2) {
+                            first.completeExceptionally(ex);
+                        }
+                    } else if (winner.complete(name)) {
+                        first.complete(response);
+                    } else {
+                        response.close();
+                    }
+                });
+    }
+
+    private static ClientHttpResponse await(CompletableFuture<ClientHttpResponse> call)
+            throws IOException {
+        try {
+            return call.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            call.thenAccept(ClientHttpResponse::close);
+            throw new InterruptedIOException("Interrupted waiting for ORDS");
+        } catch (ExecutionException ex) {
+            throw unwrap(ex);
+        }
+    }
+
+    private static IOException unwrap(ExecutionException ex) {
+        Throwable cause = ex.getCause();
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof UncheckedIOException) {
+            return ((UncheckedIOException) cause).getCause();
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        return new IOException(cause.getMessage(), cause);
+    }
+
+    private synchronized void addToBudget() {
+        // Capped so that a quiet spell cannot save up a burst of hedges
+        budget = Math.min(budget + settings.budgetPercent / 100, 10);
+    }
+
+    private synchronized boolean takeFromBudget() {
+        if (budget < 1) {
+            return false;
+        }
+        budget--;
+        return true;
+    }
+
+    private Counter counter(String name, String route, String tag, String value) {
+        return Counter.builder(name)
+                .description(
+                        name.endsWith("wins")
+                                ? "Hedged ORDS calls by the call that answered first"
+                                : "Hedge-eligible ORDS calls by whether a hedge was sent")
+                .tag("route", route)
+                .tag(tag, value)
+                .register(meterRegistry);
+    }
+
+    /** Recent latencies of one route, and the hedge delay taken from them. */
+    private static class LatencyWindow {
+        private final Settings settings;
+        private final long[] samples;
+        private int next;
+        private int count;
+        private long delayNanos = -1;
+
+        LatencyWindow(Settings settings) {
+            this.settings = settings;
+            this.samples = new long[settings.windowSize];
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            // Sorting on every call would cost more than the hedge saves
+            if (count >= settings.minSamples && (delayNanos < 0 || next % 16 == 0)) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                int rank = (int) Math.ceil(settings.percentile / 100 * count);
+                delayNanos =
+                        Math.max(
+                                sorted[Math.max(rank, 1) - 1], settings.minDelay.toNanos());
+            }
+        }
+
+        synchronized long delayNanos() {
+            return delayNanos;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package ca.bc.gov.open.jci.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Gives each ORDS route, and the Adobe report server, its own bulkhead and circuit breaker, so
+ * that one slow or failing route cannot tie up every request thread. Routes are named as in
+ * {@link OrdsMetricsInterceptor}.
+ *
+ * <p>The bulkhead limits the calls in flight on a route; a response holds its place until it is
+ * closed, so streamed documents count for as long as they are being read. A call to a full
+ * bulkhead waits up to maxWait for a place, unless the route is degraded, half way or more to
+ * opening its circuit, when it fails at once. Background calls, see {@link OrdsCallPriority}, may
+ * only take backgroundShare of a route's places, leaving the rest to foreground calls.
+ *
+ * <p>The circuit breaker keeps the outcome of the last calls on the route. Once enough of them
+ * failed (an exception or a 5xx) or were slow to respond, the circuit opens and calls fail at once
+ * for a while. After that a few probe calls are let through: if they all succeed the circuit
+ * closes, otherwise it opens again. Rejected calls throw {@link CallRejectedException}, which the
+ * controllers report as the usual ORDSException fault.
+ */
+public class OrdsResilienceInterceptor implements ClientHttpRequestInterceptor {
+
+    /** Circuit states, as reported by the jci.ords.circuit.state gauge. */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final URI ordsHost;
+    private final Settings settings;
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    public OrdsResilienceInterceptor(
+            ObjectProvider<MeterRegistry> meterRegistry, String host, Settings settings) {
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.ordsHost = URI.create(host);
+        this.settings = settings;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(
+            HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Route route =
+                routes.computeIfAbsent(
+                        OrdsMetricsInterceptor.route(ordsHost, request.getURI()), Route::new);
+        boolean background = OrdsCallPriority.background();
+        route.acquire(background);
+        Runnable release = () -> route.release(background);
+        if (!route.acquirePermission()) {
+            release.run();
+            throw route.reject("circuit_open", "Circuit open for ");
+        }
+
+        long start = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException ex) {
+            route.onResult(true, System.nanoTime() - start);
+            release.run();
+            throw ex;
+        }
+        route.onResult(response.getStatusCode().is5xxServerError(), System.nanoTime() - start);
+        return new ReleasingClientHttpResponse(response, release);
+    }
+
+    /**
+     * Takes a place on the route for a call made outside the interceptor chain, such as a hedge,
+     * without waiting. Returns what releases the place, or null when the bulkhead is full or the
+     * circuit is not closed.
+     */
+    public Runnable tryAcquire(URI uri) {
+        Route route =
+                routes.computeIfAbsent(OrdsMetricsInterceptor.route(ordsHost, uri), Route::new);
+        boolean background = OrdsCallPriority.background();
+        if (route.state() != State.CLOSED || !route.tryAcquire(background)) {
+            return null;
+        }
+        return () -> route.release(background);
+    }
+
+    /** The state of a route's circuit, CLOSED for routes not called yet. */
+    public State state(String route) {
+        Route r = routes.get(route);
+        return r == null ? State.CLOSED : r.state();
+    }
+
+    /** Thrown instead of calling a route whose circuit is open or whose bulkhead is full. */
+    public static class CallRejectedException extends IOException {
+        public CallRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    /** Bulkhead and circuit breaker settings, shared by every route. */
+    public static class Settings {
+        private int maxConcurrentCalls = 100;
+        private final Map<String, Integer> routeMaxConcurrentCalls = new HashMap<>();
+        private Duration maxWait = Duration.ofSeconds(10);
+        private double backgroundShare = 0.5;
+        private int slidingWindowSize = 20;
+        private int minimumCalls = 10;
+        private int failureRateThreshold = 50;
+        private int slowCallRateThreshold = 80;
+        private Duration slowCallDuration = Duration.ofSeconds(10);
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 3;
+
+        /** The calls allowed in flight on each route, e.g. the connection pool's per route size. */
+        public Settings maxConcurrentCalls(int maxConcurrentCalls) {
+            this.maxConcurrentCalls = maxConcurrentCalls;
+            return this;
+        }
+
+        /** How long a call to a full bulkhead on a healthy route waits for a place. */
+        public Settings maxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        /** The fraction of each route's places that background calls may take. */
+        public Settings backgroundShare(double backgroundShare) {
+            this.backgroundShare = backgroundShare;
+            return this;
+        }
+
+        /**
+         * Per route limits overriding maxConcurrentCalls, written route=limit and comma separated,
+         * e.g. criminal/ropreport=10,adobe.example.ca=10.
+         */
+        public Settings routeMaxConcurrentCalls(String overrides) {
+            if (overrides == null) {
+                return this;
+            }
+            for (String override : overrides.split(",")) {
+                int eq = override.lastIndexOf('=');
+                if (eq > 0) {
+                    routeMaxConcurrentCalls.put(
+                            override.substring(0, eq).trim(),
+                            Integer.parseInt(override.substring(eq + 1).trim()));
+                }
+            }
+            return this;
+        }
+
+        /** The number of recent calls the failure and slow call rates are taken over. */
+        public Settings slidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+            return this;
+        }
+
+        /** The calls needed in the window before the circuit may open. */
+        public Settings minimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /** The percentage of failed calls that opens the circuit. */
+        public Settings failureRateThreshold(int failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /** The percentage of slow calls that opens the circuit. */
+        public Settings slowCallRateThreshold(int slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            return this;
+        }
+
+        /** How long a call may take to respond before it counts as slow. */
+        public Settings slowCallDuration(Duration slowCallDuration) {
+            this.slowCallDuration = slowCallDuration;
+            return this;
+        }
+
+        /** How long an open circuit fails calls before letting probes through. */
+        public Settings openDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        /** The probe calls let through a half open circuit. */
+        public Settings halfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+            return this;
+        }
+    }
+
+    private class Route {
+        private final String name;
+        private final int limit;
+        private final Semaphore bulkhead;
+        private final Semaphore backgroundBulkhead;
+        // Outcomes of the last calls, bit 0 failed and bit 1 slow
+        private final byte[] window = new byte[settings.slidingWindowSize];
+        private int next;
+        private int calls;
+        private int failures;
+        private int slowCalls;
+        private State state = State.CLOSED;
+        private long openedAt;
+        private int probesLeft;
+        private int probesSucceeded;
+
+        Route(String name) {
+            this.name = name;
+            this.limit =
+                    settings.routeMaxConcurrentCalls.getOrDefault(
+                            name, settings.maxConcurrentCalls);
+            this.bulkhead = new Semaphore(limit);
+            this.backgroundBulkhead =
+                    new Semaphore(Math.max(1, (int) (limit * settings.backgroundShare)));
+            Gauge.builder("jci.ords.circuit.state", this, r -> r.state().ordinal())
+                    .description("ORDS circuit state, 0 closed, 1 open, 2 half open")
+                    .tag("route", name)
+                    .register(meterRegistry);
+            Gauge.builder(
+                            "jci.ords.bulkhead.active",
+                            this,
+                            r -> r.limit - r.bulkhead.availablePermits())
+                    .description("ORDS calls in flight on the route")
+                    .tag("route", name)
+                    .register(meterRegistry);
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        /**
+         * Takes a place in the bulkhead, and for background calls one of the background places
+         * first, waiting up to maxWait while the route is healthy.
+         */
+        void acquire(boolean background) throws IOException {
+            boolean wait = !settings.maxWait.isZero() && !degraded();
+            long deadline = System.nanoTime() + (wait ? settings.maxWait.toNanos() : 0);
+            String reason = wait ? "bulkhead_timeout" : "bulkhead_full";
+            if (background && !acquire(backgroundBulkhead, deadline)) {
+                throw reject(reason, "Too many concurrent background calls to ");
+            }
+            if (!acquire(bulkhead, deadline)) {
+                if (background) {
+                    backgroundBulkhead.release();
+                }
+                throw reject(reason, "Too many concurrent calls to ");
+            }
+        }
+
+        boolean tryAcquire(boolean background) {
+            if (background && !backgroundBulkhead.tryAcquire()) {
+                return false;
+            }
+            if (!bulkhead.tryAcquire()) {
+                if (background) {
+                    backgroundBulkhead.release();
+                }
+                return false;
+            }
+            return true;
+        }
+
+        void release(boolean background) {
+            bulkhead.release();
+            if (background) {
+                backgroundBulkhead.release();
+            }
+        }
+
+        private boolean acquire(Semaphore permits, long deadline) throws IOException {
+            try {
+                return permits.tryAcquire(
+                        Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for a place on " + name);
+            }
+        }
+
+        /** Whether the circuit is not closed, or the window is half way or more to opening it. */
+        synchronized boolean degraded() {
+            return state != State.CLOSED
+                    || (calls >= settings.minimumCalls
+                            && (failures * 200 >= settings.failureRateThreshold * calls
+                                    || slowCalls * 200 >= settings.slowCallRateThreshold * calls));
+        }
+
+        synchronized boolean acquirePermission() {
+            if (state == State.OPEN
+                    && System.nanoTime() - openedAt >= settings.openDuration.toNanos()) {
+                transition(State.HALF_OPEN);
+                probesLeft = settings.halfOpenCalls;
+                probesSucceeded = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesLeft == 0) {
+                    return false;
+                }
+                probesLeft--;
+                return true;
+            }
+            return state == State.CLOSED;
+        }
+
+        synchronized void onResult(boolean failed, long nanos) {
+            boolean slow = nanos >= settings.slowCallDuration.toNanos();
+            if (state == State.HALF_OPEN) {
+                if (failed || slow) {
+                    open();
+                } else if (++probesSucceeded >= settings.halfOpenCalls) {
+                    transition(State.CLOSED);
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                // A call started before the circuit opened
+                return;
+            }
+
+            if (calls == window.length) {
+                byte oldest = window[next];
+                failures -= oldest & 1;
+                slowCalls -= (oldest >> 1) & 1;
+            } else {
+                calls++;
+            }
+            window[next] = (byte) ((failed ? 1 : 0) | (slow ? 2 : 0));
+            next = (next + 1) % window.length;
+            failures += failed ? 1 : 0;
+            slowCalls += slow ? 1 : 0;
+
+            if (calls >= settings.minimumCalls
+                    && (failures * 100 >= settings.failureRateThreshold * calls
+                            || slowCalls * 100 >= settings.slowCallRateThreshold * calls)) {
+                open();
+            }
+        }
+
+        private void open() {
+            transition(State.OPEN);
+            openedAt = System.nanoTime();
+        }
+
+        private void transition(State to) {
+            if (to == State.CLOSED) {
+                next = 0;
+                calls = 0;
+                failures = 0;
+                slowCalls = 0;
+            }
+            state = to;
+            Counter.builder("jci.ords.circuit.transitions")
+                    .description("ORDS circuit state changes")
+                    .tag("route", name)
+                    .tag("state", to.name().toLowerCase())
+                    .register(meterRegistry)
+                    .increment();
+        }
+
+        CallRejectedException reject(String reason, String message) {
+            Counter.builder("jci.ords.rejected")
+                    .description("ORDS calls failed fast by a bulkhead or open circuit")
+                    .tag("route", name)
+                    .tag("reason", reason)
+                    .register(meterRegistry)
+                    .increment();
+            return new CallRejectedException(message + name);
+        }
+    }
+}
@@ -2,16 +2,34 @@ package ca.bc.gov.open.jci.configuration;
 
 import ca.bc.gov.open.jci.models.serializers.InstantDeserializer;
 import ca.bc.gov.open.jci.models.serializers.InstantSerializer;
+import ca.bc.gov.open.jci.services.OrdsGateway;
+import ca.bc.gov.open.jci.services.RestTemplateOrdsGateway;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import jakarta.xml.soap.SOAPMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.boot.web.servlet.ServletRegistrationBean;
 import org.springframework.context.ApplicationContext;
@@ -19,19 +37,30 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.support.BasicAuthenticationInterceptor;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.ws.config.annotation.EnableWs;
 import org.springframework.ws.config.annotation.WsConfigurerAdapter;
+import org.springframework.ws.server.EndpointInterceptor;
 import org.springframework.ws.soap.SoapVersion;
 import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
 import org.springframework.ws.transport.http.MessageDispatcherServlet;
 import org.springframework.ws.wsdl.wsdl11.SimpleWsdl11Definition;
 import org.springframework.ws.wsdl.wsdl11.Wsdl11Definition;
 
+@Slf4j
 @EnableWs
 @Configuration
 public class SoapConfig extends WsConfigurerAdapter {
+    @Value("${jci.host}")
+    private String host;
+
     @Value("${jci.username}")
     private String username;
 
@@ -41,9 +70,108 @@ public class SoapConfig extends WsConfigurerAdapter {
     @Value("${jci.ords-read-timeout}")
     private String ordsReadTimeout;
 
+    @Value("${jci.ords-connect-timeout}")
+    private String ordsConnectTimeout;
+
+    @Value("${jci.ords-pool.max-total}")
+    private String ordsPoolMaxTotal;
+
+    @Value("${jci.ords-pool.max-per-route}")
+    private String ordsPoolMaxPerRoute;
+
+    @Value("${jci.ords-pool.keep-alive}")
+    private String ordsPoolKeepAlive;
+
+    @Value("${jci.ords-pool.idle-timeout}")
+    private String ordsPoolIdleTimeout;
+
+    @Value("${jci.ords-pool.time-to-live}")
+    private String ordsPoolTimeToLive;
+
+    @Value("${jci.ords-resilience.max-concurrent-calls}")
+    private String ordsMaxConcurrentCalls;
+
+    @Value("${jci.ords-resilience.route-max-concurrent-calls}")
+    private String ordsRouteMaxConcurrentCalls;
+
+    @Value("${jci.ords-resilience.bulkhead-max-wait}")
+    private String ordsBulkheadMaxWait;
+
+    @Value("${jci.ords-resilience.background-share}")
+    private String ordsBulkheadBackgroundShare;
+
+    @Value("${jci.ords-resilience.sliding-window-size}")
+    private String ordsSlidingWindowSize;
+
+    @Value("${jci.ords-resilience.minimum-calls}")
+    private String ordsMinimumCalls;
+
+    @Value("${jci.ords-resilience.failure-rate-threshold}")
+    private String ordsFailureRateThreshold;
+
+    @Value("${jci.ords-resilience.slow-call-rate-threshold}")
+    private String ordsSlowCallRateThreshold;
+
+    @Value("${jci.ords-resilience.slow-call-duration}")
+    private String ordsSlowCallDuration;
+
+    @Value("${jci.ords-resilience.open-duration}")
+    private String ordsOpenDuration;
+
+    @Value("${jci.ords-resilience.half-open-calls}")
+    private String ordsHalfOpenCalls;
+
+    @Value("${jci.ords-concurrency-limit.initial-limit}")
+    private String ordsConcurrencyInitialLimit;
+
+    @Value("${jci.ords-concurrency-limit.min-limit}")
+    private String ordsConcurrencyMinLimit;
+
+    @Value("${jci.ords-concurrency-limit.max-limit}")
+    private String ordsConcurrencyMaxLimit;
+
+    @Value("${jci.ords-concurrency-limit.queue-timeout}")
+    private String ordsConcurrencyQueueTimeout;
+
+    @Value("${jci.ords-concurrency-limit.rtt-tolerance}")
+    private String ordsConcurrencyRttTolerance;
+
+    @Value("${jci.ords-concurrency-limit.background-share}")
+    private String ordsConcurrencyBackgroundShare;
+
+    @Value("${jci.ords-hedging.routes}")
+    private String ordsHedgingRoutes;
+
+    @Value("${jci.ords-hedging.percentile}")
+    private String ordsHedgingPercentile;
+
+    @Value("${jci.ords-hedging.min-delay}")
+    private String ordsHedgingMinDelay;
+
+    @Value("${jci.ords-hedging.budget-percent}")
+    private String ordsHedgingBudgetPercent;
+
+    @Value("${jci.mtom.enabled}")
+    private String mtomEnabled;
+
+    @Value("${spring.threads.virtual.enabled}")
+    private String virtualThreadsEnabled;
+
+    /**
+     * SOAP requests, and the ORDS calls they make, run on the Tomcat request thread. With
+     * VIRTUAL_THREADS_ENABLED=true on a Java 21+ runtime that is a virtual thread, so a slow ORDS
+     * or Adobe call no longer holds one of the TOMCAT_MAX_THREADS workers. The ORDS connection
+     * pool then becomes the limit on concurrent ORDS calls.
+     */
     @Bean
     public ServletRegistrationBean<MessageDispatcherServlet> messageDispatcherServlet(
             ApplicationContext applicationContext) {
+        if (Boolean.parseBoolean(virtualThreadsEnabled) && Runtime.version().feature() < 21) {
+            log.warn(
+                    "Virtual threads need Java 21 or later, SOAP requests run on platform threads"
+                            + " on Java "
+                            + Runtime.version().feature());
+        }
         MessageDispatcherServlet servlet = new MessageDispatcherServlet();
         servlet.setApplicationContext(applicationContext);
         servlet.setTransformWsdlLocations(true);
@@ -51,16 +179,239 @@ public class SoapConfig extends WsConfigurerAdapter {
     }
 
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder) {
+    public RestTemplate restTemplate(
+            RestTemplateBuilder restTemplateBuilder,
+            ObjectProvider<CloseableHttpClient> ordsHttpClient,
+            ObjectProvider<OrdsCoalescingInterceptor> ordsCoalescingInterceptor,
+            ObjectProvider<OrdsResilienceInterceptor> ordsResilienceInterceptor,
+            ObjectProvider<OrdsConcurrencyLimitInterceptor> ordsConcurrencyLimitInterceptor,
+            ObjectProvider<OrdsHedgingInterceptor> ordsHedgingInterceptor,
+            OrdsMetricsInterceptor ordsMetricsInterceptor) {
+        var httpClient = ordsHttpClient.getIfAvailable();
+        if (httpClient != null) {
+            // Timeouts are owned by the pooled client, see ordsHttpClient
+            restTemplateBuilder =
+                    restTemplateBuilder.requestFactory(
+                            () -> new HttpComponentsClientHttpRequestFactory(httpClient));
+        } else {
+            restTemplateBuilder =
+                    restTemplateBuilder
+                            .setConnectTimeout(
+                                    Duration.ofSeconds(Integer.parseInt(ordsConnectTimeout)))
+                            .setReadTimeout(Duration.ofSeconds(Integer.parseInt(ordsReadTimeout)));
+        }
+        // Coalescing runs first so that shared calls are only timed once
+        var coalescingInterceptor = ordsCoalescingInterceptor.getIfAvailable();
+        if (coalescingInterceptor != null) {
+            restTemplateBuilder = restTemplateBuilder.additionalInterceptors(coalescingInterceptor);
+        }
+        // Rejected calls never reach ORDS, so they are not timed either
+        var resilienceInterceptor = ordsResilienceInterceptor.getIfAvailable();
+        if (resilienceInterceptor != null) {
+            restTemplateBuilder = restTemplateBuilder.additionalInterceptors(resilienceInterceptor);
+        }
+        var concurrencyLimitInterceptor = ordsConcurrencyLimitInterceptor.getIfAvailable();
+        if (concurrencyLimitInterceptor != null) {
+            restTemplateBuilder =
+                    restTemplateBuilder.additionalInterceptors(concurrencyLimitInterceptor);
+        }
         var restTemplate =
                 restTemplateBuilder
                         .basicAuthentication(username, password)
-                        .setReadTimeout(Duration.ofSeconds(Integer.parseInt(ordsReadTimeout)))
+                        .additionalInterceptors(ordsMetricsInterceptor)
                         .build();
+        // Hedging makes its own calls, so it has to be the last interceptor
+        ordsHedgingInterceptor.ifAvailable(restTemplate.getInterceptors()::add);
         restTemplate.getMessageConverters().add(0, createMappingJacksonHttpMessageConverter());
         return restTemplate;
     }
 
+    /**
+     * Pooled keep-alive client shared by every ORDS and Adobe call. Disable with
+     * ORDS_POOL_ENABLED=false to fall back to the JDK request factory.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "jci.ords-pool.enabled", havingValue = "true")
+    public CloseableHttpClient ordsHttpClient(ObjectProvider<MeterRegistry> meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager =
+                PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(Integer.parseInt(ordsPoolMaxTotal))
+                        .setMaxConnPerRoute(Integer.parseInt(ordsPoolMaxPerRoute))
+                        .setDefaultConnectionConfig(
+                                ConnectionConfig.custom()
+                                        .setConnectTimeout(
+                                                Timeout.ofSeconds(
+                                                        Integer.parseInt(ordsConnectTimeout)))
+                                        .setSocketTimeout(
+                                                Timeout.ofSeconds(
+                                                        Integer.parseInt(ordsReadTimeout)))
+                                        .setTimeToLive(
+                                                TimeValue.ofSeconds(
+                                                        Integer.parseInt(ordsPoolTimeToLive)))
+                                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                                        .build())
+                        .build();
+
+        meterRegistry.ifAvailable(
+                registry ->
+                        new PoolingHttpClientConnectionManagerMetricsBinder(
+                                        connectionManager, "ords")
+                                .bindTo(registry));
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(
+                        RequestConfig.custom()
+                                .setConnectionRequestTimeout(
+                                        Timeout.ofSeconds(Integer.parseInt(ordsConnectTimeout)))
+                                .setResponseTimeout(
+                                        Timeout.ofSeconds(Integer.parseInt(ordsReadTimeout)))
+                                .setConnectionKeepAlive(
+                                        TimeValue.ofSeconds(Integer.parseInt(ordsPoolKeepAlive)))
+                                .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(Integer.parseInt(ordsPoolIdleTimeout)))
+                .build();
+    }
+
+    /**
+     * Request factory for ORDS and Adobe responses that are streamed to the caller rather than
+     * read into memory. It applies the same credentials and metrics as {@link #restTemplate} but
+     * none of the interceptors that buffer the body.
+     */
+    @Bean
+    public ClientHttpRequestFactory ordsStreamingRequestFactory(
+            ObjectProvider<CloseableHttpClient> ordsHttpClient,
+            ObjectProvider<OrdsResilienceInterceptor> ordsResilienceInterceptor,
+            ObjectProvider<OrdsConcurrencyLimitInterceptor> ordsConcurrencyLimitInterceptor,
+            OrdsMetricsInterceptor ordsMetricsInterceptor) {
+        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>();
+        interceptors.add(new BasicAuthenticationInterceptor(username, password));
+        ordsResilienceInterceptor.ifAvailable(interceptors::add);
+        ordsConcurrencyLimitInterceptor.ifAvailable(interceptors::add);
+        interceptors.add(ordsMetricsInterceptor);
+        return new InterceptingClientHttpRequestFactory(
+                ordsRequestFactory(ordsHttpClient.getIfAvailable()), interceptors);
+    }
+
+    /** The ORDS gateway, see {@link OrdsGateway}. */
+    @Bean
+    public RestTemplateOrdsGateway restTemplateOrdsGateway(
+            RestTemplate restTemplate,
+            @Qualifier("ordsStreamingRequestFactory")
+                    ClientHttpRequestFactory ordsStreamingRequestFactory) {
+        return new RestTemplateOrdsGateway(restTemplate, ordsStreamingRequestFactory);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "jci.ords-coalescing.enabled", havingValue = "true")
+    public OrdsCoalescingInterceptor ordsCoalescingInterceptor(
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new OrdsCoalescingInterceptor(meterRegistry, host);
+    }
+
+    /**
+     * Per route bulkheads and circuit breakers for ORDS and Adobe calls, see {@link
+     * OrdsResilienceInterceptor}. Disable with ORDS_RESILIENCE_ENABLED=false.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "jci.ords-resilience.enabled", havingValue = "true")
+    public OrdsResilienceInterceptor ordsResilienceInterceptor(
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new OrdsResilienceInterceptor(
+                meterRegistry,
+                host,
+                new OrdsResilienceInterceptor.Settings()
+                        .maxConcurrentCalls(Integer.parseInt(ordsMaxConcurrentCalls))
+                        .routeMaxConcurrentCalls(ordsRouteMaxConcurrentCalls)
+                        .maxWait(Duration.ofMillis(Integer.parseInt(ordsBulkheadMaxWait)))
+                        .backgroundShare(Double.parseDouble(ordsBulkheadBackgroundShare))
+                        .slidingWindowSize(Integer.parseInt(ordsSlidingWindowSize))
+                        .minimumCalls(Integer.parseInt(ordsMinimumCalls))
+                        .failureRateThreshold(Integer.parseInt(ordsFailureRateThreshold))
+                        .slowCallRateThreshold(Integer.parseInt(ordsSlowCallRateThreshold))
+                        .slowCallDuration(
+                                Duration.ofSeconds(Integer.parseInt(ordsSlowCallDuration)))
+                        .openDuration(Duration.ofSeconds(Integer.parseInt(ordsOpenDuration)))
+                        .halfOpenCalls(Integer.parseInt(ordsHalfOpenCalls)));
+    }
+
+    /**
+     * Adaptive per route limit on the ORDS calls in flight, see {@link
+     * OrdsConcurrencyLimitInterceptor}. Enable with ORDS_CONCURRENCY_LIMIT_ENABLED=true.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "jci.ords-concurrency-limit.enabled", havingValue = "true")
+    public OrdsConcurrencyLimitInterceptor ordsConcurrencyLimitInterceptor(
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new OrdsConcurrencyLimitInterceptor(
+                meterRegistry,
+                host,
+                new OrdsConcurrencyLimitInterceptor.Settings()
+                        .initialLimit(Integer.parseInt(ordsConcurrencyInitialLimit))
+                        .minLimit(Integer.parseInt(ordsConcurrencyMinLimit))
+                        .maxLimit(Integer.parseInt(ordsConcurrencyMaxLimit))
+                        .queueTimeout(
+                                Duration.ofMillis(Integer.parseInt(ordsConcurrencyQueueTimeout)))
+                        .rttTolerance(Double.parseDouble(ordsConcurrencyRttTolerance))
+                        .backgroundShare(Double.parseDouble(ordsConcurrencyBackgroundShare)));
+    }
+
+    /**
+     * Hedges slow GETs on the idempotent routes in ORDS_HEDGING_ROUTES, see {@link
+     * OrdsHedgingInterceptor}. Enable with ORDS_HEDGING_ENABLED=true.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "jci.ords-hedging.enabled", havingValue = "true")
+    public OrdsHedgingInterceptor ordsHedgingInterceptor(
+            ObjectProvider<CloseableHttpClient> ordsHttpClient,
+            ObjectProvider<OrdsResilienceInterceptor> ordsResilienceInterceptor,
+            ObjectProvider<OrdsConcurrencyLimitInterceptor> ordsConcurrencyLimitInterceptor,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new OrdsHedgingInterceptor(
+                ordsRequestFactory(ordsHttpClient.getIfAvailable()),
+                ordsResilienceInterceptor.getIfAvailable(),
+                ordsConcurrencyLimitInterceptor.getIfAvailable(),
+                meterRegistry,
+                host,
+                new OrdsHedgingInterceptor.Settings()
+                        .routes(ordsHedgingRoutes)
+                        .percentile(Double.parseDouble(ordsHedgingPercentile))
+                        .minDelay(Duration.ofMillis(Integer.parseInt(ordsHedgingMinDelay)))
+                        .budgetPercent(Double.parseDouble(ordsHedgingBudgetPercent))
+                        .maxThreads(Integer.parseInt(ordsPoolMaxTotal)));
+    }
+
+    @Bean
+    public OrdsMetricsInterceptor ordsMetricsInterceptor(
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new OrdsMetricsInterceptor(meterRegistry, host);
+    }
+
+    @Bean
+    public SoapMetricsInterceptor soapMetricsInterceptor() {
+        return new SoapMetricsInterceptor();
+    }
+
+    @Override
+    public void addInterceptors(List<EndpointInterceptor> interceptors) {
+        interceptors.add(soapMetricsInterceptor());
+        if (Boolean.parseBoolean(mtomEnabled)) {
+            interceptors.add(new MtomResponseInterceptor());
+        }
+    }
+
+    /** The pooled client when there is one, otherwise the JDK client with the ORDS timeouts. */
+    private ClientHttpRequestFactory ordsRequestFactory(CloseableHttpClient httpClient) {
+        if (httpClient != null) {
+            return new HttpComponentsClientHttpRequestFactory(httpClient);
+        }
+        var requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofSeconds(Integer.parseInt(ordsConnectTimeout)));
+        requestFactory.setReadTimeout(Duration.ofSeconds(Integer.parseInt(ordsReadTimeout)));
+        return requestFactory;
+    }
+
     private MappingJackson2HttpMessageConverter createMappingJacksonHttpMessageConverter() {
         MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
         converter.setObjectMapper(objectMapper());
@@ -80,6 +431,11 @@ public class SoapConfig extends WsConfigurerAdapter {
         return objectMapper;
     }
 
+    /**
+     * MTOM is negotiated per request by {@link MtomResponseInterceptor}, which converts responses
+     * from this factory to XOP packages. Disable with MTOM_ENABLED=false to always send inline
+     * base64.
+     */
     @Bean
     public SaajSoapMessageFactory messageFactory() {
         Map<String, Object> props = new HashMap<>();
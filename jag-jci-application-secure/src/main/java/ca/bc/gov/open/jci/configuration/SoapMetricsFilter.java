@@ -0,0 +1,160 @@
+package ca.bc.gov.open.jci.configuration;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Records inbound SOAP latency and payload sizes per operation as Prometheus histograms. The
+ * operation and outcome are supplied by {@link SoapMetricsInterceptor}. Runs outside {@link
+ * DocumentStreamingFilter} so that streamed documents are counted in the response size.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class SoapMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public SoapMetricsFilter(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.equals("/ws") && !path.startsWith("/ws/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        CountingResponseWrapper countingResponse = new CountingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, countingResponse);
+        } finally {
+            Object operation = request.getAttribute(SoapMetricsInterceptor.OPERATION_ATTRIBUTE);
+            // WSDL downloads and unmapped requests never reach an endpoint
+            if (operation != null) {
+                Object outcome = request.getAttribute(SoapMetricsInterceptor.OUTCOME_ATTRIBUTE);
+                record(
+                        operation.toString(),
+                        outcome != null ? outcome.toString() : "success",
+                        System.nanoTime() - start,
+                        request.getContentLengthLong(),
+                        countingResponse.getByteCount());
+            }
+        }
+    }
+
+    private void record(
+            String operation,
+            String outcome,
+            long durationNanos,
+            long requestBytes,
+            long responseBytes) {
+        Timer.builder("jci.soap.requests")
+                .description("Inbound SOAP operation latency")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        if (requestBytes >= 0) {
+            DistributionSummary.builder("jci.soap.request.size")
+                    .description("Inbound SOAP request payload size")
+                    .baseUnit("bytes")
+                    .tag("operation", operation)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(requestBytes);
+        }
+        DistributionSummary.builder("jci.soap.response.size")
+                .description("Outbound SOAP response payload size")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(responseBytes);
+    }
+
+    private static class CountingResponseWrapper extends HttpServletResponseWrapper {
+        private CountingOutputStream outputStream;
+
+        CountingResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        long getByteCount() {
+            return outputStream != null ? outputStream.count : 0;
+        }
+    }
+
+    private static class CountingOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+        private long count;
+
+        CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
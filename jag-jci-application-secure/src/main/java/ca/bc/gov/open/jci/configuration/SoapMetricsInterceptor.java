@@ -0,0 +1,91 @@
+package ca.bc.gov.open.jci.configuration;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.Ordered;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.EndpointExceptionResolver;
+import org.springframework.ws.server.EndpointInterceptor;
+import org.springframework.ws.server.endpoint.MethodEndpoint;
+import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
+import org.springframework.ws.transport.context.TransportContext;
+import org.springframework.ws.transport.context.TransportContextHolder;
+import org.springframework.ws.transport.http.HttpServletConnection;
+
+/**
+ * Tags the servlet request with the SOAP operation (the @PayloadRoot localPart) and its outcome so
+ * that {@link SoapMetricsFilter} can record them. Registered as the first exception resolver so
+ * the original exception type is seen before it is turned into a SOAP fault.
+ */
+public class SoapMetricsInterceptor
+        implements EndpointInterceptor, EndpointExceptionResolver, Ordered {
+
+    public static final String OPERATION_ATTRIBUTE =
+            SoapMetricsInterceptor.class.getName() + ".operation";
+    public static final String OUTCOME_ATTRIBUTE =
+            SoapMetricsInterceptor.class.getName() + ".outcome";
+
+    @Override
+    public boolean handleRequest(MessageContext messageContext, Object endpoint) {
+        setAttribute(OPERATION_ATTRIBUTE, operation(endpoint));
+        return true;
+    }
+
+    @Override
+    public boolean handleResponse(MessageContext messageContext, Object endpoint) {
+        return true;
+    }
+
+    @Override
+    public boolean handleFault(MessageContext messageContext, Object endpoint) {
+        HttpServletRequest request = currentRequest();
+        if (request != null && request.getAttribute(OUTCOME_ATTRIBUTE) == null) {
+            request.setAttribute(OUTCOME_ATTRIBUTE, "fault");
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(MessageContext messageContext, Object endpoint, Exception ex) {
+        if (ex != null) {
+            setAttribute(OUTCOME_ATTRIBUTE, ex.getClass().getSimpleName());
+        }
+    }
+
+    @Override
+    public boolean resolveException(MessageContext messageContext, Object endpoint, Exception ex) {
+        setAttribute(OUTCOME_ATTRIBUTE, ex.getClass().getSimpleName());
+        // Never resolve, leave the fault to the SoapFault annotation resolver
+        return false;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private static String operation(Object endpoint) {
+        if (endpoint instanceof MethodEndpoint) {
+            PayloadRoot payloadRoot =
+                    ((MethodEndpoint) endpoint).getMethod().getAnnotation(PayloadRoot.class);
+            if (payloadRoot != null) {
+                return payloadRoot.localPart();
+            }
+        }
+        return "unknown";
+    }
+
+    private static void setAttribute(String name, String value) {
+        HttpServletRequest request = currentRequest();
+        if (request != null) {
+            request.setAttribute(name, value);
+        }
+    }
+
+    private static HttpServletRequest currentRequest() {
+        TransportContext context = TransportContextHolder.getTransportContext();
+        if (context != null && context.getConnection() instanceof HttpServletConnection) {
+            return ((HttpServletConnection) context.getConnection()).getHttpServletRequest();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,470 @@
+package ca.bc.gov.open.jci.configuration;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Layout;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+/**
+ * Sends log events to a Splunk HTTP Event Collector in batches from a background thread. Logging
+ * only formats the event and puts it on a bounded queue, so the collector's latency is never seen
+ * by the request that logs.
+ *
+ * <p>A batch is sent when it reaches batchSizeCount events or batchSizeBytes, or
+ * batchIntervalMillis after its first event. While the collector cannot be reached batches are
+ * appended to spoolFile, and once it answers again the file is replayed in order before newer
+ * events are sent. The replay position is kept beside the spool, so events spooled before a
+ * restart are sent after it. If the queue is full, because the collector and the disk are both
+ * behind, new events are dropped and counted rather than blocking the caller.
+ */
+public class SplunkBatchAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    private static final String COLLECTOR_PATH = "/services/collector/event";
+    private static final long MAX_RETRY_MILLIS = 60_000;
+
+    private String url;
+    private String token;
+    private String index;
+    private String source;
+    private String sourcetype;
+    private boolean disableCertificateValidation;
+    private int connectTimeout = 5000;
+    private int readTimeout = 10000;
+    private int batchSizeCount = 100;
+    private int batchSizeBytes = 256 * 1024;
+    private long batchIntervalMillis = 2000;
+    private int queueSize = 10000;
+    private String spoolFile =
+            Paths.get(System.getProperty("java.io.tmpdir"), "jci-splunk-spool.log").toString();
+    private long maxSpoolBytes = 100L * 1024 * 1024;
+    private long flushTimeoutMillis = 5000;
+    private Layout<ILoggingEvent> layout;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private BlockingQueue<String> queue;
+    private Spool spool;
+    private URL collector;
+    private SSLSocketFactory trustAll;
+    private Thread worker;
+    private volatile boolean running;
+    private long retryAt;
+    private long retryMillis;
+
+    @Override
+    public void start() {
+        // Left stopped rather than failing startup, as when SPLUNK_HTTP_URL is not set locally
+        if (url == null || url.isBlank() || token == null || token.isBlank()) {
+            addWarn("Splunk url and token are required, appender " + name + " not started");
+            return;
+        }
+        try {
+            URL base = new URL(url);
+            collector =
+                    base.getPath().isEmpty() || "/".equals(base.getPath())
+                            ? new URL(base, COLLECTOR_PATH)
+                            : base;
+            if (disableCertificateValidation) {
+                trustAll = trustAllSocketFactory();
+            }
+            spool = new Spool(Paths.get(spoolFile), maxSpoolBytes);
+        } catch (Exception ex) {
+            addWarn("Could not start Splunk appender " + name, ex);
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueSize);
+        running = true;
+        worker = new Thread(this::ship, "splunk-" + name);
+        worker.setDaemon(true);
+        worker.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        // The worker notices within batchIntervalMillis, then sends or spools what is queued
+        running = false;
+        try {
+            worker.join(flushTimeoutMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            addWarn("Splunk appender " + name + " did not flush within " + flushTimeoutMillis);
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (!queue.offer(toJson(event))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /** The number of events dropped because the queue was full. */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /** Runs on the worker thread until stopped, then sends or spools what is left. */
+    private void ship() {
+        List<String> batch = new ArrayList<>();
+        while (running) {
+            try {
+                fill(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            deliver(batch);
+            if (spool.hasPending() && System.currentTimeMillis() >= retryAt) {
+                replay();
+            }
+            reportDropped();
+        }
+        queue.drainTo(batch);
+        deliver(batch);
+        reportDropped();
+    }
+
+    /** Waits for the next batch, which is full or has waited batchIntervalMillis. */
+    private void fill(List<String> batch) throws InterruptedException {
+        String first = queue.poll(batchIntervalMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        int bytes = first.length();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchIntervalMillis);
+        while (batch.size() < batchSizeCount && bytes < batchSizeBytes) {
+            String next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            bytes += next.length();
+        }
+    }
+
+    /** Sends the batch, or spools it to keep it behind events that are already spooled. */
+    private void deliver(List<String> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (spool.hasPending() || !send(batch)) {
+            try {
+                if (!spool.append(batch)) {
+                    dropped.addAndGet(batch.size());
+                }
+            } catch (IOException ex) {
+                addError("Could not spool Splunk events", ex);
+                dropped.addAndGet(batch.size());
+            }
+        }
+        batch.clear();
+    }
+
+    /** Sends spooled batches until the spool is empty or the collector fails again. */
+    private void replay() {
+        try {
+            List<String> batch;
+            while (!(batch = spool.read(batchSizeCount, batchSizeBytes)).isEmpty()) {
+                if (!send(batch)) {
+                    return;
+                }
+                spool.commit();
+                if (running && !queue.isEmpty()) {
+                    // Let new events keep moving into the spool behind the replay
+                    return;
+                }
+            }
+        } catch (IOException ex) {
+            addError("Could not replay spooled Splunk events", ex);
+            backOff();
+        }
+    }
+
+    private boolean send(List<String> batch) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) collector.openConnection();
+            if (trustAll != null && connection instanceof HttpsURLConnection) {
+                ((HttpsURLConnection) connection).setSSLSocketFactory(trustAll);
+                ((HttpsURLConnection) connection).setHostnameVerifier((host, session) -> true);
+            }
+            connection.setConnectTimeout(connectTimeout);
+            connection.setReadTimeout(readTimeout);
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Authorization", "Splunk " + token);
+            connection.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+            try (OutputStream out = connection.getOutputStream()) {
+                for (String event : batch) {
+                    out.write(event.getBytes(StandardCharsets.UTF_8));
+                    out.write('\n');
+                }
+            }
+            int status = connection.getResponseCode();
+            try (InputStream in =
+                    status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                if (in != null) {
+                    in.transferTo(OutputStream.nullOutputStream());
+                }
+            }
+            if (status / 100 == 2) {
+                retryMillis = 0;
+                return true;
+            }
+            if (status == HttpURLConnection.HTTP_BAD_REQUEST) {
+                // Malformed events are refused every time, so retrying them would block the rest
+                addWarn("Splunk refused " + batch.size() + " events with status " + status);
+                return true;
+            }
+            addWarn("Splunk returned " + status + ", spooling events");
+        } catch (IOException ex) {
+            addWarn("Splunk unreachable, spooling events: " + ex.getMessage());
+        }
+        backOff();
+        return false;
+    }
+
+    private void backOff() {
+        retryMillis = Math.min(MAX_RETRY_MILLIS, Math.max(batchIntervalMillis, retryMillis * 2));
+        retryAt = System.currentTimeMillis() + retryMillis;
+    }
+
+    private void reportDropped() {
+        long count = dropped.getAndSet(0);
+        if (count > 0) {
+            addWarn("Dropped " + count + " Splunk events");
+        }
+    }
+
+    /** The event as the Splunk logging library sends it, formatted on the logging thread. */
+    private String toJson(ILoggingEvent event) {
+        String message = layout != null ? layout.doLayout(event) : event.getFormattedMessage();
+        long time = event.getTimeStamp();
+        StringBuilder json = new StringBuilder(message.length() + 256);
+        long millis = time % 1000;
+        json.append("{\"time\":").append(time / 1000).append('.');
+        json.append(millis < 100 ? (millis < 10 ? "00" : "0") : "").append(millis);
+        field(json, "index", index);
+        field(json, "source", source);
+        field(json, "sourcetype", sourcetype);
+        json.append(",\"event\":{\"severity\":\"").append(event.getLevel()).append('"');
+        field(json, "logger", event.getLoggerName());
+        field(json, "thread", event.getThreadName());
+        field(json, "message", message);
+        return json.append("}}").toString();
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        json.append(",\"").append(name).append("\":\"");
+        JsonStringEncoder.getInstance().quoteAsString(value, json);
+        json.append('"');
+    }
+
+    private static SSLSocketFactory trustAllSocketFactory() throws Exception {
+        TrustManager trustAll =
+                new X509TrustManager() {
+                    @Override
+                    public void checkClientTrusted(X509Certificate[] chain, String authType) {}
+
+                    @Override
+                    public void checkServerTrusted(X509Certificate[] chain, String authType) {}
+
+                    @Override
+                    public X509Certificate[] getAcceptedIssuers() {
+                        return new X509Certificate[0];
+                    }
+                };
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, new TrustManager[] {trustAll}, new SecureRandom());
+        return context.getSocketFactory();
+    }
+
+    /**
+     * An append-only file of events, one per line, with the offset replayed so far in a file
+     * beside it. Both are removed once everything has been replayed.
+     */
+    static class Spool {
+        private final Path file;
+        private final Path offsetFile;
+        private final long maxBytes;
+        private long offset;
+        private long readTo;
+
+        Spool(Path file, long maxBytes) throws IOException {
+            this.file = file;
+            this.offsetFile = file.resolveSibling(file.getFileName() + ".offset");
+            this.maxBytes = maxBytes;
+            if (Files.exists(offsetFile)) {
+                offset = Long.parseLong(Files.readString(offsetFile).trim());
+            }
+        }
+
+        boolean hasPending() {
+            try {
+                return Files.exists(file) && Files.size(file) > offset;
+            } catch (IOException ex) {
+                return false;
+            }
+        }
+
+        /** Appends the batch, or returns false if the spool is full. */
+        boolean append(List<String> batch) throws IOException {
+            StringBuilder lines = new StringBuilder();
+            for (String event : batch) {
+                lines.append(event).append('\n');
+            }
+            byte[] bytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+            if (Files.exists(file) && Files.size(file) + bytes.length > maxBytes) {
+                return false;
+            }
+            Files.write(file, bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            return true;
+        }
+
+        /** Reads the next events after the committed offset, without moving it. */
+        List<String> read(int maxCount, int maxBytes) throws IOException {
+            List<String> batch = new ArrayList<>();
+            if (!Files.exists(file)) {
+                return batch;
+            }
+            long position = offset;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                channel.position(offset);
+                BufferedReader reader =
+                        new BufferedReader(
+                                new InputStreamReader(
+                                        Channels.newInputStream(channel),
+                                        StandardCharsets.UTF_8));
+                int bytes = 0;
+                String line;
+                while (batch.size() < maxCount
+                        && bytes < maxBytes
+                        && (line = reader.readLine()) != null) {
+                    int length = line.getBytes(StandardCharsets.UTF_8).length + 1;
+                    if (position + length > channel.size()) {
+                        // A line still being written, without its newline
+                        break;
+                    }
+                    batch.add(line);
+                    position += length;
+                    bytes += length;
+                }
+            }
+            readTo = position;
+            return batch;
+        }
+
+        /** Marks what the last read returned as sent. */
+        void commit() throws IOException {
+            offset = readTo;
+            if (offset >= Files.size(file)) {
+                Files.deleteIfExists(file);
+                Files.deleteIfExists(offsetFile);
+                offset = 0;
+                readTo = 0;
+            } else {
+                Files.writeString(offsetFile, Long.toString(offset));
+            }
+        }
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public void setIndex(String index) {
+        this.index = index;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public void setSourcetype(String sourcetype) {
+        this.sourcetype = sourcetype;
+    }
+
+    public void setDisableCertificateValidation(boolean disableCertificateValidation) {
+        this.disableCertificateValidation = disableCertificateValidation;
+    }
+
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public void setBatchSizeCount(int batchSizeCount) {
+        this.batchSizeCount = batchSizeCount;
+    }
+
+    public void setBatchSizeBytes(int batchSizeBytes) {
+        this.batchSizeBytes = batchSizeBytes;
+    }
+
+    public void setBatchIntervalMillis(long batchIntervalMillis) {
+        this.batchIntervalMillis = batchIntervalMillis;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public void setSpoolFile(String spoolFile) {
+        this.spoolFile = spoolFile;
+    }
+
+    public void setMaxSpoolBytes(long maxSpoolBytes) {
+        this.maxSpoolBytes = maxSpoolBytes;
+    }
+
+    public void setFlushTimeoutMillis(long flushTimeoutMillis) {
+        this.flushTimeoutMillis = flushTimeoutMillis;
+    }
+
+    public void setLayout(Layout<ILoggingEvent> layout) {
+        this.layout = layout;
+    }
+}
@@ -5,8 +5,14 @@ import ca.bc.gov.open.jci.exceptions.ORDSException;
 import ca.bc.gov.open.jci.models.OrdsErrorLog;
 import ca.bc.gov.open.jci.models.RequestSuccessLog;
 import ca.bc.gov.open.jci.models.serializers.InstantSerializer;
+import ca.bc.gov.open.jci.services.CodeValueStore;
+import ca.bc.gov.open.jci.services.OrdsGateway;
+import ca.bc.gov.open.jci.services.OrdsRoute;
+import ca.bc.gov.open.jci.services.RestTemplateOrdsGateway;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,7 +20,6 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
@@ -23,7 +28,7 @@ import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
 @Slf4j
 @Endpoint
 public class CodeController {
-    @Value("${jci.host}" + "common/")
+    @Value("${jci.host}")
     private String host = "https://127.0.0.1/";
 
     @Value("${jci.generic-agen-id}")
@@ -32,13 +37,22 @@ public class CodeController {
     @Value("${jci.generic-part-id}")
     private String genericPartId;
 
-    private final RestTemplate restTemplate;
+    private final OrdsGateway ordsGateway;
     private final ObjectMapper objectMapper;
+    private final CodeValueStore codeValueStore;
 
     @Autowired
-    public CodeController(RestTemplate restTemplate, ObjectMapper objectMapper) {
-        this.restTemplate = restTemplate;
+    public CodeController(
+            OrdsGateway ordsGateway, ObjectMapper objectMapper, CodeValueStore codeValueStore) {
+        this.ordsGateway = ordsGateway;
         this.objectMapper = objectMapper;
+        this.codeValueStore = codeValueStore;
+    }
+
+    /** Calls ORDS through the RestTemplate. */
+    public CodeController(
+            RestTemplate restTemplate, ObjectMapper objectMapper, CodeValueStore codeValueStore) {
+        this(new RestTemplateOrdsGateway(restTemplate), objectMapper, codeValueStore);
     }
 
     @PayloadRoot(
@@ -48,32 +62,42 @@ public class CodeController {
     public GetCodeValuesSecureResponse getCodeValuesSecure(
             @RequestPayload GetCodeValuesSecure getCodeValues) throws JsonProcessingException {
 
-        String secureExtension =
+        boolean generic =
                 getCodeValues.getRequestAgencyIdentifierId() != null
-                                && getCodeValues.getRequestPartId() != null
-                                && getCodeValues
-                                        .getRequestAgencyIdentifierId()
-                                        .equals(genericAgenId)
-                                && getCodeValues.getRequestPartId().equals(genericPartId)
-                        ? ""
-                        : "/secure";
+                        && getCodeValues.getRequestPartId() != null
+                        && getCodeValues.getRequestAgencyIdentifierId().equals(genericAgenId)
+                        && getCodeValues.getRequestPartId().equals(genericPartId);
+
+        // The generic agency sees the same code values as the non-secure service
+        if (generic) {
+            Optional<ca.bc.gov.open.jci.common.code.values.GetCodeValuesResponse> stored =
+                    codeValueStore.getCodeValues(getCodeValues.getLastRetrievedDate());
+            if (stored.isPresent()) {
+                log.info(
+                        objectMapper.writeValueAsString(
+                                new RequestSuccessLog("Request Success", "getCodeValuesSecure")));
+                var out = new GetCodeValuesSecureResponse();
+                out.setCeisCodeValues(toSecure(stored.get().getCeisCodeValues()));
+                out.setJustinCodeValues(toSecure(stored.get().getJustinCodeValues()));
+                out.setResultCd("0");
+                return out;
+            }
+        }
 
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "codevalues" + secureExtension)
-                        .queryParam("requestAgencyId", getCodeValues.getRequestAgencyIdentifierId())
-                        .queryParam("requestPartId", getCodeValues.getRequestPartId())
-                        .queryParam(
-                                "lastRetrievedDate",
-                                InstantSerializer.convert(getCodeValues.getLastRetrievedDate()))
-                        .queryParam(
-                                "requestDtm",
-                                InstantSerializer.convert(getCodeValues.getRequestDtm()))
-                        .queryParam("applicationCd", getCodeValues.getApplicationCd());
+        URI uri =
+                (generic ? OrdsRoute.GENERIC_CODE_VALUES : OrdsRoute.CODE_VALUES_SECURE)
+                        .uri(
+                                host,
+                                getCodeValues.getRequestAgencyIdentifierId(),
+                                getCodeValues.getRequestPartId(),
+                                InstantSerializer.convert(getCodeValues.getLastRetrievedDate()),
+                                InstantSerializer.convert(getCodeValues.getRequestDtm()),
+                                getCodeValues.getApplicationCd());
 
         try {
             HttpEntity<GetCodeValuesSecureResponse> resp =
-                    restTemplate.exchange(
-                            builder.build().toUri(),
+                    ordsGateway.exchange(
+                            uri,
                             HttpMethod.GET,
                             new HttpEntity<>(new HttpHeaders()),
                             GetCodeValuesSecureResponse.class);
@@ -97,4 +121,21 @@ public class CodeController {
             throw new ORDSException();
         }
     }
+
+    private static CodeValues toSecure(ca.bc.gov.open.jci.common.code.values.CodeValues values) {
+        if (values == null) {
+            return null;
+        }
+        var out = new CodeValues();
+        for (var value : values.getCodeValue()) {
+            var cv = new CodeValue();
+            cv.setCodeType(value.getCodeType());
+            cv.setCode(value.getCode());
+            cv.setShortDesc(value.getShortDesc());
+            cv.setLongDesc(value.getLongDesc());
+            cv.setFlex(value.getFlex());
+            out.getCodeValue().add(cv);
+        }
+        return out;
+    }
 }
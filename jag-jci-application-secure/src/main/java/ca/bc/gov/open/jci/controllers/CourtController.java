@@ -1,12 +1,25 @@
 package ca.bc.gov.open.jci.controllers;
 
+import ca.bc.gov.open.jci.civil.secure.GetCivilFileContentSecure;
+import ca.bc.gov.open.jci.civil.secure.GetCivilFileContentSecureResponse;
+import ca.bc.gov.open.jci.common.criminal.file.content.secure.GetCriminalFileContentSecure;
+import ca.bc.gov.open.jci.common.criminal.file.content.secure.GetCriminalFileContentSecureResponse;
 import ca.bc.gov.open.jci.court.secure.one.*;
 import ca.bc.gov.open.jci.exceptions.ORDSException;
 import ca.bc.gov.open.jci.models.OrdsErrorLog;
 import ca.bc.gov.open.jci.models.RequestSuccessLog;
 import ca.bc.gov.open.jci.models.serializers.InstantSerializer;
+import ca.bc.gov.open.jci.services.CourtListCache;
+import ca.bc.gov.open.jci.services.CourtListPrewarmer;
+import ca.bc.gov.open.jci.services.FileContentPrefetcher;
+import ca.bc.gov.open.jci.services.OrdsGateway;
+import ca.bc.gov.open.jci.services.OrdsRoute;
+import ca.bc.gov.open.jci.services.RestTemplateOrdsGateway;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,7 +27,6 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
@@ -26,13 +38,35 @@ public class CourtController {
     @Value("${jci.host}")
     private String host = "https://127.0.0.1/";
 
-    private final RestTemplate restTemplate;
+    private final OrdsGateway ordsGateway;
     private final ObjectMapper objectMapper;
+    private final CourtListCache courtListCache;
+    private final FileContentPrefetcher fileContentPrefetcher;
+    private final CourtListPrewarmer courtListPrewarmer;
 
     @Autowired
-    public CourtController(RestTemplate restTemplate, ObjectMapper objectMapper) {
-        this.restTemplate = restTemplate;
+    public CourtController(
+            OrdsGateway ordsGateway,
+            ObjectMapper objectMapper,
+            CourtListCache courtListCache,
+            FileContentPrefetcher fileContentPrefetcher,
+            CourtListPrewarmer courtListPrewarmer) {
+        this.ordsGateway = ordsGateway;
         this.objectMapper = objectMapper;
+        this.courtListCache = courtListCache;
+        this.fileContentPrefetcher = fileContentPrefetcher;
+        this.courtListPrewarmer = courtListPrewarmer;
+    }
+
+    /** Calls ORDS through the RestTemplate, without prefetching or pre-warming. */
+    public CourtController(
+            RestTemplate restTemplate, ObjectMapper objectMapper, CourtListCache courtListCache) {
+        this(
+                new RestTemplateOrdsGateway(restTemplate),
+                objectMapper,
+                courtListCache,
+                FileContentPrefetcher.disabled(),
+                CourtListPrewarmer.disabled());
     }
 
     @PayloadRoot(
@@ -41,35 +75,25 @@ public class CourtController {
     @ResponsePayload
     public GetCrtListSecureResponse getCrtListSecure(@RequestPayload GetCrtListSecure getCrtList)
             throws JsonProcessingException {
-
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "/common/courtlist/secure")
-                        .queryParam(
-                                "requestAgencyIdentifierId",
-                                getCrtList.getRequestAgencyIdentifierId())
-                        .queryParam("roomCd", getCrtList.getRoomCd())
-                        .queryParam(
-                                "proceedingDate",
-                                InstantSerializer.convert(getCrtList.getProceedingDate()))
-                        .queryParam("divisionCd", getCrtList.getDivisionCd())
-                        .queryParam("fileNumber", getCrtList.getFileNumber())
-                        .queryParam("agencyIdentifierCd", getCrtList.getAgencyIdentifierCd())
-                        .queryParam("requestPartId", getCrtList.getRequestPartId())
-                        .queryParam(
-                                "requestDtm", InstantSerializer.convert(getCrtList.getRequestDtm()))
-                        .queryParam("applicationCd", getCrtList.getApplicationCd());
+        courtListPrewarmer.observe(getCrtList);
 
         try {
-            HttpEntity<GetCrtListSecureResponse> resp =
-                    restTemplate.exchange(
-                            builder.build().toUri(),
-                            HttpMethod.GET,
-                            new HttpEntity<>(new HttpHeaders()),
-                            GetCrtListSecureResponse.class);
+            GetCrtListSecureResponse resp =
+                    courtListCache.get(
+                            courtListKey(getCrtList),
+                            () ->
+                                    ordsGateway
+                                            .exchange(
+                                                    courtListUri(host, getCrtList),
+                                                    HttpMethod.GET,
+                                                    new HttpEntity<>(new HttpHeaders()),
+                                                    GetCrtListSecureResponse.class)
+                                            .getBody());
             log.info(
                     objectMapper.writeValueAsString(
                             new RequestSuccessLog("Request Success", "getCrtListSecure")));
-            return resp.getBody();
+            prefetchFileContent(getCrtList, resp);
+            return resp;
         } catch (Exception ex) {
             log.error(
                     objectMapper.writeValueAsString(
@@ -81,4 +105,103 @@ public class CourtController {
             throw new ORDSException();
         }
     }
+
+    /** The ORDS court list uri for a request, shared with pre-warming. */
+    public static URI courtListUri(String host, GetCrtListSecure getCrtList) {
+        return OrdsRoute.COURT_LIST_SECURE.uri(
+                host,
+                getCrtList.getRequestAgencyIdentifierId(),
+                getCrtList.getRoomCd(),
+                InstantSerializer.convert(getCrtList.getProceedingDate()),
+                getCrtList.getDivisionCd(),
+                getCrtList.getFileNumber(),
+                getCrtList.getAgencyIdentifierCd(),
+                getCrtList.getRequestPartId(),
+                InstantSerializer.convert(getCrtList.getRequestDtm()),
+                getCrtList.getApplicationCd());
+    }
+
+    /**
+     * The court list cache key for a request, shared with pre-warming. The requesting agency and
+     * participant decide what the list may show.
+     */
+    public static CourtListCache.Key courtListKey(GetCrtListSecure getCrtList) {
+        return CourtListCache.Key.of(
+                getCrtList.getAgencyIdentifierCd(),
+                getCrtList.getRoomCd(),
+                getCrtList.getProceedingDate(),
+                getCrtList.getDivisionCd(),
+                getCrtList.getFileNumber(),
+                getCrtList.getRequestAgencyIdentifierId(),
+                getCrtList.getRequestPartId(),
+                getCrtList.getApplicationCd());
+    }
+
+    /**
+     * Starts fetching the file content of every appearance on the list, in list order, for the
+     * same requesting agency, participant and application.
+     */
+    private void prefetchFileContent(GetCrtListSecure getCrtList, GetCrtListSecureResponse resp) {
+        if (resp == null
+                || resp.getCourtLists() == null
+                || (resp.getResultCd() != null && !resp.getResultCd().equals("0"))) {
+            return;
+        }
+        Map<FileContentPrefetcher.Key, FileContentPrefetcher.Loader<?>> loaders =
+                new LinkedHashMap<>();
+        for (CriminalCourtList appearance : resp.getCourtLists().getCriminalCourtList()) {
+            if (appearance.getFileInformation() == null) {
+                continue;
+            }
+            GetCriminalFileContentSecure request = new GetCriminalFileContentSecure();
+            request.setAgencyIdentifierCd(getCrtList.getAgencyIdentifierCd());
+            request.setRoomCd(getCrtList.getRoomCd());
+            request.setProceedingDate(getCrtList.getProceedingDate());
+            request.setAppearanceID(appearance.getCriminalAppearanceID());
+            request.setMdocJustinNo(appearance.getFileInformation().getMdocJustinNo());
+            request.setRequestAgencyIdentifierId(getCrtList.getRequestAgencyIdentifierId());
+            request.setRequestPartId(getCrtList.getRequestPartId());
+            request.setRequestDtm(getCrtList.getRequestDtm());
+            request.setApplicationCd(getCrtList.getApplicationCd());
+            URI uri = FileController.criminalFileContentUri(host, request);
+            loaders.put(
+                    FileController.criminalFileContentKey(request),
+                    () -> fetch(uri, GetCriminalFileContentSecureResponse.class));
+        }
+        for (CivilCourtListType appearance : resp.getCourtLists().getCivilCourtList()) {
+            Long appearanceId = civilAppearanceId(appearance.getAppearanceId());
+            if (appearance.getPhysicalFile() == null || appearanceId == null) {
+                continue;
+            }
+            GetCivilFileContentSecure request = new GetCivilFileContentSecure();
+            request.setCourtLocaCd(getCrtList.getAgencyIdentifierCd());
+            request.setCourtRoomCd(getCrtList.getRoomCd());
+            request.setCourtProceedingDate(getCrtList.getProceedingDate());
+            request.setAppearanceId(appearanceId);
+            request.setPhysicalFileId(appearance.getPhysicalFile().getPhysicalFileID());
+            request.setRequestAgencyIdentifierId(getCrtList.getRequestAgencyIdentifierId());
+            request.setRequestPartId(getCrtList.getRequestPartId());
+            request.setRequestDtm(getCrtList.getRequestDtm());
+            request.setApplicationCd(getCrtList.getApplicationCd());
+            URI uri = FileController.civilFileContentUri(host, request);
+            loaders.put(
+                    FileController.civilFileContentKey(request),
+                    () -> fetch(uri, GetCivilFileContentSecureResponse.class));
+        }
+        fileContentPrefetcher.prefetch(loaders);
+    }
+
+    private static Long civilAppearanceId(String appearanceId) {
+        try {
+            return appearanceId != null ? Long.valueOf(appearanceId.trim()) : null;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private <T> T fetch(URI uri, Class<T> type) {
+        return ordsGateway
+                .exchange(uri, HttpMethod.GET, new HttpEntity<>(new HttpHeaders()), type)
+                .getBody();
+    }
 }
@@ -7,6 +7,10 @@ import ca.bc.gov.open.jci.exceptions.ORDSException;
 import ca.bc.gov.open.jci.models.OrdsErrorLog;
 import ca.bc.gov.open.jci.models.RequestSuccessLog;
 import ca.bc.gov.open.jci.models.serializers.InstantSerializer;
+import ca.bc.gov.open.jci.services.DocumentContentService;
+import ca.bc.gov.open.jci.services.OrdsGateway;
+import ca.bc.gov.open.jci.services.OrdsRoute;
+import ca.bc.gov.open.jci.services.RestTemplateOrdsGateway;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.net.URI;
@@ -20,9 +24,7 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.util.Base64Utils;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
@@ -35,13 +37,26 @@ public class DocumentController {
     @Value("${jci.host}")
     private String host = "https://127.0.0.1/";
 
-    private final RestTemplate restTemplate;
+    private final OrdsGateway ordsGateway;
     private final ObjectMapper objectMapper;
+    private final DocumentContentService documentContentService;
 
     @Autowired
-    public DocumentController(RestTemplate restTemplate, ObjectMapper objectMapper) {
-        this.restTemplate = restTemplate;
+    public DocumentController(
+            OrdsGateway ordsGateway,
+            ObjectMapper objectMapper,
+            DocumentContentService documentContentService) {
+        this.ordsGateway = ordsGateway;
         this.objectMapper = objectMapper;
+        this.documentContentService = documentContentService;
+    }
+
+    /** Calls ORDS through the RestTemplate. */
+    public DocumentController(
+            RestTemplate restTemplate,
+            ObjectMapper objectMapper,
+            DocumentContentService documentContentService) {
+        this(new RestTemplateOrdsGateway(restTemplate), objectMapper, documentContentService);
     }
 
     @PayloadRoot(
@@ -58,23 +73,23 @@ public class DocumentController {
                         : new DocumentSecureRequest();
 
         // request getDocument to get url
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "common/document/secure")
-                        .queryParam(
-                                "requestAgencyIdentifierId", inner.getRequestAgencyIdentifierId())
-                        .queryParam("requestPartId", inner.getRequestPartId())
-                        .queryParam("requestDtm", InstantSerializer.convert(inner.getRequestDtm()))
-                        .queryParam("applicationCd", inner.getApplicationCd())
-                        .queryParam("documentId", inner.getDocumentId())
-                        .queryParam("courtDivisionCd", inner.getCourtDivisionCd())
-                        .queryParam("physicalFileId", inner.getPhysicalFileId())
-                        .queryParam("mdocJustinNo", inner.getMdocJustinNo());
+        URI uri =
+                OrdsRoute.DOCUMENT_SECURE.uri(
+                        host,
+                        inner.getRequestAgencyIdentifierId(),
+                        inner.getRequestPartId(),
+                        InstantSerializer.convert(inner.getRequestDtm()),
+                        inner.getApplicationCd(),
+                        inner.getDocumentId(),
+                        inner.getCourtDivisionCd(),
+                        inner.getPhysicalFileId(),
+                        inner.getMdocJustinNo());
 
         HttpEntity<Map<String, String>> resp = null;
         try {
             resp =
-                    restTemplate.exchange(
-                            builder.build().toUri(),
+                    ordsGateway.exchange(
+                            uri,
                             HttpMethod.GET,
                             new HttpEntity<>(new HttpHeaders()),
                             new ParameterizedTypeReference<>() {});
@@ -117,15 +132,8 @@ public class DocumentController {
                 // get the ticket
                 url = URLDecoder.decode(url, StandardCharsets.UTF_8);
 
-                HttpEntity<byte[]> resp2 =
-                        restTemplate.exchange(
-                                new URI(url),
-                                HttpMethod.GET,
-                                new HttpEntity<>(new HttpHeaders()),
-                                byte[].class);
-
                 String bs64 =
-                        resp2.getBody() != null ? Base64Utils.encodeToString(resp2.getBody()) : "";
+                        documentContentService.b64Content(new URI(url), new HttpHeaders());
 
                 one.setB64Content(bs64);
                 out.setDocumentResponse(one);
@@ -6,8 +6,14 @@ import ca.bc.gov.open.jci.exceptions.ORDSException;
 import ca.bc.gov.open.jci.models.OrdsErrorLog;
 import ca.bc.gov.open.jci.models.RequestSuccessLog;
 import ca.bc.gov.open.jci.models.serializers.InstantSerializer;
+import ca.bc.gov.open.jci.services.FileContentBatcher;
+import ca.bc.gov.open.jci.services.FileContentPrefetcher;
+import ca.bc.gov.open.jci.services.OrdsGateway;
+import ca.bc.gov.open.jci.services.OrdsRoute;
+import ca.bc.gov.open.jci.services.RestTemplateOrdsGateway;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,7 +21,6 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
@@ -25,16 +30,39 @@ import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
 @Endpoint
 public class FileController {
 
+    // Batch items that could not be fetched, ORDS result codes are never negative
+    private static final String RESULT_FAILURE = "-1";
+
     @Value("${jci.host}")
     private String host = "https://127.0.0.1/";
 
-    private final RestTemplate restTemplate;
+    private final OrdsGateway ordsGateway;
     private final ObjectMapper objectMapper;
+    private final FileContentPrefetcher fileContentPrefetcher;
+    private final FileContentBatcher fileContentBatcher;
 
     @Autowired
-    public FileController(RestTemplate restTemplate, ObjectMapper objectMapper) {
-        this.restTemplate = restTemplate;
+    public FileController(
+            OrdsGateway ordsGateway,
+            ObjectMapper objectMapper,
+            FileContentPrefetcher fileContentPrefetcher,
+            FileContentBatcher fileContentBatcher) {
+        this.ordsGateway = ordsGateway;
         this.objectMapper = objectMapper;
+        this.fileContentPrefetcher = fileContentPrefetcher;
+        this.fileContentBatcher = fileContentBatcher;
+    }
+
+    /**
+     * Calls ORDS through the RestTemplate, without prefetching, and fetches batch items one at a
+     * time.
+     */
+    public FileController(RestTemplate restTemplate, ObjectMapper objectMapper) {
+        this(
+                new RestTemplateOrdsGateway(restTemplate),
+                objectMapper,
+                FileContentPrefetcher.disabled(),
+                FileContentBatcher.sequential());
     }
 
     @PayloadRoot(
@@ -46,39 +74,14 @@ public class FileController {
             @RequestPayload GetCriminalFileContentSecure getCriminalFileContent)
             throws JsonProcessingException {
 
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "criminal/" + "file/secure")
-                        .queryParam(
-                                "agencyIdentifierCd",
-                                getCriminalFileContent.getAgencyIdentifierCd())
-                        .queryParam("roomCd", getCriminalFileContent.getRoomCd())
-                        .queryParam(
-                                "proceedingDate",
-                                InstantSerializer.convert(
-                                        getCriminalFileContent.getProceedingDate()))
-                        .queryParam("appearanceId", getCriminalFileContent.getAppearanceID())
-                        .queryParam("mdocJustinNo", getCriminalFileContent.getMdocJustinNo())
-                        .queryParam(
-                                "requestAgencyId",
-                                getCriminalFileContent.getRequestAgencyIdentifierId())
-                        .queryParam("requestPartId", getCriminalFileContent.getRequestPartId())
-                        .queryParam(
-                                "requestDtm",
-                                InstantSerializer.convert(getCriminalFileContent.getRequestDtm()))
-                        .queryParam("applicationCd", getCriminalFileContent.getApplicationCd());
-
         try {
-            HttpEntity<GetCriminalFileContentSecureResponse> resp =
-                    restTemplate.exchange(
-                            builder.build().toUri(),
-                            HttpMethod.GET,
-                            new HttpEntity<>(new HttpHeaders()),
-                            GetCriminalFileContentSecureResponse.class);
+            GetCriminalFileContentSecureResponse resp =
+                    fetchCriminalFileContent(getCriminalFileContent);
             log.info(
                     objectMapper.writeValueAsString(
                             new RequestSuccessLog(
                                     "Request Success", "getCriminalFileContentSecure")));
-            return resp.getBody();
+            return resp;
         } catch (Exception ex) {
             log.error(
                     objectMapper.writeValueAsString(
@@ -100,37 +103,13 @@ public class FileController {
             @RequestPayload GetCivilFileContentSecure getCivilFileContent)
             throws JsonProcessingException {
 
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "civil/" + "file/secure")
-                        .queryParam("courtLocaCd", getCivilFileContent.getCourtLocaCd())
-                        .queryParam("courtRoomCd", getCivilFileContent.getCourtRoomCd())
-                        .queryParam(
-                                "courtProceedingDate",
-                                InstantSerializer.convert(
-                                        getCivilFileContent.getCourtProceedingDate()))
-                        .queryParam("appearanceId", getCivilFileContent.getAppearanceId())
-                        .queryParam("physicalFileId", getCivilFileContent.getPhysicalFileId())
-                        .queryParam(
-                                "requestAgencyId",
-                                getCivilFileContent.getRequestAgencyIdentifierId())
-                        .queryParam("requestPartId", getCivilFileContent.getRequestPartId())
-                        .queryParam(
-                                "requestDtm",
-                                InstantSerializer.convert(getCivilFileContent.getRequestDtm()))
-                        .queryParam("applicationCd", getCivilFileContent.getApplicationCd());
-
         try {
-            HttpEntity<ca.bc.gov.open.jci.civil.secure.GetCivilFileContentSecureResponse> resp =
-                    restTemplate.exchange(
-                            builder.build().toUri(),
-                            HttpMethod.GET,
-                            new HttpEntity<>(new HttpHeaders()),
-                            ca.bc.gov.open.jci.civil.secure.GetCivilFileContentSecureResponse
-                                    .class);
+            ca.bc.gov.open.jci.civil.secure.GetCivilFileContentSecureResponse resp =
+                    fetchCivilFileContent(getCivilFileContent);
             log.info(
                     objectMapper.writeValueAsString(
                             new RequestSuccessLog("Request Success", "getCivilFileContentSecure")));
-            return resp.getBody();
+            return resp;
         } catch (Exception ex) {
             log.error(
                     objectMapper.writeValueAsString(
@@ -142,4 +121,152 @@ public class FileController {
             throw new ORDSException();
         }
     }
+
+    @PayloadRoot(
+            namespace =
+                    "http://reeks.bcgov/CCD.Source.CriminalFileContent.ws.provider:CriminalFileContentSecure",
+            localPart = "getCriminalFileContentSecureBatch")
+    @ResponsePayload
+    public GetCriminalFileContentSecureBatchResponse getCriminalFileContentSecureBatch(
+            @RequestPayload GetCriminalFileContentSecureBatch getCriminalFileContentBatch)
+            throws JsonProcessingException {
+
+        var out = new GetCriminalFileContentSecureBatchResponse();
+        out.getGetCriminalFileContentSecureResponse()
+                .addAll(
+                        fileContentBatcher.fetchAll(
+                                getCriminalFileContentBatch.getGetCriminalFileContentSecure(),
+                                this::fetchCriminalFileContent,
+                                (request, message) -> {
+                                    var failed = new GetCriminalFileContentSecureResponse();
+                                    failed.setResultCd(RESULT_FAILURE);
+                                    failed.setResultMessage(message);
+                                    return failed;
+                                }));
+        log.info(
+                objectMapper.writeValueAsString(
+                        new RequestSuccessLog(
+                                "Request Success", "getCriminalFileContentSecureBatch")));
+        return out;
+    }
+
+    @PayloadRoot(
+            namespace =
+                    "http://courts.ag.gov.bc.ca/CCD.Source.CivilFileContent.ws:CivilFileContent",
+            localPart = "getCivilFileContentSecureBatch")
+    @ResponsePayload
+    public GetCivilFileContentSecureBatchResponse getCivilFileContentSecureBatch(
+            @RequestPayload GetCivilFileContentSecureBatch getCivilFileContentBatch)
+            throws JsonProcessingException {
+
+        var out = new GetCivilFileContentSecureBatchResponse();
+        out.getGetCivilFileContentSecureResponse()
+                .addAll(
+                        fileContentBatcher.fetchAll(
+                                getCivilFileContentBatch.getGetCivilFileContentSecure(),
+                                this::fetchCivilFileContent,
+                                (request, message) -> {
+                                    var failed =
+                                            new ca.bc.gov.open.jci.civil.secure
+                                                    .GetCivilFileContentSecureResponse();
+                                    failed.setResultCd(RESULT_FAILURE);
+                                    failed.setResultMessage(message);
+                                    return failed;
+                                }));
+        log.info(
+                objectMapper.writeValueAsString(
+                        new RequestSuccessLog(
+                                "Request Success", "getCivilFileContentSecureBatch")));
+        return out;
+    }
+
+    private GetCriminalFileContentSecureResponse fetchCriminalFileContent(
+            GetCriminalFileContentSecure request) throws Exception {
+        URI uri = criminalFileContentUri(host, request);
+        return fileContentPrefetcher.get(
+                criminalFileContentKey(request),
+                GetCriminalFileContentSecureResponse.class,
+                () ->
+                        ordsGateway
+                                .exchange(
+                                        uri,
+                                        HttpMethod.GET,
+                                        new HttpEntity<>(new HttpHeaders()),
+                                        GetCriminalFileContentSecureResponse.class)
+                                .getBody());
+    }
+
+    private ca.bc.gov.open.jci.civil.secure.GetCivilFileContentSecureResponse
+            fetchCivilFileContent(GetCivilFileContentSecure request) throws Exception {
+        URI uri = civilFileContentUri(host, request);
+        return fileContentPrefetcher.get(
+                civilFileContentKey(request),
+                ca.bc.gov.open.jci.civil.secure.GetCivilFileContentSecureResponse.class,
+                () ->
+                        ordsGateway
+                                .exchange(
+                                        uri,
+                                        HttpMethod.GET,
+                                        new HttpEntity<>(new HttpHeaders()),
+                                        ca.bc.gov.open.jci.civil.secure
+                                                .GetCivilFileContentSecureResponse.class)
+                                .getBody());
+    }
+
+    /** The ORDS uri for a criminal file content request, shared with the court list prefetch. */
+    static URI criminalFileContentUri(String host, GetCriminalFileContentSecure request) {
+        return OrdsRoute.CRIMINAL_FILE_SECURE.uri(
+                host,
+                request.getAgencyIdentifierCd(),
+                request.getRoomCd(),
+                InstantSerializer.convert(request.getProceedingDate()),
+                request.getAppearanceID(),
+                request.getMdocJustinNo(),
+                request.getRequestAgencyIdentifierId(),
+                request.getRequestPartId(),
+                InstantSerializer.convert(request.getRequestDtm()),
+                request.getApplicationCd());
+    }
+
+    /** The request timestamp is left out, the requesting agency and participant are not. */
+    static FileContentPrefetcher.Key criminalFileContentKey(GetCriminalFileContentSecure request) {
+        return FileContentPrefetcher.Key.of(
+                "criminal",
+                request.getAgencyIdentifierCd(),
+                request.getRoomCd(),
+                request.getProceedingDate(),
+                request.getAppearanceID(),
+                request.getMdocJustinNo(),
+                request.getRequestAgencyIdentifierId(),
+                request.getRequestPartId(),
+                request.getApplicationCd());
+    }
+
+    /** The ORDS uri for a civil file content request, shared with the court list prefetch. */
+    static URI civilFileContentUri(String host, GetCivilFileContentSecure request) {
+        return OrdsRoute.CIVIL_FILE_SECURE.uri(
+                host,
+                request.getCourtLocaCd(),
+                request.getCourtRoomCd(),
+                InstantSerializer.convert(request.getCourtProceedingDate()),
+                request.getAppearanceId(),
+                request.getPhysicalFileId(),
+                request.getRequestAgencyIdentifierId(),
+                request.getRequestPartId(),
+                InstantSerializer.convert(request.getRequestDtm()),
+                request.getApplicationCd());
+    }
+
+    static FileContentPrefetcher.Key civilFileContentKey(GetCivilFileContentSecure request) {
+        return FileContentPrefetcher.Key.of(
+                "civil",
+                request.getCourtLocaCd(),
+                request.getCourtRoomCd(),
+                request.getCourtProceedingDate(),
+                request.getAppearanceId(),
+                request.getPhysicalFileId(),
+                request.getRequestAgencyIdentifierId(),
+                request.getRequestPartId(),
+                request.getApplicationCd());
+    }
 }
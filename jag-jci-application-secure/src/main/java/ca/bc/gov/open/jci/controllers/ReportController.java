@@ -5,8 +5,12 @@ import ca.bc.gov.open.jci.exceptions.ORDSException;
 import ca.bc.gov.open.jci.models.OrdsErrorLog;
 import ca.bc.gov.open.jci.models.RequestSuccessLog;
 import ca.bc.gov.open.jci.models.serializers.InstantSerializer;
+import ca.bc.gov.open.jci.services.OrdsGateway;
+import ca.bc.gov.open.jci.services.OrdsRoute;
+import ca.bc.gov.open.jci.services.RestTemplateOrdsGateway;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
@@ -19,7 +23,6 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.util.Base64Utils;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
@@ -28,7 +31,7 @@ import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
 @Endpoint
 @Slf4j
 public class ReportController {
-    @Value("${jci.host}" + "criminal/")
+    @Value("${jci.host}")
     private String ordsHost = "https://127.0.0.1/";
 
     @Value("${jci.adobe-host}")
@@ -40,15 +43,20 @@ public class ReportController {
     @Value("${jci.form-param-idx}")
     private String formParamIdx = "1";
 
-    private final RestTemplate restTemplate;
+    private final OrdsGateway ordsGateway;
     private final ObjectMapper objectMapper;
 
     @Autowired
-    public ReportController(RestTemplate restTemplate, ObjectMapper objectMapper) {
-        this.restTemplate = restTemplate;
+    public ReportController(OrdsGateway ordsGateway, ObjectMapper objectMapper) {
+        this.ordsGateway = ordsGateway;
         this.objectMapper = objectMapper;
     }
 
+    /** Calls ORDS through the RestTemplate. */
+    public ReportController(RestTemplate restTemplate, ObjectMapper objectMapper) {
+        this(new RestTemplateOrdsGateway(restTemplate), objectMapper);
+    }
+
     @PayloadRoot(
             namespace = "http://reeks.bcgov/CCD.Source.GetROPReport.ws:GetROPReportSecure",
             localPart = "getROPReportSecure")
@@ -61,23 +69,24 @@ public class ReportController {
                         ? getROPReport.getROPSecureRequest()
                         : new RopSecureRequest();
 
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(ordsHost + "ropreport/secure")
-                        .queryParam("requestAgencyId", inner.getRequestAgencyIdentifierId())
-                        .queryParam("requestPartId", inner.getRequestPartId())
-                        .queryParam("requestDtm", InstantSerializer.convert(inner.getRequestDtm()))
-                        .queryParam("applicationCd", inner.getApplicationCd())
-                        .queryParam("param1", inner.getParam1())
-                        .queryParam("param2", inner.getParam2())
-                        .queryParam("formCd", inner.getFormCd());
+        URI uri =
+                OrdsRoute.ROP_REPORT_SECURE.uri(
+                        ordsHost,
+                        inner.getRequestAgencyIdentifierId(),
+                        inner.getRequestPartId(),
+                        InstantSerializer.convert(inner.getRequestDtm()),
+                        inner.getApplicationCd(),
+                        inner.getParam1(),
+                        inner.getParam2(),
+                        inner.getFormCd());
 
         HttpEntity<Map<String, String>> resp = null;
         try {
 
             // request url and key from ccd Report EndPoint
             resp =
-                    restTemplate.exchange(
-                            builder.build().toUri(),
+                    ordsGateway.exchange(
+                            uri,
                             HttpMethod.GET,
                             new HttpEntity<>(new HttpHeaders()),
                             new ParameterizedTypeReference<>() {});
@@ -149,7 +158,7 @@ public class ReportController {
                 String rpServerUri = rpServerHost + "?" + query;
 
                 HttpEntity<byte[]> resp2 =
-                        restTemplate.exchange(
+                        ordsGateway.exchange(
                                 rpServerUri,
                                 HttpMethod.GET,
                                 new HttpEntity<>(new HttpHeaders()),
@@ -0,0 +1,397 @@
+package ca.bc.gov.open.jci.services;
+
+import ca.bc.gov.open.jci.court.secure.one.GetCrtListSecureResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Short-lived cache of court lists keyed by agency, room, proceeding date, the remaining search
+ * parameters and the requesting agency and participant. Entries are weighed by their serialized
+ * size and evicted once the configured total is reached. Only lists ORDS returned without an error
+ * result code are cached.
+ *
+ * <p>Process results are written through the non-secure service, so entries here are bounded by
+ * the TTL alone; {@link #invalidate} is kept in step with that service's cache. A load that
+ * overlaps an invalidation for its room and day is not cached.
+ *
+ * <p>Lists fetched ahead of time by {@link CourtListPrewarmer} are held in a separate store with
+ * a longer TTL, invalidated the same way. The first request for one moves it into the cache.
+ */
+@Slf4j
+@Service
+public class CourtListCache {
+
+    /** Fetches a court list from ORDS on a cache miss. */
+    @FunctionalInterface
+    public interface Loader {
+        GetCrtListSecureResponse load() throws Exception;
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Cache<Key, Entry> cache;
+    private final Cache<Key, Entry> prewarmed;
+    private final Duration prewarmTtl;
+    // Last invalidation per room and day, kept long enough to outlast any in-flight load
+    private final Cache<RoomDay, Long> invalidations;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter invalidated;
+    private final Counter prewarmedHits;
+    private final List<Runnable> invalidationListeners = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public CourtListCache(
+            ObjectMapper objectMapper,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${jci.court-list-cache.enabled}") boolean enabled,
+            @Value("${jci.court-list-cache.ttl}") long ttl,
+            @Value("${jci.court-list-cache.max-size-kb}") long maxSizeKb,
+            @Value("${jci.ords-read-timeout}") long ordsReadTimeout,
+            @Value("${jci.court-list-prewarm.ttl}") long prewarmTtl) {
+        this(
+                objectMapper,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                enabled,
+                Duration.ofSeconds(ttl),
+                maxSizeKb,
+                Duration.ofSeconds(ordsReadTimeout),
+                Duration.ofSeconds(prewarmTtl));
+    }
+
+    /** Keeps no pre-warmed lists. */
+    public CourtListCache(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            boolean enabled,
+            Duration ttl,
+            long maxSizeKb,
+            Duration maxLoadTime) {
+        this(objectMapper, meterRegistry, enabled, ttl, maxSizeKb, maxLoadTime, Duration.ZERO);
+    }
+
+    public CourtListCache(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            boolean enabled,
+            Duration ttl,
+            long maxSizeKb,
+            Duration maxLoadTime,
+            Duration prewarmTtl) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.cache =
+                Caffeine.newBuilder()
+                        .expireAfterWrite(ttl)
+                        .maximumWeight(maxSizeKb)
+                        .weigher((Key key, Entry entry) -> entry.weight)
+                        .recordStats()
+                        .build();
+        this.prewarmTtl = prewarmTtl;
+        this.prewarmed =
+                Caffeine.newBuilder()
+                        .expireAfter(
+                                new Expiry<Key, Entry>() {
+                                    @Override
+                                    public long expireAfterCreate(
+                                            Key key, Entry entry, long currentTime) {
+                                        return prewarmTtl.toNanos();
+                                    }
+
+                                    @Override
+                                    public long expireAfterUpdate(
+                                            Key key,
+                                            Entry entry,
+                                            long currentTime,
+                                            long currentDuration) {
+                                        return currentDuration;
+                                    }
+
+                                    @Override
+                                    public long expireAfterRead(
+                                            Key key,
+                                            Entry entry,
+                                            long currentTime,
+                                            long currentDuration) {
+                                        return currentDuration;
+                                    }
+                                })
+                        .maximumWeight(maxSizeKb)
+                        .weigher((Key key, Entry entry) -> entry.weight)
+                        .build();
+        this.invalidations =
+                Caffeine.newBuilder().expireAfterWrite(ttl.plus(maxLoadTime)).build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "courtList");
+        this.invalidated =
+                Counter.builder("jci.court.list.cache.invalidations")
+                        .description("Court list cache entries dropped by process writes")
+                        .register(meterRegistry);
+        this.prewarmedHits =
+                Counter.builder("jci.court.list.cache.prewarmed.hits")
+                        .description("Court list cache misses answered by a pre-warmed list")
+                        .register(meterRegistry);
+    }
+
+    /** Returns the cached court list for the key, loading it from ORDS on a miss. */
+    public GetCrtListSecureResponse get(Key key, Loader loader) throws Exception {
+        // Lists spanning several rooms or days are not tracked for invalidation
+        if (!enabled || !key.roomDay.complete()) {
+            return loader.load();
+        }
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.value;
+        }
+        Entry warm = prewarmed.asMap().remove(key);
+        if (warm != null) {
+            cache.put(key, warm);
+            prewarmedHits.increment();
+            return warm.value;
+        }
+
+        long generationBefore = generation.get();
+        Long invalidationBefore = invalidations.getIfPresent(key.roomDay);
+        GetCrtListSecureResponse value = loader.load();
+        if (value != null
+                && (value.getResultCd() == null || value.getResultCd().equals("0"))
+                && !written(key, generationBefore, invalidationBefore)) {
+            cache.put(key, new Entry(value, weigh(value)));
+            // A write may have landed between the check and the put
+            if (written(key, generationBefore, invalidationBefore)) {
+                cache.invalidate(key);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Loads a court list ahead of time into the pre-warmed store, and returns whether it was
+     * stored. It is not stored if ORDS returned an error result code or a write for its room and
+     * day overlaps the load, and it is kept for the pre-warm TTL or maxAge, whichever is shorter.
+     */
+    public boolean warm(Key key, Duration maxAge, Loader loader) throws Exception {
+        if (!enabled || !key.roomDay.complete() || maxAge.isNegative() || maxAge.isZero()) {
+            return false;
+        }
+        long generationBefore = generation.get();
+        Long invalidationBefore = invalidations.getIfPresent(key.roomDay);
+        GetCrtListSecureResponse value = loader.load();
+        if (value == null
+                || (value.getResultCd() != null && !value.getResultCd().equals("0"))
+                || written(key, generationBefore, invalidationBefore)) {
+            return false;
+        }
+        prewarmed
+                .policy()
+                .expireVariably()
+                .orElseThrow()
+                .put(
+                        key,
+                        new Entry(value, weigh(value)),
+                        maxAge.compareTo(prewarmTtl) < 0 ? maxAge : prewarmTtl);
+        if (written(key, generationBefore, invalidationBefore)) {
+            prewarmed.invalidate(key);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Drops every court list for the agency, room and day of the proceeding date. A null argument
+     * matches any value.
+     */
+    public void invalidate(String agencyIdentifierCd, String roomCd, Instant proceedingDate) {
+        invalidationListeners.forEach(Runnable::run);
+        if (!enabled) {
+            return;
+        }
+        RoomDay roomDay = new RoomDay(agencyIdentifierCd, roomCd, proceedingDate);
+        if (!roomDay.complete()) {
+            generation.incrementAndGet();
+        } else {
+            invalidations.put(roomDay, sequence.incrementAndGet());
+        }
+        cache.asMap()
+                .keySet()
+                .removeIf(
+                        key -> {
+                            boolean match = roomDay.matches(key.roomDay);
+                            if (match) {
+                                invalidated.increment();
+                            }
+                            return match;
+                        });
+        prewarmed.asMap().keySet().removeIf(key -> roomDay.matches(key.roomDay));
+    }
+
+    /** Drops every cached court list, for writes that do not identify a room. */
+    public void invalidateAll() {
+        invalidationListeners.forEach(Runnable::run);
+        if (!enabled) {
+            return;
+        }
+        generation.incrementAndGet();
+        invalidated.increment(cache.estimatedSize());
+        cache.invalidateAll();
+        prewarmed.invalidateAll();
+    }
+
+    /**
+     * Runs the listener on every invalidation, whether or not the cache is enabled, for caches of
+     * data the same process writes change.
+     */
+    public void addInvalidationListener(Runnable listener) {
+        invalidationListeners.add(listener);
+    }
+
+    private boolean written(Key key, long generationBefore, Long invalidationBefore) {
+        return generation.get() != generationBefore
+                || !Objects.equals(invalidationBefore, invalidations.getIfPresent(key.roomDay));
+    }
+
+    private int weigh(GetCrtListSecureResponse value) {
+        CountingOutputStream out = new CountingOutputStream();
+        try {
+            objectMapper.writeValue(out, value);
+        } catch (IOException ex) {
+            log.warn("Unable to size court list for the cache: " + ex.getMessage());
+        }
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, (out.count + 1023) / 1024));
+    }
+
+    /** Identifies one court list request. */
+    public static final class Key {
+        private final RoomDay roomDay;
+        private final Instant proceedingDate;
+        private final Object[] parameters;
+
+        private Key(RoomDay roomDay, Instant proceedingDate, Object[] parameters) {
+            this.roomDay = roomDay;
+            this.proceedingDate = proceedingDate;
+            this.parameters = parameters;
+        }
+
+        /** The remaining parameters are any other request fields that change the result. */
+        public static Key of(
+                String agencyIdentifierCd,
+                String roomCd,
+                Instant proceedingDate,
+                Object... parameters) {
+            return new Key(
+                    new RoomDay(agencyIdentifierCd, roomCd, proceedingDate),
+                    proceedingDate,
+                    parameters.clone());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return roomDay.equals(other.roomDay)
+                    && Objects.equals(proceedingDate, other.proceedingDate)
+                    && Arrays.equals(parameters, other.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hash(roomDay, proceedingDate) + Arrays.hashCode(parameters);
+        }
+    }
+
+    private static final class RoomDay {
+        private final String agencyIdentifierCd;
+        private final String roomCd;
+        // Dates are exchanged with ORDS as UTC wall clock times
+        private final LocalDate proceedingDay;
+
+        RoomDay(String agencyIdentifierCd, String roomCd, Instant proceedingDate) {
+            this.agencyIdentifierCd = agencyIdentifierCd;
+            this.roomCd = roomCd;
+            this.proceedingDay =
+                    proceedingDate != null
+                            ? LocalDate.ofInstant(proceedingDate, ZoneOffset.UTC)
+                            : null;
+        }
+
+        boolean complete() {
+            return agencyIdentifierCd != null && roomCd != null && proceedingDay != null;
+        }
+
+        boolean matches(RoomDay other) {
+            return (agencyIdentifierCd == null
+                            || agencyIdentifierCd.equals(other.agencyIdentifierCd))
+                    && (roomCd == null || roomCd.equals(other.roomCd))
+                    && (proceedingDay == null || proceedingDay.equals(other.proceedingDay));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RoomDay)) {
+                return false;
+            }
+            RoomDay other = (RoomDay) o;
+            return Objects.equals(agencyIdentifierCd, other.agencyIdentifierCd)
+                    && Objects.equals(roomCd, other.roomCd)
+                    && Objects.equals(proceedingDay, other.proceedingDay);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(agencyIdentifierCd, roomCd, proceedingDay);
+        }
+    }
+
+    private static final class Entry {
+        private final GetCrtListSecureResponse value;
+        private final int weight;
+
+        Entry(GetCrtListSecureResponse value, int weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ca.bc.gov.open.jci.services;
+
+import ca.bc.gov.open.jci.configuration.DocumentStreamingFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.net.URI;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Base64Utils;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Produces the B64Content of a document response. Within a SOAP request the document is left open
+ * and handed to {@link DocumentStreamingFilter}, which encodes it into the response as it is
+ * written, so memory per request does not grow with the document. Otherwise, or with
+ * DOCUMENT_STREAMING_ENABLED=false, the document is read and encoded in memory.
+ */
+@Service
+public class DocumentContentService {
+
+    private final OrdsGateway ordsGateway;
+    private final boolean streamingEnabled;
+
+    @Autowired
+    public DocumentContentService(
+            OrdsGateway ordsGateway,
+            @Value("${jci.document-streaming.enabled}") boolean streamingEnabled) {
+        this.ordsGateway = ordsGateway;
+        this.streamingEnabled = streamingEnabled;
+    }
+
+    /** Buffers every document, calling ORDS through the RestTemplate. */
+    public DocumentContentService(RestTemplate restTemplate) {
+        this(new RestTemplateOrdsGateway(restTemplate), false);
+    }
+
+    /**
+     * Returns the base64 content of the document at the uri, or the placeholder the streaming
+     * filter replaces with it. ORDS errors are thrown before anything is streamed.
+     */
+    public String b64Content(URI uri, HttpHeaders headers) throws IOException {
+        HttpServletRequest servletRequest =
+                streamingEnabled ? DocumentStreamingFilter.currentRequest() : null;
+        if (servletRequest == null) {
+            HttpEntity<byte[]> resp =
+                    ordsGateway.exchange(
+                            uri, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+            return resp.getBody() != null ? Base64Utils.encodeToString(resp.getBody()) : "";
+        }
+
+        ClientHttpResponse response = ordsGateway.stream(uri, headers);
+        try {
+            return DocumentStreamingFilter.register(servletRequest, response);
+        } catch (RuntimeException ex) {
+            response.close();
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package ca.bc.gov.open.jci.services;
+
+import ca.bc.gov.open.jci.configuration.OrdsCallPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Fetches the items of a batch file content request from ORDS in parallel and returns one result
+ * per item, in request order. A batch runs at most parallelism items at once on a pool shared by
+ * every batch; when the pool is busy the request thread fetches items itself, so a burst of
+ * batches slows down instead of queueing without bound.
+ *
+ * <p>An item that fails, is still running when the ORDS read timeout runs out, or is beyond the
+ * item limit gets a failure result rather than failing the whole batch.
+ */
+@Slf4j
+@Service
+public class FileContentBatcher implements AutoCloseable {
+
+    private static final String ORDS_ERROR =
+            "An error response was received from ORDS please check that your request is of valid"
+                    + " form";
+    private static final String TIMED_OUT = "No response was received from ORDS in time";
+
+    /** Fetches one item from ORDS. */
+    @FunctionalInterface
+    public interface Fetch<T, R> {
+        R fetch(T item) throws Exception;
+    }
+
+    /** Builds the result of an item that could not be fetched. */
+    @FunctionalInterface
+    public interface Failure<T, R> {
+        R failed(T item, String message);
+    }
+
+    private final int maxItems;
+    private final int parallelism;
+    private final Duration maxWait;
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public FileContentBatcher(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${jci.file-content-batch.max-items}") int maxItems,
+            @Value("${jci.file-content-batch.parallelism}") int parallelism,
+            @Value("${jci.file-content-batch.threads}") int threads,
+            @Value("${jci.ords-read-timeout}") long ordsReadTimeout) {
+        this(
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                maxItems,
+                parallelism,
+                threads,
+                Duration.ofSeconds(ordsReadTimeout));
+    }
+
+    /** With no threads every item is fetched on the calling thread, one at a time. */
+    public FileContentBatcher(
+            MeterRegistry meterRegistry,
+            int maxItems,
+            int parallelism,
+            int threads,
+            Duration maxWait) {
+        this.maxItems = maxItems;
+        this.parallelism = threads > 0 ? Math.max(1, parallelism) : 1;
+        this.maxWait = maxWait;
+        this.meterRegistry = meterRegistry;
+        if (threads > 0) {
+            AtomicInteger count = new AtomicInteger();
+            this.executor =
+                    new ThreadPoolExecutor(
+                            0,
+                            threads,
+                            60,
+                            TimeUnit.SECONDS,
+                            new SynchronousQueue<>(),
+                            runnable -> {
+                                Thread thread =
+                                        new Thread(
+                                                runnable,
+                                                "file-batch-" + count.incrementAndGet());
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /** Fetches every item on the calling thread, one at a time. */
+    public static FileContentBatcher sequential() {
+        return new FileContentBatcher(
+                Metrics.globalRegistry, Integer.MAX_VALUE, 1, 0, Duration.ofDays(1));
+    }
+
+    /** Fetches the items and returns their results in the same order. */
+    public <T, R> List<R> fetchAll(List<T> items, Fetch<T, R> fetch, Failure<T, R> failure) {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        Semaphore permits = new Semaphore(parallelism);
+        List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size() && i < maxItems; i++) {
+            T item = items.get(i);
+            CompletableFuture<R> future = new CompletableFuture<>();
+            futures.add(future);
+            if (!acquire(permits, deadline)) {
+                continue;
+            }
+            Runnable task =
+                    () -> {
+                        try {
+                            future.complete(
+                                    OrdsCallPriority.inBackground(() -> fetch.fetch(item)));
+                        } catch (Exception ex) {
+                            future.completeExceptionally(ex);
+                        } finally {
+                            permits.release();
+                        }
+                    };
+            try {
+                if (executor == null) {
+                    task.run();
+                } else {
+                    executor.execute(task);
+                }
+            } catch (RejectedExecutionException ex) {
+                // Every thread is busy with other batches
+                task.run();
+            }
+        }
+
+        List<R> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            if (i >= maxItems) {
+                items("skipped").increment();
+                results.add(failure.failed(item, "A batch is limited to " + maxItems + " items"));
+                continue;
+            }
+            CompletableFuture<R> future = futures.get(i);
+            try {
+                R result =
+                        future.get(
+                                Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                items("success").increment();
+                results.add(result);
+            } catch (ExecutionException ex) {
+                log.warn("Unable to fetch batch file content: " + ex.getCause().getMessage());
+                items("failure").increment();
+                results.add(failure.failed(item, ORDS_ERROR));
+            } catch (TimeoutException ex) {
+                future.cancel(false);
+                items("timeout").increment();
+                results.add(failure.failed(item, TIMED_OUT));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                items("timeout").increment();
+                results.add(failure.failed(item, TIMED_OUT));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean acquire(Semaphore permits, long deadline) {
+        try {
+            return permits.tryAcquire(
+                    Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Counter items(String outcome) {
+        return Counter.builder("jci.file.batch.items")
+                .description("Batch file content items by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
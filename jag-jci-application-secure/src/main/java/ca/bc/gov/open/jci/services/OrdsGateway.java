@@ -0,0 +1,43 @@
+package ca.bc.gov.open.jci.services;
+
+import java.io.IOException;
+import java.net.URI;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * How the controllers call ORDS and Adobe, see {@link RestTemplateOrdsGateway}.
+ *
+ * <p>The exchange methods behave like the RestTemplate methods of the same name. String uris are
+ * encoded the way RestTemplate encodes them, and error statuses throw a runtime exception.
+ */
+public interface OrdsGateway {
+
+    <T> ResponseEntity<T> exchange(
+            URI uri, HttpMethod method, HttpEntity<?> request, Class<T> responseType);
+
+    <T> ResponseEntity<T> exchange(
+            URI uri,
+            HttpMethod method,
+            HttpEntity<?> request,
+            ParameterizedTypeReference<T> responseType);
+
+    <T> ResponseEntity<T> exchange(
+            String uri, HttpMethod method, HttpEntity<?> request, Class<T> responseType);
+
+    <T> ResponseEntity<T> exchange(
+            String uri,
+            HttpMethod method,
+            HttpEntity<?> request,
+            ParameterizedTypeReference<T> responseType);
+
+    /**
+     * GETs the uri and returns the response with its body still unread, for the caller to stream
+     * and close. Error statuses throw before the body is returned.
+     */
+    ClientHttpResponse stream(URI uri, HttpHeaders headers) throws IOException;
+}
@@ -0,0 +1,121 @@
+package ca.bc.gov.open.jci.services;
+
+import ca.bc.gov.open.jci.models.ords.OrdsUriTemplate;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The ORDS routes the controllers call, with the query parameters each takes in order. A route is
+ * compiled into an {@link OrdsUriTemplate} the first time it is used with the ORDS host, so a call
+ * only appends its encoded values instead of parsing the whole url with UriComponentsBuilder.
+ *
+ * <p>Routes are named by their path, e.g. criminal/file, which is also the route tag of the ORDS
+ * metrics, and {@link #named} looks a route up by that name.
+ */
+public enum OrdsRoute {
+    CODE_VALUES("common/codevalues", "lastRetrievedDate"),
+    // The generic agency and participant read the code values without the secure route
+    GENERIC_CODE_VALUES(
+            "common/codevalues",
+            "requestAgencyId",
+            "requestPartId",
+            "lastRetrievedDate",
+            "requestDtm",
+            "applicationCd"),
+    CODE_VALUES_SECURE(
+            "common/codevalues/secure",
+            "requestAgencyId",
+            "requestPartId",
+            "lastRetrievedDate",
+            "requestDtm",
+            "applicationCd"),
+    COURT_LIST_SECURE(
+            "common/courtlist/secure",
+            "requestAgencyIdentifierId",
+            "roomCd",
+            "proceedingDate",
+            "divisionCd",
+            "fileNumber",
+            "agencyIdentifierCd",
+            "requestPartId",
+            "requestDtm",
+            "applicationCd"),
+    CRIMINAL_FILE_SECURE(
+            "criminal/file/secure",
+            "agencyIdentifierCd",
+            "roomCd",
+            "proceedingDate",
+            "appearanceId",
+            "mdocJustinNo",
+            "requestAgencyId",
+            "requestPartId",
+            "requestDtm",
+            "applicationCd"),
+    CIVIL_FILE_SECURE(
+            "civil/file/secure",
+            "courtLocaCd",
+            "courtRoomCd",
+            "courtProceedingDate",
+            "appearanceId",
+            "physicalFileId",
+            "requestAgencyId",
+            "requestPartId",
+            "requestDtm",
+            "applicationCd"),
+    DOCUMENT_SECURE(
+            "common/document/secure",
+            "requestAgencyIdentifierId",
+            "requestPartId",
+            "requestDtm",
+            "applicationCd",
+            "documentId",
+            "courtDivisionCd",
+            "physicalFileId",
+            "mdocJustinNo"),
+    ROP_REPORT_SECURE(
+            "criminal/ropreport/secure",
+            "requestAgencyId",
+            "requestPartId",
+            "requestDtm",
+            "applicationCd",
+            "param1",
+            "param2",
+            "formCd");
+
+    private static final Map<String, OrdsRoute> BY_PATH = new HashMap<>();
+
+    static {
+        for (OrdsRoute route : values()) {
+            BY_PATH.putIfAbsent(route.path, route);
+        }
+    }
+
+    private final String path;
+    private final String[] queryParams;
+    private volatile OrdsUriTemplate template;
+
+    OrdsRoute(String path, String... queryParams) {
+        this.path = path;
+        this.queryParams = queryParams;
+    }
+
+    /** The route with the path, or null when it is not an ORDS route. */
+    public static OrdsRoute named(String path) {
+        return BY_PATH.get(path);
+    }
+
+    /** The url of the route under the host, with the query parameter values in order. */
+    public URI uri(String host, Object... values) {
+        return template(host).toUri(values);
+    }
+
+    private OrdsUriTemplate template(String host) {
+        OrdsUriTemplate compiled = template;
+        if (compiled == null || !compiled.getHost().equals(host)) {
+            compiled = OrdsUriTemplate.of(host, path, queryParams);
+            template = compiled;
+        }
+        return compiled;
+    }
+}
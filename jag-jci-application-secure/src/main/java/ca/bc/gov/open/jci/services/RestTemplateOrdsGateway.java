@@ -0,0 +1,85 @@
+package ca.bc.gov.open.jci.services;
+
+import java.io.IOException;
+import java.net.URI;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Calls ORDS with the blocking RestTemplate, so every call goes through the coalescing,
+ * resilience, concurrency limit, metrics and hedging interceptors. Streamed responses go through
+ * the streaming request factory instead, which skips the interceptors that buffer the body.
+ */
+public class RestTemplateOrdsGateway implements OrdsGateway {
+
+    private final RestTemplate restTemplate;
+    private final ClientHttpRequestFactory streamingRequestFactory;
+
+    public RestTemplateOrdsGateway(
+            RestTemplate restTemplate, ClientHttpRequestFactory streamingRequestFactory) {
+        this.restTemplate = restTemplate;
+        this.streamingRequestFactory = streamingRequestFactory;
+    }
+
+    /** Streams through the RestTemplate's own request factory. */
+    public RestTemplateOrdsGateway(RestTemplate restTemplate) {
+        this(restTemplate, null);
+    }
+
+    @Override
+    public <T> ResponseEntity<T> exchange(
+            URI uri, HttpMethod method, HttpEntity<?> request, Class<T> responseType) {
+        return restTemplate.exchange(uri, method, request, responseType);
+    }
+
+    @Override
+    public <T> ResponseEntity<T> exchange(
+            URI uri,
+            HttpMethod method,
+            HttpEntity<?> request,
+            ParameterizedTypeReference<T> responseType) {
+        return restTemplate.exchange(uri, method, request, responseType);
+    }
+
+    @Override
+    public <T> ResponseEntity<T> exchange(
+            String uri, HttpMethod method, HttpEntity<?> request, Class<T> responseType) {
+        return restTemplate.exchange(uri, method, request, responseType);
+    }
+
+    @Override
+    public <T> ResponseEntity<T> exchange(
+            String uri,
+            HttpMethod method,
+            HttpEntity<?> request,
+            ParameterizedTypeReference<T> responseType) {
+        return restTemplate.exchange(uri, method, request, responseType);
+    }
+
+    @Override
+    public ClientHttpResponse stream(URI uri, HttpHeaders headers) throws IOException {
+        ClientHttpRequestFactory requestFactory =
+                streamingRequestFactory != null
+                        ? streamingRequestFactory
+                        : restTemplate.getRequestFactory();
+        ClientHttpRequest request = requestFactory.createRequest(uri, HttpMethod.GET);
+        request.getHeaders().addAll(headers);
+        ClientHttpResponse response = request.execute();
+        try {
+            if (restTemplate.getErrorHandler().hasError(response)) {
+                restTemplate.getErrorHandler().handleError(uri, HttpMethod.GET, response);
+            }
+            return response;
+        } catch (IOException | RuntimeException ex) {
+            response.close();
+            throw ex;
+        }
+    }
+}
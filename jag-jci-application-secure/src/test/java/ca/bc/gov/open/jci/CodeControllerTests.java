@@ -6,6 +6,7 @@ import ca.bc.gov.open.jci.common.code.values.secure.*;
 import ca.bc.gov.open.jci.controllers.CodeController;
 import ca.bc.gov.open.jci.models.serializers.InstantDeserializer;
 import ca.bc.gov.open.jci.models.serializers.InstantSerializer;
+import ca.bc.gov.open.jci.services.CodeValueStore;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -18,6 +19,7 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.Locale;
+import java.util.Optional;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,6 +34,7 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -39,12 +42,14 @@ public class CodeControllerTests {
 
     @Mock private ObjectMapper objectMapper;
     @Mock private RestTemplate restTemplate;
+    @Mock private CodeValueStore codeValueStore;
     @Mock private CodeController codeController;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        codeController = Mockito.spy(new CodeController(restTemplate, objectMapper));
+        codeController =
+                Mockito.spy(new CodeController(restTemplate, objectMapper, codeValueStore));
     }
 
     @Test
@@ -86,6 +91,39 @@ public class CodeControllerTests {
         Assertions.assertNotNull(resp);
     }
 
+    @Test
+    public void getCodeValuesSecureGenericTest() throws JsonProcessingException {
+        ReflectionTestUtils.setField(codeController, "genericAgenId", "G");
+        ReflectionTestUtils.setField(codeController, "genericPartId", "G");
+
+        var req = new GetCodeValuesSecure();
+        req.setApplicationCd("A");
+        req.setLastRetrievedDate(Instant.now());
+        req.setRequestDtm(Instant.now());
+        req.setRequestPartId("G");
+        req.setRequestAgencyIdentifierId("G");
+
+        var stored = new ca.bc.gov.open.jci.common.code.values.GetCodeValuesResponse();
+        var cvs = new ca.bc.gov.open.jci.common.code.values.CodeValues();
+        stored.setCeisCodeValues(cvs);
+        var cv = new ca.bc.gov.open.jci.common.code.values.CodeValue();
+        cvs.getCodeValue().add(cv);
+        cv.setCode("A");
+        cv.setCodeType("A");
+        cv.setFlex("A");
+        cv.setLongDesc("A");
+        cv.setShortDesc("A");
+
+        when(codeValueStore.getCodeValues(Mockito.any())).thenReturn(Optional.of(stored));
+
+        var resp = codeController.getCodeValuesSecure(req);
+
+        Assertions.assertEquals("0", resp.getResultCd());
+        Assertions.assertEquals("A", resp.getCeisCodeValues().getCodeValue().get(0).getCode());
+        Assertions.assertNull(resp.getJustinCodeValues());
+        Mockito.verifyNoInteractions(restTemplate);
+    }
+
     @Test
     public void testInstantSerializer() throws IOException {
         ObjectMapper objectMapper = new ObjectMapper();
@@ -5,9 +5,12 @@ import static org.mockito.Mockito.when;
 import ca.bc.gov.open.jci.controllers.CourtController;
 import ca.bc.gov.open.jci.court.secure.one.GetCrtListSecure;
 import ca.bc.gov.open.jci.court.secure.one.GetCrtListSecureResponse;
+import ca.bc.gov.open.jci.services.CourtListCache;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.net.URI;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
 import org.junit.jupiter.api.Assertions;
@@ -36,7 +39,18 @@ public class CourtControllerTests {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        courtController = Mockito.spy(new CourtController(restTemplate, objectMapper));
+        courtController =
+                Mockito.spy(
+                        new CourtController(
+                                restTemplate,
+                                objectMapper,
+                                new CourtListCache(
+                                        objectMapper,
+                                        new SimpleMeterRegistry(),
+                                        true,
+                                        Duration.ofMinutes(1),
+                                        1024,
+                                        Duration.ofMinutes(2))));
     }
 
     @Test
@@ -5,6 +5,7 @@ import static org.mockito.Mockito.when;
 import ca.bc.gov.open.jci.common.document.secure.DocumentSecureRequest;
 import ca.bc.gov.open.jci.common.document.secure.GetDocumentSecure;
 import ca.bc.gov.open.jci.controllers.DocumentController;
+import ca.bc.gov.open.jci.services.DocumentContentService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.net.URI;
@@ -37,7 +38,12 @@ public class DocumentControllerTests {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        documentController = Mockito.spy(new DocumentController(restTemplate, objectMapper));
+        documentController =
+                Mockito.spy(
+                        new DocumentController(
+                                restTemplate,
+                                objectMapper,
+                                new DocumentContentService(restTemplate)));
     }
 
     @Test
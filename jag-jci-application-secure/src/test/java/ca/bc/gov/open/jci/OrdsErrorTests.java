@@ -11,7 +11,12 @@ import ca.bc.gov.open.jci.common.rop.report.secure.GetROPReportSecure;
 import ca.bc.gov.open.jci.controllers.*;
 import ca.bc.gov.open.jci.court.secure.one.GetCrtListSecure;
 import ca.bc.gov.open.jci.exceptions.ORDSException;
+import ca.bc.gov.open.jci.services.CodeValueStore;
+import ca.bc.gov.open.jci.services.CourtListCache;
+import ca.bc.gov.open.jci.services.DocumentContentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,6 +41,7 @@ public class OrdsErrorTests {
 
     @Mock private ObjectMapper objectMapper;
     @Mock private RestTemplate restTemplate;
+    @Mock private CodeValueStore codeValueStore;
     @Mock private CodeController codeController;
     @Mock private CourtController courtController;
     @Mock private FileController fileController;
@@ -45,11 +51,28 @@ public class OrdsErrorTests {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        codeController = Mockito.spy(new CodeController(restTemplate, objectMapper));
-        courtController = Mockito.spy(new CourtController(restTemplate, objectMapper));
+        codeController =
+                Mockito.spy(new CodeController(restTemplate, objectMapper, codeValueStore));
+        courtController =
+                Mockito.spy(
+                        new CourtController(
+                                restTemplate,
+                                objectMapper,
+                                new CourtListCache(
+                                        objectMapper,
+                                        new SimpleMeterRegistry(),
+                                        true,
+                                        Duration.ofMinutes(1),
+                                        1024,
+                                        Duration.ofMinutes(2))));
         fileController = Mockito.spy(new FileController(restTemplate, objectMapper));
         reportController = Mockito.spy(new ReportController(restTemplate, objectMapper));
-        documentController = Mockito.spy(new DocumentController(restTemplate, objectMapper));
+        documentController =
+                Mockito.spy(
+                        new DocumentController(
+                                restTemplate,
+                                objectMapper,
+                                new DocumentContentService(restTemplate)));
 
     }
 
@@ -0,0 +1,307 @@
+package ca.bc.gov.open.jci.configuration;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.ws.transport.context.TransportContext;
+import org.springframework.ws.transport.context.TransportContextHolder;
+import org.springframework.ws.transport.http.HttpServletConnection;
+
+/**
+ * Streams a document into the SOAP response as base64 instead of holding it in memory. The
+ * endpoint registers the open ORDS response with {@link #register} and puts the returned
+ * placeholder in the B64Content element; when the SOAP envelope is written this filter replaces
+ * the placeholder with the document, encoded through a fixed size buffer.
+ *
+ * <p>The envelope has already been sent by the time the document is read, so a failure part way
+ * through the document aborts the response instead of returning a SOAP fault. ORDS errors reported
+ * in the status line are still seen by the endpoint and returned as faults.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class DocumentStreamingFilter extends OncePerRequestFilter {
+
+    private static final String DOCUMENT_ATTRIBUTE =
+            DocumentStreamingFilter.class.getName() + ".document";
+
+    private static final int BUFFER_SIZE = 48 * 1024;
+
+    /** Returns the servlet request of the SOAP message being handled, or null outside one. */
+    public static HttpServletRequest currentRequest() {
+        TransportContext context = TransportContextHolder.getTransportContext();
+        if (context != null && context.getConnection() instanceof HttpServletConnection) {
+            return ((HttpServletConnection) context.getConnection()).getHttpServletRequest();
+        }
+        return null;
+    }
+
+    /**
+     * Registers the document to stream into the response of the request and returns the
+     * placeholder to put in its place. The filter closes the ORDS response once the SOAP response
+     * is complete.
+     */
+    public static String register(HttpServletRequest request, ClientHttpResponse document) {
+        // Letters, digits and dashes only, so the XML writer never escapes it
+        String placeholder = "jci-document-" + UUID.randomUUID();
+        request.setAttribute(DOCUMENT_ATTRIBUTE, new StreamedDocument(placeholder, document));
+        return placeholder;
+    }
+
+    /**
+     * Returns the open ORDS response registered under the placeholder, for callers that send it
+     * some other way than inline. It is still closed by the filter.
+     */
+    public static ClientHttpResponse registered(HttpServletRequest request, String placeholder) {
+        Object document = request.getAttribute(DOCUMENT_ATTRIBUTE);
+        if (document != null
+                && Arrays.equals(
+                        ((StreamedDocument) document).placeholder,
+                        placeholder.getBytes(StandardCharsets.UTF_8))) {
+            return ((StreamedDocument) document).response;
+        }
+        return null;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.equals("/ws") && !path.startsWith("/ws/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            StreamingResponseWrapper wrapper = new StreamingResponseWrapper(request, response);
+            filterChain.doFilter(request, wrapper);
+            wrapper.finish();
+        } finally {
+            Object document = request.getAttribute(DOCUMENT_ATTRIBUTE);
+            if (document != null) {
+                request.removeAttribute(DOCUMENT_ATTRIBUTE);
+                ((StreamedDocument) document).response.close();
+            }
+        }
+    }
+
+    private static class StreamedDocument {
+        private final byte[] placeholder;
+        private final ClientHttpResponse response;
+
+        StreamedDocument(String placeholder, ClientHttpResponse response) {
+            this.placeholder = placeholder.getBytes(StandardCharsets.UTF_8);
+            this.response = response;
+        }
+    }
+
+    private static class StreamingResponseWrapper extends HttpServletResponseWrapper {
+        private final HttpServletRequest request;
+        private ServletOutputStream outputStream;
+
+        StreamingResponseWrapper(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                Object document = request.getAttribute(DOCUMENT_ATTRIBUTE);
+                outputStream =
+                        document != null
+                                ? new SplicingOutputStream(
+                                        super.getOutputStream(), (StreamedDocument) document)
+                                : super.getOutputStream();
+            }
+            return outputStream;
+        }
+
+        void finish() throws IOException {
+            if (outputStream instanceof SplicingOutputStream) {
+                ((SplicingOutputStream) outputStream).writePending();
+            }
+        }
+
+        // The length written by the SOAP stack does not include the document
+        @Override
+        public void setContentLength(int len) {
+            if (request.getAttribute(DOCUMENT_ATTRIBUTE) == null) {
+                super.setContentLength(len);
+            }
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (request.getAttribute(DOCUMENT_ATTRIBUTE) == null) {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (!isStreamedContentLength(name)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (!isStreamedContentLength(name)) {
+                super.addHeader(name, value);
+            }
+        }
+
+        private boolean isStreamedContentLength(String name) {
+            return HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)
+                    && request.getAttribute(DOCUMENT_ATTRIBUTE) != null;
+        }
+    }
+
+    /** Passes the envelope through and writes the document in place of the first placeholder. */
+    private static class SplicingOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+        private final StreamedDocument document;
+        private int matched;
+        private boolean spliced;
+
+        SplicingOutputStream(ServletOutputStream delegate, StreamedDocument document) {
+            this.delegate = delegate;
+            this.document = document;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (spliced) {
+                delegate.write(b);
+                return;
+            }
+            byte[] placeholder = document.placeholder;
+            if (b == placeholder[matched]) {
+                matched++;
+                if (matched == placeholder.length) {
+                    matched = 0;
+                    spliced = true;
+                    writeDocument();
+                }
+                return;
+            }
+            // The placeholder has no repeated prefix, so a mismatch can only restart at b
+            if (matched > 0) {
+                delegate.write(placeholder, 0, matched);
+                matched = 0;
+                write(b);
+                return;
+            }
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (spliced) {
+                delegate.write(b, off, len);
+                return;
+            }
+            // Copy runs that cannot start the placeholder straight through
+            byte first = document.placeholder[0];
+            int end = off + len;
+            int i = off;
+            while (i < end && !spliced) {
+                if (matched == 0) {
+                    int run = i;
+                    while (run < end && b[run] != first) {
+                        run++;
+                    }
+                    delegate.write(b, i, run - i);
+                    i = run;
+                    if (i == end) {
+                        break;
+                    }
+                }
+                write(b[i++]);
+            }
+            if (i < end) {
+                delegate.write(b, i, end - i);
+            }
+        }
+
+        private void writeDocument() throws IOException {
+            OutputStream encoder =
+                    Base64.getEncoder()
+                            .wrap(
+                                    new OutputStream() {
+                                        @Override
+                                        public void write(int b) throws IOException {
+                                            delegate.write(b);
+                                        }
+
+                                        @Override
+                                        public void write(byte[] b, int off, int len)
+                                                throws IOException {
+                                            delegate.write(b, off, len);
+                                        }
+
+                                        // Leave the servlet stream open for the rest of the
+                                        // envelope
+                                        @Override
+                                        public void close() {}
+                                    });
+            InputStream body = document.response.getBody();
+            if (body != null) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int n;
+                while ((n = body.read(buffer)) != -1) {
+                    encoder.write(buffer, 0, n);
+                }
+            }
+            // Writes the final padding
+            encoder.close();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        /** Writes the start of a placeholder held back at the end of the response. */
+        void writePending() throws IOException {
+            if (matched > 0) {
+                delegate.write(document.placeholder, 0, matched);
+                matched = 0;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            writePending();
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
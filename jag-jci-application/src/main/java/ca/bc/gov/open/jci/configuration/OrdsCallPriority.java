@@ -0,0 +1,34 @@
+package ca.bc.gov.open.jci.configuration;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Marks the ORDS calls made on the current thread as background work, such as file content
+ * prefetches, batch fan-out and court list pre-warming. The bulkheads and the concurrency limit
+ * only give background calls part of each route, so that they yield to the calls a client is
+ * waiting on.
+ */
+public final class OrdsCallPriority {
+
+    private static final ThreadLocal<Boolean> BACKGROUND = new ThreadLocal<>();
+
+    private OrdsCallPriority() {}
+
+    /** Whether the ORDS calls on the current thread are background work. */
+    public static boolean background() {
+        return Boolean.TRUE.equals(BACKGROUND.get());
+    }
+
+    /** Runs the call with the ORDS calls it makes on this thread marked as background work. */
+    public static <T> T inBackground(Callable<T> call) throws Exception {
+        if (background()) {
+            return call.call();
+        }
+        BACKGROUND.set(Boolean.TRUE);
+        try {
+            return call.call();
+        } finally {
+            BACKGROUND.remove();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ca.bc.gov.open.jci.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Lets concurrent GETs for the same resolved URI share one ORDS call. The first caller makes the
+ * call and buffers the response; callers arriving while it is in flight wait for it and each get
+ * their own copy of the body to deserialize. Registered ahead of {@link OrdsMetricsInterceptor} so
+ * that only real ORDS calls are timed.
+ */
+public class OrdsCoalescingInterceptor implements ClientHttpRequestInterceptor {
+
+    private final ConcurrentHashMap<String, CompletableFuture<BufferedResponse>> inFlight =
+            new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final URI ordsHost;
+
+    public OrdsCoalescingInterceptor(ObjectProvider<MeterRegistry> meterRegistry, String host) {
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.ordsHost = URI.create(host);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(
+            HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!HttpMethod.GET.equals(request.getMethod())) {
+            return execution.execute(request, body);
+        }
+
+        // The Accept header follows the requested response type, so it is part of the identity
+        String key = request.getURI() + " " + request.getHeaders().getAccept();
+        String route = OrdsMetricsInterceptor.route(ordsHost, request.getURI());
+        CompletableFuture<BufferedResponse> call = new CompletableFuture<>();
+        CompletableFuture<BufferedResponse> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            counter(route, "coalesced").increment();
+            return await(existing).toResponse();
+        }
+
+        counter(route, "leader").increment();
+        try (ClientHttpResponse response = execution.execute(request, body)) {
+            BufferedResponse buffered = new BufferedResponse(response);
+            inFlight.remove(key, call);
+            call.complete(buffered);
+            return buffered.toResponse();
+        } catch (IOException | RuntimeException ex) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private static BufferedResponse await(CompletableFuture<BufferedResponse> call)
+            throws IOException {
+        try {
+            return call.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a shared ORDS call");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IOException(ex.getCause().getMessage(), ex.getCause());
+        }
+    }
+
+    private Counter counter(String route, String role) {
+        return Counter.builder("jci.ords.coalescing.requests")
+                .description("ORDS GETs that made a call (leader) or shared one (coalesced)")
+                .tag("route", route)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    private static class BufferedResponse {
+        private final HttpStatusCode statusCode;
+        private final String statusText;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        BufferedResponse(ClientHttpResponse response) throws IOException {
+            this.statusCode = response.getStatusCode();
+            this.statusText = response.getStatusText();
+            HttpHeaders copy = new HttpHeaders();
+            copy.putAll(response.getHeaders());
+            this.headers = HttpHeaders.readOnlyHttpHeaders(copy);
+            this.body = StreamUtils.copyToByteArray(response.getBody());
+        }
+
+        ClientHttpResponse toResponse() {
+            return new ClientHttpResponse() {
+                private final InputStream stream = new ByteArrayInputStream(body);
+
+                @Override
+                public HttpStatusCode getStatusCode() {
+                    return statusCode;
+                }
+
+                @Override
+                public String getStatusText() {
+                    return statusText;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return headers;
+                }
+
+                @Override
+                public InputStream getBody() {
+                    return stream;
+                }
+
+                @Override
+                public void close() {}
+            };
+        }
+    }
+}
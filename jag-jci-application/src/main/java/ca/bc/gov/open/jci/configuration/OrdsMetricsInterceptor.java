@@ -0,0 +1,185 @@
+package ca.bc.gov.open.jci.configuration;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Records outbound ORDS latency, payload sizes and outcome per route (the path below jci.host,
+ * e.g. criminal/file or common/courtlist). Calls to any other host, such as the Adobe report
+ * server, are tagged with that host name.
+ */
+public class OrdsMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final URI ordsHost;
+
+    public OrdsMetricsInterceptor(ObjectProvider<MeterRegistry> meterRegistry, String host) {
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.ordsHost = URI.create(host);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(
+            HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String route = route(request.getURI());
+        String method = request.getMethod().name();
+        if (body.length > 0) {
+            summary("jci.ords.request.size", "Outbound ORDS request payload size", route, method)
+                    .record(body.length);
+        }
+
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            outcome = outcome(response.getStatusCode());
+            return new CountingClientHttpResponse(
+                    response,
+                    summary(
+                            "jci.ords.response.size",
+                            "Inbound ORDS response payload size",
+                            route,
+                            method));
+        } catch (IOException | RuntimeException ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            Timer.builder("jci.ords.requests")
+                    .description("Outbound ORDS call latency")
+                    .tag("route", route)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** Records the size of a request body written after the interceptors ran, as when streamed. */
+    public void recordRequestSize(HttpRequest request, long size) {
+        if (size > 0) {
+            summary(
+                            "jci.ords.request.size",
+                            "Outbound ORDS request payload size",
+                            route(request.getURI()),
+                            request.getMethod().name())
+                    .record(size);
+        }
+    }
+
+    String route(URI uri) {
+        return route(ordsHost, uri);
+    }
+
+    public static String route(URI ordsHost, URI uri) {
+        if (uri.getHost() == null || !uri.getHost().equalsIgnoreCase(ordsHost.getHost())) {
+            return uri.getHost() != null ? uri.getHost() : "unknown";
+        }
+        String path = uri.getPath() != null ? uri.getPath() : "";
+        String base = ordsHost.getPath() != null ? ordsHost.getPath() : "";
+        if (path.startsWith(base)) {
+            path = path.substring(base.length());
+        }
+        // Tolerates a doubled slash between the host and the route
+        int i = 0;
+        while (i < path.length() && path.charAt(i) == '/') {
+            i++;
+        }
+        return path.substring(i);
+    }
+
+    private static String outcome(HttpStatusCode status) {
+        if (status.is2xxSuccessful()) {
+            return "success";
+        }
+        return status.is4xxClientError() ? "client_error" : "server_error";
+    }
+
+    private DistributionSummary summary(
+            String name, String description, String route, String method) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("bytes")
+                .tag("route", route)
+                .tag("method", method)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static class CountingClientHttpResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final DistributionSummary responseSize;
+        private InputStream body;
+        private long count;
+
+        CountingClientHttpResponse(ClientHttpResponse delegate, DistributionSummary responseSize) {
+            this.delegate = delegate;
+            this.responseSize = responseSize;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body =
+                        new FilterInputStream(delegate.getBody()) {
+                            @Override
+                            public int read() throws IOException {
+                                int b = super.read();
+                                if (b >= 0) {
+                                    count++;
+                                }
+                                return b;
+                            }
+
+                            @Override
+                            public int read(byte[] b, int off, int len) throws IOException {
+                                int n = super.read(b, off, len);
+                                if (n > 0) {
+                                    count += n;
+                                }
+                                return n;
+                            }
+                        };
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            responseSize.record(count);
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ca.bc.gov.open.jci.configuration;
+
+import ca.bc.gov.open.jci.services.ProcessJournal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Inspects and replays the process journal. GET /actuator/processjournal lists the records not
+ * yet delivered to ORDS, with those ORDS rejected flagged and their status, and POST replays them
+ * straight away, ignoring any retry backoff.
+ */
+@Component
+@Endpoint(id = "processjournal")
+public class ProcessJournalEndpoint {
+
+    private final ProcessJournal processJournal;
+
+    public ProcessJournalEndpoint(ProcessJournal processJournal) {
+        this.processJournal = processJournal;
+    }
+
+    @ReadOperation
+    public Map<String, Object> journal() {
+        Map<String, Object> journal = new LinkedHashMap<>();
+        journal.put("depth", processJournal.depth());
+        journal.put("pending", processJournal.pending());
+        return journal;
+    }
+
+    @WriteOperation
+    public Map<String, Object> replay() {
+        Map<String, Object> replay = new LinkedHashMap<>();
+        replay.put("delivered", processJournal.drain(true));
+        replay.put("depth", processJournal.depth());
+        return replay;
+    }
+}
@@ -0,0 +1,181 @@
+package ca.bc.gov.open.jci.configuration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Request factory for large ORDS POSTs whose body is written onto the connection as it is
+ * serialized, with chunked transfer, rather than serialized into a byte array first the way
+ * {@link org.springframework.http.client.InterceptingClientHttpRequestFactory} does.
+ *
+ * <p>The interceptors still run around each request, but are handed an empty body. The body is
+ * written by the message converter's callback, so an interceptor that retries writes it again.
+ * Its size, before any compression, is counted as it is written and recorded with the metrics
+ * interceptor once written. With gzip the body is compressed on the way out and sent with
+ * Content-Encoding: gzip.
+ */
+public class StreamingBodyRequestFactory implements ClientHttpRequestFactory {
+
+    private static final byte[] NO_BODY = new byte[0];
+
+    private final ClientHttpRequestFactory requestFactory;
+    private final List<ClientHttpRequestInterceptor> interceptors;
+    private final boolean gzip;
+    private final OrdsMetricsInterceptor metrics;
+
+    public StreamingBodyRequestFactory(
+            ClientHttpRequestFactory requestFactory,
+            List<ClientHttpRequestInterceptor> interceptors,
+            boolean gzip) {
+        this(requestFactory, interceptors, gzip, null);
+    }
+
+    /** Records the size of each body written with the metrics interceptor, when there is one. */
+    public StreamingBodyRequestFactory(
+            ClientHttpRequestFactory requestFactory,
+            List<ClientHttpRequestInterceptor> interceptors,
+            boolean gzip,
+            OrdsMetricsInterceptor metrics) {
+        this.requestFactory = requestFactory;
+        this.interceptors = List.copyOf(interceptors);
+        this.gzip = gzip;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod method) {
+        return new StreamingBodyRequest(uri, method);
+    }
+
+    private class StreamingBodyRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+        private final URI uri;
+        private final HttpMethod method;
+        private final HttpHeaders headers = new HttpHeaders();
+        private Body body;
+        // Only used by converters that do not stream
+        private ByteArrayOutputStream buffer;
+
+        private StreamingBodyRequest(URI uri, HttpMethod method) {
+            this.uri = uri;
+            this.method = method;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            if (buffer == null) {
+                buffer = new ByteArrayOutputStream(1024);
+            }
+            return buffer;
+        }
+
+        @Override
+        public void setBody(Body body) {
+            this.body = body;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            Iterator<ClientHttpRequestInterceptor> next = interceptors.iterator();
+            return new ClientHttpRequestExecution() {
+                @Override
+                public ClientHttpResponse execute(HttpRequest request, byte[] ignored)
+                        throws IOException {
+                    if (next.hasNext()) {
+                        return next.next().intercept(request, NO_BODY, this);
+                    }
+                    ClientHttpRequest delegate =
+                            requestFactory.createRequest(request.getURI(), request.getMethod());
+                    delegate.getHeaders().putAll(request.getHeaders());
+                    if (body == null && buffer == null) {
+                        return delegate.execute();
+                    }
+                    // The length is unknown until the body has been written
+                    delegate.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                    if (gzip) {
+                        delegate.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                    }
+                    if (delegate instanceof StreamingHttpOutputMessage streaming) {
+                        streaming.setBody(StreamingBodyRequest.this::writeBody);
+                    } else {
+                        writeBody(delegate.getBody());
+                    }
+                    return delegate.execute();
+                }
+            }.execute(this, NO_BODY);
+        }
+
+        private void writeBody(OutputStream out) throws IOException {
+            OutputStream target = StreamUtils.nonClosing(out);
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(target, 8192);
+                write(StreamUtils.nonClosing(compressed));
+                compressed.finish();
+            } else {
+                write(target);
+            }
+        }
+
+        private void write(OutputStream out) throws IOException {
+            CountingOutputStream counting = new CountingOutputStream(out);
+            if (body != null) {
+                body.writeTo(counting);
+            } else {
+                buffer.writeTo(counting);
+            }
+            if (metrics != null) {
+                metrics.recordRequestSize(this, counting.count);
+            }
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -5,8 +5,14 @@ import ca.bc.gov.open.jci.exceptions.ORDSException;
 import ca.bc.gov.open.jci.models.OrdsErrorLog;
 import ca.bc.gov.open.jci.models.RequestSuccessLog;
 import ca.bc.gov.open.jci.models.serializers.InstantSerializer;
+import ca.bc.gov.open.jci.services.CodeValueStore;
+import ca.bc.gov.open.jci.services.OrdsGateway;
+import ca.bc.gov.open.jci.services.OrdsRoute;
+import ca.bc.gov.open.jci.services.RestTemplateOrdsGateway;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.util.Optional;
 import javax.xml.transform.TransformerConfigurationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +21,6 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.ws.context.MessageContext;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
@@ -27,7 +32,7 @@ import org.springframework.ws.soap.saaj.SaajSoapMessage;
 @Slf4j
 @Endpoint
 public class CodeController {
-    @Value("${jci.host}" + "common/")
+    @Value("${jci.host}")
     private String host = "https://127.0.0.1/";
 
     @Value("${jci.generic-agen-id}")
@@ -36,13 +41,22 @@ public class CodeController {
     @Value("${jci.generic-part-id}")
     private String genericPartId;
 
-    private final RestTemplate restTemplate;
+    private final OrdsGateway ordsGateway;
     private final ObjectMapper objectMapper;
+    private final CodeValueStore codeValueStore;
 
     @Autowired
-    public CodeController(RestTemplate restTemplate, ObjectMapper objectMapper) {
-        this.restTemplate = restTemplate;
+    public CodeController(
+            OrdsGateway ordsGateway, ObjectMapper objectMapper, CodeValueStore codeValueStore) {
+        this.ordsGateway = ordsGateway;
         this.objectMapper = objectMapper;
+        this.codeValueStore = codeValueStore;
+    }
+
+    /** Calls ORDS through the RestTemplate. */
+    public CodeController(
+            RestTemplate restTemplate, ObjectMapper objectMapper, CodeValueStore codeValueStore) {
+        this(new RestTemplateOrdsGateway(restTemplate), objectMapper, codeValueStore);
     }
 
     @PayloadRoot(
@@ -75,16 +89,28 @@ public class CodeController {
             respheader.addNamespaceDeclaration(
                     "SOAP-ENV", "http://schemas.xmlsoap.org/soap/envelope/");
         }
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "codevalues")
-                        .queryParam(
-                                "lastRetrievedDate",
-                                InstantSerializer.convert(getCodeValues.getLastRetrievedDate()));
+
+        Optional<GetCodeValuesResponse> stored =
+                codeValueStore.getCodeValues(getCodeValues.getLastRetrievedDate());
+        if (stored.isPresent()) {
+            log.info(
+                    objectMapper.writeValueAsString(
+                            new RequestSuccessLog("Request Success", "getCodeValues")));
+            if (stored.get().getCeisCodeValues() == null
+                    && stored.get().getJustinCodeValues() == null) {
+                return null;
+            }
+            return stored.get();
+        }
+
+        URI uri =
+                OrdsRoute.CODE_VALUES.uri(
+                        host, InstantSerializer.convert(getCodeValues.getLastRetrievedDate()));
 
         try {
             HttpEntity<GetCodeValuesResponse> resp =
-                    restTemplate.exchange(
-                            builder.build().toUri(),
+                    ordsGateway.exchange(
+                            uri,
                             HttpMethod.GET,
                             new HttpEntity<>(new HttpHeaders()),
                             GetCodeValuesResponse.class);
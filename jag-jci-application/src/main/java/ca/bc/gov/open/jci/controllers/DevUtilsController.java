@@ -4,6 +4,10 @@ import ca.bc.gov.open.jci.common.dev.utils.*;
 import ca.bc.gov.open.jci.exceptions.ORDSException;
 import ca.bc.gov.open.jci.models.OrdsErrorLog;
 import ca.bc.gov.open.jci.models.RequestSuccessLog;
+import ca.bc.gov.open.jci.services.CourtListCache;
+import ca.bc.gov.open.jci.services.OrdsGateway;
+import ca.bc.gov.open.jci.services.OrdsRoute;
+import ca.bc.gov.open.jci.services.RestTemplateOrdsGateway;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
@@ -13,7 +17,6 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
@@ -26,13 +29,22 @@ public class DevUtilsController {
     @Value("${jci.host}")
     private String host = "https://127.0.0.1/";
 
-    private final RestTemplate restTemplate;
+    private final OrdsGateway ordsGateway;
     private final ObjectMapper objectMapper;
+    private final CourtListCache courtListCache;
 
     @Autowired
-    public DevUtilsController(RestTemplate restTemplate, ObjectMapper objectMapper) {
-        this.restTemplate = restTemplate;
+    public DevUtilsController(
+            OrdsGateway ordsGateway, ObjectMapper objectMapper, CourtListCache courtListCache) {
+        this.ordsGateway = ordsGateway;
         this.objectMapper = objectMapper;
+        this.courtListCache = courtListCache;
+    }
+
+    /** Calls ORDS through the RestTemplate. */
+    public DevUtilsController(
+            RestTemplate restTemplate, ObjectMapper objectMapper, CourtListCache courtListCache) {
+        this(new RestTemplateOrdsGateway(restTemplate), objectMapper, courtListCache);
     }
 
     @PayloadRoot(
@@ -42,8 +54,7 @@ public class DevUtilsController {
     public ClearAppearanceResultsResponse clearAppearanceResults(
             @RequestPayload ClearAppearanceResults clrResults) throws JsonProcessingException {
 
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "criminal/clear-appr-results");
+        String uri = OrdsRoute.CLEAR_APPEARANCE_RESULTS.uriString(host);
 
         var inner =
                 clrResults.getClrResults() != null ? clrResults.getClrResults() : new ClrResults();
@@ -51,8 +62,8 @@ public class DevUtilsController {
 
         try {
             HttpEntity<ClearAppearanceResultsResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
+                    ordsGateway.exchange(
+                            uri,
                             HttpMethod.POST,
                             payload,
                             ClearAppearanceResultsResponse.class);
@@ -69,6 +80,11 @@ public class DevUtilsController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -79,8 +95,7 @@ public class DevUtilsController {
     public RecreateCourtListResponse reCreateCourtList(@RequestPayload RecreateCourtList crtList)
             throws JsonProcessingException {
 
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "common/courtlist/recreate");
+        String uri = OrdsRoute.RECREATE_COURT_LIST.uriString(host);
 
         var inner =
                 crtList.getRecreateCourtListDoc() != null
@@ -90,8 +105,8 @@ public class DevUtilsController {
 
         try {
             HttpEntity<RecreateCourtListResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
+                    ordsGateway.exchange(
+                            uri,
                             HttpMethod.POST,
                             payload,
                             RecreateCourtListResponse.class);
@@ -108,6 +123,11 @@ public class DevUtilsController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 }
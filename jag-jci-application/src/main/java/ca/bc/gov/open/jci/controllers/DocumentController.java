@@ -7,11 +7,14 @@ import ca.bc.gov.open.jci.common.document.GetDocumentResponse;
 import ca.bc.gov.open.jci.exceptions.ORDSException;
 import ca.bc.gov.open.jci.models.OrdsErrorLog;
 import ca.bc.gov.open.jci.models.RequestSuccessLog;
+import ca.bc.gov.open.jci.services.DocumentContentService;
+import ca.bc.gov.open.jci.services.OrdsGateway;
+import ca.bc.gov.open.jci.services.OrdsRoute;
+import ca.bc.gov.open.jci.services.RestTemplateOrdsGateway;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.net.URI;
 import java.net.URLDecoder;
-import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -24,9 +27,7 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.util.Base64Utils;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
@@ -39,21 +40,37 @@ public class DocumentController {
     @Value("${jci.host}")
     private String host = "https://127.0.0.1/";
 
-    private final RestTemplate restTemplate;
+    private final OrdsGateway ordsGateway;
     private final ObjectMapper objectMapper;
 
     private final HttpServletRequest servletRequest;
+    private final DocumentContentService documentContentService;
 
     private static String CORRELATION_HEADER_NAME = "x-correlation-id";
 
     @Autowired
     public DocumentController(
-            RestTemplate restTemplate,
+            OrdsGateway ordsGateway,
             ObjectMapper objectMapper,
-            HttpServletRequest servletRequest) {
-        this.restTemplate = restTemplate;
+            HttpServletRequest servletRequest,
+            DocumentContentService documentContentService) {
+        this.ordsGateway = ordsGateway;
         this.objectMapper = objectMapper;
         this.servletRequest = servletRequest;
+        this.documentContentService = documentContentService;
+    }
+
+    /** Calls ORDS through the RestTemplate. */
+    public DocumentController(
+            RestTemplate restTemplate,
+            ObjectMapper objectMapper,
+            HttpServletRequest servletRequest,
+            DocumentContentService documentContentService) {
+        this(
+                new RestTemplateOrdsGateway(restTemplate),
+                objectMapper,
+                servletRequest,
+                documentContentService);
     }
 
     @PayloadRoot(
@@ -69,12 +86,8 @@ public class DocumentController {
                         : new Document();
 
         // request getDocument to get url
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "common/document")
-                        .queryParam(
-                                "documentId",
-                                URLEncoder.encode(inner.getDocumentId(), StandardCharsets.UTF_8))
-                        .queryParam("courtDivisionCd", inner.getCourtDivisionCd());
+        URI uri =
+                OrdsRoute.DOCUMENT.uri(host, inner.getDocumentId(), inner.getCourtDivisionCd());
 
         HttpEntity<Map<String, String>> resp = null;
         LocalDateTime startTime = LocalDateTime.now();
@@ -84,8 +97,8 @@ public class DocumentController {
         }
         try {
             resp =
-                    restTemplate.exchange(
-                            builder.build(true).toUri(),
+                    ordsGateway.exchange(
+                            uri,
                             HttpMethod.GET,
                             new HttpEntity<>(headers),
                             new ParameterizedTypeReference<>() {});
@@ -126,15 +139,7 @@ public class DocumentController {
                 // get the ticket
                 url = URLDecoder.decode(url, StandardCharsets.UTF_8);
 
-                HttpEntity<byte[]> resp2 =
-                        restTemplate.exchange(
-                                new URI(url),
-                                HttpMethod.GET,
-                                new HttpEntity<>(headers),
-                                byte[].class);
-
-                String bs64 =
-                        resp2.getBody() != null ? Base64Utils.encodeToString(resp2.getBody()) : "";
+                String bs64 = documentContentService.b64Content(new URI(url), headers);
 
                 var out = new GetDocumentResponse();
                 var one = new DocumentResult();
@@ -6,8 +6,14 @@ import ca.bc.gov.open.jci.exceptions.ORDSException;
 import ca.bc.gov.open.jci.models.OrdsErrorLog;
 import ca.bc.gov.open.jci.models.RequestSuccessLog;
 import ca.bc.gov.open.jci.models.serializers.InstantSerializer;
+import ca.bc.gov.open.jci.services.FileContentBatcher;
+import ca.bc.gov.open.jci.services.FileContentPrefetcher;
+import ca.bc.gov.open.jci.services.OrdsGateway;
+import ca.bc.gov.open.jci.services.OrdsRoute;
+import ca.bc.gov.open.jci.services.RestTemplateOrdsGateway;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,7 +21,6 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
@@ -25,16 +30,40 @@ import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
 @Endpoint
 public class FileController {
 
+    // Batch item result codes, ORDS result codes are never negative
+    private static final String RESULT_SUCCESS = "0";
+    private static final String RESULT_FAILURE = "-1";
+
     @Value("${jci.host}")
     private String host = "https://127.0.0.1/";
 
-    private final RestTemplate restTemplate;
+    private final OrdsGateway ordsGateway;
     private final ObjectMapper objectMapper;
+    private final FileContentPrefetcher fileContentPrefetcher;
+    private final FileContentBatcher fileContentBatcher;
 
     @Autowired
-    public FileController(RestTemplate restTemplate, ObjectMapper objectMapper) {
-        this.restTemplate = restTemplate;
+    public FileController(
+            OrdsGateway ordsGateway,
+            ObjectMapper objectMapper,
+            FileContentPrefetcher fileContentPrefetcher,
+            FileContentBatcher fileContentBatcher) {
+        this.ordsGateway = ordsGateway;
         this.objectMapper = objectMapper;
+        this.fileContentPrefetcher = fileContentPrefetcher;
+        this.fileContentBatcher = fileContentBatcher;
+    }
+
+    /**
+     * Calls ORDS through the RestTemplate, without prefetching, and fetches batch items one at a
+     * time.
+     */
+    public FileController(RestTemplate restTemplate, ObjectMapper objectMapper) {
+        this(
+                new RestTemplateOrdsGateway(restTemplate),
+                objectMapper,
+                FileContentPrefetcher.disabled(),
+                FileContentBatcher.sequential());
     }
 
     @PayloadRoot(
@@ -46,30 +75,12 @@ public class FileController {
             @RequestPayload GetCriminalFileContent getCriminalFileContent)
             throws JsonProcessingException {
 
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "criminal/" + "file")
-                        .queryParam(
-                                "agencyIdentifierCd",
-                                getCriminalFileContent.getAgencyIdentifierCd())
-                        .queryParam("roomCd", getCriminalFileContent.getRoomCd())
-                        .queryParam(
-                                "proceedingDate",
-                                InstantSerializer.convert(
-                                        getCriminalFileContent.getProceedingDate()))
-                        .queryParam("appearanceId", getCriminalFileContent.getAppearanceID())
-                        .queryParam("mdocJustinNo", getCriminalFileContent.getMdocJustinNo());
-
         try {
-            HttpEntity<GetCriminalFileContentResponse> resp =
-                    restTemplate.exchange(
-                            builder.build().toUri(),
-                            HttpMethod.GET,
-                            new HttpEntity<>(new HttpHeaders()),
-                            GetCriminalFileContentResponse.class);
+            GetCriminalFileContentResponse resp = fetchCriminalFileContent(getCriminalFileContent);
             log.info(
                     objectMapper.writeValueAsString(
                             new RequestSuccessLog("Request Success", "getCriminalFileContent")));
-            return resp.getBody();
+            return resp;
         } catch (Exception ex) {
             log.error(
                     objectMapper.writeValueAsString(
@@ -91,29 +102,12 @@ public class FileController {
             @RequestPayload GetCivilFileContent getCivilFileContent)
             throws JsonProcessingException {
 
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "civil/" + "file")
-                        .queryParam("courtLocaCd", getCivilFileContent.getCourtLocaCd())
-                        .queryParam("courtRoomCd", getCivilFileContent.getCourtRoomCd())
-                        .queryParam(
-                                "courtProceedingDate",
-                                InstantSerializer.convert(
-                                        getCivilFileContent.getCourtProceedingDate()))
-                        .queryParam("appearanceId", getCivilFileContent.getAppearanceId())
-                        .queryParam("physicalFileId", getCivilFileContent.getPhysicalFileId())
-                        .queryParam("applicationCd", getCivilFileContent.getApplicationCd());
-
         try {
-            HttpEntity<GetCivilFileContentResponse> resp =
-                    restTemplate.exchange(
-                            builder.build().toUri(),
-                            HttpMethod.GET,
-                            new HttpEntity<>(new HttpHeaders()),
-                            GetCivilFileContentResponse.class);
+            GetCivilFileContentResponse resp = fetchCivilFileContent(getCivilFileContent);
             log.info(
                     objectMapper.writeValueAsString(
                             new RequestSuccessLog("Request Success", "getCivilFileContent")));
-            return resp.getBody();
+            return resp;
         } catch (Exception ex) {
             log.error(
                     objectMapper.writeValueAsString(
@@ -125,4 +119,161 @@ public class FileController {
             throw new ORDSException();
         }
     }
+
+    @PayloadRoot(
+            namespace =
+                    "http://courts.ag.gov.bc.ca/CCD.Source.CriminalFileContent.ws.provider:CriminalFileContent",
+            localPart = "getCriminalFileContentBatch")
+    @ResponsePayload
+    public GetCriminalFileContentBatchResponse getCriminalFileContentBatch(
+            @RequestPayload GetCriminalFileContentBatch getCriminalFileContentBatch)
+            throws JsonProcessingException {
+
+        var out = new GetCriminalFileContentBatchResponse();
+        out.getResult()
+                .addAll(
+                        fileContentBatcher.fetchAll(
+                                getCriminalFileContentBatch.getGetCriminalFileContent(),
+                                request -> {
+                                    FileContentResult result =
+                                            criminalFileContentResult(
+                                                    request, RESULT_SUCCESS, null);
+                                    result.setFileContent(
+                                            fetchCriminalFileContent(request).getFileContent());
+                                    return result;
+                                },
+                                (request, message) ->
+                                        criminalFileContentResult(
+                                                request, RESULT_FAILURE, message)));
+        log.info(
+                objectMapper.writeValueAsString(
+                        new RequestSuccessLog("Request Success", "getCriminalFileContentBatch")));
+        return out;
+    }
+
+    @PayloadRoot(
+            namespace =
+                    "http://courts.ag.gov.bc.ca/CCD.Source.CivilFileContent.ws:CivilFileContent",
+            localPart = "getCivilFileContentBatch")
+    @ResponsePayload
+    public GetCivilFileContentBatchResponse getCivilFileContentBatch(
+            @RequestPayload GetCivilFileContentBatch getCivilFileContentBatch)
+            throws JsonProcessingException {
+
+        var out = new GetCivilFileContentBatchResponse();
+        out.getResult()
+                .addAll(
+                        fileContentBatcher.fetchAll(
+                                getCivilFileContentBatch.getGetCivilFileContent(),
+                                request -> {
+                                    CivilFileContentResult result =
+                                            civilFileContentResult(request, RESULT_SUCCESS, null);
+                                    result.setCivilFileContentDoc(
+                                            fetchCivilFileContent(request)
+                                                    .getCivilFileContentDoc());
+                                    return result;
+                                },
+                                (request, message) ->
+                                        civilFileContentResult(request, RESULT_FAILURE, message)));
+        log.info(
+                objectMapper.writeValueAsString(
+                        new RequestSuccessLog("Request Success", "getCivilFileContentBatch")));
+        return out;
+    }
+
+    private GetCriminalFileContentResponse fetchCriminalFileContent(
+            GetCriminalFileContent request) throws Exception {
+        URI uri = criminalFileContentUri(host, request);
+        return fileContentPrefetcher.get(
+                criminalFileContentKey(request),
+                GetCriminalFileContentResponse.class,
+                () ->
+                        ordsGateway
+                                .exchange(
+                                        uri,
+                                        HttpMethod.GET,
+                                        new HttpEntity<>(new HttpHeaders()),
+                                        GetCriminalFileContentResponse.class)
+                                .getBody());
+    }
+
+    private GetCivilFileContentResponse fetchCivilFileContent(GetCivilFileContent request)
+            throws Exception {
+        URI uri = civilFileContentUri(host, request);
+        return fileContentPrefetcher.get(
+                civilFileContentKey(request),
+                GetCivilFileContentResponse.class,
+                () ->
+                        ordsGateway
+                                .exchange(
+                                        uri,
+                                        HttpMethod.GET,
+                                        new HttpEntity<>(new HttpHeaders()),
+                                        GetCivilFileContentResponse.class)
+                                .getBody());
+    }
+
+    private static FileContentResult criminalFileContentResult(
+            GetCriminalFileContent request, String resultCd, String resultMessage) {
+        var result = new FileContentResult();
+        result.setResultCd(resultCd);
+        result.setResultMessage(resultMessage);
+        result.setAppearanceID(request.getAppearanceID());
+        result.setMdocJustinNo(request.getMdocJustinNo());
+        return result;
+    }
+
+    private static CivilFileContentResult civilFileContentResult(
+            GetCivilFileContent request, String resultCd, String resultMessage) {
+        var result = new CivilFileContentResult();
+        result.setResultCd(resultCd);
+        result.setResultMessage(resultMessage);
+        result.setAppearanceId(request.getAppearanceId());
+        result.setPhysicalFileId(request.getPhysicalFileId());
+        return result;
+    }
+
+    /** The ORDS uri for a criminal file content request, shared with the court list prefetch. */
+    static URI criminalFileContentUri(String host, GetCriminalFileContent request) {
+        return OrdsRoute.CRIMINAL_FILE.uri(
+                host,
+                request.getAgencyIdentifierCd(),
+                request.getRoomCd(),
+                InstantSerializer.convert(request.getProceedingDate()),
+                request.getAppearanceID(),
+                request.getMdocJustinNo());
+    }
+
+    static FileContentPrefetcher.Key criminalFileContentKey(GetCriminalFileContent request) {
+        return FileContentPrefetcher.Key.of(
+                "criminal",
+                request.getAgencyIdentifierCd(),
+                request.getRoomCd(),
+                request.getProceedingDate(),
+                request.getAppearanceID(),
+                request.getMdocJustinNo());
+    }
+
+    /** The ORDS uri for a civil file content request, shared with the court list prefetch. */
+    static URI civilFileContentUri(String host, GetCivilFileContent request) {
+        return OrdsRoute.CIVIL_FILE.uri(
+                host,
+                request.getCourtLocaCd(),
+                request.getCourtRoomCd(),
+                InstantSerializer.convert(request.getCourtProceedingDate()),
+                request.getAppearanceId(),
+                request.getPhysicalFileId(),
+                request.getApplicationCd());
+    }
+
+    static FileContentPrefetcher.Key civilFileContentKey(GetCivilFileContent request) {
+        return FileContentPrefetcher.Key.of(
+                "civil",
+                request.getCourtLocaCd(),
+                request.getCourtRoomCd(),
+                request.getCourtProceedingDate(),
+                request.getAppearanceId(),
+                request.getPhysicalFileId(),
+                request.getApplicationCd());
+    }
 }
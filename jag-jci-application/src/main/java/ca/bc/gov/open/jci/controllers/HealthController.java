@@ -4,6 +4,9 @@ import ca.bc.gov.open.jci.common.process.results.*;
 import ca.bc.gov.open.jci.exceptions.ORDSException;
 import ca.bc.gov.open.jci.models.OrdsErrorLog;
 import ca.bc.gov.open.jci.models.RequestSuccessLog;
+import ca.bc.gov.open.jci.services.OrdsGateway;
+import ca.bc.gov.open.jci.services.OrdsRoute;
+import ca.bc.gov.open.jci.services.RestTemplateOrdsGateway;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
@@ -13,7 +16,6 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
@@ -23,31 +25,36 @@ import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
 @Slf4j
 public class HealthController {
 
-    @Value("${jci.host}" + "common/")
+    @Value("${jci.host}")
     private String host = "https://127.0.0.1/";
 
     private static final String PROCESS_NAMESPACE =
             "http://court.ag.gov.bc.ca/CCD.Source.ProcessResults.ws.provider:ProcessResults";
 
-    private final RestTemplate restTemplate;
+    private final OrdsGateway ordsGateway;
     private final ObjectMapper objectMapper;
 
     @Autowired
-    public HealthController(RestTemplate restTemplate, ObjectMapper objectMapper) {
-        this.restTemplate = restTemplate;
+    public HealthController(OrdsGateway ordsGateway, ObjectMapper objectMapper) {
+        this.ordsGateway = ordsGateway;
         this.objectMapper = objectMapper;
     }
 
+    /** Calls ORDS through the RestTemplate. */
+    public HealthController(RestTemplate restTemplate, ObjectMapper objectMapper) {
+        this(new RestTemplateOrdsGateway(restTemplate), objectMapper);
+    }
+
     @PayloadRoot(namespace = PROCESS_NAMESPACE, localPart = "getHealth")
     @ResponsePayload
     public GetHealthResponse getHealth(@RequestPayload GetHealth empty)
             throws JsonProcessingException {
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(host + "health");
+        String uri = OrdsRoute.HEALTH.uriString(host);
 
         try {
             HttpEntity<GetHealthResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
+                    ordsGateway.exchange(
+                            uri,
                             HttpMethod.GET,
                             new HttpEntity<>(new HttpHeaders()),
                             GetHealthResponse.class);
@@ -70,11 +77,11 @@ public class HealthController {
     @PayloadRoot(namespace = PROCESS_NAMESPACE, localPart = "getPing")
     @ResponsePayload
     public GetPingResponse getPing(@RequestPayload GetPing empty) throws JsonProcessingException {
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(host + "ping");
+        String uri = OrdsRoute.PING.uriString(host);
         try {
             HttpEntity<GetPingResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
+                    ordsGateway.exchange(
+                            uri,
                             HttpMethod.GET,
                             new HttpEntity<>(new HttpHeaders()),
                             GetPingResponse.class);
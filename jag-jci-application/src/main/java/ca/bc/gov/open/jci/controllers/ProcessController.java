@@ -4,8 +4,18 @@ import ca.bc.gov.open.jci.common.process.results.*;
 import ca.bc.gov.open.jci.exceptions.ORDSException;
 import ca.bc.gov.open.jci.models.OrdsErrorLog;
 import ca.bc.gov.open.jci.models.RequestSuccessLog;
+import ca.bc.gov.open.jci.services.CourtListCache;
+import ca.bc.gov.open.jci.services.IdempotencyStore;
+import ca.bc.gov.open.jci.services.OrdsGateway;
+import ca.bc.gov.open.jci.services.OrdsRoute;
+import ca.bc.gov.open.jci.services.ProcessBatcher;
+import ca.bc.gov.open.jci.services.ProcessJournal;
+import ca.bc.gov.open.jci.services.RestTemplateOrdsGateway;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,7 +23,6 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
@@ -29,13 +38,42 @@ public class ProcessController {
     private static final String PROCESS_NAMESPACE =
             "http://court.ag.gov.bc.ca/CCD.Source.ProcessResults.ws.provider:ProcessResults";
 
-    private final RestTemplate restTemplate;
+    private static final String RESULT_SUCCESS = "0";
+    private static final String RESULT_FAILURE = "-1";
+
+    private final OrdsGateway ordsGateway;
     private final ObjectMapper objectMapper;
+    private final CourtListCache courtListCache;
+    private final IdempotencyStore idempotencyStore;
+    private final ProcessJournal processJournal;
+    private final ProcessBatcher processBatcher;
 
     @Autowired
-    public ProcessController(RestTemplate restTemplate, ObjectMapper objectMapper) {
-        this.restTemplate = restTemplate;
+    public ProcessController(
+            OrdsGateway ordsGateway,
+            ObjectMapper objectMapper,
+            CourtListCache courtListCache,
+            IdempotencyStore idempotencyStore,
+            ProcessJournal processJournal,
+            ProcessBatcher processBatcher) {
+        this.ordsGateway = ordsGateway;
         this.objectMapper = objectMapper;
+        this.courtListCache = courtListCache;
+        this.idempotencyStore = idempotencyStore;
+        this.processJournal = processJournal;
+        this.processBatcher = processBatcher;
+    }
+
+    /** Calls ORDS through the RestTemplate. */
+    public ProcessController(
+            RestTemplate restTemplate, ObjectMapper objectMapper, CourtListCache courtListCache) {
+        this(
+                new RestTemplateOrdsGateway(restTemplate),
+                objectMapper,
+                courtListCache,
+                IdempotencyStore.disabled(),
+                ProcessJournal.disabled(),
+                ProcessBatcher.sequential());
     }
 
     @PayloadRoot(namespace = PROCESS_NAMESPACE, localPart = "processVariation")
@@ -45,8 +83,7 @@ public class ProcessController {
 
         var inner = process.getVariation() != null ? process.getVariation() : new VariationType();
 
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "criminal/variation");
+        String uri = OrdsRoute.VARIATION.uriString(host);
 
         int i = 0;
         for (var detail : inner.getVariationDetail()) {
@@ -57,11 +94,7 @@ public class ProcessController {
 
         try {
             HttpEntity<ProcessVariationResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessVariationResponse.class);
+                    post(uri, payload, ProcessVariationResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -77,6 +110,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -92,17 +130,13 @@ public class ProcessController {
             detail.setSpeakerDetailId(Integer.toString(i++));
         }
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(host + "criminal/speaker");
+        String uri = OrdsRoute.SPEAKER.uriString(host);
 
         HttpEntity<Speaker> payload = new HttpEntity<>(inner, new HttpHeaders());
 
         try {
             HttpEntity<ProcessSpeakerResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessSpeakerResponse.class);
+                    post(uri, payload, ProcessSpeakerResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -117,6 +151,9 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            // Speakers carry no room or date so any cached court list may show them
+            courtListCache.invalidateAll();
         }
     }
 
@@ -128,7 +165,7 @@ public class ProcessController {
         var inner =
                 process.getCivilResult() != null ? process.getCivilResult() : new CivilResultType();
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(host + "civil/results");
+        String uri = OrdsRoute.CIVIL_RESULTS.uriString(host);
 
         int i = 0;
         for (var details : inner.getCivilResultDetail()) {
@@ -149,11 +186,7 @@ public class ProcessController {
 
         try {
             HttpEntity<ProcessCivilResultsResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessCivilResultsResponse.class);
+                    post(uri, payload, ProcessCivilResultsResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -169,6 +202,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -182,8 +220,7 @@ public class ProcessController {
                         ? process.getAppearanceMethod()
                         : new AppearanceMethod();
 
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "criminal/appearance-method");
+        String uri = OrdsRoute.APPEARANCE_METHOD.uriString(host);
 
         int i = 0;
         for (AppearanceMethodDetailType detail : inner.getAppearanceMethodDetail()) {
@@ -194,11 +231,20 @@ public class ProcessController {
 
         try {
             HttpEntity<ProcessAppearanceMethodResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
+                    accept(
+                            "processAppearanceMethod",
+                            uri,
                             payload,
-                            ProcessAppearanceMethodResponse.class);
+                            ProcessAppearanceMethodResponse.class,
+                            inner.getAppearanceMethodDetail().stream()
+                                    .flatMap(d -> d.getApplyToFileAppearanceMethod().stream())
+                                    .map(ApplyToFileAppearanceMethodType::getAppearanceId)
+                                    .collect(Collectors.toList()),
+                            status -> {
+                                var out = new ProcessAppearanceMethodResponse();
+                                out.setStatus(status);
+                                return out;
+                            });
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -215,6 +261,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -225,7 +276,7 @@ public class ProcessController {
 
         var inner = process.getPlea() != null ? process.getPlea() : new Plea();
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(host + "criminal/plea");
+        String uri = OrdsRoute.PLEA.uriString(host);
 
         int i = 0;
         for (var detail : inner.getPleaDetail()) {
@@ -235,12 +286,7 @@ public class ProcessController {
         HttpEntity<Plea> payload = new HttpEntity<>(inner, new HttpHeaders());
 
         try {
-            HttpEntity<ProcessPleaResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessPleaResponse.class);
+            HttpEntity<ProcessPleaResponse> resp = post(uri, payload, ProcessPleaResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -256,6 +302,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -266,7 +317,7 @@ public class ProcessController {
 
         var inner = process.getElection() != null ? process.getElection() : new Election();
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(host + "criminal/election");
+        String uri = OrdsRoute.ELECTION.uriString(host);
 
         int i = 0;
         for (var detail : inner.getElectionDetails()) {
@@ -277,11 +328,7 @@ public class ProcessController {
 
         try {
             HttpEntity<ProcessElectionResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessElectionResponse.class);
+                    post(uri, payload, ProcessElectionResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -297,6 +344,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -307,7 +359,7 @@ public class ProcessController {
 
         var inner = process.getBailDocInput() != null ? process.getBailDocInput() : new BailDoc();
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(host + "criminal/bail");
+        String uri = OrdsRoute.BAIL.uriString(host);
 
         int i = 0;
         for (var detail : inner.getBailDetail()) {
@@ -317,12 +369,7 @@ public class ProcessController {
         HttpEntity<BailDoc> payload = new HttpEntity<>(inner, new HttpHeaders());
 
         try {
-            HttpEntity<ProcessBailResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessBailResponse.class);
+            HttpEntity<ProcessBailResponse> resp = post(uri, payload, ProcessBailResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -338,6 +385,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -351,7 +403,7 @@ public class ProcessController {
                         ? process.getCriminalResult()
                         : new CriminalResult();
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(host + "criminal/results");
+        String uri = OrdsRoute.CRIMINAL_RESULTS.uriString(host);
 
         int i = 0;
         for (CriminalResultsDetail detail : inner.getCriminalResultsDetail()) {
@@ -366,11 +418,7 @@ public class ProcessController {
 
         try {
             HttpEntity<ProcessCriminalResultResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessCriminalResultResponse.class);
+                    post(uri, payload, ProcessCriminalResultResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -386,6 +434,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -396,8 +449,7 @@ public class ProcessController {
 
         var inner = process.getAgeNotice() != null ? process.getAgeNotice() : new AgeNotice();
 
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "criminal/age-notice");
+        String uri = OrdsRoute.AGE_NOTICE.uriString(host);
 
         int i = 0;
         for (var detail : inner.getAgeNoticeDetail()) {
@@ -408,11 +460,7 @@ public class ProcessController {
 
         try {
             HttpEntity<ProcessAgeNoticeResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessAgeNoticeResponse.class);
+                    post(uri, payload, ProcessAgeNoticeResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -428,6 +476,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -438,8 +491,7 @@ public class ProcessController {
 
         var inner = process.getMatterCall() != null ? process.getMatterCall() : new MatterCall();
 
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "criminal/mattercall");
+        String uri = OrdsRoute.MATTER_CALL.uriString(host);
 
         int i = 0;
         for (var detail : inner.getMatterCallDetails()) {
@@ -450,11 +502,20 @@ public class ProcessController {
 
         try {
             HttpEntity<ProcessMatterCallResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
+                    accept(
+                            "processMatterCall",
+                            uri,
                             payload,
-                            ProcessMatterCallResponse.class);
+                            ProcessMatterCallResponse.class,
+                            inner.getMatterCallDetails().stream()
+                                    .flatMap(d -> d.getCalledFile().stream())
+                                    .map(CalledFile::getAppearanceId)
+                                    .collect(Collectors.toList()),
+                            status -> {
+                                var out = new ProcessMatterCallResponse();
+                                out.setStatus(status);
+                                return out;
+                            });
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -470,6 +531,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -480,7 +546,7 @@ public class ProcessController {
 
         var inner = process.getSentence() != null ? process.getSentence() : new Sentence();
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(host + "criminal/sentence");
+        String uri = OrdsRoute.SENTENCE.uriString(host);
 
         int i = 0;
         for (var detail : inner.getSentencetDetail()) {
@@ -503,11 +569,7 @@ public class ProcessController {
 
         try {
             HttpEntity<ProcessSentenceResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessSentenceResponse.class);
+                    postStreaming(uri, payload, ProcessSentenceResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -523,6 +585,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -533,7 +600,7 @@ public class ProcessController {
 
         var inner = process.getBan() != null ? process.getBan() : new Ban();
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(host + "criminal/ban");
+        String uri = OrdsRoute.BAN.uriString(host);
 
         int i = 0;
         for (var detail : inner.getBanDetail()) {
@@ -543,12 +610,7 @@ public class ProcessController {
         HttpEntity<Ban> payload = new HttpEntity<>(inner, new HttpHeaders());
 
         try {
-            HttpEntity<ProcessBanResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessBanResponse.class);
+            HttpEntity<ProcessBanResponse> resp = post(uri, payload, ProcessBanResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -564,6 +626,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -574,17 +641,25 @@ public class ProcessController {
 
         var inner = process.getNote() != null ? process.getNote() : new NoteType();
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(host + "criminal/note");
+        String uri = OrdsRoute.NOTE.uriString(host);
 
         HttpEntity<NoteType> payload = new HttpEntity<>(inner, new HttpHeaders());
 
         try {
             HttpEntity<ProcessNoteResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
+                    accept(
+                            "processNote",
+                            uri,
                             payload,
-                            ProcessNoteResponse.class);
+                            ProcessNoteResponse.class,
+                            inner.getApplyToFile().stream()
+                                    .map(ApplyToFileType::getAppearanceId)
+                                    .collect(Collectors.toList()),
+                            status -> {
+                                var out = new ProcessNoteResponse();
+                                out.setStatus(status);
+                                return out;
+                            });
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -610,8 +685,7 @@ public class ProcessController {
 
         var inner = process.getArraignment() != null ? process.getArraignment() : new Arraignment();
 
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "criminal/arraignment");
+        String uri = OrdsRoute.ARRAIGNMENT.uriString(host);
 
         int i = 0;
         for (var detail : inner.getArraignmentDetail()) {
@@ -622,11 +696,7 @@ public class ProcessController {
 
         try {
             HttpEntity<ProcessArraignmentResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessArraignmentResponse.class);
+                    post(uri, payload, ProcessArraignmentResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -642,6 +712,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -652,7 +727,7 @@ public class ProcessController {
 
         var inner = process.getMove() != null ? process.getMove() : new Move();
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(host + "criminal/move");
+        String uri = OrdsRoute.MOVE.uriString(host);
 
         int i = 0;
         for (var detail : inner.getMoveDetail()) {
@@ -662,12 +737,7 @@ public class ProcessController {
         HttpEntity<Move> payload = new HttpEntity<>(inner, new HttpHeaders());
 
         try {
-            HttpEntity<ProcessMoveResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessMoveResponse.class);
+            HttpEntity<ProcessMoveResponse> resp = post(uri, payload, ProcessMoveResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -683,6 +753,17 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
+            for (var detail : inner.getMoveDetail()) {
+                courtListCache.invalidate(
+                        detail.getCourtAgencyIdentifier(),
+                        detail.getCourtRoom(),
+                        inner.getCourtProceedingDate());
+            }
         }
     }
 
@@ -693,7 +774,7 @@ public class ProcessController {
 
         var inner = process.getFinding() != null ? process.getFinding() : new Finding();
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(host + "criminal/finding");
+        String uri = OrdsRoute.FINDING.uriString(host);
 
         int i = 0;
         for (var detail : inner.getFindingDetails()) {
@@ -704,11 +785,7 @@ public class ProcessController {
 
         try {
             HttpEntity<ProcessFindingResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessFindingResponse.class);
+                    post(uri, payload, ProcessFindingResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -724,6 +801,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -732,8 +814,7 @@ public class ProcessController {
     public ProcessGenericResultResponse processGenericResult(
             @RequestPayload ProcessGenericResult process) throws JsonProcessingException {
 
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "common/generic-result");
+        String uri = OrdsRoute.GENERIC_RESULT.uriString(host);
 
         var inner =
                 process != null && process.getGenericResult() != null
@@ -748,11 +829,7 @@ public class ProcessController {
         HttpEntity<GenericResult> payload = new HttpEntity<>(inner, new HttpHeaders());
         try {
             HttpEntity<ProcessGenericResultResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessGenericResultResponse.class);
+                    post(uri, payload, ProcessGenericResultResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -769,6 +846,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     process)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -782,8 +864,7 @@ public class ProcessController {
                         ? process.getCivilAppearanceMethod()
                         : new CivilAppearanceMethod();
 
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "civil/" + "appearance-method");
+        String uri = OrdsRoute.CIVIL_APPEARANCE_METHOD.uriString(host);
 
         int i = 0;
         for (CivilAppearanceMethodDetailType detail : inner.getCivilAppearanceMethodDetail()) {
@@ -798,11 +879,7 @@ public class ProcessController {
 
         try {
             HttpEntity<ProcessCivilAppearanceMethodResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessCivilAppearanceMethodResponse.class);
+                    post(uri, payload, ProcessCivilAppearanceMethodResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -820,6 +897,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -830,7 +912,7 @@ public class ProcessController {
 
         var inner = process.getOrder() != null ? process.getOrder() : new OrderType();
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(host + "criminal/order");
+        String uri = OrdsRoute.ORDER.uriString(host);
 
         int i = 0;
         for (var detail : inner.getOrderDetail()) {
@@ -845,19 +927,18 @@ public class ProcessController {
 
         try {
             HttpEntity<ProcessOrderResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessOrderResponse.class);
+                    postStreaming(uri, payload, ProcessOrderResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
                             new RequestSuccessLog("Request Success", "processOrder")));
-            log.info(
-                    objectMapper.writeValueAsString(
-                            new RequestSuccessLog(
-                                    "Request Success", objectMapper.writeValueAsString(inner))));
+            if (log.isDebugEnabled()) {
+                log.debug(
+                        objectMapper.writeValueAsString(
+                                new RequestSuccessLog(
+                                        "Request Success",
+                                        objectMapper.writeValueAsString(inner))));
+            }
             return resp.getBody();
         } catch (Exception ex) {
             inner.setEnterUserId("");
@@ -869,6 +950,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -882,7 +968,7 @@ public class ProcessController {
                         ? process.getCivilOrderResult()
                         : new CivilOrderType();
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(host + "civil/order");
+        String uri = OrdsRoute.CIVIL_ORDER.uriString(host);
 
         int i = 0;
         for (var detail : inner.getCivilOrderDetail()) {
@@ -898,15 +984,13 @@ public class ProcessController {
 
         try {
             HttpEntity<ProcessCivilOrderResultResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessCivilOrderResultResponse.class);
+                    postStreaming(uri, payload, ProcessCivilOrderResultResponse.class);
             log.info(
                     objectMapper.writeValueAsString(
                             new RequestSuccessLog("Request Success", "processCivilOrderResult")));
-            log.info(objectMapper.writeValueAsString(payload.getBody()));
+            if (log.isDebugEnabled()) {
+                log.debug(objectMapper.writeValueAsString(payload.getBody()));
+            }
             return resp.getBody();
         } catch (Exception ex) {
             inner.setEnterUserId("");
@@ -918,6 +1002,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -929,7 +1018,7 @@ public class ProcessController {
         var inner =
                 process.getExhibitRequest() != null ? process.getExhibitRequest() : new Exhibit();
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(host + "criminal/exhibit");
+        String uri = OrdsRoute.EXHIBIT.uriString(host);
 
         int i = 0;
         for (var detail : inner.getExhibitDetail()) {
@@ -940,11 +1029,7 @@ public class ProcessController {
 
         try {
             HttpEntity<ProcessExhibitResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessExhibitResponse.class);
+                    post(uri, payload, ProcessExhibitResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -960,6 +1045,11 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
         }
     }
 
@@ -971,17 +1061,13 @@ public class ProcessController {
         var inner =
                 process.getSpecialCourt() != null ? process.getSpecialCourt() : new SpecialCourt();
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(host + "appearance");
+        String uri = OrdsRoute.APPEARANCE.uriString(host);
 
         HttpEntity<SpecialCourt> payload = new HttpEntity<>(inner, new HttpHeaders());
 
         try {
             HttpEntity<ProcessSpecialCourtResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
-                            HttpMethod.POST,
-                            payload,
-                            ProcessSpecialCourtResponse.class);
+                    post(uri, payload, ProcessSpecialCourtResponse.class);
 
             log.info(
                     objectMapper.writeValueAsString(
@@ -997,6 +1083,160 @@ public class ProcessController {
                                     ex.getMessage(),
                                     inner)));
             throw new ORDSException();
+        } finally {
+            courtListCache.invalidate(
+                    inner.getCourtAgencyIdentifierCode(),
+                    inner.getCourtRoomCode(),
+                    inner.getCourtProceedingDate());
+        }
+    }
+
+    @PayloadRoot(namespace = PROCESS_NAMESPACE, localPart = "processBatch")
+    @ResponsePayload
+    public ProcessBatchResponse processBatch(@RequestPayload ProcessBatch process)
+            throws JsonProcessingException {
+
+        // Items run on the batch threads, outside this request's transport context, so an
+        // Idempotency-Key header sent with the batch does not apply to its items
+        var out = new ProcessBatchResponse();
+        out.getBatchItemResult()
+                .addAll(
+                        processBatcher.runAll(
+                                process.getBatchItem(),
+                                BatchItem::getItemId,
+                                BatchItem::getDependsOn,
+                                this::processBatchItem,
+                                (item, message) ->
+                                        batchItemResult(item, RESULT_FAILURE, message)));
+        log.info(
+                objectMapper.writeValueAsString(
+                        new RequestSuccessLog("Request Success", "processBatch")));
+        return out;
+    }
+
+    private BatchItemResult processBatchItem(BatchItem item) throws JsonProcessingException {
+        BatchItemResult result = batchItemResult(item, RESULT_SUCCESS, null);
+        if (item.getProcessVariation() != null) {
+            result.setProcessVariationResponse(processVariation(item.getProcessVariation()));
+        } else if (item.getProcessSpeaker() != null) {
+            result.setProcessSpeakerResponse(processSpeaker(item.getProcessSpeaker()));
+        } else if (item.getProcessCivilResults() != null) {
+            result.setProcessCivilResultsResponse(
+                    processCivilResults(item.getProcessCivilResults()));
+        } else if (item.getProcessAppearanceMethod() != null) {
+            result.setProcessAppearanceMethodResponse(
+                    processAppearanceMethod(item.getProcessAppearanceMethod()));
+        } else if (item.getProcessPlea() != null) {
+            result.setProcessPleaResponse(processPlea(item.getProcessPlea()));
+        } else if (item.getProcessElection() != null) {
+            result.setProcessElectionResponse(processElection(item.getProcessElection()));
+        } else if (item.getProcessBail() != null) {
+            result.setProcessBailResponse(processBail(item.getProcessBail()));
+        } else if (item.getProcessCriminalResult() != null) {
+            result.setProcessCriminalResultResponse(
+                    processCriminalResult(item.getProcessCriminalResult()));
+        } else if (item.getProcessAgeNotice() != null) {
+            result.setProcessAgeNoticeResponse(processAgeNotice(item.getProcessAgeNotice()));
+        } else if (item.getProcessMatterCall() != null) {
+            result.setProcessMatterCallResponse(processMatterCall(item.getProcessMatterCall()));
+        } else if (item.getProcessSentence() != null) {
+            result.setProcessSentenceResponse(processSentence(item.getProcessSentence()));
+        } else if (item.getProcessBan() != null) {
+            result.setProcessBanResponse(processBan(item.getProcessBan()));
+        } else if (item.getProcessNote() != null) {
+            result.setProcessNoteResponse(processNote(item.getProcessNote()));
+        } else if (item.getProcessArraignment() != null) {
+            result.setProcessArraignmentResponse(processArraignment(item.getProcessArraignment()));
+        } else if (item.getProcessMove() != null) {
+            result.setProcessMoveResponse(processMove(item.getProcessMove()));
+        } else if (item.getProcessFinding() != null) {
+            result.setProcessFindingResponse(processFinding(item.getProcessFinding()));
+        } else if (item.getProcessGenericResult() != null) {
+            result.setProcessGenericResultResponse(
+                    processGenericResult(item.getProcessGenericResult()));
+        } else if (item.getProcessCivilAppearanceMethod() != null) {
+            result.setProcessCivilAppearanceMethodResponse(
+                    processCivilAppearanceMethod(item.getProcessCivilAppearanceMethod()));
+        } else if (item.getProcessOrder() != null) {
+            result.setProcessOrderResponse(processOrder(item.getProcessOrder()));
+        } else if (item.getProcessCivilOrderResult() != null) {
+            result.setProcessCivilOrderResultResponse(
+                    processCivilOrderResult(item.getProcessCivilOrderResult()));
+        } else if (item.getProcessExhibit() != null) {
+            result.setProcessExhibitResponse(processExhibit(item.getProcessExhibit()));
+        } else if (item.getProcessSpecialCourt() != null) {
+            result.setProcessSpecialCourtResponse(
+                    processSpecialCourt(item.getProcessSpecialCourt()));
+        } else {
+            return batchItemResult(item, RESULT_FAILURE, "The item has no result to process");
         }
+        return result;
+    }
+
+    private static BatchItemResult batchItemResult(
+            BatchItem item, String resultCd, String resultMessage) {
+        BatchItemResult result = new BatchItemResult();
+        result.setItemId(item.getItemId());
+        result.setResultCd(resultCd);
+        result.setResultMessage(resultMessage);
+        return result;
+    }
+
+    /**
+     * Posts the payload to ORDS, or returns the response to an earlier submission of it that the
+     * client is retrying.
+     */
+    private <T> HttpEntity<T> post(String uri, HttpEntity<?> payload, Class<T> type)
+            throws Exception {
+        return new HttpEntity<>(
+                idempotencyStore.submit(
+                        idempotencyStore.key(uri, payload.getBody()),
+                        type,
+                        () -> ordsGateway.exchange(uri, HttpMethod.POST, payload, type).getBody()));
+    }
+
+    /**
+     * Like {@link #post}, but writes the payload onto the ORDS connection as it is serialized, for
+     * the operations whose payloads grow with the number of counts.
+     */
+    private <T> HttpEntity<T> postStreaming(String uri, HttpEntity<?> payload, Class<T> type)
+            throws Exception {
+        return new HttpEntity<>(
+                idempotencyStore.submit(
+                        idempotencyStore.key(uri, payload.getBody()),
+                        type,
+                        () ->
+                                ordsGateway
+                                        .exchangeStreaming(uri, HttpMethod.POST, payload, type)
+                                        .getBody()));
+    }
+
+    /**
+     * Like {@link #post}, but journals the payload for later delivery instead when the operation
+     * is selected for the process journal, and answers with the pending status.
+     */
+    private <T> HttpEntity<T> accept(
+            String operation,
+            String uri,
+            HttpEntity<?> payload,
+            Class<T> type,
+            Collection<String> appearanceIds,
+            Function<String, T> pending)
+            throws Exception {
+        return new HttpEntity<>(
+                idempotencyStore.submit(
+                        idempotencyStore.key(uri, payload.getBody()),
+                        type,
+                        () ->
+                                processJournal.append(
+                                                operation,
+                                                uri,
+                                                payload.getBody(),
+                                                type,
+                                                appearanceIds)
+                                        ? pending.apply(processJournal.getPendingStatus())
+                                        : ordsGateway
+                                                .exchange(uri, HttpMethod.POST, payload, type)
+                                                .getBody()));
     }
 }
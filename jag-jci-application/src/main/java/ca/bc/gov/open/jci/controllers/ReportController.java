@@ -5,6 +5,9 @@ import ca.bc.gov.open.jci.common.rop.report.RopResult;
 import ca.bc.gov.open.jci.exceptions.ORDSException;
 import ca.bc.gov.open.jci.models.OrdsErrorLog;
 import ca.bc.gov.open.jci.models.RequestSuccessLog;
+import ca.bc.gov.open.jci.services.OrdsGateway;
+import ca.bc.gov.open.jci.services.OrdsRoute;
+import ca.bc.gov.open.jci.services.RestTemplateOrdsGateway;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.net.URLDecoder;
@@ -19,7 +22,6 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.util.Base64Utils;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
@@ -28,7 +30,7 @@ import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
 @Endpoint
 @Slf4j
 public class ReportController {
-    @Value("${jci.host}" + "criminal/")
+    @Value("${jci.host}")
     private String ordsHost = "https://127.0.0.1/";
 
     @Value("${jci.adobe-host}")
@@ -40,15 +42,20 @@ public class ReportController {
     @Value("${jci.form-param-idx}")
     private String formParamIdx = "1";
 
-    private final RestTemplate restTemplate;
+    private final OrdsGateway ordsGateway;
     private final ObjectMapper objectMapper;
 
     @Autowired
-    public ReportController(RestTemplate restTemplate, ObjectMapper objectMapper) {
-        this.restTemplate = restTemplate;
+    public ReportController(OrdsGateway ordsGateway, ObjectMapper objectMapper) {
+        this.ordsGateway = ordsGateway;
         this.objectMapper = objectMapper;
     }
 
+    /** Calls ORDS through the RestTemplate. */
+    public ReportController(RestTemplate restTemplate, ObjectMapper objectMapper) {
+        this(new RestTemplateOrdsGateway(restTemplate), objectMapper);
+    }
+
     @PayloadRoot(
             namespace = "http://brooks.ag.gov.bc.ca/CCD.Source.GetROPReport.ws:GetROPReport",
             localPart = "getROPReport")
@@ -62,17 +69,15 @@ public class ReportController {
                         ? getROPReport.getROPRequest()
                         : new Rop();
 
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(ordsHost + "ropreport")
-                        .queryParam("param1", inner.getParam1())
-                        .queryParam("param2", inner.getParam2())
-                        .queryParam("formCd", inner.getFormCd());
+        String uri =
+                OrdsRoute.ROP_REPORT.uriString(
+                        ordsHost, inner.getParam1(), inner.getParam2(), inner.getFormCd());
         try {
 
             // request url and key from ccd Report EndPoint
             resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
+                    ordsGateway.exchange(
+                            uri,
                             HttpMethod.GET,
                             new HttpEntity<>(new HttpHeaders()),
                             new ParameterizedTypeReference<>() {});
@@ -145,7 +150,7 @@ public class ReportController {
                 String rpServerUri = adobeServerHost + "?" + query;
 
                 HttpEntity<byte[]> resp2 =
-                        restTemplate.exchange(
+                        ordsGateway.exchange(
                                 rpServerUri,
                                 HttpMethod.GET,
                                 new HttpEntity<>(new HttpHeaders()),
@@ -5,6 +5,9 @@ import ca.bc.gov.open.jci.common.user.mapping.*;
 import ca.bc.gov.open.jci.exceptions.ORDSException;
 import ca.bc.gov.open.jci.models.OrdsErrorLog;
 import ca.bc.gov.open.jci.models.RequestSuccessLog;
+import ca.bc.gov.open.jci.services.OrdsGateway;
+import ca.bc.gov.open.jci.services.OrdsRoute;
+import ca.bc.gov.open.jci.services.RestTemplateOrdsGateway;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
@@ -14,7 +17,6 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
@@ -23,32 +25,37 @@ import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
 @Endpoint
 @Slf4j
 public class UserController {
-    @Value("${jci.host}" + "common/")
+    @Value("${jci.host}")
     private String host = "https://127.0.0.1/";
 
-    private final RestTemplate restTemplate;
+    private final OrdsGateway ordsGateway;
     private final ObjectMapper objectMapper;
 
     @Autowired
-    public UserController(RestTemplate restTemplate, ObjectMapper objectMapper) {
-        this.restTemplate = restTemplate;
+    public UserController(OrdsGateway ordsGateway, ObjectMapper objectMapper) {
+        this.ordsGateway = ordsGateway;
         this.objectMapper = objectMapper;
     }
 
+    /** Calls ORDS through the RestTemplate. */
+    public UserController(RestTemplate restTemplate, ObjectMapper objectMapper) {
+        this(new RestTemplateOrdsGateway(restTemplate), objectMapper);
+    }
+
     @PayloadRoot(
             namespace = "http://courts.ag.gov.bc.ca/CCD.Source.CCDUserMapping.ws:ccdUserMapping",
             localPart = "getParticipantInfo")
     @ResponsePayload
     public GetParticipantInfoResponse getParticipantInfo(
             @RequestPayload GetParticipantInfo getParticipantInfo) throws JsonProcessingException {
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "user/mapping/participant-info")
-                        .queryParam("guid", getParticipantInfo.getGuid());
+        String uri =
+                OrdsRoute.USER_MAPPING_PARTICIPANT_INFO.uriString(
+                        host, getParticipantInfo.getGuid());
 
         try {
             HttpEntity<GetParticipantInfoResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
+                    ordsGateway.exchange(
+                            uri,
                             HttpMethod.GET,
                             new HttpEntity<>(new HttpHeaders()),
                             GetParticipantInfoResponse.class);
@@ -78,15 +85,13 @@ public class UserController {
                             ca.bc.gov.open.jci.common.participant.info.GetParticipantInfo
                                     getParticipantInfo)
                     throws JsonProcessingException {
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "participant-info")
-                        .queryParam("guid", getParticipantInfo.getGUID());
+        String uri = OrdsRoute.PARTICIPANT_INFO.uriString(host, getParticipantInfo.getGUID());
 
         try {
             HttpEntity<ca.bc.gov.open.jci.common.participant.info.GetParticipantInfoResponseEx>
                     resp =
-                            restTemplate.exchange(
-                                    builder.toUriString(),
+                            ordsGateway.exchange(
+                                    uri,
                                     HttpMethod.GET,
                                     new HttpEntity<>(new HttpHeaders()),
                                     ca.bc.gov.open.jci.common.participant.info
@@ -117,16 +122,17 @@ public class UserController {
     public MapGuidToParticipantResponse mapGuidToParticipant(
             @RequestPayload MapGuidToParticipant mapGuidToParticipant)
             throws JsonProcessingException {
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "user/mapping/partid-to-guid")
-                        .queryParam("guid", mapGuidToParticipant.getGuid())
-                        .queryParam("partId", mapGuidToParticipant.getPartId())
-                        .queryParam("idirId", mapGuidToParticipant.getIdirId());
+        String uri =
+                OrdsRoute.PARTID_TO_GUID.uriString(
+                        host,
+                        mapGuidToParticipant.getGuid(),
+                        mapGuidToParticipant.getPartId(),
+                        mapGuidToParticipant.getIdirId());
 
         try {
             HttpEntity<MapGuidToParticipantResponse> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
+                    ordsGateway.exchange(
+                            uri,
                             HttpMethod.POST,
                             new HttpEntity<>(new HttpHeaders()),
                             MapGuidToParticipantResponse.class);
@@ -157,16 +163,17 @@ public class UserController {
                         ? getUserLogin.getRequest()
                         : new GetUserLoginRequestType();
 
-        UriComponentsBuilder builder =
-                UriComponentsBuilder.fromHttpUrl(host + "user/login")
-                        .queryParam("temporaryAccessGuid", inner.getTemporaryAccessGuid())
-                        .queryParam("domainUserGuid", inner.getDomainUserGuid())
-                        .queryParam("domainUserId", inner.getDomainUserId());
+        String uri =
+                OrdsRoute.USER_LOGIN.uriString(
+                        host,
+                        inner.getTemporaryAccessGuid(),
+                        inner.getDomainUserGuid(),
+                        inner.getDomainUserId());
 
         try {
             HttpEntity<GetUserLoginResponseType> resp =
-                    restTemplate.exchange(
-                            builder.toUriString(),
+                    ordsGateway.exchange(
+                            uri,
                             HttpMethod.GET,
                             new HttpEntity<>(new HttpHeaders()),
                             GetUserLoginResponseType.class);
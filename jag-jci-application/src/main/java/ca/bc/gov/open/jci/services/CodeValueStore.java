@@ -0,0 +1,298 @@
+package ca.bc.gov.open.jci.services;
+
+import ca.bc.gov.open.jci.common.code.values.CodeValue;
+import ca.bc.gov.open.jci.common.code.values.CodeValues;
+import ca.bc.gov.open.jci.common.code.values.GetCodeValuesResponse;
+import ca.bc.gov.open.jci.models.OrdsErrorLog;
+import ca.bc.gov.open.jci.models.RequestSuccessLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * In-memory snapshot of the ORDS code tables, refreshed on a schedule, used to answer
+ * getCodeValues without a round trip to ORDS.
+ *
+ * <p>ORDS code values carry no change dates, so each entry is stamped with the time the snapshot
+ * that first contained it was published. A delta for a lastRetrievedDate is every entry stamped
+ * after that date less an overlap of twice the refresh interval. The overlap covers a caller whose
+ * previous answer came from a staler snapshot (another pod, or the previous refresh here); callers
+ * upsert code values so the few repeated entries are harmless. Requests reaching further back
+ * than the first snapshot, or arriving while the snapshot is stale, are left to ORDS.
+ */
+@Slf4j
+@Service
+public class CodeValueStore {
+    @Value("${jci.host}")
+    private String host = "https://127.0.0.1/";
+
+    @Value("${jci.code-values.cache-enabled}")
+    private boolean enabled = true;
+
+    @Value("${jci.code-values.refresh-interval}")
+    private long refreshInterval = 300;
+
+    private final OrdsGateway ordsGateway;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Counter storeHits;
+    private final Counter storeMisses;
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public CodeValueStore(
+            OrdsGateway ordsGateway,
+            ObjectMapper objectMapper,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this(
+                ordsGateway,
+                objectMapper,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                Clock.systemUTC());
+    }
+
+    /** Calls ORDS through the RestTemplate. */
+    public CodeValueStore(
+            RestTemplate restTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            Clock clock) {
+        this(new RestTemplateOrdsGateway(restTemplate), objectMapper, meterRegistry, clock);
+    }
+
+    public CodeValueStore(
+            OrdsGateway ordsGateway,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            Clock clock) {
+        this.ordsGateway = ordsGateway;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.storeHits =
+                Counter.builder("jci.code.values.requests")
+                        .description("getCodeValues requests by where they were answered")
+                        .tag("source", "store")
+                        .register(meterRegistry);
+        this.storeMisses =
+                Counter.builder("jci.code.values.requests")
+                        .description("getCodeValues requests by where they were answered")
+                        .tag("source", "ords")
+                        .register(meterRegistry);
+        Gauge.builder("jci.code.values.size", this, s -> s.size())
+                .description("Code values held in the snapshot")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelay = 0,
+            fixedDelayString = "${jci.code-values.refresh-interval}",
+            timeUnit = TimeUnit.SECONDS)
+    public void refresh() throws JsonProcessingException {
+        if (!enabled) {
+            return;
+        }
+        URI uri = OrdsRoute.CODE_VALUES.uri(host, (Object) null);
+        try {
+            HttpEntity<GetCodeValuesResponse> resp =
+                    ordsGateway.exchange(
+                            uri,
+                            HttpMethod.GET,
+                            new HttpEntity<>(new HttpHeaders()),
+                            GetCodeValuesResponse.class);
+            log.info(
+                    objectMapper.writeValueAsString(
+                            new RequestSuccessLog("Request Success", "refreshCodeValues")));
+            update(resp.getBody());
+        } catch (Exception ex) {
+            // Keep serving the previous snapshot until it goes stale
+            log.error(
+                    objectMapper.writeValueAsString(
+                            new OrdsErrorLog(
+                                    "Error received from ORDS",
+                                    "refreshCodeValues",
+                                    ex.getMessage(),
+                                    null)));
+        }
+    }
+
+    /** Replaces the snapshot with a full ORDS code value listing. */
+    public void update(GetCodeValuesResponse full) {
+        Snapshot previous = snapshot;
+        // Stamp with the publish time so nothing served before it can be newer than a change
+        Instant now = clock.instant();
+        CodeValues ceis = full != null ? full.getCeisCodeValues() : null;
+        CodeValues justin = full != null ? full.getJustinCodeValues() : null;
+        snapshot =
+                previous == null
+                        ? new Snapshot(now, now, stamp(ceis, null, now), stamp(justin, null, now))
+                        : new Snapshot(
+                                previous.baseline,
+                                now,
+                                stamp(ceis, previous.ceis, now),
+                                stamp(justin, previous.justin, now));
+    }
+
+    /**
+     * Answers a getCodeValues request from the snapshot, or returns empty if the request must go
+     * to ORDS. A null lastRetrievedDate asks for every code value.
+     */
+    public Optional<GetCodeValuesResponse> getCodeValues(Instant lastRetrievedDate) {
+        Snapshot current = snapshot;
+        Instant now = clock.instant();
+        Duration overlap = Duration.ofSeconds(refreshInterval * 2);
+        if (!enabled || current == null || current.published.plus(overlap).isBefore(now)) {
+            storeMisses.increment();
+            return Optional.empty();
+        }
+
+        Instant since = null;
+        if (lastRetrievedDate != null) {
+            since = lastRetrievedDate.truncatedTo(ChronoUnit.SECONDS).minus(overlap);
+            if (since.isBefore(current.baseline)) {
+                storeMisses.increment();
+                return Optional.empty();
+            }
+        }
+
+        var out = new GetCodeValuesResponse();
+        out.setCeisCodeValues(delta(current.ceis, since));
+        out.setJustinCodeValues(delta(current.justin, since));
+        storeHits.increment();
+        return Optional.of(out);
+    }
+
+    private double size() {
+        Snapshot current = snapshot;
+        return current != null ? current.ceis.size() + current.justin.size() : 0;
+    }
+
+    private static List<Entry> stamp(CodeValues values, List<Entry> previous, Instant now) {
+        if (values == null || values.getCodeValue().isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Key, Instant> stamps = new HashMap<>();
+        if (previous != null) {
+            for (Entry entry : previous) {
+                stamps.put(entry.key, entry.stamp);
+            }
+        }
+        List<Entry> entries = new ArrayList<>(values.getCodeValue().size());
+        for (CodeValue value : values.getCodeValue()) {
+            Key key = new Key(value);
+            entries.add(new Entry(key, value, stamps.getOrDefault(key, now)));
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    private static CodeValues delta(List<Entry> entries, Instant since) {
+        var out = new CodeValues();
+        for (Entry entry : entries) {
+            if (since == null || !entry.stamp.isBefore(since)) {
+                out.getCodeValue().add(copy(entry.value));
+            }
+        }
+        // ORDS leaves the list out when nothing has changed
+        return out.getCodeValue().isEmpty() ? null : out;
+    }
+
+    private static CodeValue copy(CodeValue value) {
+        var out = new CodeValue();
+        out.setCodeType(value.getCodeType());
+        out.setCode(value.getCode());
+        out.setShortDesc(value.getShortDesc());
+        out.setLongDesc(value.getLongDesc());
+        out.setFlex(value.getFlex());
+        return out;
+    }
+
+    private static final class Snapshot {
+        private final Instant baseline;
+        private final Instant published;
+        private final List<Entry> ceis;
+        private final List<Entry> justin;
+
+        Snapshot(Instant baseline, Instant published, List<Entry> ceis, List<Entry> justin) {
+            this.baseline = baseline;
+            this.published = published;
+            this.ceis = ceis;
+            this.justin = justin;
+        }
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final CodeValue value;
+        private final Instant stamp;
+
+        Entry(Key key, CodeValue value, Instant stamp) {
+            this.key = key;
+            this.value = value;
+            this.stamp = stamp;
+        }
+    }
+
+    /** A code value is identified by all of its fields; any edit makes it a new entry. */
+    private static final class Key {
+        private final String codeType;
+        private final String code;
+        private final String shortDesc;
+        private final String longDesc;
+        private final String flex;
+
+        Key(CodeValue value) {
+            this.codeType = value.getCodeType();
+            this.code = value.getCode();
+            this.shortDesc = value.getShortDesc();
+            this.longDesc = value.getLongDesc();
+            this.flex = value.getFlex();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(codeType, other.codeType)
+                    && Objects.equals(code, other.code)
+                    && Objects.equals(shortDesc, other.shortDesc)
+                    && Objects.equals(longDesc, other.longDesc)
+                    && Objects.equals(flex, other.flex);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(codeType, code, shortDesc, longDesc, flex);
+        }
+    }
+}
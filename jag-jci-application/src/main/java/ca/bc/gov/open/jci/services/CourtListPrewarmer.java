@@ -0,0 +1,439 @@
+package ca.bc.gov.open.jci.services;
+
+import ca.bc.gov.open.jci.configuration.OrdsCallPriority;
+import ca.bc.gov.open.jci.controllers.CourtController;
+import ca.bc.gov.open.jci.court.one.GetCrtList;
+import ca.bc.gov.open.jci.court.one.GetCrtListResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Fetches the court lists for the next sitting day, by default early on the day itself, into the
+ * court list cache's pre-warmed store, so the first request of the morning for each room does not
+ * wait on ORDS.
+ * Rooms come from configuration and from recent getCrtList traffic, which also supplies the
+ * division and time of day clients ask for, so the pre-warmed lists match real requests.
+ *
+ * <p>A run fetches at most max-concurrency lists at once and max-per-second lists a second, and
+ * stops as soon as business hours start. A pre-warmed list expires when business hours start on
+ * its day, or after the pre-warm TTL if that is sooner, so a list fetched the night before is never
+ * served stale into the sitting. Pre-warming needs the court list cache enabled.
+ */
+@Slf4j
+@Service
+public class CourtListPrewarmer implements AutoCloseable {
+
+    private final OrdsGateway ordsGateway;
+    private final CourtListCache courtListCache;
+    private final String host;
+    private final Settings settings;
+    private final Clock clock;
+    private final Cache<Room, Boolean> discovered;
+    private final ExecutorService runner;
+    private final ExecutorService fetchers;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public CourtListPrewarmer(
+            OrdsGateway ordsGateway,
+            CourtListCache courtListCache,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${jci.host}") String host,
+            @Value("${jci.court-list-prewarm.enabled}") boolean enabled,
+            @Value("${jci.court-list-prewarm.zone}") String zone,
+            @Value("${jci.court-list-prewarm.rooms}") String rooms,
+            @Value("${jci.court-list-prewarm.discover}") boolean discover,
+            @Value("${jci.court-list-prewarm.discovery-days}") long discoveryDays,
+            @Value("${jci.court-list-prewarm.max-rooms}") int maxRooms,
+            @Value("${jci.court-list-prewarm.max-concurrency}") int maxConcurrency,
+            @Value("${jci.court-list-prewarm.max-per-second}") double maxPerSecond,
+            @Value("${jci.court-list-prewarm.business-hours-start}") String businessHoursStart,
+            @Value("${jci.court-list-prewarm.business-hours-end}") String businessHoursEnd,
+            @Value("${jci.court-list-prewarm.sitting-days}") String sittingDays) {
+        this(
+                ordsGateway,
+                courtListCache,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                Clock.system(ZoneId.of(zone)),
+                host,
+                new Settings()
+                        .enabled(enabled)
+                        .rooms(rooms)
+                        .discover(discover)
+                        .discoveryWindow(Duration.ofDays(discoveryDays))
+                        .maxRooms(maxRooms)
+                        .maxConcurrency(maxConcurrency)
+                        .maxPerSecond(maxPerSecond)
+                        .businessHours(
+                                LocalTime.parse(businessHoursStart),
+                                LocalTime.parse(businessHoursEnd))
+                        .sittingDays(sittingDays));
+    }
+
+    /** The clock's zone decides the business hours and the sitting days. */
+    public CourtListPrewarmer(
+            OrdsGateway ordsGateway,
+            CourtListCache courtListCache,
+            MeterRegistry meterRegistry,
+            Clock clock,
+            String host,
+            Settings settings) {
+        this.ordsGateway = ordsGateway;
+        this.courtListCache = courtListCache;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.host = host;
+        this.settings = settings;
+        this.discovered =
+                Caffeine.newBuilder()
+                        .expireAfterWrite(settings.discoveryWindow)
+                        .maximumSize(settings.maxRooms)
+                        .build();
+        this.runner = Executors.newSingleThreadExecutor(daemon("court-list-prewarm"));
+        this.fetchers =
+                Executors.newFixedThreadPool(
+                        settings.maxConcurrency, daemon("court-list-prewarm-fetch"));
+        Gauge.builder("jci.court.list.prewarm.rooms", discovered, c -> c.estimatedSize())
+                .description("Rooms discovered from recent court list traffic")
+                .register(meterRegistry);
+    }
+
+    /** Never pre-warms or records traffic. */
+    public static CourtListPrewarmer disabled() {
+        return new CourtListPrewarmer(
+                null,
+                null,
+                Metrics.globalRegistry,
+                Clock.systemUTC(),
+                "",
+                new Settings().enabled(false));
+    }
+
+    /** Records a whole-room court list request as a room to pre-warm. */
+    public void observe(GetCrtList request) {
+        if (!settings.enabled
+                || !settings.discover
+                || request.getAgencyIdentifierCd() == null
+                || request.getRoomCd() == null
+                || request.getProceedingDate() == null
+                || request.getFileNumber() != null) {
+            return;
+        }
+        Instant date = request.getProceedingDate();
+        Duration timeOfDay =
+                Duration.between(
+                        LocalDate.ofInstant(date, ZoneOffset.UTC).atStartOfDay(ZoneOffset.UTC),
+                        date.atZone(ZoneOffset.UTC));
+        discovered.put(
+                new Room(
+                        request.getAgencyIdentifierCd(),
+                        request.getRoomCd(),
+                        request.getDivisionCd(),
+                        timeOfDay),
+                Boolean.TRUE);
+    }
+
+    @Scheduled(cron = "${jci.court-list-prewarm.cron}", zone = "${jci.court-list-prewarm.zone}")
+    public void schedule() {
+        if (!settings.enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        // Off the shared scheduler thread, a paced run can take a while
+        runner.execute(
+                () -> {
+                    try {
+                        run(nextSittingDay());
+                    } finally {
+                        running.set(false);
+                    }
+                });
+    }
+
+    /**
+     * Fetches the court list of every configured and discovered room for the day, and returns
+     * how many were stored.
+     */
+    public int run(LocalDate day) {
+        if (!settings.enabled) {
+            return 0;
+        }
+        if (businessHours()) {
+            log.info("Court list pre-warming skipped, business hours have started");
+            return 0;
+        }
+        Set<Room> rooms = new LinkedHashSet<>(settings.rooms);
+        rooms.addAll(discovered.asMap().keySet());
+
+        Semaphore permits = new Semaphore(settings.maxConcurrency);
+        AtomicInteger stored = new AtomicInteger();
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / settings.maxPerSecond);
+        long next = System.nanoTime();
+        int started = 0;
+        try {
+            for (Room room : rooms) {
+                if (businessHours()) {
+                    fetched("stopped").increment(rooms.size() - started);
+                    log.info("Court list pre-warming stopped, business hours have started");
+                    break;
+                }
+                permits.acquire();
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                next = Math.max(next, System.nanoTime()) + interval;
+                started++;
+                fetchers.execute(
+                        () -> {
+                            try {
+                                if (warm(room, day)) {
+                                    stored.incrementAndGet();
+                                }
+                            } finally {
+                                permits.release();
+                            }
+                        });
+            }
+            // Wait for the fetches still running
+            permits.acquire(settings.maxConcurrency);
+            permits.release(settings.maxConcurrency);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Pre-warmed " + stored.get() + " of " + rooms.size() + " court lists for " + day);
+        return stored.get();
+    }
+
+    @Override
+    public void close() {
+        runner.shutdownNow();
+        fetchers.shutdownNow();
+    }
+
+    private boolean warm(Room room, LocalDate day) {
+        Duration maxAge =
+                Duration.between(
+                        clock.instant(),
+                        day.atTime(settings.businessHoursStart).atZone(clock.getZone()));
+        GetCrtList request = new GetCrtList();
+        request.setAgencyIdentifierCd(room.agencyIdentifierCd);
+        request.setRoomCd(room.roomCd);
+        request.setProceedingDate(
+                day.atStartOfDay(ZoneOffset.UTC).plus(room.timeOfDay).toInstant());
+        request.setDivisionCd(room.divisionCd);
+        try {
+            boolean stored =
+                    courtListCache.warm(
+                            CourtController.courtListKey(request),
+                            maxAge,
+                            () ->
+                                    OrdsCallPriority.inBackground(
+                                            () ->
+                                                    ordsGateway
+                                                            .exchange(
+                                                                    CourtController.courtListUri(
+                                                                            host, request),
+                                                                    HttpMethod.GET,
+                                                                    new HttpEntity<>(
+                                                                            new HttpHeaders()),
+                                                                    GetCrtListResponse.class)
+                                                            .getBody()));
+            fetched(stored ? "success" : "discarded").increment();
+            return stored;
+        } catch (Exception ex) {
+            fetched("failure").increment();
+            log.warn(
+                    "Unable to pre-warm the court list for "
+                            + room.agencyIdentifierCd
+                            + " room "
+                            + room.roomCd
+                            + ": "
+                            + ex.getMessage());
+            return false;
+        }
+    }
+
+    private LocalDate nextSittingDay() {
+        LocalDate day = LocalDate.now(clock);
+        if (!LocalTime.now(clock).isBefore(settings.businessHoursStart)) {
+            day = day.plusDays(1);
+        }
+        for (int i = 0; i < 7 && !settings.sittingDays.contains(day.getDayOfWeek()); i++) {
+            day = day.plusDays(1);
+        }
+        return day;
+    }
+
+    private boolean businessHours() {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        LocalTime time = now.toLocalTime();
+        return settings.sittingDays.contains(now.getDayOfWeek())
+                && !time.isBefore(settings.businessHoursStart)
+                && time.isBefore(settings.businessHoursEnd);
+    }
+
+    private Counter fetched(String outcome) {
+        return Counter.builder("jci.court.list.prewarm.fetches")
+                .description("Court list pre-warming fetches by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger threads = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /** Pre-warming settings. */
+    public static class Settings {
+        private boolean enabled = true;
+        private List<Room> rooms = new ArrayList<>();
+        private boolean discover = true;
+        private Duration discoveryWindow = Duration.ofDays(7);
+        private int maxRooms = 1000;
+        private int maxConcurrency = 2;
+        private double maxPerSecond = 5;
+        private LocalTime businessHoursStart = LocalTime.of(7, 0);
+        private LocalTime businessHoursEnd = LocalTime.of(18, 0);
+        private Set<DayOfWeek> sittingDays =
+                EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+
+        public Settings enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /** Comma separated agencyIdentifierCd:roomCd pairs, pre-warmed at midnight UTC. */
+        public Settings rooms(String rooms) {
+            this.rooms = new ArrayList<>();
+            for (String room : rooms.split(",")) {
+                String[] parts = room.trim().split(":");
+                if (parts.length == 2) {
+                    this.rooms.add(
+                            new Room(parts[0].trim(), parts[1].trim(), null, Duration.ZERO));
+                } else if (!room.isBlank()) {
+                    log.warn("Ignoring court list pre-warm room " + room);
+                }
+            }
+            return this;
+        }
+
+        public Settings discover(boolean discover) {
+            this.discover = discover;
+            return this;
+        }
+
+        /** How long a room seen in traffic keeps being pre-warmed. */
+        public Settings discoveryWindow(Duration discoveryWindow) {
+            this.discoveryWindow = discoveryWindow;
+            return this;
+        }
+
+        public Settings maxRooms(int maxRooms) {
+            this.maxRooms = maxRooms;
+            return this;
+        }
+
+        public Settings maxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = Math.max(1, maxConcurrency);
+            return this;
+        }
+
+        public Settings maxPerSecond(double maxPerSecond) {
+            this.maxPerSecond = maxPerSecond;
+            return this;
+        }
+
+        public Settings businessHours(LocalTime start, LocalTime end) {
+            this.businessHoursStart = start;
+            this.businessHoursEnd = end;
+            return this;
+        }
+
+        /** Comma separated day names, such as MONDAY,TUESDAY. */
+        public Settings sittingDays(String sittingDays) {
+            this.sittingDays = EnumSet.noneOf(DayOfWeek.class);
+            Arrays.stream(sittingDays.split(","))
+                    .map(String::trim)
+                    .filter(day -> !day.isEmpty())
+                    .forEach(day -> this.sittingDays.add(DayOfWeek.valueOf(day.toUpperCase())));
+            return this;
+        }
+    }
+
+    private static final class Room {
+        private final String agencyIdentifierCd;
+        private final String roomCd;
+        private final String divisionCd;
+        // Proceeding dates are sent to ORDS with their time, clients send a fixed one
+        private final Duration timeOfDay;
+
+        Room(String agencyIdentifierCd, String roomCd, String divisionCd, Duration timeOfDay) {
+            this.agencyIdentifierCd = agencyIdentifierCd;
+            this.roomCd = roomCd;
+            this.divisionCd = divisionCd;
+            this.timeOfDay = timeOfDay;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Room)) {
+                return false;
+            }
+            Room other = (Room) o;
+            return agencyIdentifierCd.equals(other.agencyIdentifierCd)
+                    && roomCd.equals(other.roomCd)
+                    && Objects.equals(divisionCd, other.divisionCd)
+                    && timeOfDay.equals(other.timeOfDay);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(agencyIdentifierCd, roomCd, divisionCd, timeOfDay);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package ca.bc.gov.open.jci.services;
+
+import ca.bc.gov.open.jci.configuration.OrdsCallPriority;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Short-lived cache of file content fetched ahead of the client. When a court list is served the
+ * file content of its appearances is fetched in the background, a few at a time, so that the
+ * getCriminalFileContent and getCivilFileContent calls that usually follow find it ready. A call
+ * that arrives while its fetch is still running waits for that fetch rather than starting another.
+ *
+ * <p>Everything is dropped whenever the court list cache is invalidated by a process write.
+ */
+@Slf4j
+@Service
+public class FileContentPrefetcher implements AutoCloseable {
+
+    /** Fetches one file's content from ORDS. */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws Exception;
+    }
+
+    private final boolean enabled;
+    private final int maxPerList;
+    private final Duration maxWait;
+    private final Cache<Key, Entry> cache;
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter wasted;
+
+    @Autowired
+    public FileContentPrefetcher(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            CourtListCache courtListCache,
+            @Value("${jci.file-prefetch.enabled}") boolean enabled,
+            @Value("${jci.file-prefetch.ttl}") long ttl,
+            @Value("${jci.file-prefetch.parallelism}") int parallelism,
+            @Value("${jci.file-prefetch.queue-capacity}") int queueCapacity,
+            @Value("${jci.file-prefetch.max-per-list}") int maxPerList,
+            @Value("${jci.ords-read-timeout}") long ordsReadTimeout) {
+        this(
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                enabled,
+                Duration.ofSeconds(ttl),
+                parallelism,
+                queueCapacity,
+                maxPerList,
+                Duration.ofSeconds(ordsReadTimeout));
+        courtListCache.addInvalidationListener(this::invalidateAll);
+    }
+
+    public FileContentPrefetcher(
+            MeterRegistry meterRegistry,
+            boolean enabled,
+            Duration ttl,
+            int parallelism,
+            int queueCapacity,
+            int maxPerList,
+            Duration maxWait) {
+        this.enabled = enabled;
+        this.maxPerList = maxPerList;
+        this.maxWait = maxWait;
+        this.meterRegistry = meterRegistry;
+        this.cache =
+                Caffeine.newBuilder()
+                        .expireAfterWrite(ttl)
+                        .executor(Runnable::run)
+                        .removalListener(
+                                (Key key, Entry entry, RemovalCause cause) -> removed(entry))
+                        .build();
+        AtomicInteger threads = new AtomicInteger();
+        this.executor =
+                new ThreadPoolExecutor(
+                        parallelism,
+                        parallelism,
+                        60,
+                        TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                        runnable -> {
+                            Thread thread =
+                                    new Thread(
+                                            runnable, "file-prefetch-" + threads.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        executor.allowCoreThreadTimeOut(true);
+        this.hits = requests("hit");
+        this.misses = requests("miss");
+        this.wasted =
+                Counter.builder("jci.file.prefetch.wasted")
+                        .description("Prefetches that expired or were dropped before being read")
+                        .register(meterRegistry);
+    }
+
+    /** Never prefetches, every call goes to ORDS. */
+    public static FileContentPrefetcher disabled() {
+        return new FileContentPrefetcher(
+                Metrics.globalRegistry, false, Duration.ZERO, 1, 1, 0, Duration.ZERO);
+    }
+
+    /**
+     * Starts fetching the file content for each key in the background, in the order given, up to
+     * the per-list limit. Keys already cached or in flight are skipped, as is everything beyond
+     * the queue capacity.
+     */
+    public void prefetch(Map<Key, ? extends Loader<?>> loaders) {
+        if (!enabled) {
+            return;
+        }
+        int scheduled = 0;
+        for (Map.Entry<Key, ? extends Loader<?>> next : loaders.entrySet()) {
+            if (scheduled == maxPerList) {
+                fetched("skipped").increment(loaders.size() - scheduled);
+                return;
+            }
+            Entry entry = new Entry();
+            if (cache.asMap().putIfAbsent(next.getKey(), entry) != null) {
+                continue;
+            }
+            try {
+                Loader<?> loader = next.getValue();
+                executor.execute(() -> load(next.getKey(), entry, loader));
+                scheduled++;
+            } catch (RejectedExecutionException ex) {
+                entry.value.completeExceptionally(ex);
+                cache.asMap().remove(next.getKey(), entry);
+                fetched("rejected").increment();
+            }
+        }
+    }
+
+    /**
+     * Returns the prefetched file content for the key, waiting for a fetch still in flight, or
+     * loads it from ORDS when nothing was prefetched or the prefetch failed.
+     */
+    public <T> T get(Key key, Class<T> type, Loader<T> loader) throws Exception {
+        if (!enabled) {
+            return loader.load();
+        }
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null) {
+            try {
+                Object value = entry.value.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+                if (value == null || type.isInstance(value)) {
+                    entry.read = true;
+                    hits.increment();
+                    return type.cast(value);
+                }
+            } catch (ExecutionException | TimeoutException ex) {
+                // Fall back to fetching it here
+            }
+        }
+        misses.increment();
+        return loader.load();
+    }
+
+    /** Drops all prefetched file content. */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void load(Key key, Entry entry, Loader<?> loader) {
+        try {
+            Object value = OrdsCallPriority.inBackground(loader::load);
+            fetched("success").increment();
+            entry.value.complete(value);
+        } catch (Exception ex) {
+            log.warn("Unable to prefetch file content: " + ex.getMessage());
+            fetched("failure").increment();
+            cache.asMap().remove(key, entry);
+            entry.value.completeExceptionally(ex);
+        }
+    }
+
+    private void removed(Entry entry) {
+        // Fetches still in flight are wasted too, their result can no longer be read
+        if (entry != null && !entry.read && !entry.value.isCompletedExceptionally()) {
+            wasted.increment();
+        }
+    }
+
+    private Counter requests(String outcome) {
+        return Counter.builder("jci.file.prefetch.requests")
+                .description("File content requests by whether a prefetch answered them")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter fetched(String outcome) {
+        return Counter.builder("jci.file.prefetch.fetches")
+                .description("Background file content fetches by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Identifies one file content request by every field that changes the result, leaving out
+     * per-call fields such as request timestamps.
+     */
+    public static final class Key {
+        private final Object[] parameters;
+
+        private Key(Object[] parameters) {
+            this.parameters = parameters;
+        }
+
+        public static Key of(Object... parameters) {
+            return new Key(parameters.clone());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            return o instanceof Key && Arrays.equals(parameters, ((Key) o).parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(parameters);
+        }
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<Object> value = new CompletableFuture<>();
+        private volatile boolean read;
+    }
+}
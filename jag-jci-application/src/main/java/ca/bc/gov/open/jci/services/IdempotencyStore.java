@@ -0,0 +1,175 @@
+package ca.bc.gov.open.jci.services;
+
+import ca.bc.gov.open.jci.configuration.DocumentStreamingFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs each process result submission once per idempotency key. A client retrying a submission,
+ * typically after an ORDS timeout, gets the response of the first attempt instead of writing to
+ * ORDS again: a retry that arrives while the first attempt is still running waits for it, and one
+ * that arrives within the TTL after it succeeded gets its stored response. A failed attempt is
+ * forgotten so the next retry goes to ORDS.
+ *
+ * <p>The key is the {@value #HEADER} request header when the client sends one, and otherwise a
+ * hash of the ORDS route and the payload, so identical submissions within the TTL are treated as
+ * retries.
+ */
+@Service
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    /** Performs the submission. */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws Exception;
+    }
+
+    private final boolean enabled;
+    private final Duration maxWait;
+    private final ObjectWriter writer;
+    private final Cache<String, CompletableFuture<Object>> cache;
+    private final Counter submitted;
+    private final Counter replayed;
+
+    @Autowired
+    public IdempotencyStore(
+            ObjectMapper objectMapper,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${jci.process-idempotency.enabled}") boolean enabled,
+            @Value("${jci.process-idempotency.ttl}") long ttl,
+            @Value("${jci.process-idempotency.max-entries}") long maxEntries,
+            @Value("${jci.ords-read-timeout}") long ordsReadTimeout) {
+        this(
+                objectMapper,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                enabled,
+                Duration.ofSeconds(ttl),
+                maxEntries,
+                Duration.ofSeconds(ordsReadTimeout));
+    }
+
+    public IdempotencyStore(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            boolean enabled,
+            Duration ttl,
+            long maxEntries,
+            Duration maxWait) {
+        this.enabled = enabled;
+        this.maxWait = maxWait;
+        this.writer = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.cache = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxEntries).build();
+        this.submitted = requests("submitted", meterRegistry);
+        this.replayed = requests("replayed", meterRegistry);
+    }
+
+    /** Every submission goes to ORDS. */
+    public static IdempotencyStore disabled() {
+        return new IdempotencyStore(
+                new ObjectMapper(),
+                Metrics.globalRegistry,
+                false,
+                Duration.ZERO,
+                0,
+                Duration.ZERO);
+    }
+
+    /**
+     * The key of a submission to the ORDS route, from the client's header or else from the
+     * payload as it will be sent.
+     */
+    public String key(String route, Object payload) throws Exception {
+        if (!enabled) {
+            return null;
+        }
+        HttpServletRequest request = DocumentStreamingFilter.currentRequest();
+        String header = request != null ? request.getHeader(HEADER) : null;
+        if (header != null && !header.isBlank()) {
+            return route + " header " + header.trim();
+        }
+        MessageDigest digest = sha256();
+        digest.update(route.getBytes(StandardCharsets.UTF_8));
+        // Hashed as it is serialized, so large payloads are not held in memory twice
+        try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            writer.writeValue(out, payload);
+        }
+        return route + " payload " + HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Returns the response of the first submission with the key, waiting for it if it is still
+     * running, or submits it when there is none.
+     */
+    public <T> T submit(String key, Class<T> type, Loader<T> loader) throws Exception {
+        if (!enabled || key == null) {
+            return loader.load();
+        }
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> first = cache.asMap().putIfAbsent(key, mine);
+        if (first != null) {
+            Object value;
+            try {
+                value = first.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException ex) {
+                throw ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+            }
+            if (value == null || type.isInstance(value)) {
+                replayed.increment();
+                return type.cast(value);
+            }
+            return loader.load();
+        }
+
+        submitted.increment();
+        try {
+            T value = loader.load();
+            mine.complete(value);
+            // The TTL counts from completion rather than from the start of the submission
+            cache.asMap().replace(key, mine, mine);
+            return value;
+        } catch (Throwable ex) {
+            // Errors too, or retries would wait on an attempt that never completes
+            cache.asMap().remove(key, mine);
+            mine.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Counter requests(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("jci.process.idempotency.requests")
+                .description("Process result submissions by whether a stored response answered")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,123 @@
+package ca.bc.gov.open.jci.services;
+
+import ca.bc.gov.open.jci.models.ords.OrdsUriTemplate;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The ORDS routes the controllers call, with the query parameters each takes in order. A route is
+ * compiled into an {@link OrdsUriTemplate} the first time it is used with the ORDS host, so a call
+ * only appends its encoded values instead of parsing the whole url with UriComponentsBuilder.
+ *
+ * <p>Routes are named by their path, e.g. criminal/file, which is also the route tag of the ORDS
+ * metrics, and {@link #named} looks a route up by that name.
+ */
+public enum OrdsRoute {
+    CODE_VALUES("common/codevalues", "lastRetrievedDate"),
+    COURT_LIST(
+            "common/courtlist",
+            "agencyIdentifierCd",
+            "roomCd",
+            "proceedingDate",
+            "divisionCd",
+            "fileNumber"),
+    CRIMINAL_FILE(
+            "criminal/file",
+            "agencyIdentifierCd",
+            "roomCd",
+            "proceedingDate",
+            "appearanceId",
+            "mdocJustinNo"),
+    CIVIL_FILE(
+            "civil/file",
+            "courtLocaCd",
+            "courtRoomCd",
+            "courtProceedingDate",
+            "appearanceId",
+            "physicalFileId",
+            "applicationCd"),
+    // Document ids are sent form encoded
+    DOCUMENT(true, "common/document", "documentId", "courtDivisionCd"),
+    ROP_REPORT("criminal/ropreport", "param1", "param2", "formCd"),
+    HEALTH("common/health"),
+    PING("common/ping"),
+    USER_MAPPING_PARTICIPANT_INFO("common/user/mapping/participant-info", "guid"),
+    PARTICIPANT_INFO("common/participant-info", "guid"),
+    PARTID_TO_GUID("common/user/mapping/partid-to-guid", "guid", "partId", "idirId"),
+    USER_LOGIN("common/user/login", "temporaryAccessGuid", "domainUserGuid", "domainUserId"),
+    CLEAR_APPEARANCE_RESULTS("criminal/clear-appr-results"),
+    RECREATE_COURT_LIST("common/courtlist/recreate"),
+    VARIATION("criminal/variation"),
+    SPEAKER("criminal/speaker"),
+    CIVIL_RESULTS("civil/results"),
+    APPEARANCE_METHOD("criminal/appearance-method"),
+    PLEA("criminal/plea"),
+    ELECTION("criminal/election"),
+    BAIL("criminal/bail"),
+    CRIMINAL_RESULTS("criminal/results"),
+    AGE_NOTICE("criminal/age-notice"),
+    MATTER_CALL("criminal/mattercall"),
+    SENTENCE("criminal/sentence"),
+    BAN("criminal/ban"),
+    NOTE("criminal/note"),
+    ARRAIGNMENT("criminal/arraignment"),
+    MOVE("criminal/move"),
+    FINDING("criminal/finding"),
+    GENERIC_RESULT("common/generic-result"),
+    CIVIL_APPEARANCE_METHOD("civil/appearance-method"),
+    ORDER("criminal/order"),
+    CIVIL_ORDER("civil/order"),
+    EXHIBIT("criminal/exhibit"),
+    APPEARANCE("appearance");
+
+    private static final Map<String, OrdsRoute> BY_PATH = new HashMap<>();
+
+    static {
+        for (OrdsRoute route : values()) {
+            BY_PATH.put(route.path, route);
+        }
+    }
+
+    private final boolean formEncoded;
+    private final String path;
+    private final String[] queryParams;
+    private volatile OrdsUriTemplate template;
+
+    OrdsRoute(String path, String... queryParams) {
+        this(false, path, queryParams);
+    }
+
+    OrdsRoute(boolean formEncoded, String path, String... queryParams) {
+        this.formEncoded = formEncoded;
+        this.path = path;
+        this.queryParams = queryParams;
+    }
+
+    /** The route with the path, or null when it is not an ORDS route. */
+    public static OrdsRoute named(String path) {
+        return BY_PATH.get(path);
+    }
+
+    /** The url of the route under the host, with the query parameter values in order. */
+    public URI uri(String host, Object... values) {
+        return template(host).toUri(values);
+    }
+
+    /** As {@link #uri}, for the callers that pass ORDS a string. */
+    public String uriString(String host, Object... values) {
+        return template(host).expand(values);
+    }
+
+    private OrdsUriTemplate template(String host) {
+        OrdsUriTemplate compiled = template;
+        if (compiled == null || !compiled.getHost().equals(host)) {
+            compiled =
+                    formEncoded
+                            ? OrdsUriTemplate.formEncoded(host, path, queryParams)
+                            : OrdsUriTemplate.of(host, path, queryParams);
+            template = compiled;
+        }
+        return compiled;
+    }
+}
@@ -0,0 +1,194 @@
+package ca.bc.gov.open.jci.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs the items of a processBatch request and returns one result per item, in request order.
+ * Items run in parallel on a pool shared by every batch, except that an item waits for the
+ * earlier items it depends on, and is not run at all when one of them failed.
+ *
+ * <p>An item that fails, depends on an item that failed or is not an earlier item, or is beyond
+ * the item limit gets a failure result rather than failing the whole batch.
+ */
+@Slf4j
+@Service
+public class ProcessBatcher implements AutoCloseable {
+
+    private static final String ORDS_ERROR =
+            "An error response was received from ORDS please check that your request is of valid"
+                    + " form";
+
+    /** Runs one item. */
+    @FunctionalInterface
+    public interface Run<T, R> {
+        R run(T item) throws Exception;
+    }
+
+    /** Builds the result of an item that failed or was not run. */
+    @FunctionalInterface
+    public interface Failure<T, R> {
+        R failed(T item, String message);
+    }
+
+    private final int maxItems;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public ProcessBatcher(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${jci.process-batch.max-items}") int maxItems,
+            @Value("${jci.process-batch.threads}") int threads) {
+        this(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), maxItems, threads);
+    }
+
+    /** With no threads every item runs on the calling thread, one at a time. */
+    public ProcessBatcher(MeterRegistry meterRegistry, int maxItems, int threads) {
+        this.maxItems = maxItems;
+        this.meterRegistry = meterRegistry;
+        if (threads > 0) {
+            AtomicInteger count = new AtomicInteger();
+            this.executor =
+                    Executors.newFixedThreadPool(
+                            threads,
+                            runnable -> {
+                                Thread thread =
+                                        new Thread(
+                                                runnable,
+                                                "process-batch-" + count.incrementAndGet());
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /** Runs every item on the calling thread, one at a time. */
+    public static ProcessBatcher sequential() {
+        return new ProcessBatcher(Metrics.globalRegistry, Integer.MAX_VALUE, 0);
+    }
+
+    /**
+     * Runs the items and returns their results in the same order. Items are named by their id,
+     * and may only depend on items before them.
+     */
+    public <T, R> List<R> runAll(
+            List<T> items,
+            Function<T, String> id,
+            Function<T, ? extends Collection<String>> dependsOn,
+            Run<T, R> run,
+            Failure<T, R> failure) {
+        Executor runner = executor != null ? executor : Runnable::run;
+        Map<String, CompletableFuture<R>> earlier = new HashMap<>();
+        List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size() && i < maxItems; i++) {
+            T item = items.get(i);
+            String itemId = id.apply(item);
+            if (itemId == null || earlier.containsKey(itemId)) {
+                futures.add(notRun("ItemId " + itemId + " is missing or repeated"));
+                continue;
+            }
+            List<CompletableFuture<R>> dependencies = new ArrayList<>();
+            String unknown = null;
+            for (String dependency : dependsOn.apply(item)) {
+                CompletableFuture<R> future = earlier.get(dependency);
+                if (future == null) {
+                    unknown = dependency;
+                    break;
+                }
+                dependencies.add(future);
+            }
+            CompletableFuture<R> future =
+                    unknown != null
+                            ? notRun("Depends on " + unknown + ", which is not an earlier item")
+                            : CompletableFuture.allOf(
+                                            dependencies.toArray(new CompletableFuture<?>[0]))
+                                    .handleAsync(
+                                            (ignored, ex) -> {
+                                                if (ex != null) {
+                                                    throw new NotRun(
+                                                            "Not run, an item it depends on"
+                                                                    + " failed");
+                                                }
+                                                try {
+                                                    return run.run(item);
+                                                } catch (Exception runEx) {
+                                                    throw new CompletionException(runEx);
+                                                }
+                                            },
+                                            runner);
+            earlier.put(itemId, future);
+            futures.add(future);
+        }
+
+        List<R> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            if (i >= maxItems) {
+                items("skipped").increment();
+                results.add(failure.failed(item, "A batch is limited to " + maxItems + " items"));
+                continue;
+            }
+            try {
+                R result = futures.get(i).join();
+                items("success").increment();
+                results.add(result);
+            } catch (CompletionException ex) {
+                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                if (cause instanceof NotRun) {
+                    items("skipped").increment();
+                    results.add(failure.failed(item, cause.getMessage()));
+                } else {
+                    log.warn("Unable to process batch item: " + cause.getMessage());
+                    items("failure").increment();
+                    results.add(failure.failed(item, ORDS_ERROR));
+                }
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <R> CompletableFuture<R> notRun(String message) {
+        return CompletableFuture.failedFuture(new NotRun(message));
+    }
+
+    private Counter items(String outcome) {
+        return Counter.builder("jci.process.batch.items")
+                .description("Batch process result items by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class NotRun extends RuntimeException {
+        private NotRun(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
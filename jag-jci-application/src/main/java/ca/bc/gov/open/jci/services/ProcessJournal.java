@@ -0,0 +1,716 @@
+package ca.bc.gov.open.jci.services;
+
+import ca.bc.gov.open.jci.models.OrdsErrorLog;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+
+/**
+ * Write-behind journal for process result submissions. When enabled, the selected operations are
+ * appended to a local journal and acknowledged with a pending status instead of waiting on ORDS,
+ * and a background worker posts them to ORDS at a limited rate, retrying failures with backoff.
+ *
+ * <p>The journal is a directory of fixed size, memory-mapped segment files. Each record is its
+ * length, a CRC32 of its body, a pending, delivered or rejected flag and the JSON body. The length
+ * is written last, so a record torn by a crash is never read back; records still pending or
+ * rejected are loaded again on start up. A segment is deleted once every record in it has been
+ * delivered.
+ *
+ * <p>Records are delivered in the order they were accepted. A record that fails holds back the
+ * later records for the same appearances until it is delivered, so ORDS sees each appearance's
+ * results in order; records for other appearances carry on. When the journal is full or cannot be
+ * written the submission goes to ORDS directly as before.
+ *
+ * <p>A record is only delivered when ORDS answers with one of the success statuses in the
+ * operation's response. Any other status marks it rejected: it stays in the journal, holding back
+ * its appearances, until it is replayed through the processjournal endpoint.
+ */
+@Slf4j
+@Service
+public class ProcessJournal implements AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    // Length, CRC32 and the pending, delivered or rejected flag
+    private static final int HEADER = 9;
+    private static final byte PENDING = 0;
+    private static final byte DELIVERED = 1;
+    private static final byte REJECTED = 2;
+
+    private final OrdsGateway ordsGateway;
+    private final ObjectMapper objectMapper;
+    private final CourtListCache courtListCache;
+    private final Settings settings;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final Object lock = new Object();
+    private final Object drainLock = new Object();
+    private final List<Record> pending = new ArrayList<>();
+    private final Map<Long, Segment> segments = new LinkedHashMap<>();
+    private final ScheduledExecutorService worker;
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter rejected;
+    private Segment active;
+    private long nextSend = System.nanoTime();
+    private volatile boolean closed;
+
+    @Autowired
+    public ProcessJournal(
+            OrdsGateway ordsGateway,
+            ObjectMapper objectMapper,
+            CourtListCache courtListCache,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${jci.process-journal.enabled}") boolean enabled,
+            @Value("${jci.process-journal.operations}") String operations,
+            @Value("${jci.process-journal.directory}") String directory,
+            @Value("${jci.process-journal.segment-size-kb}") int segmentSizeKb,
+            @Value("${jci.process-journal.max-entries}") int maxEntries,
+            @Value("${jci.process-journal.pending-status}") String pendingStatus,
+            @Value("${jci.process-journal.success-statuses}") String successStatuses,
+            @Value("${jci.process-journal.max-per-second}") double maxPerSecond,
+            @Value("${jci.process-journal.retry-backoff}") long retryBackoff,
+            @Value("${jci.process-journal.max-retry-backoff}") long maxRetryBackoff)
+            throws IOException {
+        this(
+                ordsGateway,
+                objectMapper,
+                courtListCache,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                Clock.systemUTC(),
+                new Settings()
+                        .enabled(enabled)
+                        .operations(operations)
+                        .directory(Paths.get(directory))
+                        .segmentSize(segmentSizeKb * 1024)
+                        .maxEntries(maxEntries)
+                        .pendingStatus(pendingStatus)
+                        .successStatuses(successStatuses)
+                        .maxPerSecond(maxPerSecond)
+                        .retryBackoff(
+                                Duration.ofSeconds(retryBackoff),
+                                Duration.ofSeconds(maxRetryBackoff)));
+    }
+
+    /** Opens the journal and loads the records still pending, when enabled. */
+    public ProcessJournal(
+            OrdsGateway ordsGateway,
+            ObjectMapper objectMapper,
+            CourtListCache courtListCache,
+            MeterRegistry meterRegistry,
+            Clock clock,
+            Settings settings)
+            throws IOException {
+        this.ordsGateway = ordsGateway;
+        this.objectMapper = objectMapper;
+        this.courtListCache = courtListCache;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.settings = settings;
+        this.delivered = deliveries("success");
+        this.failed = deliveries("failure");
+        this.rejected = deliveries("rejected");
+        Gauge.builder("jci.process.journal.depth", this, ProcessJournal::depth)
+                .description("Process results accepted but not yet delivered to ORDS")
+                .register(meterRegistry);
+        if (!settings.enabled) {
+            this.worker = null;
+            return;
+        }
+        open();
+        if (settings.drainInterval.isZero()) {
+            this.worker = null;
+        } else {
+            this.worker = Executors.newSingleThreadScheduledExecutor(this::daemon);
+            worker.scheduleWithFixedDelay(
+                    this::drainQuietly,
+                    settings.drainInterval.toMillis(),
+                    settings.drainInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Every submission goes to ORDS directly. */
+    public static ProcessJournal disabled() {
+        try {
+            return new ProcessJournal(
+                    null,
+                    null,
+                    null,
+                    Metrics.globalRegistry,
+                    Clock.systemUTC(),
+                    new Settings().enabled(false));
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /** The status returned to the client for a journaled submission. */
+    public String getPendingStatus() {
+        return settings.pendingStatus;
+    }
+
+    /**
+     * Journals the submission when its operation is selected, returning false when it should go
+     * to ORDS directly instead. ORDS' answer is read as the response type to check its status.
+     */
+    public boolean append(
+            String operation,
+            String uri,
+            Object payload,
+            Class<?> responseType,
+            Collection<String> appearanceIds) {
+        if (!settings.enabled || !settings.operations.contains(operation)) {
+            return false;
+        }
+        try {
+            Entry entry = new Entry();
+            entry.setOperation(operation);
+            entry.setUri(uri);
+            entry.setResponseType(responseType.getName());
+            entry.setAppearanceIds(
+                    appearanceIds.stream()
+                            .filter(id -> id != null && !id.isBlank())
+                            .distinct()
+                            .collect(Collectors.toList()));
+            entry.setAcceptedAt(clock.instant().toString());
+            entry.setPayload(objectMapper.valueToTree(payload));
+            byte[] body = objectMapper.writeValueAsBytes(entry);
+            synchronized (lock) {
+                if (closed || pending.size() >= settings.maxEntries) {
+                    appends("full").increment();
+                    return false;
+                }
+                pending.add(write(entry, body));
+            }
+            appends("journaled").increment();
+            return true;
+        } catch (Exception ex) {
+            log.error("Unable to journal " + operation + ": " + ex.getMessage());
+            appends("error").increment();
+            return false;
+        }
+    }
+
+    /** Records accepted but not yet delivered to ORDS. */
+    public int depth() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /** The records still pending, oldest first, including those ORDS rejected. */
+    public List<Map<String, Object>> pending() {
+        synchronized (lock) {
+            return pending.stream()
+                    .map(
+                            record -> {
+                                Map<String, Object> summary = new LinkedHashMap<>();
+                                summary.put("operation", record.entry.getOperation());
+                                summary.put("acceptedAt", record.entry.getAcceptedAt());
+                                summary.put("appearanceIds", record.entry.getAppearanceIds());
+                                summary.put("attempts", record.attempts);
+                                summary.put("rejected", record.rejected);
+                                summary.put("status", record.status);
+                                return summary;
+                            })
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Posts the pending records that are due to ORDS and returns how many were delivered. With
+     * force, records waiting out a retry backoff or rejected by ORDS are posted straight away.
+     */
+    public int drain(boolean force) {
+        if (!settings.enabled) {
+            return 0;
+        }
+        synchronized (drainLock) {
+            List<Record> due;
+            synchronized (lock) {
+                due = new ArrayList<>(pending);
+            }
+            Set<String> held = new HashSet<>();
+            int count = 0;
+            for (Record record : due) {
+                if (closed) {
+                    break;
+                }
+                List<String> appearanceIds = record.entry.getAppearanceIds();
+                if (appearanceIds.stream().anyMatch(held::contains)) {
+                    continue;
+                }
+                if (!force && (record.rejected || record.notBefore - System.nanoTime() > 0)) {
+                    held.addAll(appearanceIds);
+                    continue;
+                }
+                if (!pace()) {
+                    break;
+                }
+                if (deliver(record)) {
+                    count++;
+                } else {
+                    held.addAll(appearanceIds);
+                }
+            }
+            return count;
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (worker != null) {
+            worker.shutdownNow();
+        }
+        synchronized (lock) {
+            for (Segment segment : segments.values()) {
+                try {
+                    segment.buffer.force();
+                    segment.channel.close();
+                } catch (IOException ex) {
+                    log.warn("Unable to close journal segment " + segment.path);
+                }
+            }
+        }
+    }
+
+    private void drainQuietly() {
+        try {
+            drain(false);
+        } catch (Exception ex) {
+            log.error("Process journal drain failed: " + ex.getMessage());
+        }
+    }
+
+    private boolean deliver(Record record) {
+        Entry entry = record.entry;
+        String status;
+        try {
+            Object response =
+                    ordsGateway
+                            .exchange(
+                                    entry.getUri(),
+                                    HttpMethod.POST,
+                                    new HttpEntity<>(entry.getPayload(), new HttpHeaders()),
+                                    responseType(entry))
+                            .getBody();
+            status =
+                    response == null
+                            ? null
+                            : objectMapper.valueToTree(response).path("status").textValue();
+        } catch (Exception ex) {
+            record.attempts++;
+            long backoff =
+                    Math.min(
+                            settings.retryBackoff.toNanos()
+                                    << Math.min(record.attempts - 1, 20),
+                            settings.maxRetryBackoff.toNanos());
+            record.notBefore = System.nanoTime() + backoff;
+            failed.increment();
+            logFailure(entry, ex.getMessage());
+            return false;
+        }
+        record.attempts++;
+        record.status = status;
+        if (status == null || !settings.successStatuses.contains(status)) {
+            synchronized (lock) {
+                if (!record.rejected) {
+                    record.rejected = true;
+                    try {
+                        mark(record, REJECTED);
+                    } catch (IOException ex) {
+                        log.warn("Unable to mark journal record rejected: " + ex.getMessage());
+                    }
+                }
+            }
+            rejected.increment();
+            logFailure(entry, "ORDS returned status " + status);
+            return false;
+        }
+
+        synchronized (lock) {
+            pending.remove(record);
+            try {
+                markDelivered(record);
+            } catch (IOException ex) {
+                // Delivered again after a restart, which a retry from the client would do anyway
+                log.warn("Unable to mark journal record delivered: " + ex.getMessage());
+            }
+        }
+        delivered.increment();
+        JsonNode payload = entry.getPayload();
+        if (payload.has("courtRoomCode")) {
+            courtListCache.invalidate(
+                    payload.path("courtAgencyIdentifierCode").textValue(),
+                    payload.path("courtRoomCode").textValue(),
+                    objectMapper.convertValue(payload.get("courtProceedingDate"), Instant.class));
+        }
+        return true;
+    }
+
+    private boolean pace() {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / settings.maxPerSecond);
+        long wait = nextSend - System.nanoTime();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        nextSend = Math.max(nextSend, System.nanoTime()) + interval;
+        return true;
+    }
+
+    private void logFailure(Entry entry, String message) {
+        try {
+            JsonNode request = entry.getPayload().deepCopy();
+            if (request instanceof ObjectNode) {
+                ((ObjectNode) request).put("enterUserId", "");
+            }
+            log.error(
+                    objectMapper.writeValueAsString(
+                            new OrdsErrorLog(
+                                    "Error received from ORDS",
+                                    entry.getOperation(),
+                                    message,
+                                    request)));
+        } catch (IOException logEx) {
+            log.error("Error received from ORDS for " + entry.getOperation());
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(settings.directory);
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(settings.directory)) {
+            paths =
+                    files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                            .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                            .sorted()
+                            .collect(Collectors.toList());
+        }
+        long sequence = 0;
+        for (Path path : paths) {
+            String name = path.getFileName().toString();
+            sequence =
+                    Long.parseLong(
+                            name.substring(
+                                    SEGMENT_PREFIX.length(),
+                                    name.length() - SEGMENT_SUFFIX.length()));
+            Segment segment = map(sequence, path, Files.size(path));
+            segments.put(sequence, segment);
+            load(segment);
+            active = segment;
+        }
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            if (segment != active) {
+                deleteIfDelivered(segment);
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.info("Process journal loaded " + pending.size() + " pending records");
+        }
+        if (active == null) {
+            roll(1);
+        }
+    }
+
+    private void load(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = 0;
+        while (offset + HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER + length > buffer.capacity()) {
+                break;
+            }
+            byte[] body = new byte[length];
+            buffer.get(offset + HEADER, body);
+            if (crc(body) != buffer.getInt(offset + 4)) {
+                log.warn("Ignoring torn record at " + offset + " in " + segment.path);
+                break;
+            }
+            byte flag = buffer.get(offset + 8);
+            if (flag == PENDING || flag == REJECTED) {
+                try {
+                    Record record =
+                            new Record(segment, offset, objectMapper.readValue(body, Entry.class));
+                    record.rejected = flag == REJECTED;
+                    pending.add(record);
+                    segment.live++;
+                } catch (IOException ex) {
+                    log.error("Unable to read journal record in " + segment.path);
+                }
+            }
+            offset += HEADER + length;
+        }
+        segment.position = offset;
+    }
+
+    private Record write(Entry entry, byte[] body) throws IOException {
+        int size = HEADER + body.length;
+        if (size > settings.segmentSize) {
+            throw new IOException("Record of " + size + " bytes is larger than a segment");
+        }
+        if (active.position + size > active.buffer.capacity()) {
+            roll(active.sequence + 1);
+        }
+        Segment segment = active;
+        int offset = segment.position;
+        MappedByteBuffer buffer = segment.buffer;
+        buffer.put(offset + HEADER, body);
+        buffer.putInt(offset + 4, crc(body));
+        buffer.put(offset + 8, PENDING);
+        buffer.force(offset + 4, size - 4);
+        buffer.putInt(offset, body.length);
+        buffer.force(offset, 4);
+        segment.position = offset + size;
+        segment.live++;
+        return new Record(segment, offset, entry);
+    }
+
+    private void markDelivered(Record record) throws IOException {
+        Segment segment = record.segment;
+        mark(record, DELIVERED);
+        segment.live--;
+        if (segment != active) {
+            deleteIfDelivered(segment);
+        }
+    }
+
+    private static void mark(Record record, byte flag) throws IOException {
+        record.segment.buffer.put(record.offset + 8, flag);
+        record.segment.buffer.force(record.offset + 8, 1);
+    }
+
+    private static Class<?> responseType(Entry entry) throws ClassNotFoundException {
+        // Records journaled before the response type was kept are read as plain JSON
+        return entry.getResponseType() == null
+                ? JsonNode.class
+                : Class.forName(entry.getResponseType());
+    }
+
+    private void roll(long sequence) throws IOException {
+        Segment previous = active;
+        Path path =
+                settings.directory.resolve(
+                        String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        active = map(sequence, path, settings.segmentSize);
+        segments.put(sequence, active);
+        if (previous != null) {
+            deleteIfDelivered(previous);
+        }
+    }
+
+    private void deleteIfDelivered(Segment segment) throws IOException {
+        if (segment.live > 0) {
+            return;
+        }
+        segment.channel.close();
+        Files.deleteIfExists(segment.path);
+        segments.remove(segment.sequence);
+    }
+
+    private static Segment map(long sequence, Path path, long size) throws IOException {
+        FileChannel channel =
+                FileChannel.open(
+                        path,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+        return new Segment(
+                sequence, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    private static int crc(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private Thread daemon(Runnable runnable) {
+        Thread thread = new Thread(runnable, "process-journal-drain");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private Counter appends(String outcome) {
+        return Counter.builder("jci.process.journal.appends")
+                .description("Process results offered to the journal by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter deliveries(String outcome) {
+        return Counter.builder("jci.process.journal.deliveries")
+                .description("Journaled process results posted to ORDS by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public static class Settings {
+        private boolean enabled = true;
+        private Set<String> operations = new HashSet<>();
+        private Path directory = Paths.get("journal");
+        private int segmentSize = 4 * 1024 * 1024;
+        private int maxEntries = 10000;
+        private String pendingStatus = "P";
+        private Set<String> successStatuses = Set.of("A");
+        private double maxPerSecond = 5;
+        private Duration retryBackoff = Duration.ofSeconds(5);
+        private Duration maxRetryBackoff = Duration.ofMinutes(5);
+        private Duration drainInterval = Duration.ofSeconds(1);
+
+        public Settings enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /** Comma separated operation names, such as processMatterCall,processNote. */
+        public Settings operations(String operations) {
+            this.operations =
+                    Arrays.stream(operations.split(","))
+                            .map(String::trim)
+                            .filter(operation -> !operation.isEmpty())
+                            .collect(Collectors.toSet());
+            return this;
+        }
+
+        public Settings directory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        public Settings segmentSize(int segmentSize) {
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        public Settings maxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        public Settings pendingStatus(String pendingStatus) {
+            this.pendingStatus = pendingStatus;
+            return this;
+        }
+
+        /** Comma separated statuses in ORDS' response that mean the record was accepted. */
+        public Settings successStatuses(String successStatuses) {
+            this.successStatuses =
+                    Arrays.stream(successStatuses.split(","))
+                            .map(String::trim)
+                            .filter(status -> !status.isEmpty())
+                            .collect(Collectors.toSet());
+            return this;
+        }
+
+        public Settings maxPerSecond(double maxPerSecond) {
+            this.maxPerSecond = maxPerSecond;
+            return this;
+        }
+
+        /** The first retry waits the backoff, doubling on each failure up to the maximum. */
+        public Settings retryBackoff(Duration retryBackoff, Duration maxRetryBackoff) {
+            this.retryBackoff = retryBackoff;
+            this.maxRetryBackoff = maxRetryBackoff;
+            return this;
+        }
+
+        /** Zero leaves draining to {@link #drain} calls. */
+        public Settings drainInterval(Duration drainInterval) {
+            this.drainInterval = drainInterval;
+            return this;
+        }
+    }
+
+    /** One journaled submission, as stored in a segment. */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Entry {
+        private String operation;
+        private String uri;
+        private String responseType;
+        private List<String> appearanceIds = new ArrayList<>();
+        private String acceptedAt;
+        private JsonNode payload;
+    }
+
+    private static final class Segment {
+        private final long sequence;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int position;
+        // Records not yet delivered
+        private int live;
+
+        private Segment(long sequence, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.sequence = sequence;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    private static final class Record {
+        private final Segment segment;
+        private final int offset;
+        private final Entry entry;
+        private int attempts;
+        private long notBefore = System.nanoTime();
+        // Set when ORDS answered with a status other than success, until a replay delivers it
+        private boolean rejected;
+        private String status;
+
+        private Record(Segment segment, int offset, Entry entry) {
+            this.segment = segment;
+            this.offset = offset;
+            this.entry = entry;
+        }
+    }
+}
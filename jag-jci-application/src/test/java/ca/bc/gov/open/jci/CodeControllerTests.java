@@ -8,6 +8,7 @@ import ca.bc.gov.open.jci.common.code.values.CodeValues;
 import ca.bc.gov.open.jci.controllers.CodeController;
 import ca.bc.gov.open.jci.models.serializers.InstantDeserializer;
 import ca.bc.gov.open.jci.models.serializers.InstantSerializer;
+import ca.bc.gov.open.jci.services.CodeValueStore;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -42,12 +43,14 @@ public class CodeControllerTests {
 
     @Mock private ObjectMapper objectMapper;
     @Mock private RestTemplate restTemplate;
+    @Mock private CodeValueStore codeValueStore;
     @Mock private CodeController codeController;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        codeController = Mockito.spy(new CodeController(restTemplate, objectMapper));
+        codeController =
+                Mockito.spy(new CodeController(restTemplate, objectMapper, codeValueStore));
     }
 
     @Test
@@ -80,7 +83,8 @@ public class CodeControllerTests {
                         Mockito.<Class<GetCodeValuesResponse>>any()))
                 .thenReturn(responseEntity);
 
-        CodeController codeController = new CodeController(restTemplate, objectMapper);
+        CodeController codeController =
+                new CodeController(restTemplate, objectMapper, codeValueStore);
         var resp = codeController.getCodeValues(req, null);
 
         Assertions.assertNotNull(resp);
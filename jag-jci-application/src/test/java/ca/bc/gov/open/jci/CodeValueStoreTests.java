@@ -0,0 +1,128 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.common.code.values.CodeValue;
+import ca.bc.gov.open.jci.common.code.values.CodeValues;
+import ca.bc.gov.open.jci.common.code.values.GetCodeValuesResponse;
+import ca.bc.gov.open.jci.services.CodeValueStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.client.RestTemplate;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CodeValueStoreTests {
+
+    @Mock private ObjectMapper objectMapper;
+    @Mock private RestTemplate restTemplate;
+
+    private Instant now;
+    private CodeValueStore codeValueStore;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        now = Instant.parse("2024-01-01T00:00:00Z");
+        Clock clock =
+                new Clock() {
+                    @Override
+                    public ZoneId getZone() {
+                        return ZoneId.of("UTC");
+                    }
+
+                    @Override
+                    public Clock withZone(ZoneId zone) {
+                        return this;
+                    }
+
+                    @Override
+                    public Instant instant() {
+                        return now;
+                    }
+                };
+        codeValueStore =
+                new CodeValueStore(restTemplate, objectMapper, new SimpleMeterRegistry(), clock);
+    }
+
+    @Test
+    public void emptyStoreDefersToOrdsTest() {
+        Assertions.assertTrue(codeValueStore.getCodeValues(null).isEmpty());
+    }
+
+    @Test
+    public void fullSnapshotTest() {
+        codeValueStore.update(response(codeValue("A", "1"), codeValue("B", "2")));
+
+        var resp = codeValueStore.getCodeValues(null).orElseThrow();
+
+        Assertions.assertEquals(2, resp.getCeisCodeValues().getCodeValue().size());
+        Assertions.assertEquals(2, resp.getJustinCodeValues().getCodeValue().size());
+    }
+
+    @Test
+    public void deltaTest() {
+        codeValueStore.update(response(codeValue("A", "1"), codeValue("B", "2")));
+        now = now.plus(Duration.ofMinutes(15));
+        codeValueStore.update(response(codeValue("A", "1"), codeValue("B", "3")));
+        now = now.plus(Duration.ofMinutes(10));
+        codeValueStore.update(response(codeValue("A", "1"), codeValue("B", "3")));
+
+        // Only the changed value is newer than the overlap window
+        var resp = codeValueStore.getCodeValues(now.minus(Duration.ofMinutes(1))).orElseThrow();
+        Assertions.assertEquals(1, resp.getCeisCodeValues().getCodeValue().size());
+        Assertions.assertEquals(
+                "3", resp.getCeisCodeValues().getCodeValue().get(0).getShortDesc());
+
+        now = now.plus(Duration.ofMinutes(5));
+        codeValueStore.update(response(codeValue("A", "1"), codeValue("B", "3")));
+        resp = codeValueStore.getCodeValues(now).orElseThrow();
+        Assertions.assertNull(resp.getCeisCodeValues());
+        Assertions.assertNull(resp.getJustinCodeValues());
+    }
+
+    @Test
+    public void beforeBaselineDefersToOrdsTest() {
+        codeValueStore.update(response(codeValue("A", "1")));
+
+        Assertions.assertTrue(codeValueStore.getCodeValues(now).isEmpty());
+    }
+
+    @Test
+    public void staleSnapshotDefersToOrdsTest() {
+        codeValueStore.update(response(codeValue("A", "1")));
+        now = now.plus(Duration.ofHours(1));
+
+        Assertions.assertTrue(codeValueStore.getCodeValues(null).isEmpty());
+    }
+
+    private static GetCodeValuesResponse response(CodeValue... values) {
+        var out = new GetCodeValuesResponse();
+        var ceis = new CodeValues();
+        var justin = new CodeValues();
+        for (CodeValue value : values) {
+            ceis.getCodeValue().add(value);
+            justin.getCodeValue().add(value);
+        }
+        out.setCeisCodeValues(ceis);
+        out.setJustinCodeValues(justin);
+        return out;
+    }
+
+    private static CodeValue codeValue(String code, String shortDesc) {
+        var cv = new CodeValue();
+        cv.setCodeType("A");
+        cv.setCode(code);
+        cv.setShortDesc(shortDesc);
+        cv.setLongDesc("A");
+        cv.setFlex("A");
+        return cv;
+    }
+}
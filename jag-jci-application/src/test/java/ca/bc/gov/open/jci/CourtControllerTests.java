@@ -4,9 +4,12 @@ import static org.mockito.Mockito.when;
 
 import ca.bc.gov.open.jci.controllers.CourtController;
 import ca.bc.gov.open.jci.court.one.*;
+import ca.bc.gov.open.jci.services.CourtListCache;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.net.URI;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
 import org.junit.jupiter.api.Assertions;
@@ -35,7 +38,18 @@ public class CourtControllerTests {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        courtController = Mockito.spy(new CourtController(restTemplate, objectMapper));
+        courtController =
+                Mockito.spy(
+                        new CourtController(
+                                restTemplate,
+                                objectMapper,
+                                new CourtListCache(
+                                        objectMapper,
+                                        new SimpleMeterRegistry(),
+                                        true,
+                                        Duration.ofMinutes(1),
+                                        1024,
+                                        Duration.ofMinutes(2))));
     }
 
     @Test
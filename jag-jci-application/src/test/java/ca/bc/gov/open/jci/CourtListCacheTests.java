@@ -0,0 +1,110 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.court.one.GetCrtListResponse;
+import ca.bc.gov.open.jci.services.CourtListCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CourtListCacheTests {
+
+    private static final Instant DATE = Instant.parse("2024-01-01T00:00:00Z");
+
+    private SimpleMeterRegistry meterRegistry;
+    private CourtListCache courtListCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        courtListCache =
+                new CourtListCache(
+                        new ObjectMapper(),
+                        meterRegistry,
+                        true,
+                        Duration.ofMinutes(1),
+                        1024,
+                        Duration.ofMinutes(2));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void hitTest() throws Exception {
+        var key = CourtListCache.Key.of("A", "R1", DATE, "R", "F");
+
+        var first = courtListCache.get(key, this::load);
+        var second = courtListCache.get(key, this::load);
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(
+                1, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        Assertions.assertEquals(
+                1, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    public void invalidateTest() throws Exception {
+        var key = CourtListCache.Key.of("A", "R1", DATE, "R", "F");
+        var otherRoom = CourtListCache.Key.of("A", "R2", DATE, "R", "F");
+        courtListCache.get(key, this::load);
+        courtListCache.get(otherRoom, this::load);
+
+        // Same day, later in the day
+        courtListCache.invalidate("A", "R1", DATE.plus(Duration.ofHours(9)));
+        courtListCache.get(key, this::load);
+        courtListCache.get(otherRoom, this::load);
+
+        Assertions.assertEquals(3, loads.get());
+        Assertions.assertEquals(
+                1, meterRegistry.get("jci.court.list.cache.invalidations").counter().count());
+    }
+
+    @Test
+    public void writeDuringLoadTest() throws Exception {
+        var key = CourtListCache.Key.of("A", "R1", DATE, "R", "F");
+
+        courtListCache.get(
+                key,
+                () -> {
+                    courtListCache.invalidate("A", "R1", DATE);
+                    return load();
+                });
+        courtListCache.get(key, this::load);
+
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void invalidateAllTest() throws Exception {
+        var key = CourtListCache.Key.of("A", "R1", DATE, "R", "F");
+        courtListCache.get(key, this::load);
+
+        courtListCache.invalidateAll();
+        courtListCache.get(key, this::load);
+
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void incompleteKeyNotCachedTest() throws Exception {
+        var key = CourtListCache.Key.of("A", null, DATE, "R", "F");
+
+        courtListCache.get(key, this::load);
+        courtListCache.get(key, this::load);
+
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    private GetCrtListResponse load() {
+        loads.incrementAndGet();
+        return new GetCrtListResponse();
+    }
+}
@@ -0,0 +1,167 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.controllers.CourtController;
+import ca.bc.gov.open.jci.court.one.GetCrtList;
+import ca.bc.gov.open.jci.court.one.GetCrtListResponse;
+import ca.bc.gov.open.jci.services.CourtListCache;
+import ca.bc.gov.open.jci.services.CourtListPrewarmer;
+import ca.bc.gov.open.jci.services.OrdsGateway;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+public class CourtListPrewarmerTests {
+
+    private static final ZoneId ZONE = ZoneId.of("America/Vancouver");
+    // Monday 20:00 in Vancouver
+    private static final Instant EVENING = Instant.parse("2024-01-02T04:00:00Z");
+    private static final LocalDate TUESDAY = LocalDate.of(2024, 1, 2);
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrdsGateway ordsGateway;
+    private CourtListCache courtListCache;
+    private CourtListPrewarmer prewarmer;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ordsGateway = Mockito.mock(OrdsGateway.class);
+        Mockito.when(
+                        ordsGateway.exchange(
+                                ArgumentMatchers.any(URI.class),
+                                ArgumentMatchers.eq(HttpMethod.GET),
+                                ArgumentMatchers.<HttpEntity<?>>any(),
+                                ArgumentMatchers.eq(GetCrtListResponse.class)))
+                .thenAnswer(invocation -> ResponseEntity.ok(new GetCrtListResponse()));
+        courtListCache =
+                new CourtListCache(
+                        new ObjectMapper(),
+                        meterRegistry,
+                        true,
+                        Duration.ofMinutes(1),
+                        1024,
+                        Duration.ofMinutes(2),
+                        Duration.ofHours(16));
+        prewarmer = prewarmer(EVENING);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        prewarmer.close();
+    }
+
+    @Test
+    public void configuredAndDiscoveredRoomsAreServedTest() throws Exception {
+        // Seen on the Friday before, with the time and division the client sends
+        prewarmer.observe(request("B", "R2", Instant.parse("2023-12-29T08:00:00Z"), "R"));
+        // Single files are not pre-warmed
+        GetCrtList file = request("B", "R3", Instant.parse("2023-12-29T08:00:00Z"), "R");
+        file.setFileNumber("F1");
+        prewarmer.observe(file);
+
+        Assertions.assertEquals(2, prewarmer.run(TUESDAY));
+
+        Assertions.assertNotNull(
+                courtListCache.get(
+                        CourtController.courtListKey(
+                                request("A", "R1", Instant.parse("2024-01-02T00:00:00Z"), null)),
+                        this::unexpected));
+        Assertions.assertNotNull(
+                courtListCache.get(
+                        CourtController.courtListKey(
+                                request("B", "R2", Instant.parse("2024-01-02T08:00:00Z"), "R")),
+                        this::unexpected));
+        Assertions.assertEquals(
+                2, meterRegistry.get("jci.court.list.cache.prewarmed.hits").counter().count());
+        Assertions.assertEquals(2, fetches("success"));
+    }
+
+    @Test
+    public void nothingIsFetchedDuringBusinessHoursTest() {
+        prewarmer.close();
+        // Tuesday 09:00 in Vancouver
+        prewarmer = prewarmer(Instant.parse("2024-01-02T17:00:00Z"));
+
+        Assertions.assertEquals(0, prewarmer.run(TUESDAY.plusDays(1)));
+        Mockito.verifyNoInteractions(ordsGateway);
+    }
+
+    @Test
+    public void prewarmedListsExpireWhenBusinessHoursStartTest() throws Exception {
+        prewarmer.close();
+        // Tuesday 06:59:59.8 in Vancouver
+        prewarmer = prewarmer(Instant.parse("2024-01-02T14:59:59.800Z"));
+
+        Assertions.assertEquals(1, prewarmer.run(TUESDAY));
+        Thread.sleep(500);
+
+        GetCrtListResponse loaded = new GetCrtListResponse();
+        Assertions.assertSame(
+                loaded,
+                courtListCache.get(
+                        CourtController.courtListKey(
+                                request("A", "R1", Instant.parse("2024-01-02T00:00:00Z"), null)),
+                        () -> loaded));
+    }
+
+    @Test
+    public void processWritesDropPrewarmedListsTest() throws Exception {
+        prewarmer.run(TUESDAY);
+
+        courtListCache.invalidate("A", "R1", Instant.parse("2024-01-02T10:00:00Z"));
+
+        GetCrtListResponse loaded = new GetCrtListResponse();
+        Assertions.assertSame(
+                loaded,
+                courtListCache.get(
+                        CourtController.courtListKey(
+                                request("A", "R1", Instant.parse("2024-01-02T00:00:00Z"), null)),
+                        () -> loaded));
+    }
+
+    private CourtListPrewarmer prewarmer(Instant now) {
+        return new CourtListPrewarmer(
+                ordsGateway,
+                courtListCache,
+                meterRegistry,
+                Clock.fixed(now, ZONE),
+                "https://127.0.0.1/",
+                new CourtListPrewarmer.Settings().rooms("A:R1").maxPerSecond(1000));
+    }
+
+    private static GetCrtList request(
+            String agencyIdentifierCd, String roomCd, Instant proceedingDate, String divisionCd) {
+        GetCrtList request = new GetCrtList();
+        request.setAgencyIdentifierCd(agencyIdentifierCd);
+        request.setRoomCd(roomCd);
+        request.setProceedingDate(proceedingDate);
+        request.setDivisionCd(divisionCd);
+        return request;
+    }
+
+    private GetCrtListResponse unexpected() {
+        throw new AssertionError("Court list was not pre-warmed");
+    }
+
+    private double fetches(String outcome) {
+        return meterRegistry
+                .get("jci.court.list.prewarm.fetches")
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+}
@@ -7,6 +7,7 @@ import ca.bc.gov.open.jci.common.dev.utils.ClearAppearanceResultsResponse;
 import ca.bc.gov.open.jci.common.dev.utils.RecreateCourtList;
 import ca.bc.gov.open.jci.common.dev.utils.RecreateCourtListResponse;
 import ca.bc.gov.open.jci.controllers.DevUtilsController;
+import ca.bc.gov.open.jci.services.CourtListCache;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Assertions;
@@ -29,12 +30,14 @@ import org.springframework.web.client.RestTemplate;
 public class DevUtilsControlTests {
     @Mock private ObjectMapper objectMapper;
     @Mock private RestTemplate restTemplate;
+    @Mock private CourtListCache courtListCache;
     @Mock private DevUtilsController devUtilsController;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        devUtilsController = Mockito.spy(new DevUtilsController(restTemplate, objectMapper));
+        devUtilsController =
+                Mockito.spy(new DevUtilsController(restTemplate, objectMapper, courtListCache));
     }
 
     @Test
@@ -5,6 +5,7 @@ import static org.mockito.Mockito.when;
 import ca.bc.gov.open.jci.common.document.Document;
 import ca.bc.gov.open.jci.common.document.GetDocument;
 import ca.bc.gov.open.jci.controllers.DocumentController;
+import ca.bc.gov.open.jci.services.DocumentContentService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.net.URI;
@@ -39,7 +40,13 @@ public class DocumentControllerTests {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        documentController = Mockito.spy(new DocumentController(restTemplate, objectMapper, servletRequest));
+        documentController =
+                Mockito.spy(
+                        new DocumentController(
+                                restTemplate,
+                                objectMapper,
+                                servletRequest,
+                                new DocumentContentService(restTemplate)));
     }
 
     @Test
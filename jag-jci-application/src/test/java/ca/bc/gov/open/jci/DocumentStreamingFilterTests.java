@@ -0,0 +1,229 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.configuration.DocumentStreamingFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class DocumentStreamingFilterTests {
+
+    private static final String PREFIX = "<B64Content>";
+    private static final String SUFFIX = "</B64Content>";
+
+    private final DocumentStreamingFilter filter = new DocumentStreamingFilter();
+
+    @Test
+    public void documentReplacesPlaceholderTest() throws Exception {
+        byte[] document = "%PDF-1.4 a small document".getBytes(StandardCharsets.UTF_8);
+        var request = new MockHttpServletRequest("POST", "/ws/getDocument");
+        var response = new MockHttpServletResponse();
+        AtomicBoolean closed = new AtomicBoolean();
+        String placeholder =
+                DocumentStreamingFilter.register(
+                        request, new DocumentResponse(new GeneratedStream(document), closed));
+
+        // Write the placeholder split across writes, as an XML writer may
+        filter.doFilter(
+                request,
+                response,
+                (req, res) -> {
+                    OutputStream out = res.getOutputStream();
+                    byte[] envelope =
+                            (PREFIX + placeholder + SUFFIX).getBytes(StandardCharsets.UTF_8);
+                    out.write(envelope, 0, PREFIX.length() + 5);
+                    out.write(envelope[PREFIX.length() + 5]);
+                    out.write(
+                            envelope,
+                            PREFIX.length() + 6,
+                            envelope.length - PREFIX.length() - 6);
+                });
+
+        Assertions.assertEquals(
+                PREFIX + Base64.getEncoder().encodeToString(document) + SUFFIX,
+                response.getContentAsString());
+        Assertions.assertTrue(closed.get());
+    }
+
+    @Test
+    public void partialMatchIsWrittenUnchangedTest() throws Exception {
+        var request = new MockHttpServletRequest("POST", "/ws/getDocument");
+        var response = new MockHttpServletResponse();
+        DocumentStreamingFilter.register(
+                request,
+                new DocumentResponse(new GeneratedStream(new byte[0]), new AtomicBoolean()));
+
+        filter.doFilter(
+                request,
+                response,
+                (req, res) ->
+                        res.getOutputStream()
+                                .write("jci-docs jci-".getBytes(StandardCharsets.UTF_8)));
+
+        Assertions.assertEquals("jci-docs jci-", response.getContentAsString());
+    }
+
+    @Test
+    public void memoryDoesNotGrowWithDocumentTest() throws Exception {
+        var threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assertions.assertTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().getId();
+
+        // Warm up so that class loading is not counted against the first size
+        stream(1024 * 1024);
+
+        long small = 16L * 1024 * 1024;
+        long large = 128L * 1024 * 1024;
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        Assertions.assertEquals((small + 2) / 3 * 4, stream(small));
+        long smallAllocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        before = threadMXBean.getThreadAllocatedBytes(threadId);
+        Assertions.assertEquals((large + 2) / 3 * 4, stream(large));
+        long largeAllocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        // Buffering would allocate well over the document size, and 8 times more for the large one
+        Assertions.assertTrue(largeAllocated < 2 * 1024 * 1024, "allocated " + largeAllocated);
+        Assertions.assertTrue(
+                largeAllocated < smallAllocated + 1024 * 1024,
+                "allocated " + smallAllocated + " then " + largeAllocated);
+    }
+
+    /** Streams a generated document through the filter and returns the encoded length. */
+    private long stream(long size) throws Exception {
+        var request = new MockHttpServletRequest("POST", "/ws/getDocument");
+        var response = new DiscardingResponse(new MockHttpServletResponse());
+        String placeholder =
+                DocumentStreamingFilter.register(
+                        request,
+                        new DocumentResponse(new GeneratedStream(size), new AtomicBoolean()));
+        byte[] envelope = (PREFIX + placeholder + SUFFIX).getBytes(StandardCharsets.UTF_8);
+        FilterChain chain = (req, res) -> res.getOutputStream().write(envelope);
+
+        filter.doFilter(request, response, chain);
+
+        return response.written - PREFIX.length() - SUFFIX.length();
+    }
+
+    /** Produces a document of the given size without holding it in memory. */
+    private static class GeneratedStream extends InputStream {
+        private final byte[] content;
+        private long remaining;
+
+        GeneratedStream(long size) {
+            this.content = null;
+            this.remaining = size;
+        }
+
+        GeneratedStream(byte[] content) {
+            this.content = content;
+            this.remaining = content.length;
+        }
+
+        @Override
+        public int read() {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (remaining == 0) {
+                return -1;
+            }
+            int n = (int) Math.min(len, remaining);
+            for (int i = 0; i < n; i++) {
+                b[off + i] =
+                        content != null
+                                ? content[content.length - (int) remaining + i]
+                                : (byte) (remaining - i);
+            }
+            remaining -= n;
+            return n;
+        }
+    }
+
+    private static class DocumentResponse implements ClientHttpResponse {
+        private final InputStream body;
+        private final AtomicBoolean closed;
+
+        DocumentResponse(InputStream body, AtomicBoolean closed) {
+            this.body = body;
+            this.closed = closed;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatus.OK;
+        }
+
+        @Override
+        public String getStatusText() {
+            return "OK";
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return new HttpHeaders();
+        }
+
+        @Override
+        public InputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public void close() {
+            closed.set(true);
+        }
+    }
+
+    /** Counts the response without keeping it. */
+    private static class DiscardingResponse extends HttpServletResponseWrapper {
+        private long written;
+
+        DiscardingResponse(MockHttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    written++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    written += len;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {}
+            };
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.services.FileContentBatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FileContentBatcherTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private FileContentBatcher batcher;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        batcher = new FileContentBatcher(meterRegistry, 60, 8, 16, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        batcher.close();
+    }
+
+    @Test
+    public void itemsAreFetchedInParallelAndKeepTheirOrderTest() {
+        List<Integer> items = IntStream.range(0, 60).boxed().collect(Collectors.toList());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        long start = System.nanoTime();
+        List<String> results =
+                batcher.fetchAll(
+                        items,
+                        item -> {
+                            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            // Later items answer first
+                            Thread.sleep(100 - item);
+                            running.decrementAndGet();
+                            return "file " + item;
+                        },
+                        (item, message) -> message);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assertions.assertEquals(
+                items.stream().map(item -> "file " + item).collect(Collectors.toList()), results);
+        Assertions.assertEquals(8, peak.get());
+        // Eight at a time rather than sixty one after another
+        Assertions.assertTrue(elapsed < 3000, "took " + elapsed + "ms");
+        Assertions.assertEquals(60, items("success"));
+    }
+
+    @Test
+    public void failedAndExcessItemsGetFailureResultsTest() {
+        batcher.close();
+        batcher = new FileContentBatcher(meterRegistry, 2, 8, 16, Duration.ofSeconds(5));
+
+        List<String> results =
+                batcher.fetchAll(
+                        List.of(1, 2, 3),
+                        item -> {
+                            if (item == 2) {
+                                throw new IllegalStateException("ORDS down");
+                            }
+                            return "file " + item;
+                        },
+                        (item, message) -> "failed " + item);
+
+        Assertions.assertEquals(List.of("file 1", "failed 2", "failed 3"), results);
+        Assertions.assertEquals(1, items("failure"));
+        Assertions.assertEquals(1, items("skipped"));
+    }
+
+    @Test
+    public void slowItemsTimeOutTest() {
+        batcher.close();
+        batcher = new FileContentBatcher(meterRegistry, 60, 8, 16, Duration.ofMillis(200));
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<String> results =
+                batcher.fetchAll(
+                        List.of(1, 2),
+                        item -> {
+                            if (item == 2) {
+                                release.await(5, TimeUnit.SECONDS);
+                            }
+                            return "file " + item;
+                        },
+                        (item, message) -> "failed " + item);
+        release.countDown();
+
+        Assertions.assertEquals(List.of("file 1", "failed 2"), results);
+        Assertions.assertEquals(1, items("timeout"));
+    }
+
+    private double items(String outcome) {
+        return meterRegistry.get("jci.file.batch.items").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,154 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.services.FileContentPrefetcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FileContentPrefetcherTests {
+
+    private static final Instant DATE = Instant.parse("2024-01-01T00:00:00Z");
+
+    private SimpleMeterRegistry meterRegistry;
+    private FileContentPrefetcher prefetcher;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        prefetcher =
+                new FileContentPrefetcher(
+                        meterRegistry,
+                        true,
+                        Duration.ofMinutes(1),
+                        2,
+                        10,
+                        3,
+                        Duration.ofSeconds(5));
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        prefetcher.close();
+    }
+
+    @Test
+    public void prefetchedContentIsServedTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Map<FileContentPrefetcher.Key, FileContentPrefetcher.Loader<?>> loaders =
+                new LinkedHashMap<>();
+        loaders.put(key("1"), () -> "file 1");
+        loaders.put(
+                key("2"),
+                () -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return "file 2";
+                });
+        prefetcher.prefetch(loaders);
+
+        Assertions.assertEquals("file 1", prefetcher.get(key("1"), String.class, this::load));
+        // Still in flight, the call waits for the prefetch
+        new Thread(
+                        () -> {
+                            sleep(100);
+                            release.countDown();
+                        })
+                .start();
+        Assertions.assertEquals("file 2", prefetcher.get(key("2"), String.class, this::load));
+        // Never prefetched
+        Assertions.assertEquals("loaded", prefetcher.get(key("3"), String.class, this::load));
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(2, requests("hit"));
+        Assertions.assertEquals(1, requests("miss"));
+        Assertions.assertEquals(2, fetches("success"));
+    }
+
+    @Test
+    public void failedAndLimitedPrefetchesFallBackTest() throws Exception {
+        Map<FileContentPrefetcher.Key, FileContentPrefetcher.Loader<?>> loaders =
+                new LinkedHashMap<>();
+        loaders.put(
+                key("1"),
+                () -> {
+                    throw new IllegalStateException("ORDS down");
+                });
+        for (int i = 2; i <= 5; i++) {
+            String id = String.valueOf(i);
+            loaders.put(key(id), () -> "file " + id);
+        }
+        prefetcher.prefetch(loaders);
+
+        Assertions.assertEquals("loaded", prefetcher.get(key("1"), String.class, this::load));
+        Assertions.assertEquals("file 2", prefetcher.get(key("2"), String.class, this::load));
+        // Beyond the per-list limit of 3
+        Assertions.assertEquals("loaded", prefetcher.get(key("5"), String.class, this::load));
+
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals(1, fetches("failure"));
+        Assertions.assertEquals(2, fetches("skipped"));
+    }
+
+    @Test
+    public void unreadContentIsCountedAsWastedTest() throws Exception {
+        Map<FileContentPrefetcher.Key, FileContentPrefetcher.Loader<?>> loaders =
+                new LinkedHashMap<>();
+        loaders.put(key("1"), () -> "file 1");
+        loaders.put(key("2"), () -> "file 2");
+        prefetcher.prefetch(loaders);
+        Assertions.assertEquals("file 1", prefetcher.get(key("1"), String.class, this::load));
+        for (int i = 0; i < 100 && fetches("success") < 2; i++) {
+            sleep(10);
+        }
+
+        // A process write drops everything, the unread file was fetched for nothing
+        prefetcher.invalidateAll();
+
+        Assertions.assertEquals(
+                1, meterRegistry.get("jci.file.prefetch.wasted").counter().count());
+        Assertions.assertEquals("loaded", prefetcher.get(key("1"), String.class, this::load));
+    }
+
+    private static FileContentPrefetcher.Key key(String appearanceId) {
+        return FileContentPrefetcher.Key.of("criminal", "A", "R1", DATE, appearanceId, "J1");
+    }
+
+    private String load() {
+        loads.incrementAndGet();
+        return "loaded";
+    }
+
+    private double requests(String outcome) {
+        return meterRegistry
+                .get("jci.file.prefetch.requests")
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+
+    private double fetches(String outcome) {
+        return meterRegistry
+                .get("jci.file.prefetch.fetches")
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -379,4 +379,45 @@ public class FileControllerTests {
 
         Assertions.assertNotNull(resp);
     }
+
+    @Test
+    public void getCriminalFileContentBatchTest() throws JsonProcessingException {
+        var found = new GetCriminalFileContent();
+        found.setAppearanceID("1");
+        found.setMdocJustinNo("A");
+        var missing = new GetCriminalFileContent();
+        missing.setAppearanceID("2");
+        missing.setMdocJustinNo("B");
+        var req = new GetCriminalFileContentBatch();
+        req.getGetCriminalFileContent().add(found);
+        req.getGetCriminalFileContent().add(missing);
+
+        var out = new GetCriminalFileContentResponse();
+        out.setFileContent(new FileContentDoc());
+        when(restTemplate.exchange(
+                        Mockito.<URI>argThat(
+                                uri -> uri != null && uri.getQuery().contains("appearanceId=1")),
+                        Mockito.eq(HttpMethod.GET),
+                        Mockito.<HttpEntity<String>>any(),
+                        Mockito.<Class<GetCriminalFileContentResponse>>any()))
+                .thenReturn(new ResponseEntity<>(out, HttpStatus.OK));
+        when(restTemplate.exchange(
+                        Mockito.<URI>argThat(
+                                uri -> uri != null && uri.getQuery().contains("appearanceId=2")),
+                        Mockito.eq(HttpMethod.GET),
+                        Mockito.<HttpEntity<String>>any(),
+                        Mockito.<Class<GetCriminalFileContentResponse>>any()))
+                .thenThrow(new RuntimeException("ORDS error"));
+
+        var resp = fileController.getCriminalFileContentBatch(req);
+
+        // One result per item, in request order, a failed item does not fail the batch
+        Assertions.assertEquals(2, resp.getResult().size());
+        Assertions.assertEquals("0", resp.getResult().get(0).getResultCd());
+        Assertions.assertEquals("1", resp.getResult().get(0).getAppearanceID());
+        Assertions.assertSame(out.getFileContent(), resp.getResult().get(0).getFileContent());
+        Assertions.assertEquals("-1", resp.getResult().get(1).getResultCd());
+        Assertions.assertEquals("2", resp.getResult().get(1).getAppearanceID());
+        Assertions.assertNull(resp.getResult().get(1).getFileContent());
+    }
 }
@@ -0,0 +1,169 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.common.process.results.ProcessVariationResponse;
+import ca.bc.gov.open.jci.common.process.results.VariationType;
+import ca.bc.gov.open.jci.services.IdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class IdempotencyStoreTests {
+
+    private static final String ROUTE = "https://127.0.0.1/criminal/variation";
+
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyStore store;
+    private AtomicInteger submissions;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store =
+                new IdempotencyStore(
+                        new ObjectMapper(),
+                        meterRegistry,
+                        true,
+                        Duration.ofMinutes(10),
+                        100,
+                        Duration.ofSeconds(5));
+        submissions = new AtomicInteger();
+    }
+
+    @Test
+    public void retriedPayloadGetsTheStoredResponseTest() throws Exception {
+        ProcessVariationResponse first = submit(variation("1"));
+        ProcessVariationResponse retried = submit(variation("1"));
+
+        Assertions.assertSame(first, retried);
+        Assertions.assertEquals(1, submissions.get());
+        Assertions.assertEquals(1, requests("submitted"));
+        Assertions.assertEquals(1, requests("replayed"));
+
+        Assertions.assertNotSame(first, submit(variation("2")));
+        Assertions.assertEquals(2, submissions.get());
+    }
+
+    @Test
+    public void retryWaitsForTheRunningSubmissionTest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        String key = store.key(ROUTE, variation("1"));
+        ProcessVariationResponse response = new ProcessVariationResponse();
+
+        CompletableFuture<ProcessVariationResponse> first =
+                CompletableFuture.supplyAsync(
+                        () -> {
+                            try {
+                                return store.submit(
+                                        key,
+                                        ProcessVariationResponse.class,
+                                        () -> {
+                                            started.countDown();
+                                            release.await(5, TimeUnit.SECONDS);
+                                            return response;
+                                        });
+                            } catch (Exception ex) {
+                                throw new IllegalStateException(ex);
+                            }
+                        });
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<ProcessVariationResponse> retried =
+                CompletableFuture.supplyAsync(
+                        () -> {
+                            try {
+                                return store.submit(
+                                        key,
+                                        ProcessVariationResponse.class,
+                                        () -> {
+                                            throw new AssertionError("Submitted twice");
+                                        });
+                            } catch (Exception ex) {
+                                throw new IllegalStateException(ex);
+                            }
+                        });
+        release.countDown();
+
+        Assertions.assertSame(response, first.get(5, TimeUnit.SECONDS));
+        Assertions.assertSame(response, retried.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void failedSubmissionIsNotStoredTest() throws Exception {
+        String key = store.key(ROUTE, variation("1"));
+
+        Assertions.assertThrows(
+                IllegalStateException.class,
+                () ->
+                        store.submit(
+                                key,
+                                ProcessVariationResponse.class,
+                                () -> {
+                                    throw new IllegalStateException("ORDS down");
+                                }));
+
+        submit(variation("1"));
+        Assertions.assertEquals(1, submissions.get());
+        Assertions.assertEquals(0, requests("replayed"));
+    }
+
+    @Test
+    public void submissionFailingWithAnErrorIsNotStoredTest() throws Exception {
+        String key = store.key(ROUTE, variation("1"));
+
+        Assertions.assertThrows(
+                StackOverflowError.class,
+                () ->
+                        store.submit(
+                                key,
+                                ProcessVariationResponse.class,
+                                () -> {
+                                    throw new StackOverflowError();
+                                }));
+
+        // Goes to ORDS at once instead of waiting on the failed attempt
+        submit(variation("1"));
+        Assertions.assertEquals(1, submissions.get());
+        Assertions.assertEquals(0, requests("replayed"));
+    }
+
+    @Test
+    public void disabledStoreSubmitsEveryTimeTest() throws Exception {
+        store = IdempotencyStore.disabled();
+
+        submit(variation("1"));
+        submit(variation("1"));
+
+        Assertions.assertEquals(2, submissions.get());
+    }
+
+    private ProcessVariationResponse submit(VariationType variation) throws Exception {
+        return store.submit(
+                store.key(ROUTE, variation),
+                ProcessVariationResponse.class,
+                () -> {
+                    submissions.incrementAndGet();
+                    return new ProcessVariationResponse();
+                });
+    }
+
+    private static VariationType variation(String sourceEventSeqNo) {
+        VariationType variation = new VariationType();
+        variation.setSourceEventSeqNo(sourceEventSeqNo);
+        return variation;
+    }
+
+    private double requests(String outcome) {
+        return meterRegistry
+                .get("jci.process.idempotency.requests")
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+}
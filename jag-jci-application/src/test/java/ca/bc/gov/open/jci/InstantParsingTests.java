@@ -0,0 +1,248 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.models.serializers.InstantDeserializer;
+import ca.bc.gov.open.jci.models.serializers.InstantSoapConverter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+/** Checks the date parsing against the SimpleDateFormat parsing it replaced. */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class InstantParsingTests {
+
+    private static final String[] ODD =
+            new String[] {
+                "",
+                " ",
+                "-",
+                "--",
+                "abc",
+                "2024",
+                "2024-02",
+                "2024-02-30",
+                "2023-02-29",
+                "2024-13-01",
+                "2024-00-10",
+                "2024-1-5",
+                "2024-01-05T10:30:00",
+                "2024-01-05 24:00:00",
+                "2024-01-05 10:60:00",
+                "2024-01-05 10:30:61",
+                "2024-01-05 10:30",
+                "2024-01-05 10:30:00.",
+                "2024-01-05 10:30:00.1234567890",
+                "2024-01-05 10:30:00Z",
+                "2024-01-05 10:30:001",
+                "2024-01-05 10:30:00 extra",
+                "2024-01-05 10:30:00-08",
+                "24-01-05",
+                "1500-01-01",
+                "1582-10-10",
+                "0001-01-01 00:00:00",
+                "31-FEB-24",
+                "00-JAN-24",
+                "1-JAN-24",
+                "01-JAN-2",
+                "01-Jan-202",
+                "01-JAN-20245",
+                "01-JAN-2024 10:00",
+                "01-JAN-2024-05",
+                "01-JANUARY-24",
+                "01-JNA-24",
+                "01-JAN-24 13.00.00.000000 PM",
+                "01-JAN-24 00.00.00.000000 AM",
+                "01-JAN-24 10.30.00.000000 XM",
+                "01-JAN-24 10.30.00.000000 am",
+                "01-JAN-24 10.30.00 AM",
+                "01-JAN-24 10.30.00.0000000000 AM",
+                "01-JAN-24 10:30:00.000000 AM",
+                "01-JAN-24 10.30.00.000000AM",
+                "01-JAN-24 10.30.00.000000 AMX",
+                "01-JAN-24-10.30",
+                "+1-JAN-24",
+                "٠١-JAN-24",
+                "2024-٠١-05",
+            };
+
+    @Test
+    public void ordsLayoutsTest() throws Exception {
+        for (String text : corpus()) {
+            assertSame(text, () -> legacyDeserialize(text), () -> deserialize(text));
+        }
+    }
+
+    @Test
+    public void soapLayoutsTest() throws Exception {
+        for (String text : corpus()) {
+            assertSame(
+                    text, () -> legacySoapParse(text), () -> InstantSoapConverter.parse(text));
+        }
+        assertSame(null, () -> legacySoapParse(null), () -> InstantSoapConverter.parse(null));
+    }
+
+    @Test
+    public void knownValuesTest() throws Exception {
+        Assertions.assertEquals(
+                Instant.parse("2024-01-05T00:00:00Z"), deserialize("05-JAN-2024"));
+        Assertions.assertEquals(
+                Instant.parse("2024-01-05T22:30:15.123Z"),
+                deserialize("05-JAN-24 10.30.15.123 PM"));
+        Assertions.assertEquals(
+                Instant.parse("2024-01-05T10:30:15Z"), deserialize("2024-01-05 10:30:15"));
+        Assertions.assertEquals(
+                Instant.parse("2024-02-29T10:30:15.5Z"),
+                InstantSoapConverter.parse("2024-02-29 10:30:15.500"));
+        Assertions.assertEquals(
+                Instant.parse("2024-02-29T00:00:00Z"), InstantSoapConverter.parse("2024-02-29"));
+        Assertions.assertNull(InstantSoapConverter.parse(""));
+        Assertions.assertNull(InstantSoapConverter.parse("not a date"));
+    }
+
+    private static List<String> corpus() {
+        List<String> corpus = new ArrayList<>(List.of(ODD));
+        var ddMMMyyyy = DateTimeFormatter.ofPattern("dd-MMM-yyyy", Locale.US);
+        var ddMMMyy = DateTimeFormatter.ofPattern("dd-MMM-yy", Locale.US);
+        var iso = DateTimeFormatter.ofPattern("yyyy-MM-dd", Locale.US);
+        String[] fractions = {"0", "05", "123", "1234", "000000", "123456", "999999", "123456789"};
+        int i = 0;
+        for (LocalDate day = LocalDate.of(1950, 1, 1);
+                day.isBefore(LocalDate.of(2046, 1, 1));
+                day = day.plusDays(7 + i % 3)) {
+            i++;
+            int hour = i % 24;
+            String time = String.format("%02d:%02d:%02d", hour, i % 60, (i * 7) % 60);
+            String ampm =
+                    String.format(
+                            "%02d.%02d.%02d.%s %s",
+                            hour % 12 == 0 ? 12 : hour % 12,
+                            i % 60,
+                            (i * 7) % 60,
+                            fractions[i % fractions.length],
+                            hour < 12 ? "AM" : "PM");
+            String upper = day.format(ddMMMyy).toUpperCase(Locale.US);
+
+            corpus.add(day.format(ddMMMyyyy).toUpperCase(Locale.US));
+            corpus.add(day.format(ddMMMyyyy));
+            corpus.add(upper);
+            corpus.add(day.format(ddMMMyy).toLowerCase(Locale.US));
+            corpus.add(upper + " " + ampm);
+            corpus.add(day.format(ddMMMyy) + " " + ampm.toLowerCase(Locale.US));
+            corpus.add(day.format(iso));
+            corpus.add(day.format(iso) + " " + time);
+            corpus.add(day.format(iso) + " " + time + "." + fractions[i % fractions.length]);
+        }
+        for (int year : new int[] {1600, 1900, 2000, 2023, 2024, 2100}) {
+            corpus.add(year + "-02-29");
+            corpus.add(year + "-02-29 12:00:00");
+            corpus.add("29-FEB-" + year);
+        }
+        return corpus;
+    }
+
+    private static Instant deserialize(String text) throws Exception {
+        try (JsonParser parser = new JsonFactory().createParser("\"" + text + "\"")) {
+            parser.nextToken();
+            return new InstantDeserializer().deserialize(parser, null);
+        }
+    }
+
+    /** Both either return equal values or throw the same type of exception. */
+    private static void assertSame(
+            String text, Callable<Instant> expected, Callable<Instant> actual) {
+        Object want;
+        Object got;
+        try {
+            want = expected.call();
+        } catch (Exception ex) {
+            want = ex.getClass();
+        }
+        try {
+            got = actual.call();
+        } catch (Exception ex) {
+            got = ex.getClass();
+        }
+        Assertions.assertEquals(want, got, "for " + text);
+    }
+
+    /** InstantDeserializer before the scanner. */
+    private static Instant legacyDeserialize(String text) {
+        try {
+            if (text.split("-")[2].split(" ")[0].length() == 4) {
+                var sfd = new SimpleDateFormat("dd-MMM-yyyy", Locale.US);
+                sfd.setTimeZone(TimeZone.getTimeZone("UTC"));
+                return sfd.parse(text).toInstant();
+            }
+
+            if (text.split("-")[0].length() < 4) {
+                var sfd = new SimpleDateFormat("dd-MMM-yy hh.mm.ss.SSSSSS a", Locale.US);
+                sfd.setTimeZone(TimeZone.getTimeZone("UTC"));
+                return sfd.parse(text).toInstant();
+            } else {
+                var sfd = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+                sfd.setTimeZone(TimeZone.getTimeZone("UTC"));
+                return sfd.parse(text).toInstant();
+            }
+        } catch (ParseException e) {
+            try {
+                var sfd = new SimpleDateFormat("dd-MMM-yy", Locale.US);
+                sfd.setTimeZone(TimeZone.getTimeZone("UTC"));
+                return sfd.parse(text).toInstant();
+            } catch (ParseException e2) {
+                return null;
+            }
+        }
+    }
+
+    /** InstantSoapConverter.parse before the scanner. */
+    private static Instant legacySoapParse(String value) {
+        try {
+            Date d;
+            try {
+                var sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSSSSS", Locale.US);
+                sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+                d = sdf.parse(value);
+            } catch (ParseException ex) {
+                try {
+                    var sdf = new SimpleDateFormat("dd-MMM-yy", Locale.US);
+                    sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+                    d = sdf.parse(value);
+                } catch (ParseException ex2) {
+                    try {
+                        if (value.length() == 10) {
+                            value += " 00:00:00";
+                        }
+                        var sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+                        sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+                        d = sdf.parse(value);
+                    } catch (ParseException ex3) {
+                        try {
+                            var sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+                            sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+                            d = sdf.parse(value);
+                        } catch (ParseException ex4) {
+                            return Instant.parse(value + "Z");
+                        }
+                    }
+                }
+            }
+            return d.toInstant();
+        } catch (Exception ex) {
+            // The original logs the value here, which throws for null
+            value.isEmpty();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.common.document.DocumentResult;
+import ca.bc.gov.open.jci.common.document.GetDocumentResponse;
+import ca.bc.gov.open.jci.configuration.MtomResponseInterceptor;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.soap.AttachmentPart;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.util.StreamUtils;
+import org.springframework.ws.context.DefaultMessageContext;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.soap.saaj.SaajSoapMessage;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MtomResponseInterceptorTests {
+
+    private static final byte[] PDF = "%PDF-1.4 document".getBytes(StandardCharsets.UTF_8);
+
+    private SaajSoapMessageFactory messageFactory;
+    private MtomResponseInterceptor interceptor;
+
+    @BeforeEach
+    public void setUp() {
+        messageFactory = new SaajSoapMessageFactory();
+        messageFactory.afterPropertiesSet();
+        interceptor = new MtomResponseInterceptor();
+    }
+
+    @Test
+    public void attachmentWhenAcceptedTest() throws Exception {
+        MessageContext messageContext = documentResponse("multipart/related");
+
+        interceptor.handleResponse(messageContext, null);
+
+        SaajSoapMessage response = (SaajSoapMessage) messageContext.getResponse();
+        Assertions.assertTrue(response.isXopPackage());
+        AttachmentPart part =
+                (AttachmentPart) response.getSaajMessage().getAttachments().next();
+        Assertions.assertArrayEquals(
+                PDF, StreamUtils.copyToByteArray(part.getDataHandler().getInputStream()));
+        String envelope = envelope(response);
+        Assertions.assertTrue(envelope.contains("Include"));
+        Assertions.assertTrue(envelope.contains("cid:"));
+        Assertions.assertFalse(envelope.contains(Base64.getEncoder().encodeToString(PDF)));
+    }
+
+    @Test
+    public void inlineWhenNotAcceptedTest() throws Exception {
+        MessageContext messageContext = documentResponse("text/xml");
+
+        interceptor.handleResponse(messageContext, null);
+
+        SaajSoapMessage response = (SaajSoapMessage) messageContext.getResponse();
+        Assertions.assertFalse(response.isXopPackage());
+        Assertions.assertFalse(response.getSaajMessage().getAttachments().hasNext());
+        Assertions.assertTrue(
+                envelope(response).contains(Base64.getEncoder().encodeToString(PDF)));
+    }
+
+    private MessageContext documentResponse(String accept) throws Exception {
+        SaajSoapMessage request = messageFactory.createWebServiceMessage();
+        request.getSaajMessage().getMimeHeaders().addHeader("Accept", accept);
+        MessageContext messageContext = new DefaultMessageContext(request, messageFactory);
+
+        var out = new GetDocumentResponse();
+        var one = new DocumentResult();
+        one.setB64Content(Base64.getEncoder().encodeToString(PDF));
+        one.setResultCd("0");
+        out.setDocumentResponse(one);
+        JAXBContext.newInstance(GetDocumentResponse.class)
+                .createMarshaller()
+                .marshal(out, messageContext.getResponse().getPayloadResult());
+        return messageContext;
+    }
+
+    private static String envelope(SaajSoapMessage message) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        message.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
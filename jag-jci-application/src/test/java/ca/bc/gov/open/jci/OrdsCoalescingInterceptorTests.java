@@ -0,0 +1,143 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.configuration.OrdsCoalescingInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class OrdsCoalescingInterceptorTests {
+
+    private static final URI COURT_LIST =
+            URI.create("https://127.0.0.1/ords/common/courtlist?roomCd=A");
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrdsCoalescingInterceptor interceptor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> provider = Mockito.mock(ObjectProvider.class);
+        Mockito.when(provider.getIfAvailable(Mockito.any())).thenReturn(meterRegistry);
+        interceptor = new OrdsCoalescingInterceptor(provider, "https://127.0.0.1/ords/");
+    }
+
+    @Test
+    public void concurrentGetsShareOneCallTest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch waiting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ClientHttpRequestExecution execution =
+                (request, body) -> {
+                    calls.incrementAndGet();
+                    waiting.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new MockClientHttpResponse(
+                            "{\"a\":1}".getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+                };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<ClientHttpResponse> leader =
+                    executor.submit(
+                            () ->
+                                    interceptor.intercept(
+                                            new MockClientHttpRequest(HttpMethod.GET, COURT_LIST),
+                                            new byte[0],
+                                            execution));
+            Assertions.assertTrue(waiting.await(10, TimeUnit.SECONDS));
+            Future<ClientHttpResponse> follower =
+                    executor.submit(
+                            () ->
+                                    interceptor.intercept(
+                                            new MockClientHttpRequest(HttpMethod.GET, COURT_LIST),
+                                            new byte[0],
+                                            execution));
+            while (meterRegistry
+                            .find("jci.ords.coalescing.requests")
+                            .tag("role", "coalesced")
+                            .counter()
+                    == null) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            ClientHttpResponse first = leader.get(10, TimeUnit.SECONDS);
+            ClientHttpResponse second = follower.get(10, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(1, calls.get());
+            Assertions.assertNotSame(first.getBody(), second.getBody());
+            Assertions.assertEquals(
+                    "{\"a\":1}", StreamUtils.copyToString(first.getBody(), StandardCharsets.UTF_8));
+            Assertions.assertEquals(
+                    "{\"a\":1}",
+                    StreamUtils.copyToString(second.getBody(), StandardCharsets.UTF_8));
+            Assertions.assertEquals(
+                    1,
+                    meterRegistry
+                            .get("jci.ords.coalescing.requests")
+                            .tag("route", "common/courtlist")
+                            .tag("role", "coalesced")
+                            .counter()
+                            .count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void sequentialGetsAreNotSharedTest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ClientHttpRequestExecution execution =
+                (request, body) -> {
+                    calls.incrementAndGet();
+                    return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+                };
+
+        interceptor.intercept(
+                new MockClientHttpRequest(HttpMethod.GET, COURT_LIST), new byte[0], execution);
+        interceptor.intercept(
+                new MockClientHttpRequest(HttpMethod.GET, COURT_LIST), new byte[0], execution);
+
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void postIsNotCoalescedTest() throws Exception {
+        ClientHttpResponse response = new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+
+        var out =
+                interceptor.intercept(
+                        new MockClientHttpRequest(HttpMethod.POST, COURT_LIST),
+                        new byte[0],
+                        (request, body) -> response);
+
+        Assertions.assertSame(response, out);
+        Assertions.assertNull(meterRegistry.find("jci.ords.coalescing.requests").counter());
+    }
+}
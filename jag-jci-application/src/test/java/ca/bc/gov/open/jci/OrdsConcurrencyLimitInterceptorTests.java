@@ -0,0 +1,238 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.configuration.OrdsCallPriority;
+import ca.bc.gov.open.jci.configuration.OrdsConcurrencyLimitInterceptor;
+import ca.bc.gov.open.jci.configuration.OrdsConcurrencyLimitInterceptor.LimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+public class OrdsConcurrencyLimitInterceptorTests {
+
+    private static final URI CRIMINAL_FILE =
+            URI.create("https://127.0.0.1/ords/criminal/file?mdocJustinNo=1");
+    private static final URI CODE_VALUES =
+            URI.create("https://127.0.0.1/ords/common/codevalues");
+    private static final URI ADOBE = URI.create("https://adobe.example.ca/report");
+
+    private SimpleMeterRegistry meterRegistry;
+    private ObjectProvider<MeterRegistry> provider;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        provider = Mockito.mock(ObjectProvider.class);
+        Mockito.when(provider.getIfAvailable(Mockito.any())).thenReturn(meterRegistry);
+    }
+
+    @Test
+    public void callsBeyondTheLimitAreRejectedTest() throws Exception {
+        OrdsConcurrencyLimitInterceptor interceptor =
+                interceptor(
+                        new OrdsConcurrencyLimitInterceptor.Settings()
+                                .initialLimit(2)
+                                .minLimit(2)
+                                .queueTimeout(Duration.ZERO));
+
+        ClientHttpResponse first = call(interceptor, CRIMINAL_FILE, HttpStatus.OK, 0);
+        ClientHttpResponse second = call(interceptor, CRIMINAL_FILE, HttpStatus.OK, 0);
+        Assertions.assertEquals(2, interceptor.inFlight("criminal/file"));
+        Assertions.assertThrows(
+                LimitExceededException.class,
+                () -> call(interceptor, CRIMINAL_FILE, HttpStatus.OK, 0));
+        // Adobe is not limited
+        call(interceptor, ADOBE, HttpStatus.OK, 0).close();
+
+        first.close();
+        first.close();
+        Assertions.assertEquals(1, interceptor.inFlight("criminal/file"));
+        second.close();
+        Assertions.assertEquals(
+                1,
+                meterRegistry
+                        .get("jci.ords.concurrency.rejected")
+                        .tag("reason", "limit")
+                        .counter()
+                        .count());
+        Assertions.assertEquals(
+                0, meterRegistry.get("jci.ords.concurrency.in_flight").gauge().value());
+    }
+
+    @Test
+    public void queuedCallGetsTheFreedPlaceTest() throws Exception {
+        OrdsConcurrencyLimitInterceptor interceptor =
+                interceptor(
+                        new OrdsConcurrencyLimitInterceptor.Settings()
+                                .initialLimit(1)
+                                .minLimit(1)
+                                .queueTimeout(Duration.ofSeconds(5)));
+        ClientHttpResponse first = call(interceptor, CRIMINAL_FILE, HttpStatus.OK, 0);
+
+        CompletableFuture<ClientHttpResponse> queued =
+                CompletableFuture.supplyAsync(
+                        () -> {
+                            try {
+                                return call(interceptor, CRIMINAL_FILE, HttpStatus.OK, 0);
+                            } catch (IOException ex) {
+                                throw new RuntimeException(ex);
+                            }
+                        });
+        Thread.sleep(100);
+        Assertions.assertFalse(queued.isDone());
+        first.close();
+        queued.get(5, TimeUnit.SECONDS).close();
+        Assertions.assertEquals(0, interceptor.inFlight("criminal/file"));
+    }
+
+    @Test
+    public void limitFollowsLatencyAndFailuresTest() throws Exception {
+        OrdsConcurrencyLimitInterceptor interceptor =
+                interceptor(
+                        new OrdsConcurrencyLimitInterceptor.Settings()
+                                .initialLimit(4)
+                                .minLimit(1)
+                                .maxLimit(100));
+
+        // Calls already in flight, so that the limit is in use and worth adjusting
+        List<ClientHttpResponse> held = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            held.add(call(interceptor, CRIMINAL_FILE, HttpStatus.OK, 5));
+        }
+        int initial = interceptor.limit("criminal/file");
+
+        // Steady latency, the limit grows
+        for (int i = 0; i < 10; i++) {
+            call(interceptor, CRIMINAL_FILE, HttpStatus.OK, 5).close();
+        }
+        int grown = interceptor.limit("criminal/file");
+        Assertions.assertTrue(grown > initial, initial + " then " + grown);
+
+        // Latency well above the average, the limit comes back down
+        for (int i = 0; i < 15; i++) {
+            call(interceptor, CRIMINAL_FILE, HttpStatus.OK, 50).close();
+        }
+        int slowed = interceptor.limit("criminal/file");
+        Assertions.assertTrue(slowed < grown, grown + " then " + slowed);
+
+        // So do failures
+        for (int i = 0; i < 3; i++) {
+            call(interceptor, CRIMINAL_FILE, HttpStatus.SERVICE_UNAVAILABLE, 0).close();
+        }
+        int failed = interceptor.limit("criminal/file");
+        Assertions.assertTrue(failed < slowed, slowed + " then " + failed);
+        Assertions.assertEquals(
+                interceptor.limit("criminal/file"),
+                meterRegistry.get("jci.ords.concurrency.limit").gauge().value());
+        held.forEach(ClientHttpResponse::close);
+    }
+
+    @Test
+    public void routesHaveTheirOwnLimitTest() throws Exception {
+        OrdsConcurrencyLimitInterceptor interceptor =
+                interceptor(
+                        new OrdsConcurrencyLimitInterceptor.Settings()
+                                .initialLimit(1)
+                                .minLimit(1)
+                                .queueTimeout(Duration.ZERO));
+
+        ClientHttpResponse file = call(interceptor, CRIMINAL_FILE, HttpStatus.OK, 0);
+        Assertions.assertThrows(
+                LimitExceededException.class,
+                () -> call(interceptor, CRIMINAL_FILE, HttpStatus.OK, 0));
+        call(interceptor, CODE_VALUES, HttpStatus.OK, 0).close();
+        file.close();
+        Assertions.assertEquals(
+                1,
+                meterRegistry
+                        .get("jci.ords.concurrency.rejected")
+                        .tag("route", "criminal/file")
+                        .counter()
+                        .count());
+    }
+
+    @Test
+    public void backgroundCallsYieldToForegroundCallsTest() throws Exception {
+        OrdsConcurrencyLimitInterceptor interceptor =
+                interceptor(
+                        new OrdsConcurrencyLimitInterceptor.Settings()
+                                .initialLimit(2)
+                                .minLimit(2)
+                                .maxLimit(2)
+                                .backgroundShare(0.5)
+                                .queueTimeout(Duration.ofSeconds(5)));
+        ClientHttpResponse background =
+                OrdsCallPriority.inBackground(
+                        () -> call(interceptor, CRIMINAL_FILE, HttpStatus.OK, 0));
+        ClientHttpResponse foreground = call(interceptor, CRIMINAL_FILE, HttpStatus.OK, 0);
+
+        // Both wait for a place, the foreground call gets the first one freed
+        CompletableFuture<ClientHttpResponse> queuedBackground =
+                CompletableFuture.supplyAsync(
+                        () -> {
+                            try {
+                                return OrdsCallPriority.inBackground(
+                                        () -> call(interceptor, CRIMINAL_FILE, HttpStatus.OK, 0));
+                            } catch (Exception ex) {
+                                throw new RuntimeException(ex);
+                            }
+                        });
+        Thread.sleep(100);
+        CompletableFuture<ClientHttpResponse> queuedForeground =
+                CompletableFuture.supplyAsync(
+                        () -> {
+                            try {
+                                return call(interceptor, CRIMINAL_FILE, HttpStatus.OK, 0);
+                            } catch (IOException ex) {
+                                throw new RuntimeException(ex);
+                            }
+                        });
+        Thread.sleep(100);
+        foreground.close();
+        queuedForeground.get(5, TimeUnit.SECONDS).close();
+        Assertions.assertFalse(queuedBackground.isDone());
+
+        // Background calls only fill half the limit
+        background.close();
+        queuedBackground.get(5, TimeUnit.SECONDS).close();
+        Assertions.assertEquals(0, interceptor.inFlight("criminal/file"));
+    }
+
+    private OrdsConcurrencyLimitInterceptor interceptor(
+            OrdsConcurrencyLimitInterceptor.Settings settings) {
+        return new OrdsConcurrencyLimitInterceptor(provider, "https://127.0.0.1/ords/", settings);
+    }
+
+    private static ClientHttpResponse call(
+            OrdsConcurrencyLimitInterceptor interceptor, URI uri, HttpStatus status, long millis)
+            throws IOException {
+        ClientHttpRequestExecution execution =
+                (request, body) -> {
+                    try {
+                        Thread.sleep(millis);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new MockClientHttpResponse(new byte[0], status);
+                };
+        return interceptor.intercept(
+                new MockClientHttpRequest(HttpMethod.GET, uri), new byte[0], execution);
+    }
+}
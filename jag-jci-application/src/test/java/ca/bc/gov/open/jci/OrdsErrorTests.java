@@ -18,8 +18,13 @@ import ca.bc.gov.open.jci.common.user.mapping.MapGuidToParticipant;
 import ca.bc.gov.open.jci.controllers.*;
 import ca.bc.gov.open.jci.court.one.GetCrtList;
 import ca.bc.gov.open.jci.exceptions.ORDSException;
+import ca.bc.gov.open.jci.services.CodeValueStore;
+import ca.bc.gov.open.jci.services.CourtListCache;
+import ca.bc.gov.open.jci.services.DocumentContentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -44,6 +49,8 @@ public class OrdsErrorTests {
 
     @Mock private ObjectMapper objectMapper;
     @Mock private RestTemplate restTemplate;
+    @Mock private CodeValueStore codeValueStore;
+    @Mock private CourtListCache courtListCache;
     @Mock private HealthController healthController;
     @Mock private ProcessController processController;
     @Mock private CodeController codeController;
@@ -59,13 +66,33 @@ public class OrdsErrorTests {
     public void setUp() {
         MockitoAnnotations.openMocks(this);
         healthController = Mockito.spy(new HealthController(restTemplate, objectMapper));
-        processController = Mockito.spy(new ProcessController(restTemplate, objectMapper));
-        codeController = Mockito.spy(new CodeController(restTemplate, objectMapper));
+        processController =
+                Mockito.spy(new ProcessController(restTemplate, objectMapper, courtListCache));
+        codeController =
+                Mockito.spy(new CodeController(restTemplate, objectMapper, codeValueStore));
         fileController = Mockito.spy(new FileController(restTemplate, objectMapper));
         userController = Mockito.spy(new UserController(restTemplate, objectMapper));
-        devUtilsController = Mockito.spy(new DevUtilsController(restTemplate, objectMapper));
-        documentController = Mockito.spy(new DocumentController(restTemplate, objectMapper, servletRequest));
-        courtController = Mockito.spy(new CourtController(restTemplate, objectMapper));
+        devUtilsController =
+                Mockito.spy(new DevUtilsController(restTemplate, objectMapper, courtListCache));
+        documentController =
+                Mockito.spy(
+                        new DocumentController(
+                                restTemplate,
+                                objectMapper,
+                                servletRequest,
+                                new DocumentContentService(restTemplate)));
+        courtController =
+                Mockito.spy(
+                        new CourtController(
+                                restTemplate,
+                                objectMapper,
+                                new CourtListCache(
+                                        objectMapper,
+                                        new SimpleMeterRegistry(),
+                                        true,
+                                        Duration.ofMinutes(1),
+                                        1024,
+                                        Duration.ofMinutes(2))));
         reportController = Mockito.spy(new ReportController(restTemplate, objectMapper));
     }
 
@@ -0,0 +1,208 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.configuration.OrdsHedgingInterceptor;
+import ca.bc.gov.open.jci.configuration.OrdsResilienceInterceptor;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+public class OrdsHedgingInterceptorTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ObjectProvider<MeterRegistry> provider;
+    private HttpServer server;
+    private String host;
+    private final AtomicInteger calls = new AtomicInteger();
+    // Calls, by number, that ORDS is slow to answer
+    private final Set<Integer> slowCalls = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        provider = Mockito.mock(ObjectProvider.class);
+        Mockito.when(provider.getIfAvailable(Mockito.any())).thenReturn(meterRegistry);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext(
+                "/ords/",
+                exchange -> {
+                    int call = calls.incrementAndGet();
+                    if (slowCalls.contains(call)) {
+                        try {
+                            Thread.sleep(2000);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    byte[] body = ("call " + call).getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                    exchange.close();
+                });
+        server.start();
+        host = "http://127.0.0.1:" + server.getAddress().getPort() + "/ords/";
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void stragglerIsHedgedTest() throws Exception {
+        try (OrdsHedgingInterceptor interceptor = interceptor(100)) {
+            for (int i = 0; i < 5; i++) {
+                Assertions.assertEquals("call " + (i + 1), get(interceptor, "criminal/file"));
+            }
+
+            slowCalls.add(6);
+            long start = System.nanoTime();
+            Assertions.assertEquals("call 7", get(interceptor, "criminal/file"));
+            Assertions.assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+
+            Assertions.assertEquals(
+                    1, count("jci.ords.hedging.requests", "outcome", "hedged", "criminal/file"));
+            Assertions.assertEquals(
+                    1, count("jci.ords.hedging.wins", "winner", "hedge", "criminal/file"));
+        }
+    }
+
+    @Test
+    public void hedgesStayWithinTheBudgetTest() throws Exception {
+        try (OrdsHedgingInterceptor interceptor = interceptor(0)) {
+            for (int i = 0; i < 5; i++) {
+                get(interceptor, "civil/file/secure");
+            }
+
+            slowCalls.add(6);
+            Assertions.assertEquals("call 6", get(interceptor, "civil/file/secure"));
+
+            Assertions.assertEquals(6, calls.get());
+            Assertions.assertEquals(
+                    1,
+                    count(
+                            "jci.ords.hedging.requests",
+                            "outcome",
+                            "budget_exhausted",
+                            "civil/file/secure"));
+        }
+    }
+
+    @Test
+    public void hedgesTakeAPlaceInTheBulkheadTest() throws Exception {
+        OrdsResilienceInterceptor resilienceInterceptor =
+                new OrdsResilienceInterceptor(
+                        provider,
+                        host,
+                        new OrdsResilienceInterceptor.Settings()
+                                .maxConcurrentCalls(1)
+                                .maxWait(Duration.ZERO));
+        URI uri = URI.create(host + "criminal/file");
+        try (OrdsHedgingInterceptor interceptor = interceptor(resilienceInterceptor, 100)) {
+            for (int i = 0; i < 5; i++) {
+                get(interceptor, "criminal/file");
+            }
+
+            // The route's only place is taken, so the straggler is not hedged
+            Runnable held = resilienceInterceptor.tryAcquire(uri);
+            slowCalls.add(6);
+            Assertions.assertEquals("call 6", get(interceptor, "criminal/file"));
+            Assertions.assertEquals(
+                    1, count("jci.ords.hedging.requests", "outcome", "no_place", "criminal/file"));
+            held.run();
+
+            // The hedge gives its place back once its response is closed
+            slowCalls.add(7);
+            Assertions.assertEquals("call 8", get(interceptor, "criminal/file"));
+            Assertions.assertNotNull(resilienceInterceptor.tryAcquire(uri));
+        }
+    }
+
+    @Test
+    public void otherCallsAreNotHedgedTest() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        try (OrdsHedgingInterceptor interceptor = interceptor(100)) {
+            interceptor
+                    .intercept(
+                            new MockClientHttpRequest(
+                                    HttpMethod.POST, URI.create(host + "criminal/file")),
+                            new byte[0],
+                            (request, body) -> {
+                                executions.incrementAndGet();
+                                return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+                            })
+                    .close();
+            interceptor
+                    .intercept(
+                            new MockClientHttpRequest(
+                                    HttpMethod.GET, URI.create(host + "criminal/results")),
+                            new byte[0],
+                            (request, body) -> {
+                                executions.incrementAndGet();
+                                return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+                            })
+                    .close();
+        }
+        Assertions.assertEquals(2, executions.get());
+        Assertions.assertEquals(0, calls.get());
+    }
+
+    private OrdsHedgingInterceptor interceptor(double budgetPercent) {
+        return interceptor(null, budgetPercent);
+    }
+
+    private OrdsHedgingInterceptor interceptor(
+            OrdsResilienceInterceptor resilienceInterceptor, double budgetPercent) {
+        return new OrdsHedgingInterceptor(
+                new SimpleClientHttpRequestFactory(),
+                resilienceInterceptor,
+                null,
+                provider,
+                host,
+                new OrdsHedgingInterceptor.Settings()
+                        .routes("criminal/file,civil/file")
+                        .minSamples(5)
+                        .minDelay(Duration.ofMillis(100))
+                        .budgetPercent(budgetPercent));
+    }
+
+    private String get(OrdsHedgingInterceptor interceptor, String route) throws IOException {
+        try (ClientHttpResponse response =
+                interceptor.intercept(
+                        new MockClientHttpRequest(HttpMethod.GET, URI.create(host + route)),
+                        new byte[0],
+                        (request, body) -> {
+                            throw new AssertionError("Hedged routes are called directly");
+                        })) {
+            return StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private double count(String name, String tag, String value, String route) {
+        return meterRegistry.get(name).tag("route", route).tag(tag, value).counter().count();
+    }
+}
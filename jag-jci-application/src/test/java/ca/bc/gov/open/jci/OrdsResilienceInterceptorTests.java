@@ -0,0 +1,272 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.configuration.OrdsCallPriority;
+import ca.bc.gov.open.jci.configuration.OrdsResilienceInterceptor;
+import ca.bc.gov.open.jci.configuration.OrdsResilienceInterceptor.CallRejectedException;
+import ca.bc.gov.open.jci.configuration.OrdsResilienceInterceptor.State;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+public class OrdsResilienceInterceptorTests {
+
+    private static final URI CRIMINAL_FILE =
+            URI.create("https://127.0.0.1/ords/criminal/file?mdocJustinNo=1");
+    private static final URI COURT_LIST =
+            URI.create("https://127.0.0.1/ords/common/courtlist?roomCd=A");
+
+    private SimpleMeterRegistry meterRegistry;
+    private ObjectProvider<MeterRegistry> provider;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        provider = Mockito.mock(ObjectProvider.class);
+        Mockito.when(provider.getIfAvailable(Mockito.any())).thenReturn(meterRegistry);
+    }
+
+    @Test
+    public void bulkheadLimitsConcurrentCallsTest() throws Exception {
+        OrdsResilienceInterceptor interceptor =
+                interceptor(
+                        new OrdsResilienceInterceptor.Settings()
+                                .maxConcurrentCalls(1)
+                                .maxWait(Duration.ZERO));
+
+        ClientHttpResponse first = call(interceptor, CRIMINAL_FILE, HttpStatus.OK);
+        Assertions.assertThrows(
+                CallRejectedException.class, () -> call(interceptor, CRIMINAL_FILE, HttpStatus.OK));
+        // Other routes have their own bulkhead
+        call(interceptor, COURT_LIST, HttpStatus.OK).close();
+
+        first.close();
+        call(interceptor, CRIMINAL_FILE, HttpStatus.OK).close();
+        Assertions.assertEquals(3, calls.get());
+        Assertions.assertEquals(
+                1,
+                meterRegistry
+                        .get("jci.ords.rejected")
+                        .tag("route", "criminal/file")
+                        .tag("reason", "bulkhead_full")
+                        .counter()
+                        .count());
+    }
+
+    @Test
+    public void healthyRoutesWaitForAPlaceTest() throws Exception {
+        OrdsResilienceInterceptor interceptor =
+                interceptor(
+                        new OrdsResilienceInterceptor.Settings()
+                                .maxConcurrentCalls(1)
+                                .maxWait(Duration.ofSeconds(5))
+                                .slidingWindowSize(4)
+                                .minimumCalls(2)
+                                .failureRateThreshold(100));
+        ClientHttpResponse first = call(interceptor, CRIMINAL_FILE, HttpStatus.OK);
+
+        CompletableFuture<ClientHttpResponse> queued =
+                CompletableFuture.supplyAsync(() -> callUnchecked(interceptor, CRIMINAL_FILE));
+        Thread.sleep(100);
+        Assertions.assertFalse(queued.isDone());
+        first.close();
+        queued.get(5, TimeUnit.SECONDS).close();
+
+        // Half the window failed, the route is degraded and a full bulkhead fails at once
+        call(interceptor, CRIMINAL_FILE, HttpStatus.INTERNAL_SERVER_ERROR).close();
+        call(interceptor, CRIMINAL_FILE, HttpStatus.INTERNAL_SERVER_ERROR).close();
+        Assertions.assertEquals(State.CLOSED, interceptor.state("criminal/file"));
+        ClientHttpResponse held = call(interceptor, CRIMINAL_FILE, HttpStatus.OK);
+        long start = System.nanoTime();
+        Assertions.assertThrows(
+                CallRejectedException.class, () -> call(interceptor, CRIMINAL_FILE, HttpStatus.OK));
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        held.close();
+    }
+
+    @Test
+    public void backgroundCallsLeaveRoomForForegroundCallsTest() throws Exception {
+        OrdsResilienceInterceptor interceptor =
+                interceptor(
+                        new OrdsResilienceInterceptor.Settings()
+                                .maxConcurrentCalls(2)
+                                .maxWait(Duration.ZERO)
+                                .backgroundShare(0.5));
+
+        ClientHttpResponse background =
+                OrdsCallPriority.inBackground(
+                        () -> call(interceptor, CRIMINAL_FILE, HttpStatus.OK));
+        Assertions.assertThrows(
+                CallRejectedException.class,
+                () ->
+                        OrdsCallPriority.inBackground(
+                                () -> call(interceptor, CRIMINAL_FILE, HttpStatus.OK)));
+        ClientHttpResponse foreground = call(interceptor, CRIMINAL_FILE, HttpStatus.OK);
+
+        background.close();
+        OrdsCallPriority.inBackground(() -> call(interceptor, CRIMINAL_FILE, HttpStatus.OK))
+                .close();
+        foreground.close();
+        Assertions.assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void failuresOpenTheCircuitTest() throws Exception {
+        OrdsResilienceInterceptor interceptor =
+                interceptor(
+                        new OrdsResilienceInterceptor.Settings()
+                                .slidingWindowSize(4)
+                                .minimumCalls(4)
+                                .failureRateThreshold(50));
+
+        call(interceptor, CRIMINAL_FILE, HttpStatus.OK).close();
+        call(interceptor, CRIMINAL_FILE, HttpStatus.NOT_FOUND).close();
+        call(interceptor, CRIMINAL_FILE, HttpStatus.INTERNAL_SERVER_ERROR).close();
+        Assertions.assertEquals(State.CLOSED, interceptor.state("criminal/file"));
+        call(interceptor, CRIMINAL_FILE, HttpStatus.BAD_GATEWAY).close();
+
+        Assertions.assertEquals(State.OPEN, interceptor.state("criminal/file"));
+        Assertions.assertThrows(
+                CallRejectedException.class, () -> call(interceptor, CRIMINAL_FILE, HttpStatus.OK));
+        Assertions.assertEquals(4, calls.get());
+        Assertions.assertEquals(State.CLOSED, interceptor.state("common/courtlist"));
+        call(interceptor, COURT_LIST, HttpStatus.OK).close();
+        Assertions.assertEquals(
+                1,
+                meterRegistry
+                        .get("jci.ords.circuit.state")
+                        .tag("route", "criminal/file")
+                        .gauge()
+                        .value());
+    }
+
+    @Test
+    public void slowCallsOpenTheCircuitTest() throws Exception {
+        OrdsResilienceInterceptor interceptor =
+                interceptor(
+                        new OrdsResilienceInterceptor.Settings()
+                                .slidingWindowSize(2)
+                                .minimumCalls(2)
+                                .slowCallRateThreshold(100)
+                                .slowCallDuration(Duration.ofMillis(50)));
+        ClientHttpRequestExecution slow =
+                (request, body) -> {
+                    try {
+                        Thread.sleep(60);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+                };
+
+        interceptor.intercept(request(CRIMINAL_FILE), new byte[0], slow).close();
+        call(interceptor, CRIMINAL_FILE, HttpStatus.OK).close();
+        Assertions.assertEquals(State.CLOSED, interceptor.state("criminal/file"));
+        interceptor.intercept(request(CRIMINAL_FILE), new byte[0], slow).close();
+        interceptor.intercept(request(CRIMINAL_FILE), new byte[0], slow).close();
+
+        Assertions.assertEquals(State.OPEN, interceptor.state("criminal/file"));
+    }
+
+    @Test
+    public void halfOpenProbesCloseOrReopenTheCircuitTest() throws Exception {
+        OrdsResilienceInterceptor interceptor =
+                interceptor(
+                        new OrdsResilienceInterceptor.Settings()
+                                .slidingWindowSize(2)
+                                .minimumCalls(2)
+                                .openDuration(Duration.ofMillis(100))
+                                .halfOpenCalls(2));
+        call(interceptor, CRIMINAL_FILE, HttpStatus.SERVICE_UNAVAILABLE).close();
+        call(interceptor, CRIMINAL_FILE, HttpStatus.SERVICE_UNAVAILABLE).close();
+        Assertions.assertEquals(State.OPEN, interceptor.state("criminal/file"));
+
+        // A failed probe opens the circuit again
+        Thread.sleep(150);
+        call(interceptor, CRIMINAL_FILE, HttpStatus.SERVICE_UNAVAILABLE).close();
+        Assertions.assertEquals(State.OPEN, interceptor.state("criminal/file"));
+        Assertions.assertThrows(
+                CallRejectedException.class, () -> call(interceptor, CRIMINAL_FILE, HttpStatus.OK));
+
+        // Every probe has to succeed before the circuit closes
+        Thread.sleep(150);
+        ClientHttpResponse probe = call(interceptor, CRIMINAL_FILE, HttpStatus.OK);
+        Assertions.assertEquals(State.HALF_OPEN, interceptor.state("criminal/file"));
+        ClientHttpResponse secondProbe = call(interceptor, CRIMINAL_FILE, HttpStatus.OK);
+        Assertions.assertEquals(State.CLOSED, interceptor.state("criminal/file"));
+        probe.close();
+        secondProbe.close();
+        call(interceptor, CRIMINAL_FILE, HttpStatus.OK).close();
+        Assertions.assertEquals(6, calls.get());
+    }
+
+    @Test
+    public void halfOpenRejectsCallsBeyondTheProbesTest() throws Exception {
+        OrdsResilienceInterceptor interceptor =
+                interceptor(
+                        new OrdsResilienceInterceptor.Settings()
+                                .slidingWindowSize(1)
+                                .minimumCalls(1)
+                                .openDuration(Duration.ofMillis(100))
+                                .halfOpenCalls(1));
+        call(interceptor, CRIMINAL_FILE, HttpStatus.INTERNAL_SERVER_ERROR).close();
+        Thread.sleep(150);
+
+        ClientHttpRequestExecution probe =
+                (request, body) -> {
+                    // A second call while the probe is in flight is turned away
+                    Assertions.assertThrows(
+                            CallRejectedException.class,
+                            () -> call(interceptor, CRIMINAL_FILE, HttpStatus.OK));
+                    return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+                };
+        interceptor.intercept(request(CRIMINAL_FILE), new byte[0], probe).close();
+
+        Assertions.assertEquals(State.CLOSED, interceptor.state("criminal/file"));
+    }
+
+    private OrdsResilienceInterceptor interceptor(OrdsResilienceInterceptor.Settings settings) {
+        return new OrdsResilienceInterceptor(provider, "https://127.0.0.1/ords/", settings);
+    }
+
+    private ClientHttpResponse call(
+            OrdsResilienceInterceptor interceptor, URI uri, HttpStatus status) throws IOException {
+        return interceptor.intercept(
+                request(uri),
+                new byte[0],
+                (request, body) -> {
+                    calls.incrementAndGet();
+                    return new MockClientHttpResponse(new byte[0], status);
+                });
+    }
+
+    private ClientHttpResponse callUnchecked(OrdsResilienceInterceptor interceptor, URI uri) {
+        try {
+            return call(interceptor, uri, HttpStatus.OK);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static MockClientHttpRequest request(URI uri) {
+        return new MockClientHttpRequest(HttpMethod.GET, uri);
+    }
+}
@@ -0,0 +1,70 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.services.OrdsRoute;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.util.UriComponentsBuilder;
+
+public class OrdsRouteTests {
+
+    private static final String HOST = "https://127.0.0.1/ords/";
+
+    @Test
+    public void expandsAsUriComponentsBuilderDoesTest() {
+        for (String value :
+                new String[] {"83.0001", "2024-01-31 09:30:00", "a&b=c", "100%", "Côté", "x+y/z"}) {
+            Assertions.assertEquals(
+                    UriComponentsBuilder.fromHttpUrl(HOST + "common/user/login")
+                            .queryParam("temporaryAccessGuid", value)
+                            .queryParam("domainUserGuid", (Object) null)
+                            .queryParam("domainUserId", "IDIR")
+                            .toUriString(),
+                    OrdsRoute.USER_LOGIN.uriString(HOST, value, null, "IDIR"));
+        }
+        Assertions.assertEquals(
+                UriComponentsBuilder.fromHttpUrl(HOST + "criminal/file")
+                        .queryParam("agencyIdentifierCd", "83.0001")
+                        .queryParam("roomCd", "101")
+                        .queryParam("proceedingDate", "2024-01-31 09:30:00")
+                        .queryParam("appearanceId", "1")
+                        .queryParam("mdocJustinNo", (Object) null)
+                        .build()
+                        .toUri(),
+                OrdsRoute.CRIMINAL_FILE.uri(
+                        HOST, "83.0001", "101", "2024-01-31 09:30:00", "1", null));
+        Assertions.assertEquals(HOST + "criminal/plea", OrdsRoute.PLEA.uriString(HOST));
+    }
+
+    @Test
+    public void documentIdsAreFormEncodedTest() {
+        String documentId = "a+b/c= d";
+        Assertions.assertEquals(
+                UriComponentsBuilder.fromHttpUrl(HOST + "common/document")
+                        .queryParam(
+                                "documentId",
+                                URLEncoder.encode(documentId, StandardCharsets.UTF_8))
+                        .queryParam("courtDivisionCd", "R")
+                        .build(true)
+                        .toUri(),
+                OrdsRoute.DOCUMENT.uri(HOST, documentId, "R"));
+    }
+
+    @Test
+    public void routesAreRecompiledForAnotherHostTest() {
+        Assertions.assertEquals(HOST + "common/ping", OrdsRoute.PING.uriString(HOST));
+        Assertions.assertEquals(
+                "https://ords.example/common/ping",
+                OrdsRoute.PING.uriString("https://ords.example/"));
+        Assertions.assertThrows(
+                IllegalArgumentException.class, () -> OrdsRoute.PLEA.uriString(HOST, "extra"));
+    }
+
+    @Test
+    public void routesAreNamedByPathTest() {
+        Assertions.assertEquals(OrdsRoute.CRIMINAL_FILE, OrdsRoute.named("criminal/file"));
+        Assertions.assertEquals(OrdsRoute.SENTENCE, OrdsRoute.named("criminal/sentence"));
+        Assertions.assertNull(OrdsRoute.named("criminal/unknown"));
+    }
+}
@@ -0,0 +1,141 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.standin.OrdsStandIn;
+import ca.bc.gov.open.jci.standin.StandInConfig;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class OrdsStandInTests {
+
+    // "%PDF-1" in base64, the start of every document and report the stand-in serves
+    private static final String PDF_B64 = "<B64Content>JVBERi0x";
+
+    private static final OrdsStandIn ORDS = standIn();
+
+    @LocalServerPort private int port;
+
+    @Value("${security.basic-auth.username}")
+    private String username;
+
+    @Value("${security.basic-auth.password}")
+    private String password;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("jci.host", ORDS::ordsHost);
+        registry.add("jci.adobe-host", ORDS::adobeHost);
+        registry.add("jci.court-list-cache.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopStandIn() {
+        ORDS.close();
+    }
+
+    @Test
+    public void getCrtListTest() throws Exception {
+        HttpResponse<String> response =
+                call(
+                        "<ns:getCrtList xmlns:ns="
+                                + "\"http://brooks/CCD.Source.CourtLists.ws.provider:CourtList\">"
+                                + "<agencyIdentifierCd>1</agencyIdentifierCd></ns:getCrtList>");
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertTrue(response.body().contains("getCrtListResponse"));
+        Assertions.assertTrue(ORDS.calls("common/courtlist") > 0);
+    }
+
+    @Test
+    public void getDocumentTest() throws Exception {
+        HttpResponse<String> response =
+                call(
+                        "<ns:getDocument xmlns:ns=\"http://courts.gov.bc.ca/"
+                                + "CCD.Source.GetDocument.ws:GetDocument\">"
+                                + "<DocumentRequest><DocumentId>1</DocumentId>"
+                                + "<CourtDivisionCd>R</CourtDivisionCd></DocumentRequest>"
+                                + "</ns:getDocument>");
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertTrue(response.body().contains(PDF_B64));
+        Assertions.assertTrue(ORDS.calls("document") > 0);
+    }
+
+    @Test
+    public void getROPReportTest() throws Exception {
+        HttpResponse<String> response =
+                call(
+                        "<ns:getROPReport xmlns:ns=\"http://brooks.ag.gov.bc.ca/"
+                                + "CCD.Source.GetROPReport.ws:GetROPReport\">"
+                                + "<ROPRequest><param1>1</param1></ROPRequest></ns:getROPReport>");
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertTrue(response.body().contains(PDF_B64));
+        Assertions.assertTrue(ORDS.calls("adobe") > 0);
+    }
+
+    @Test
+    public void routeErrorRateTest() throws Exception {
+        HttpResponse<String> response =
+                call(
+                        "<ns:getPing xmlns:ns=\"http://court.ag.gov.bc.ca/"
+                                + "CCD.Source.ProcessResults.ws.provider:ProcessResults\"/>");
+
+        Assertions.assertEquals(500, response.statusCode());
+        Assertions.assertTrue(response.body().contains("Fault"));
+        Assertions.assertTrue(ORDS.calls("common/ping") > 0);
+    }
+
+    private HttpResponse<String> call(String payload) throws Exception {
+        String envelope =
+                "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+                        + "<soapenv:Body>"
+                        + payload
+                        + "</soapenv:Body></soapenv:Envelope>";
+        String authorization =
+                "Basic "
+                        + Base64.getEncoder()
+                                .encodeToString(
+                                        (username + ":" + password)
+                                                .getBytes(StandardCharsets.UTF_8));
+        return HttpClient.newHttpClient()
+                .send(
+                        HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/ws"))
+                                .header("Content-Type", "text/xml; charset=utf-8")
+                                .header("Authorization", authorization)
+                                .POST(HttpRequest.BodyPublishers.ofString(envelope))
+                                .build(),
+                        HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static OrdsStandIn standIn() {
+        try {
+            return new OrdsStandIn(
+                            new StandInConfig()
+                                    .appearances(5)
+                                    .documentBytes(4096)
+                                    .reportBytes(4096)
+                                    .errorRate("common/ping", 1.0)
+                                    .seed(1))
+                    .start();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ca.bc.gov.open.jci;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=false")
+@ActiveProfiles("test")
+public class PlatformThreadLoadBenchmarkTests extends ThreadingLoadBenchmark {
+
+    @Override
+    String mode() {
+        return "platform";
+    }
+}
@@ -0,0 +1,143 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.services.ProcessBatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ProcessBatcherTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProcessBatcher batcher;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        batcher = new ProcessBatcher(meterRegistry, 10, 8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        batcher.close();
+    }
+
+    @Test
+    public void independentItemsRunInParallelAndDependentsWaitTest() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Map<String, Long> finished = new ConcurrentHashMap<>();
+
+        List<String> results =
+                batcher.runAll(
+                        List.of(
+                                new Item("plea"),
+                                new Item("finding"),
+                                new Item("sentence", "plea", "finding"),
+                                new Item("matterCall")),
+                        Item::id,
+                        Item::dependsOn,
+                        item -> {
+                            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            if (item.id().equals("sentence")) {
+                                Assertions.assertTrue(finished.containsKey("plea"));
+                                Assertions.assertTrue(finished.containsKey("finding"));
+                            }
+                            Thread.sleep(200);
+                            running.decrementAndGet();
+                            finished.put(item.id(), System.nanoTime());
+                            return "done " + item.id();
+                        },
+                        (item, message) -> message);
+
+        Assertions.assertEquals(
+                List.of("done plea", "done finding", "done sentence", "done matterCall"),
+                results);
+        // The sentence waits for the plea and the finding, the matter call does not
+        Assertions.assertEquals(3, peak.get());
+        Assertions.assertEquals(4, items("success"));
+    }
+
+    @Test
+    public void failedDependenciesAndBadItemsAreNotRunTest() {
+        List<String> results =
+                batcher.runAll(
+                        List.of(
+                                new Item("plea"),
+                                new Item("sentence", "plea"),
+                                new Item("note", "sentence"),
+                                new Item("finding", "later"),
+                                new Item("plea"),
+                                new Item("later")),
+                        Item::id,
+                        Item::dependsOn,
+                        item -> {
+                            if (item.id().equals("plea")) {
+                                throw new IllegalStateException("ORDS down");
+                            }
+                            return "done " + item.id();
+                        },
+                        (item, message) -> "failed " + item.id());
+
+        Assertions.assertEquals(
+                List.of(
+                        "failed plea",
+                        "failed sentence",
+                        "failed note",
+                        "failed finding",
+                        "failed plea",
+                        "done later"),
+                results);
+        Assertions.assertEquals(1, items("failure"));
+        Assertions.assertEquals(4, items("skipped"));
+        Assertions.assertEquals(1, items("success"));
+    }
+
+    @Test
+    public void excessItemsGetFailureResultsTest() {
+        batcher.close();
+        batcher = new ProcessBatcher(meterRegistry, 1, 8);
+
+        List<String> results =
+                batcher.runAll(
+                        List.of(new Item("plea"), new Item("finding")),
+                        Item::id,
+                        Item::dependsOn,
+                        item -> "done " + item.id(),
+                        (item, message) -> "failed " + item.id());
+
+        Assertions.assertEquals(List.of("done plea", "failed finding"), results);
+        Assertions.assertEquals(1, items("skipped"));
+    }
+
+    private double items(String outcome) {
+        return meterRegistry
+                .get("jci.process.batch.items")
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+
+    private static final class Item {
+        private final String id;
+        private final List<String> dependsOn;
+
+        private Item(String id, String... dependsOn) {
+            this.id = id;
+            this.dependsOn = List.of(dependsOn);
+        }
+
+        private String id() {
+            return id;
+        }
+
+        private List<String> dependsOn() {
+            return dependsOn;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import static org.mockito.Mockito.when;
 
 import ca.bc.gov.open.jci.common.process.results.*;
 import ca.bc.gov.open.jci.controllers.ProcessController;
+import ca.bc.gov.open.jci.services.CourtListCache;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Instant;
@@ -28,12 +29,14 @@ import org.springframework.web.client.RestTemplate;
 public class ProcessControllerTests {
     @Mock private ObjectMapper objectMapper;
     @Mock private RestTemplate restTemplate;
+    @Mock private CourtListCache courtListCache;
     @Mock private ProcessController processController;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        processController = Mockito.spy(new ProcessController(restTemplate, objectMapper));
+        processController =
+                Mockito.spy(new ProcessController(restTemplate, objectMapper, courtListCache));
     }
 
     @Test
@@ -1329,4 +1332,54 @@ public class ProcessControllerTests {
 
         Assertions.assertNotNull(resp);
     }
+
+    @Test
+    public void processBatchTest() throws JsonProcessingException {
+        var plea = new BatchItem();
+        plea.setItemId("1");
+        plea.setProcessPlea(new ProcessPlea());
+        var note = new BatchItem();
+        note.setItemId("2");
+        note.getDependsOn().add("1");
+        note.setProcessNote(new ProcessNote());
+        var orphan = new BatchItem();
+        orphan.setItemId("3");
+        orphan.getDependsOn().add("9");
+        orphan.setProcessNote(new ProcessNote());
+
+        var req = new ProcessBatch();
+        req.getBatchItem().add(plea);
+        req.getBatchItem().add(note);
+        req.getBatchItem().add(orphan);
+
+        var pleaOut = new ProcessPleaResponse();
+        pleaOut.setStatus("A");
+        var noteOut = new ProcessNoteResponse();
+        noteOut.setStatus("A");
+
+        // Set up to mock ords response
+        when(restTemplate.exchange(
+                        Mockito.any(String.class),
+                        Mockito.eq(HttpMethod.POST),
+                        Mockito.<HttpEntity<String>>any(),
+                        Mockito.eq(ProcessPleaResponse.class)))
+                .thenReturn(new ResponseEntity<>(pleaOut, HttpStatus.OK));
+        when(restTemplate.exchange(
+                        Mockito.any(String.class),
+                        Mockito.eq(HttpMethod.POST),
+                        Mockito.<HttpEntity<String>>any(),
+                        Mockito.eq(ProcessNoteResponse.class)))
+                .thenReturn(new ResponseEntity<>(noteOut, HttpStatus.OK));
+
+        var resp = processController.processBatch(req);
+
+        var results = resp.getBatchItemResult();
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertEquals("0", results.get(0).getResultCd());
+        Assertions.assertEquals("A", results.get(0).getProcessPleaResponse().getStatus());
+        Assertions.assertEquals("0", results.get(1).getResultCd());
+        Assertions.assertEquals("A", results.get(1).getProcessNoteResponse().getStatus());
+        Assertions.assertEquals("3", results.get(2).getItemId());
+        Assertions.assertEquals("-1", results.get(2).getResultCd());
+    }
 }
@@ -0,0 +1,231 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.common.process.results.NoteType;
+import ca.bc.gov.open.jci.common.process.results.ProcessNoteResponse;
+import ca.bc.gov.open.jci.services.CourtListCache;
+import ca.bc.gov.open.jci.services.OrdsGateway;
+import ca.bc.gov.open.jci.services.ProcessJournal;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+public class ProcessJournalTests {
+
+    @TempDir Path directory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrdsGateway ordsGateway;
+    private List<String> posted;
+    private ProcessJournal journal;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        ordsGateway = Mockito.mock(OrdsGateway.class);
+        posted = new ArrayList<>();
+        Mockito.when(
+                        ordsGateway.exchange(
+                                ArgumentMatchers.anyString(),
+                                ArgumentMatchers.eq(HttpMethod.POST),
+                                ArgumentMatchers.<HttpEntity<?>>any(),
+                                ArgumentMatchers.eq(ProcessNoteResponse.class)))
+                .thenAnswer(this::post);
+        journal = open(1024 * 1024);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    public void recordsAreDeliveredInOrderTest() throws Exception {
+        Assertions.assertTrue(append("1", "A1"));
+        Assertions.assertTrue(append("2", "A2"));
+        Assertions.assertTrue(append("3", "A1"));
+        Assertions.assertEquals(3, journal.depth());
+
+        Assertions.assertEquals(3, journal.drain(false));
+
+        Assertions.assertEquals(List.of("1", "2", "3"), posted);
+        Assertions.assertEquals(0, journal.depth());
+        Assertions.assertEquals(3, deliveries("success"));
+    }
+
+    @Test
+    public void failureHoldsBackTheSameAppearanceOnlyTest() throws Exception {
+        Mockito.doThrow(new IllegalStateException("ORDS down"))
+                .doAnswer(this::post)
+                .when(ordsGateway)
+                .exchange(
+                        ArgumentMatchers.anyString(),
+                        ArgumentMatchers.eq(HttpMethod.POST),
+                        ArgumentMatchers.<HttpEntity<?>>any(),
+                        ArgumentMatchers.eq(ProcessNoteResponse.class));
+        append("1", "A1");
+        append("2", "A1");
+        append("3", "A2");
+
+        Assertions.assertEquals(1, journal.drain(false));
+        Assertions.assertEquals(List.of("3"), posted);
+        Assertions.assertEquals(1, deliveries("failure"));
+
+        // Still backing off
+        Assertions.assertEquals(0, journal.drain(false));
+        Assertions.assertEquals(2, journal.drain(true));
+        Assertions.assertEquals(List.of("3", "1", "2"), posted);
+    }
+
+    @Test
+    public void rejectedRecordsStayInTheJournalTest() throws Exception {
+        Mockito.doAnswer(invocation -> post(invocation, "E"))
+                .doAnswer(this::post)
+                .when(ordsGateway)
+                .exchange(
+                        ArgumentMatchers.anyString(),
+                        ArgumentMatchers.eq(HttpMethod.POST),
+                        ArgumentMatchers.<HttpEntity<?>>any(),
+                        ArgumentMatchers.eq(ProcessNoteResponse.class));
+        append("1", "A1");
+        append("2", "A1");
+
+        Assertions.assertEquals(0, journal.drain(false));
+        Assertions.assertEquals(1, deliveries("rejected"));
+        Map<String, Object> record = journal.pending().get(0);
+        Assertions.assertEquals(true, record.get("rejected"));
+        Assertions.assertEquals("E", record.get("status"));
+
+        // Rejected records wait for a replay, across a restart too
+        journal.close();
+        journal = open(1024 * 1024);
+        Assertions.assertEquals(0, journal.drain(false));
+        Assertions.assertEquals(true, journal.pending().get(0).get("rejected"));
+        Assertions.assertEquals(2, journal.drain(true));
+        Assertions.assertEquals(List.of("1", "1", "2"), posted);
+        Assertions.assertEquals(0, journal.depth());
+    }
+
+    @Test
+    public void pendingRecordsSurviveARestartTest() throws Exception {
+        append("1", "A1");
+        append("2", "A2");
+        journal.close();
+
+        journal = open(1024 * 1024);
+
+        Assertions.assertEquals(2, journal.depth());
+        Assertions.assertEquals(2, journal.drain(false));
+        Assertions.assertEquals(List.of("1", "2"), posted);
+    }
+
+    @Test
+    public void deliveredSegmentsAreDeletedTest() throws Exception {
+        journal.close();
+        directory = directory.resolve("small");
+        // A few records to a segment
+        journal = open(1024);
+
+        for (int i = 0; i < 10; i++) {
+            append(Integer.toString(i), "A" + i);
+        }
+        Assertions.assertTrue(segments() > 1);
+
+        journal.drain(false);
+
+        Assertions.assertEquals(1, segments());
+        journal.close();
+        journal = open(1024);
+        Assertions.assertEquals(0, journal.depth());
+    }
+
+    @Test
+    public void unselectedOperationsGoToOrdsTest() {
+        Assertions.assertFalse(
+                journal.append(
+                        "processPlea",
+                        "https://127.0.0.1/plea",
+                        note("1"),
+                        ProcessNoteResponse.class,
+                        List.of()));
+        Assertions.assertFalse(
+                ProcessJournal.disabled()
+                        .append("processNote", "", null, ProcessNoteResponse.class, List.of()));
+        Assertions.assertEquals(0, journal.depth());
+    }
+
+    private ProcessJournal open(int segmentSize) throws Exception {
+        return new ProcessJournal(
+                ordsGateway,
+                new ObjectMapper(),
+                Mockito.mock(CourtListCache.class),
+                meterRegistry,
+                Clock.systemUTC(),
+                new ProcessJournal.Settings()
+                        .operations("processNote")
+                        .directory(directory)
+                        .segmentSize(segmentSize)
+                        .maxPerSecond(1000)
+                        .retryBackoff(Duration.ofMinutes(1), Duration.ofMinutes(5))
+                        .drainInterval(Duration.ZERO));
+    }
+
+    private ResponseEntity<ProcessNoteResponse> post(InvocationOnMock invocation) {
+        return post(invocation, "A");
+    }
+
+    private ResponseEntity<ProcessNoteResponse> post(InvocationOnMock invocation, String status) {
+        HttpEntity<?> entity = invocation.getArgument(2);
+        posted.add(((JsonNode) entity.getBody()).path("sourcePackageId").asText());
+        ProcessNoteResponse response = new ProcessNoteResponse();
+        response.setStatus(status);
+        return ResponseEntity.ok(response);
+    }
+
+    private boolean append(String sourcePackageId, String appearanceId) {
+        return journal.append(
+                "processNote",
+                "https://127.0.0.1/criminal/note",
+                note(sourcePackageId),
+                ProcessNoteResponse.class,
+                List.of(appearanceId));
+    }
+
+    private static NoteType note(String sourcePackageId) {
+        NoteType note = new NoteType();
+        note.setSourcePackageId(sourcePackageId);
+        return note;
+    }
+
+    private long segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private double deliveries(String outcome) {
+        return meterRegistry
+                .get("jci.process.journal.deliveries")
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,218 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.configuration.SplunkBatchAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SplunkBatchAppenderTests {
+
+    @TempDir Path spoolDir;
+
+    private HecStandIn hec;
+    private LoggerContext loggerContext;
+    private final List<SplunkBatchAppender> appenders = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        hec = new HecStandIn();
+        loggerContext = new LoggerContext();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        appenders.forEach(SplunkBatchAppender::stop);
+        hec.server.stop(0);
+    }
+
+    @Test
+    public void eventsAreSentInBatchesTest() throws Exception {
+        SplunkBatchAppender appender = appender(10);
+
+        for (int i = 0; i < 25; i++) {
+            appender.doAppend(event("event " + i));
+        }
+
+        await(() -> hec.messages().size() == 25);
+        Assertions.assertEquals(3, hec.posts.get());
+        Assertions.assertEquals("event 0", hec.messages().get(0));
+        JsonNode first = hec.events.get(0);
+        Assertions.assertEquals("jci-logs", first.get("sourcetype").asText());
+        Assertions.assertEquals("INFO", first.get("event").get("severity").asText());
+        Assertions.assertEquals("Splunk token", hec.authorization);
+    }
+
+    @Test
+    public void slowCollectorDoesNotBlockLoggingTest() throws Exception {
+        hec.delayMillis = 2000;
+        SplunkBatchAppender appender = appender(1000);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            appender.doAppend(event("event " + i));
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        Assertions.assertTrue(millis < 1000, "logging took " + millis + "ms");
+        await(() -> hec.messages().size() == 1000);
+    }
+
+    @Test
+    public void eventsAreSpooledAndReplayedInOrderTest() throws Exception {
+        hec.up = false;
+        SplunkBatchAppender appender = appender(10);
+
+        for (int i = 0; i < 15; i++) {
+            appender.doAppend(event("event " + i));
+        }
+        Path spool = spoolDir.resolve("spool.log");
+        await(() -> lines(spool) == 15);
+
+        hec.up = true;
+        for (int i = 15; i < 20; i++) {
+            appender.doAppend(event("event " + i));
+        }
+
+        await(() -> hec.messages().size() == 20);
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertEquals("event " + i, hec.messages().get(i));
+        }
+        await(() -> !Files.exists(spool));
+    }
+
+    @Test
+    public void spooledEventsAreReplayedAfterRestartTest() throws Exception {
+        hec.up = false;
+        SplunkBatchAppender appender = appender(10);
+        for (int i = 0; i < 5; i++) {
+            appender.doAppend(event("event " + i));
+        }
+        appender.stop();
+        Assertions.assertEquals(5, lines(spoolDir.resolve("spool.log")));
+
+        hec.up = true;
+        appender(10);
+
+        await(() -> hec.messages().size() == 5);
+        Assertions.assertEquals("event 4", hec.messages().get(4));
+    }
+
+    private SplunkBatchAppender appender(int batchSizeCount) {
+        SplunkBatchAppender appender = new SplunkBatchAppender();
+        appender.setContext(loggerContext);
+        appender.setName("SPLUNK");
+        appender.setUrl("http://127.0.0.1:" + hec.server.getAddress().getPort());
+        appender.setToken("token");
+        appender.setSource("jci-application-11");
+        appender.setSourcetype("jci-logs");
+        appender.setBatchSizeCount(batchSizeCount);
+        appender.setBatchIntervalMillis(100);
+        appender.setSpoolFile(spoolDir.resolve("spool.log").toString());
+        appender.start();
+        Assertions.assertTrue(appender.isStarted());
+        appenders.add(appender);
+        return appender;
+    }
+
+    private LoggingEvent event(String message) {
+        return new LoggingEvent(
+                getClass().getName(),
+                loggerContext.getLogger("test"),
+                Level.INFO,
+                message,
+                null,
+                null);
+    }
+
+    private static long lines(Path file) {
+        try {
+            return Files.exists(file) ? Files.readAllLines(file).size() : 0;
+        } catch (IOException ex) {
+            return 0;
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(20);
+        }
+    }
+
+    /** Accepts HEC posts of newline separated events, or fails them with 503 while down. */
+    private static class HecStandIn {
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+
+        final HttpServer server;
+        final List<JsonNode> events = new CopyOnWriteArrayList<>();
+        final AtomicInteger posts = new AtomicInteger();
+        volatile boolean up = true;
+        volatile long delayMillis;
+        volatile String authorization;
+
+        HecStandIn() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext(
+                    "/services/collector/event",
+                    exchange -> {
+                        authorization = exchange.getRequestHeaders().getFirst("Authorization");
+                        try {
+                            Thread.sleep(delayMillis);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                        List<JsonNode> received = new ArrayList<>();
+                        try (BufferedReader reader =
+                                new BufferedReader(
+                                        new InputStreamReader(
+                                                exchange.getRequestBody(),
+                                                StandardCharsets.UTF_8))) {
+                            String line;
+                            while ((line = reader.readLine()) != null) {
+                                received.add(MAPPER.readTree(line));
+                            }
+                        }
+                        if (up) {
+                            posts.incrementAndGet();
+                            events.addAll(received);
+                        }
+                        byte[] body =
+                                (up ? "{\"text\":\"Success\",\"code\":0}" : "{}")
+                                        .getBytes(StandardCharsets.UTF_8);
+                        exchange.sendResponseHeaders(up ? 200 : 503, body.length);
+                        exchange.getResponseBody().write(body);
+                        exchange.close();
+                    });
+            server.start();
+        }
+
+        List<String> messages() {
+            List<String> messages = new ArrayList<>();
+            for (JsonNode event : events) {
+                messages.add(event.get("event").get("message").asText());
+            }
+            return messages;
+        }
+    }
+}
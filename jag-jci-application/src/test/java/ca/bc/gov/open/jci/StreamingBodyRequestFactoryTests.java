@@ -0,0 +1,194 @@
+package ca.bc.gov.open.jci;
+
+import ca.bc.gov.open.jci.common.process.results.Sentence;
+import ca.bc.gov.open.jci.common.process.results.SentencetDetailType;
+import ca.bc.gov.open.jci.configuration.OrdsMetricsInterceptor;
+import ca.bc.gov.open.jci.configuration.StreamingBodyRequestFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.support.BasicAuthenticationInterceptor;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+public class StreamingBodyRequestFactoryTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Received> received = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private String host;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(
+                "/ords/",
+                exchange -> {
+                    String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+                    InputStream in = exchange.getRequestBody();
+                    if ("gzip".equals(encoding)) {
+                        in = new GZIPInputStream(in);
+                    }
+                    received.add(
+                            new Received(
+                                    exchange.getRequestHeaders().getFirst("Transfer-Encoding"),
+                                    encoding,
+                                    exchange.getRequestHeaders().getFirst("Authorization"),
+                                    in.readAllBytes()));
+                    exchange.sendResponseHeaders(200, 2);
+                    exchange.getResponseBody().write("ok".getBytes());
+                    exchange.close();
+                });
+        server.start();
+        host = "http://127.0.0.1:" + server.getAddress().getPort() + "/ords/";
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void bodyIsChunkedThroughTheInterceptorsTest() throws Exception {
+        Sentence sentence = sentence(200);
+
+        Assertions.assertEquals(
+                "ok",
+                restTemplate(false, new BasicAuthenticationInterceptor("user", "pass"))
+                        .postForObject(host + "criminal/sentence", sentence, String.class));
+
+        Assertions.assertEquals(1, received.size());
+        Assertions.assertEquals("chunked", received.get(0).transferEncoding());
+        Assertions.assertNull(received.get(0).contentEncoding());
+        Assertions.assertNotNull(received.get(0).authorization());
+        Assertions.assertEquals(
+                objectMapper.readTree(objectMapper.writeValueAsBytes(sentence)),
+                objectMapper.readTree(received.get(0).body()));
+    }
+
+    @Test
+    public void bodyIsGzippedTest() throws Exception {
+        Sentence sentence = sentence(200);
+
+        restTemplate(true).postForObject(host + "criminal/sentence", sentence, String.class);
+
+        Assertions.assertEquals("gzip", received.get(0).contentEncoding());
+        Assertions.assertEquals(
+                objectMapper.readTree(objectMapper.writeValueAsBytes(sentence)),
+                objectMapper.readTree(received.get(0).body()));
+    }
+
+    @Test
+    public void retriedRequestsWriteTheBodyAgainTest() throws Exception {
+        ClientHttpRequestInterceptor retry =
+                (request, body, execution) -> {
+                    execution.execute(request, body).close();
+                    return execution.execute(request, body);
+                };
+
+        restTemplate(false, retry)
+                .postForObject(host + "criminal/sentence", sentence(3), String.class);
+
+        Assertions.assertEquals(2, received.size());
+        Assertions.assertArrayEquals(received.get(0).body(), received.get(1).body());
+        Assertions.assertTrue(received.get(1).body().length > 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void streamedBodySizeIsRecordedTest() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> provider = Mockito.mock(ObjectProvider.class);
+        Mockito.when(provider.getIfAvailable(Mockito.any())).thenReturn(meterRegistry);
+        OrdsMetricsInterceptor metrics = new OrdsMetricsInterceptor(provider, host);
+        RestTemplate restTemplate = restTemplate(true);
+        restTemplate.setRequestFactory(
+                new StreamingBodyRequestFactory(
+                        new SimpleClientHttpRequestFactory(), List.of(metrics), true, metrics));
+
+        restTemplate.postForObject(host + "criminal/sentence", sentence(200), String.class);
+
+        DistributionSummary size =
+                meterRegistry
+                        .get("jci.ords.request.size")
+                        .tag("route", "criminal/sentence")
+                        .summary();
+        Assertions.assertEquals(1, size.count());
+        // The size before compression
+        Assertions.assertEquals(received.get(0).body().length, size.totalAmount());
+    }
+
+    private RestTemplate restTemplate(boolean gzip, ClientHttpRequestInterceptor... interceptors) {
+        RestTemplate restTemplate =
+                new RestTemplate(
+                        List.of(
+                                new StringHttpMessageConverter(),
+                                new MappingJackson2HttpMessageConverter(objectMapper)));
+        restTemplate.setRequestFactory(
+                new StreamingBodyRequestFactory(
+                        new SimpleClientHttpRequestFactory(), List.of(interceptors), gzip));
+        return restTemplate;
+    }
+
+    private static Sentence sentence(int counts) {
+        Sentence sentence = new Sentence();
+        sentence.setCourtAgencyIdentifierCode("83.0001");
+        for (int i = 0; i < counts; i++) {
+            SentencetDetailType detail = new SentencetDetailType();
+            detail.setSentencetDetailId(Integer.toString(i));
+            sentence.getSentencetDetail().add(detail);
+        }
+        return sentence;
+    }
+
+    private static final class Received {
+        private final String transferEncoding;
+        private final String contentEncoding;
+        private final String authorization;
+        private final byte[] body;
+
+        private Received(
+                String transferEncoding,
+                String contentEncoding,
+                String authorization,
+                byte[] body) {
+            this.transferEncoding = transferEncoding;
+            this.contentEncoding = contentEncoding;
+            this.authorization = authorization;
+            this.body = body;
+        }
+
+        private String transferEncoding() {
+            return transferEncoding;
+        }
+
+        private String contentEncoding() {
+            return contentEncoding;
+        }
+
+        private String authorization() {
+            return authorization;
+        }
+
+        private byte[] body() {
+            return body;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package ca.bc.gov.open.jci;
+
+import com.sun.net.httpserver.HttpServer;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Drives a mix of slow getROPReport calls and fast getCrtList calls against a stand-in ORDS and
+ * reports the fast call p99 and the throughput of both. Slow calls outnumber the Tomcat workers,
+ * so in platform thread mode fast calls queue behind them.
+ *
+ * <p>Excluded from the default build, run with {@code mvn test -Dgroups=benchmark
+ * -DexcludedGroups=none}.
+ */
+@Tag("benchmark")
+abstract class ThreadingLoadBenchmark {
+
+    static final int TOMCAT_THREADS = 16;
+    static final int SLOW_CLIENTS = 64;
+    static final int FAST_CLIENTS = 8;
+    static final Duration SLOW_ORDS_DELAY = Duration.ofMillis(500);
+    static final Duration FAST_ORDS_DELAY = Duration.ofMillis(5);
+    static final Duration RUN_TIME = Duration.ofSeconds(15);
+
+    private static final String ROP_REPORT =
+            "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+                    + "<soapenv:Body><ns:getROPReport xmlns:ns="
+                    + "\"http://brooks.ag.gov.bc.ca/CCD.Source.GetROPReport.ws:GetROPReport\">"
+                    + "<ROPRequest><param1>1</param1></ROPRequest>"
+                    + "</ns:getROPReport></soapenv:Body></soapenv:Envelope>";
+    private static final String COURT_LIST =
+            "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+                    + "<soapenv:Body><ns:getCrtList"
+                    + " xmlns:ns=\"http://brooks/CCD.Source.CourtLists.ws.provider:CourtList\">"
+                    + "<agencyIdentifierCd>1</agencyIdentifierCd>"
+                    + "</ns:getCrtList></soapenv:Body></soapenv:Envelope>";
+
+    private static final HttpServer ORDS = ords();
+
+    @LocalServerPort private int port;
+
+    @Value("${security.basic-auth.username}")
+    private String username;
+
+    @Value("${security.basic-auth.password}")
+    private String password;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add(
+                "jci.host", () -> "http://127.0.0.1:" + ORDS.getAddress().getPort() + "/");
+        registry.add("jci.ords-read-timeout", () -> "30");
+        registry.add("jci.ords-pool.max-total", () -> "500");
+        registry.add("jci.ords-pool.max-per-route", () -> "500");
+        registry.add("jci.court-list-cache.enabled", () -> "false");
+        registry.add("jci.ords-coalescing.enabled", () -> "false");
+        registry.add("jci.ords-resilience.enabled", () -> "false");
+        registry.add("jci.ords-concurrency-limit.enabled", () -> "false");
+        registry.add("server.tomcat.threads.max", () -> String.valueOf(TOMCAT_THREADS));
+    }
+
+    abstract String mode();
+
+    @Test
+    public void sustainedLoadTest() throws Exception {
+        HttpClient client =
+                HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(Executors.newCachedThreadPool())
+                        .build();
+        String authorization =
+                "Basic "
+                        + Base64.getEncoder()
+                                .encodeToString(
+                                        (username + ":" + password)
+                                                .getBytes(StandardCharsets.UTF_8));
+        URI uri = URI.create("http://127.0.0.1:" + port + "/ws");
+
+        // Warm up the endpoints and connection pools
+        for (int i = 0; i < 20; i++) {
+            call(client, uri, authorization, COURT_LIST);
+        }
+
+        List<Long> fastLatencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger slowCompleted = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long end = System.nanoTime() + RUN_TIME.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(SLOW_CLIENTS + FAST_CLIENTS);
+        for (int i = 0; i < SLOW_CLIENTS; i++) {
+            clients.submit(
+                    () -> {
+                        while (System.nanoTime() < end) {
+                            if (call(client, uri, authorization, ROP_REPORT)) {
+                                slowCompleted.incrementAndGet();
+                            } else {
+                                errors.incrementAndGet();
+                            }
+                        }
+                    });
+        }
+        for (int i = 0; i < FAST_CLIENTS; i++) {
+            clients.submit(
+                    () -> {
+                        while (System.nanoTime() < end) {
+                            long start = System.nanoTime();
+                            if (call(client, uri, authorization, COURT_LIST)) {
+                                fastLatencies.add(System.nanoTime() - start);
+                            } else {
+                                errors.incrementAndGet();
+                            }
+                        }
+                    });
+        }
+        clients.shutdown();
+        Assertions.assertTrue(
+                clients.awaitTermination(RUN_TIME.toSeconds() + 60, TimeUnit.SECONDS));
+
+        List<Long> sorted = new ArrayList<>(fastLatencies);
+        Collections.sort(sorted);
+        Assertions.assertFalse(sorted.isEmpty());
+        double seconds = RUN_TIME.toMillis() / 1000.0;
+        System.out.printf(
+                "BENCHMARK mode=%s tomcatThreads=%d concurrency=%d getCrtList p50=%dms p99=%dms"
+                        + " %.1f/s getROPReport %.1f/s errors=%d%n",
+                mode(),
+                TOMCAT_THREADS,
+                SLOW_CLIENTS + FAST_CLIENTS,
+                TimeUnit.NANOSECONDS.toMillis(sorted.get(sorted.size() / 2)),
+                TimeUnit.NANOSECONDS.toMillis(sorted.get((int) (sorted.size() * 0.99))),
+                sorted.size() / seconds,
+                slowCompleted.get() / seconds,
+                errors.get());
+        Assertions.assertEquals(0, errors.get());
+    }
+
+    private static boolean call(HttpClient client, URI uri, String authorization, String body) {
+        try {
+            HttpResponse<Void> response =
+                    client.send(
+                            HttpRequest.newBuilder(uri)
+                                    .header("Content-Type", "text/xml; charset=utf-8")
+                                    .header("Authorization", authorization)
+                                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                                    .build(),
+                            HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200;
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+
+    /** ORDS stand-in: the ROP report route is slow, every other route answers quickly. */
+    private static HttpServer ords() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext(
+                    "/",
+                    exchange -> {
+                        boolean slow = exchange.getRequestURI().getPath().contains("ropreport");
+                        try {
+                            Thread.sleep((slow ? SLOW_ORDS_DELAY : FAST_ORDS_DELAY).toMillis());
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                        String json =
+                                slow ? "{\"responseCd\":\"1\",\"responseMessageTxt\":\"x\"}" : "{}";
+                        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+                        exchange.getResponseHeaders().add("Content-Type", "application/json");
+                        exchange.sendResponseHeaders(200, body.length);
+                        exchange.getResponseBody().write(body);
+                        exchange.close();
+                    });
+            server.start();
+            return server;
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
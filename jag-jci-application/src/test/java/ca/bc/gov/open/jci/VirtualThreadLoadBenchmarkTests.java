@@ -0,0 +1,19 @@
+package ca.bc.gov.open.jci;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("test")
+@EnabledForJreRange(min = JRE.JAVA_21)
+public class VirtualThreadLoadBenchmarkTests extends ThreadingLoadBenchmark {
+
+    @Override
+    String mode() {
+        return "virtual";
+    }
+}
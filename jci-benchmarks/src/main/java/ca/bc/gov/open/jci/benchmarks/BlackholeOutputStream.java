@@ -0,0 +1,23 @@
+package ca.bc.gov.open.jci.benchmarks;
+
+import java.io.OutputStream;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Hands the written bytes to the blackhole instead of keeping them. */
+class BlackholeOutputStream extends OutputStream {
+    private final Blackhole blackhole;
+
+    BlackholeOutputStream(Blackhole blackhole) {
+        this.blackhole = blackhole;
+    }
+
+    @Override
+    public void write(int b) {
+        blackhole.consume(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        blackhole.consume(b);
+    }
+}
@@ -0,0 +1,102 @@
+package ca.bc.gov.open.jci.benchmarks;
+
+import ca.bc.gov.open.jci.models.serializers.InstantSerializer;
+import ca.bc.gov.open.jci.models.serializers.InstantSoapConverter;
+import ca.bc.gov.open.jci.standin.ModelGenerator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** A single date through each of the Instant serializers, for each layout they accept. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstantBenchmark {
+
+    /** The ORDS layouts read by InstantDeserializer. */
+    public enum OrdsDate {
+        DAY_MONTH_YEAR("05-JAN-2024"),
+        DAY_MONTH_YEAR_TIME("05-JAN-24 10.30.15.123456 PM"),
+        DAY_MONTH_SHORT_YEAR("05-JAN-24"),
+        DATE_TIME("2024-01-05 10:30:15");
+
+        final String text;
+
+        OrdsDate(String text) {
+            this.text = text;
+        }
+    }
+
+    /** The SOAP request layouts read by InstantSoapConverter. */
+    public enum SoapDate {
+        DATE_TIME_FRACTION("2024-01-05 10:30:15.0"),
+        DAY_MONTH_SHORT_YEAR("05-JAN-24"),
+        DATE_TIME("2024-01-05 10:30:15"),
+        DATE("2024-01-05"),
+        UNPARSEABLE("not a date");
+
+        final String text;
+
+        SoapDate(String text) {
+            this.text = text;
+        }
+    }
+
+    /** A JSON string in one ORDS layout. */
+    @State(Scope.Benchmark)
+    public static class OrdsInput {
+        @Param OrdsDate layout;
+
+        ObjectReader reader;
+        String json;
+
+        @Setup
+        public void setUp() {
+            reader = ModelGenerator.objectMapper().readerFor(Instant.class);
+            json = "\"" + layout.text + "\"";
+        }
+    }
+
+    /** A value in one SOAP request layout. */
+    @State(Scope.Benchmark)
+    public static class SoapInput {
+        @Param SoapDate layout;
+    }
+
+    private final Instant instant = Instant.parse("2024-01-05T22:30:15Z");
+
+    @Benchmark
+    public String serializerConvert() {
+        return InstantSerializer.convert(instant);
+    }
+
+    @Benchmark
+    public Instant deserializer(OrdsInput input) throws IOException {
+        return input.reader.readValue(input.json);
+    }
+
+    @Benchmark
+    public Instant soapConverterParse(SoapInput input) {
+        return InstantSoapConverter.parse(input.layout.text);
+    }
+
+    @Benchmark
+    public String soapConverterPrint() {
+        return InstantSoapConverter.print(instant);
+    }
+}
@@ -0,0 +1,83 @@
+package ca.bc.gov.open.jci.benchmarks;
+
+import ca.bc.gov.open.jci.civil.GetCivilFileContentResponse;
+import ca.bc.gov.open.jci.common.criminal.file.content.GetCriminalFileContentResponse;
+import ca.bc.gov.open.jci.court.one.GetCrtListResponse;
+import ca.bc.gov.open.jci.standin.ModelGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The two halves of a court list or file content call: reading the ORDS JSON into the response
+ * model, and marshalling the model into the SOAP response. Sizes are 1 appearance, a typical 50,
+ * and 2000 for the worst lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelBenchmark {
+
+    /** The response types benchmarked. */
+    public enum Response {
+        COURT_LIST(GetCrtListResponse.class),
+        CRIMINAL_FILE_CONTENT(GetCriminalFileContentResponse.class),
+        CIVIL_FILE_CONTENT(GetCivilFileContentResponse.class);
+
+        final Class<?> type;
+
+        Response(Class<?> type) {
+            this.type = type;
+        }
+    }
+
+    @Param Response response;
+
+    @Param({"1", "50", "2000"})
+    int appearances;
+
+    private ObjectReader reader;
+    private byte[] json;
+    private JAXBContext context;
+    private Object model;
+
+    @Setup
+    public void setUp() throws IOException, JAXBException {
+        ObjectMapper objectMapper = ModelGenerator.objectMapper();
+        model = ModelGenerator.response(response.type, appearances);
+        json = objectMapper.writeValueAsBytes(model);
+        reader = objectMapper.readerFor(response.type);
+        context = JAXBContext.newInstance(response.type);
+    }
+
+    @Benchmark
+    public Object readOrdsJson() throws IOException {
+        return reader.readValue(json);
+    }
+
+    /** As Jaxb2Marshaller does, a marshaller per response from the shared context. */
+    @Benchmark
+    public void marshalSoap(Blackhole blackhole) throws JAXBException {
+        Marshaller marshaller = context.createMarshaller();
+        marshaller.marshal(model, new BlackholeOutputStream(blackhole));
+    }
+}
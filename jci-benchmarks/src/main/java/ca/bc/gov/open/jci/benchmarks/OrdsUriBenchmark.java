@@ -0,0 +1,84 @@
+package ca.bc.gov.open.jci.benchmarks;
+
+import ca.bc.gov.open.jci.models.ords.OrdsUriTemplate;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Building the ORDS url of a criminal file content call, the most frequent call with the most
+ * query parameters, per call with UriComponentsBuilder as the controllers did, and from a
+ * precompiled OrdsUriTemplate. Run with -prof gc to compare the allocation per url.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrdsUriBenchmark {
+
+    private static final String HOST = "https://ords.example/ords/jci/";
+
+    private final String agencyIdentifierCd = "83.0001";
+    private final String roomCd = "101";
+    private final String proceedingDate = "2024-01-05 10:30:15";
+    private final String appearanceId = "1234567";
+    private final String mdocJustinNo = "7654321";
+
+    private OrdsUriTemplate template;
+
+    @Setup
+    public void setUp() {
+        template =
+                OrdsUriTemplate.of(
+                        HOST,
+                        "criminal/file",
+                        "agencyIdentifierCd",
+                        "roomCd",
+                        "proceedingDate",
+                        "appearanceId",
+                        "mdocJustinNo");
+    }
+
+    @Benchmark
+    public String builderToUriString() {
+        return builder().toUriString();
+    }
+
+    @Benchmark
+    public URI builderToUri() {
+        return builder().build().toUri();
+    }
+
+    @Benchmark
+    public String templateExpand() {
+        return template.expand(
+                agencyIdentifierCd, roomCd, proceedingDate, appearanceId, mdocJustinNo);
+    }
+
+    @Benchmark
+    public URI templateToUri() {
+        return template.toUri(
+                agencyIdentifierCd, roomCd, proceedingDate, appearanceId, mdocJustinNo);
+    }
+
+    private UriComponentsBuilder builder() {
+        return UriComponentsBuilder.fromHttpUrl(HOST + "criminal/file")
+                .queryParam("agencyIdentifierCd", agencyIdentifierCd)
+                .queryParam("roomCd", roomCd)
+                .queryParam("proceedingDate", proceedingDate)
+                .queryParam("appearanceId", appearanceId)
+                .queryParam("mdocJustinNo", mdocJustinNo);
+    }
+}
@@ -0,0 +1,93 @@
+package ca.bc.gov.open.jci.benchmarks;
+
+import ca.bc.gov.open.jci.common.process.results.ProcessCivilOrderResult;
+import ca.bc.gov.open.jci.common.process.results.ProcessOrder;
+import ca.bc.gov.open.jci.common.process.results.ProcessSentence;
+import ca.bc.gov.open.jci.standin.ModelGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Writing a processSentence, processOrder or processCivilOrderResult body to ORDS: serialized into
+ * a byte array and then copied to the connection, as the intercepting RestTemplate does, or
+ * written onto the connection as it is serialized. Sizes are 1 count, a typical 50, and 2000 for
+ * the largest multi-count sentencings. Run with -prof gc to compare the allocation per body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessPayloadBenchmark {
+
+    /** The request bodies benchmarked. */
+    public enum Payload {
+        SENTENCE(ProcessSentence.class, process -> ((ProcessSentence) process).getSentence()),
+        ORDER(ProcessOrder.class, process -> ((ProcessOrder) process).getOrder()),
+        CIVIL_ORDER_RESULT(
+                ProcessCivilOrderResult.class,
+                process -> ((ProcessCivilOrderResult) process).getCivilOrderResult());
+
+        final Class<?> type;
+        final Function<Object, Object> body;
+
+        Payload(Class<?> type, Function<Object, Object> body) {
+            this.type = type;
+            this.body = body;
+        }
+    }
+
+    @Param Payload payload;
+
+    @Param({"1", "50", "2000"})
+    int counts;
+
+    @Param({"false", "true"})
+    boolean gzip;
+
+    private ObjectWriter writer;
+    private Object body;
+
+    @Setup
+    public void setUp() {
+        writer = ModelGenerator.objectMapper().writer();
+        body = payload.body.apply(ModelGenerator.response(payload.type, counts));
+    }
+
+    @Benchmark
+    public void buffered(Blackhole blackhole) throws IOException {
+        byte[] json = writer.writeValueAsBytes(body);
+        try (OutputStream out = connection(blackhole)) {
+            out.write(json);
+        }
+    }
+
+    @Benchmark
+    public void streamed(Blackhole blackhole) throws IOException {
+        try (OutputStream out = connection(blackhole)) {
+            writer.writeValue(out, body);
+        }
+    }
+
+    private OutputStream connection(Blackhole blackhole) throws IOException {
+        OutputStream out = new BlackholeOutputStream(blackhole);
+        return gzip ? new GZIPOutputStream(out, 8192) : out;
+    }
+}
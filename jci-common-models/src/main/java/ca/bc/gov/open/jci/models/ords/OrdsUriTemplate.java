@@ -0,0 +1,108 @@
+package ca.bc.gov.open.jci.models.ords;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An ORDS url compiled once from the host, route and query parameter names, so that expanding it
+ * for a call only appends the encoded values to a prefix built up front, rather than parsing the
+ * whole url again with UriComponentsBuilder.
+ *
+ * <p>Values are encoded as UriComponentsBuilder encodes query parameters, or with URLEncoder for
+ * form encoded templates, and a null value leaves just the parameter name, as queryParam does.
+ */
+public final class OrdsUriTemplate {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final String host;
+    private final String prefix;
+    // "?name", "&name", ... so a value only needs "=" and itself
+    private final String[] params;
+    private final boolean formEncoded;
+    private final int sizeHint;
+
+    private OrdsUriTemplate(String host, String route, boolean formEncoded, String[] names) {
+        this.host = host;
+        this.prefix = host + route;
+        this.params = new String[names.length];
+        int size = prefix.length();
+        for (int i = 0; i < names.length; i++) {
+            params[i] = (i == 0 ? "?" : "&") + names[i];
+            size += params[i].length() + 16;
+        }
+        this.formEncoded = formEncoded;
+        this.sizeHint = size;
+    }
+
+    /** The route under the host, taking the named query parameters in order. */
+    public static OrdsUriTemplate of(String host, String route, String... queryParams) {
+        return new OrdsUriTemplate(host, route, false, queryParams.clone());
+    }
+
+    /** As {@link #of}, with the values encoded as form values, spaces as + and / as %2F. */
+    public static OrdsUriTemplate formEncoded(String host, String route, String... queryParams) {
+        return new OrdsUriTemplate(host, route, true, queryParams.clone());
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    /** The encoded url with the values of the query parameters, in order. */
+    public String expand(Object... values) {
+        if (values.length != params.length) {
+            throw new IllegalArgumentException(
+                    prefix + " takes " + params.length + " values, not " + values.length);
+        }
+        if (values.length == 0) {
+            return prefix;
+        }
+        StringBuilder url = new StringBuilder(sizeHint).append(prefix);
+        for (int i = 0; i < values.length; i++) {
+            url.append(params[i]);
+            if (values[i] != null) {
+                url.append('=');
+                String value = values[i].toString();
+                if (formEncoded) {
+                    url.append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+                } else {
+                    appendEncoded(url, value);
+                }
+            }
+        }
+        return url.toString();
+    }
+
+    public URI toUri(Object... values) {
+        return URI.create(expand(values));
+    }
+
+    private static void appendEncoded(StringBuilder url, String value) {
+        int i = 0;
+        while (i < value.length() && allowed(value.charAt(i))) {
+            i++;
+        }
+        if (i == value.length()) {
+            url.append(value);
+            return;
+        }
+        url.append(value, 0, i);
+        for (byte b : value.substring(i).getBytes(StandardCharsets.UTF_8)) {
+            if (b >= 0 && allowed((char) b)) {
+                url.append((char) b);
+            } else {
+                url.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+            }
+        }
+    }
+
+    /** Query parameter characters left as they are: pchar, / and ?, less = and &. */
+    private static boolean allowed(char c) {
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+            return true;
+        }
+        return "-._~!$'()*+,;:@/?".indexOf(c) >= 0;
+    }
+}
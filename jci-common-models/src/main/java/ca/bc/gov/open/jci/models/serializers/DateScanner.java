@@ -0,0 +1,235 @@
+package ca.bc.gov.open.jci.models.serializers;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+/**
+ * Reads the date layouts exchanged with ORDS and SOAP clients straight from the characters, as UTC,
+ * without building formatters or throwing on a mismatch. Each method returns null for anything
+ * that is not exactly one of its layouts or is out of range, and the caller then falls back to
+ * the lenient SimpleDateFormat parsing, so results match it for every input.
+ */
+final class DateScanner {
+
+    private static final String MONTHS = "JANFEBMARAPRMAYJUNJULAUGSEPOCTNOVDEC";
+
+    // The Julian calendar applies before this in SimpleDateFormat
+    private static final int FIRST_GREGORIAN_YEAR = 1583;
+
+    private static final long CENTURY_CHECK_MILLIS = 60 * 60 * 1000;
+
+    private static volatile int centuryStartYear;
+    private static volatile long centuryCheckedUntil;
+
+    private DateScanner() {}
+
+    /**
+     * dd-MMM-yyyy, dd-MMM-yy hh.mm.ss.S a (S in milliseconds, any number of digits), dd-MMM-yy
+     * and yyyy-MM-dd HH:mm:ss, as read by {@link InstantDeserializer}.
+     */
+    static Instant scanOrds(CharSequence s) {
+        int len = s.length();
+        if (len >= 9 && s.charAt(2) == '-' && s.charAt(6) == '-') {
+            if (len >= 11 && digits(s, 7, 4) >= 0 && (len == 11 || isBreak(s.charAt(11)))) {
+                // dd-MMM-yyyy, anything after the year is ignored
+                return dateTime(digits(s, 7, 4), month(s, 3), digits(s, 0, 2), 0, 0, 0, 0);
+            }
+            int year = twoDigitYear(digits(s, 7, 2));
+            if (len == 9) {
+                return dateTime(year, month(s, 3), digits(s, 0, 2), 0, 0, 0, 0);
+            }
+            return dayMonthYearTime(s, year);
+        }
+        if (len >= 19
+                && s.charAt(4) == '-'
+                && s.charAt(7) == '-'
+                && s.charAt(10) == ' '
+                && (len == 19 || !isDigit(s.charAt(19)))) {
+            // yyyy-MM-dd HH:mm:ss, anything after the seconds is ignored
+            return dateTimeOf(s, 0);
+        }
+        return null;
+    }
+
+    /**
+     * yyyy-MM-dd HH:mm:ss.S (S in milliseconds, any number of digits), dd-MMM-yy, yyyy-MM-dd
+     * HH:mm:ss and yyyy-MM-dd, as read by {@link InstantSoapConverter}.
+     */
+    static Instant scanSoap(CharSequence s) {
+        int len = s.length();
+        if (len == 9 && s.charAt(2) == '-' && s.charAt(6) == '-') {
+            return dateTime(
+                    twoDigitYear(digits(s, 7, 2)), month(s, 3), digits(s, 0, 2), 0, 0, 0, 0);
+        }
+        if (len == 10 && s.charAt(4) == '-' && s.charAt(7) == '-') {
+            return dateTime(digits(s, 0, 4), digits(s, 5, 2), digits(s, 8, 2), 0, 0, 0, 0);
+        }
+        if (len >= 19 && s.charAt(4) == '-' && s.charAt(7) == '-' && s.charAt(10) == ' ') {
+            if (len == 19) {
+                return dateTimeOf(s, 0);
+            }
+            if (s.charAt(19) == '.' && len > 20 && len <= 29) {
+                return dateTimeOf(s, digits(s, 20, len - 20));
+            }
+        }
+        return null;
+    }
+
+    /** The time part of dd-MMM-yy hh.mm.ss.S a, from index 9. */
+    private static Instant dayMonthYearTime(CharSequence s, int year) {
+        int len = s.length();
+        // The fraction is 1 to 9 digits between index 19 and " AM"
+        int fraction = len - 3 - 19;
+        if (fraction < 1
+                || fraction > 9
+                || s.charAt(9) != ' '
+                || s.charAt(12) != '.'
+                || s.charAt(15) != '.'
+                || s.charAt(18) != '.'
+                || s.charAt(len - 3) != ' '
+                || (s.charAt(len - 1) != 'M' && s.charAt(len - 1) != 'm')) {
+            return null;
+        }
+        char meridiem = s.charAt(len - 2);
+        int hour = digits(s, 10, 2);
+        if (hour > 12) {
+            return null;
+        }
+        if (hour == 12) {
+            hour = 0;
+        }
+        if (meridiem == 'P' || meridiem == 'p') {
+            hour += 12;
+        } else if (meridiem != 'A' && meridiem != 'a') {
+            return null;
+        }
+        return dateTime(
+                year,
+                month(s, 3),
+                digits(s, 0, 2),
+                hour,
+                digits(s, 13, 2),
+                digits(s, 16, 2),
+                digits(s, 19, fraction));
+    }
+
+    /** yyyy-MM-dd HH:mm:ss at the start of s, once the '-' and ' ' separators are checked. */
+    private static Instant dateTimeOf(CharSequence s, int millis) {
+        if (s.charAt(13) != ':' || s.charAt(16) != ':') {
+            return null;
+        }
+        return dateTime(
+                digits(s, 0, 4),
+                digits(s, 5, 2),
+                digits(s, 8, 2),
+                digits(s, 11, 2),
+                digits(s, 14, 2),
+                digits(s, 17, 2),
+                millis);
+    }
+
+    /**
+     * Any negative argument means the field did not scan. Milliseconds are not limited to 999,
+     * SimpleDateFormat reads the fraction digits as a count of milliseconds.
+     */
+    private static Instant dateTime(
+            int year, int month, int day, int hour, int minute, int second, int millis) {
+        if (year < FIRST_GREGORIAN_YEAR
+                || month < 1
+                || month > 12
+                || day < 1
+                || day > daysInMonth(year, month)
+                || hour < 0
+                || hour > 23
+                || minute < 0
+                || minute > 59
+                || second < 0
+                || second > 59
+                || millis < 0) {
+            return null;
+        }
+        long epochSecond =
+                epochDay(year, month, day) * 86400 + hour * 3600 + minute * 60 + second;
+        return Instant.ofEpochMilli(epochSecond * 1000 + millis);
+    }
+
+    /** The value of count decimal digits at start, or -1. */
+    private static int digits(CharSequence s, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /** The month of a three letter English abbreviation at start, in any case, or -1. */
+    private static int month(CharSequence s, int start) {
+        char a = Character.toUpperCase(s.charAt(start));
+        char b = Character.toUpperCase(s.charAt(start + 1));
+        char c = Character.toUpperCase(s.charAt(start + 2));
+        for (int i = 0; i < 12; i++) {
+            if (MONTHS.charAt(i * 3) == a
+                    && MONTHS.charAt(i * 3 + 1) == b
+                    && MONTHS.charAt(i * 3 + 2) == c) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The year SimpleDateFormat reads for a two digit yy: within 80 years before and 20 years
+     * after now. The one value that depends on the full date is left to SimpleDateFormat.
+     */
+    private static int twoDigitYear(int yy) {
+        if (yy < 0) {
+            return -1;
+        }
+        long now = System.currentTimeMillis();
+        if (now >= centuryCheckedUntil) {
+            centuryStartYear = ZonedDateTime.now().minusYears(80).getYear();
+            centuryCheckedUntil = now + CENTURY_CHECK_MILLIS;
+        }
+        int startYear = centuryStartYear;
+        int ambiguous = startYear % 100;
+        if (yy == ambiguous) {
+            return -1;
+        }
+        return startYear / 100 * 100 + yy + (yy < ambiguous ? 100 : 0);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isBreak(char c) {
+        return c == ' ' || c == '-';
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+}
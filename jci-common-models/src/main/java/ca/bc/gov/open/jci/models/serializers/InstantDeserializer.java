@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import java.io.IOException;
+import java.nio.CharBuffer;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.Instant;
@@ -11,33 +12,49 @@ import java.util.Locale;
 import java.util.TimeZone;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Reads ORDS dates as UTC. The usual layouts are read by {@link DateScanner}; anything else goes
+ * through the original SimpleDateFormat parsing so that lenient inputs read the same as before.
+ */
 @Slf4j
 public class InstantDeserializer extends JsonDeserializer<Instant> {
     @Override
     public Instant deserialize(JsonParser jsonParser, DeserializationContext deserializationContext)
             throws IOException {
+        Instant scanned =
+                jsonParser.hasTextCharacters()
+                        ? DateScanner.scanOrds(
+                                CharBuffer.wrap(
+                                        jsonParser.getTextCharacters(),
+                                        jsonParser.getTextOffset(),
+                                        jsonParser.getTextLength()))
+                        : DateScanner.scanOrds(jsonParser.getText());
+        return scanned != null ? scanned : parseLenient(jsonParser.getText());
+    }
 
+    /** The original SimpleDateFormat parsing, for anything the scanner does not recognise. */
+    private static Instant parseLenient(String text) {
         try {
-            if (jsonParser.getText().split("-")[2].split(" ")[0].length() == 4) {
+            if (text.split("-")[2].split(" ")[0].length() == 4) {
                 var sfd = new SimpleDateFormat("dd-MMM-yyyy", Locale.US);
                 sfd.setTimeZone(TimeZone.getTimeZone("UTC"));
-                return sfd.parse(jsonParser.getText()).toInstant();
+                return sfd.parse(text).toInstant();
             }
 
-            if (jsonParser.getText().split("-")[0].length() < 4) {
+            if (text.split("-")[0].length() < 4) {
                 var sfd = new SimpleDateFormat("dd-MMM-yy hh.mm.ss.SSSSSS a", Locale.US);
                 sfd.setTimeZone(TimeZone.getTimeZone("UTC"));
-                return sfd.parse(jsonParser.getText()).toInstant();
+                return sfd.parse(text).toInstant();
             } else {
                 var sfd = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
                 sfd.setTimeZone(TimeZone.getTimeZone("UTC"));
-                return sfd.parse(jsonParser.getText()).toInstant();
+                return sfd.parse(text).toInstant();
             }
         } catch (ParseException e) {
             try {
                 var sfd = new SimpleDateFormat("dd-MMM-yy", Locale.US);
                 sfd.setTimeZone(TimeZone.getTimeZone("UTC"));
-                return sfd.parse(jsonParser.getText()).toInstant();
+                return sfd.parse(text).toInstant();
             } catch (ParseException e2) {
                 log.error(e2.getLocalizedMessage());
             }
@@ -10,15 +10,15 @@ import java.time.format.DateTimeFormatter;
 import java.util.Locale;
 
 public class InstantSerializer extends JsonSerializer<Instant> {
+    private static final DateTimeFormatter FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+                    .withZone(ZoneId.of("UTC"))
+                    .withLocale(Locale.US);
+
     @Override
     public void serialize(Instant value, JsonGenerator gen, SerializerProvider serializers)
             throws IOException {
-        String out =
-                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
-                        .withZone(ZoneId.of("UTC"))
-                        .withLocale(Locale.US)
-                        .format(value);
-        gen.writeString(out);
+        gen.writeString(FORMATTER.format(value));
     }
 
     public static String convert(Instant value) {
@@ -26,9 +26,6 @@ public class InstantSerializer extends JsonSerializer<Instant> {
             return null;
         }
 
-        return DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
-                .withZone(ZoneId.of("UTC"))
-                .withLocale(Locale.US)
-                .format(value);
+        return FORMATTER.format(value);
     }
 }
@@ -15,16 +15,30 @@ public final class InstantSoapConverter {
 
     private InstantSoapConverter() {}
 
+    private static final DateTimeFormatter PRINT_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.0")
+                    .withZone(ZoneId.of("UTC"))
+                    .withLocale(Locale.US);
+
     public static String print(Instant value) {
-        String out =
-                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.0")
-                        .withZone(ZoneId.of("UTC"))
-                        .withLocale(Locale.US)
-                        .format(value);
-        return out;
+        return PRINT_FORMATTER.format(value);
     }
 
     public static Instant parse(String value) {
+        if (value != null) {
+            if (value.isEmpty()) {
+                return null;
+            }
+            Instant scanned = DateScanner.scanSoap(value);
+            if (scanned != null) {
+                return scanned;
+            }
+        }
+        return parseLenient(value);
+    }
+
+    /** The original SimpleDateFormat parsing, for anything the scanner does not recognise. */
+    private static Instant parseLenient(String value) {
         try {
             Date d;
             // Try to parse a datetime first then try date only if both fail return null
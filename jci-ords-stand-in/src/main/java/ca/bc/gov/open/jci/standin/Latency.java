@@ -0,0 +1,89 @@
+package ca.bc.gov.open.jci.standin;
+
+import java.util.Random;
+
+/**
+ * A response time distribution in milliseconds, written as one of
+ *
+ * <ul>
+ *   <li>{@code fixed:20}, always 20 ms
+ *   <li>{@code uniform:10-50}, evenly spread between 10 and 50 ms
+ *   <li>{@code lognormal:20:400}, a long tailed distribution with a 20 ms median and a 400 ms p99,
+ *       the usual shape of ORDS response times
+ * </ul>
+ */
+public abstract class Latency {
+
+    // The standard normal quantile for the 99th percentile
+    private static final double Z_99 = 2.326;
+
+    public static final Latency NONE = fixed(0);
+
+    /** A delay in milliseconds. */
+    public abstract long sample(Random random);
+
+    public static Latency fixed(long millis) {
+        return new Latency() {
+            @Override
+            public long sample(Random random) {
+                return millis;
+            }
+
+            @Override
+            public String toString() {
+                return "fixed:" + millis;
+            }
+        };
+    }
+
+    public static Latency uniform(long min, long max) {
+        return new Latency() {
+            @Override
+            public long sample(Random random) {
+                return min + (long) (random.nextDouble() * (max - min));
+            }
+
+            @Override
+            public String toString() {
+                return "uniform:" + min + "-" + max;
+            }
+        };
+    }
+
+    public static Latency logNormal(double median, double p99) {
+        double mu = Math.log(median);
+        double sigma = Math.log(p99 / median) / Z_99;
+        return new Latency() {
+            @Override
+            public long sample(Random random) {
+                return Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+            }
+
+            @Override
+            public String toString() {
+                return "lognormal:" + median + ":" + p99;
+            }
+        };
+    }
+
+    public static Latency parse(String spec) {
+        String[] parts = spec.trim().split(":", 2);
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                    return fixed(Long.parseLong(parts[1]));
+                case "uniform":
+                    String[] range = parts[1].split("-");
+                    return uniform(Long.parseLong(range[0]), Long.parseLong(range[1]));
+                case "lognormal":
+                    String[] shape = parts[1].split(":");
+                    return logNormal(Double.parseDouble(shape[0]), Double.parseDouble(shape[1]));
+                default:
+                    break;
+            }
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Bad latency " + spec, ex);
+        }
+        throw new IllegalArgumentException("Bad latency " + spec);
+    }
+}
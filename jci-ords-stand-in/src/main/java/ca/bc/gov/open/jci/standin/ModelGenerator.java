@@ -0,0 +1,130 @@
+package ca.bc.gov.open.jci.standin;
+
+import ca.bc.gov.open.jci.models.serializers.InstantDeserializer;
+import ca.bc.gov.open.jci.models.serializers.InstantSerializer;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds fully populated response models of a given size, for the stand-in's ORDS responses and
+ * the benchmarks.
+ */
+public final class ModelGenerator {
+
+    // Nested lists such as bans or charges hold one entry, only the appearances grow
+    private static final int NESTED_LIST_SIZE = 1;
+    private static final int MAX_DEPTH = 8;
+    private static final Instant FIRST_DATE = Instant.parse("2024-01-05T09:30:00Z");
+
+    private ModelGenerator() {}
+
+    /** The ObjectMapper configured as in SoapConfig, which reads and writes the ORDS JSON. */
+    public static ObjectMapper objectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        objectMapper.disable(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE);
+        SimpleModule module = new SimpleModule();
+        module.addDeserializer(Instant.class, new InstantDeserializer());
+        module.addSerializer(Instant.class, new InstantSerializer());
+        objectMapper.registerModule(module);
+        return objectMapper;
+    }
+
+    /**
+     * A response with every field set. The lists directly under the response content, the court
+     * list appearances and the accused or civil files, hold {@code appearances} entries.
+     */
+    public static <T> T response(Class<T> type, int appearances) {
+        return type.cast(populate(type, 0, appearances, new int[1]));
+    }
+
+    private static Object populate(Class<?> type, int depth, int appearances, int[] counter) {
+        Object value;
+        try {
+            value = type.getDeclaredConstructor().newInstance();
+        } catch (NoSuchMethodException ex) {
+            // Not a generated model class, left unset
+            return null;
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Cannot build " + type.getName(), ex);
+        }
+        try {
+            for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    Object fieldValue;
+                    if (field.getType() == List.class) {
+                        Class<?> element =
+                                (Class<?>)
+                                        ((ParameterizedType) field.getGenericType())
+                                                .getActualTypeArguments()[0];
+                        int size = depth == 1 ? appearances : NESTED_LIST_SIZE;
+                        List<Object> list = new ArrayList<>(size);
+                        for (int i = 0; i < size; i++) {
+                            Object item = value(element, depth + 1, appearances, counter);
+                            if (item != null) {
+                                list.add(item);
+                            }
+                        }
+                        fieldValue = list;
+                    } else {
+                        fieldValue = value(field.getType(), depth + 1, appearances, counter);
+                    }
+                    field.set(value, fieldValue);
+                }
+            }
+            return value;
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Cannot build " + type.getName(), ex);
+        }
+    }
+
+    private static Object value(Class<?> type, int depth, int appearances, int[] counter) {
+        int n = ++counter[0];
+        if (type == String.class) {
+            return "Value " + n;
+        }
+        if (type == Instant.class) {
+            return FIRST_DATE.plusSeconds(n * 3_607L);
+        }
+        if (type == BigDecimal.class) {
+            return BigDecimal.valueOf(n, 2);
+        }
+        if (type == BigInteger.class) {
+            return BigInteger.valueOf(n);
+        }
+        if (type == Integer.class || type == int.class) {
+            return n;
+        }
+        if (type == Long.class || type == long.class) {
+            return (long) n;
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return n % 2 == 0;
+        }
+        if (type.isEnum()) {
+            Object[] constants = type.getEnumConstants();
+            return constants[n % constants.length];
+        }
+        if (depth > MAX_DEPTH
+                || type.isInterface()
+                || type.getName().startsWith("java")
+                || type.getName().startsWith("jakarta")) {
+            return null;
+        }
+        return populate(type, depth, appearances, counter);
+    }
+}
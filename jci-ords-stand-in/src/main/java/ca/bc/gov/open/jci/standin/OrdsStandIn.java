@@ -0,0 +1,247 @@
+package ca.bc.gov.open.jci.standin;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves every ORDS route the controllers call, plus the Adobe render URL, from generated models,
+ * with the latency, payload size and error rate set in {@link StandInConfig}. Point ORDS_HOST at
+ * {@link #ordsHost()} and ADOBE_HOST at {@link #adobeHost()} to run the apps without a live ORDS.
+ *
+ * <p>Responses are built once per route and size. Delays are scheduled rather than slept, so slow
+ * routes do not tie up the server threads and thousands of calls can be in flight at once.
+ *
+ * <p>Run on its own with {@code java -jar ords-stand-in.jar [settings.properties]}; system
+ * properties prefixed with {@code standin.} override the file.
+ */
+public class OrdsStandIn implements AutoCloseable {
+
+    private static final String ORDS_CONTEXT = "/ords/";
+    private static final String JSON = "application/json";
+    private static final String PDF = "application/pdf";
+
+    private final StandInConfig config;
+    private final ObjectMapper objectMapper = ModelGenerator.objectMapper();
+    private final Map<String, byte[]> responses = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final Random random;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService scheduler;
+    private final byte[] document;
+    private final byte[] report;
+
+    public OrdsStandIn(StandInConfig config) throws IOException {
+        this.config = config;
+        this.random = new Random(config.seed());
+        this.document = content(config.documentBytes(), "%PDF-1.4 document ");
+        this.report = content(config.reportBytes(), "%PDF-1.4 report ");
+        this.executor = Executors.newFixedThreadPool(config.threads());
+        this.scheduler = Executors.newScheduledThreadPool(2);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", config.port()), 1024);
+        server.setExecutor(executor);
+        server.createContext(ORDS_CONTEXT, this::ords);
+        server.createContext(
+                "/" + Routes.ADOBE, exchange -> binary(exchange, Routes.ADOBE, report));
+        server.createContext(
+                "/" + Routes.DOCUMENT_CONTENT,
+                exchange -> binary(exchange, Routes.DOCUMENT_CONTENT, document));
+    }
+
+    public static void main(String[] args) throws IOException {
+        Properties properties = new Properties();
+        if (args.length > 0) {
+            try (Reader reader = Files.newBufferedReader(Paths.get(args[0]))) {
+                properties.load(reader);
+            }
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("standin."))
+                .forEach(
+                        name ->
+                                properties.setProperty(
+                                        name.substring("standin.".length()),
+                                        System.getProperty(name)));
+        OrdsStandIn standIn = new OrdsStandIn(StandInConfig.from(properties)).start();
+        System.out.println("ORDS_HOST=" + standIn.ordsHost());
+        System.out.println("ADOBE_HOST=" + standIn.adobeHost());
+        Runtime.getRuntime().addShutdownHook(new Thread(standIn::close));
+    }
+
+    public OrdsStandIn start() {
+        server.start();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /** The value for ORDS_HOST, ending in a slash as the controllers expect. */
+    public String ordsHost() {
+        return "http://127.0.0.1:" + port() + ORDS_CONTEXT;
+    }
+
+    /** The value for ADOBE_HOST. */
+    public String adobeHost() {
+        return "http://127.0.0.1:" + port() + "/" + Routes.ADOBE;
+    }
+
+    /** The number of calls received for a route, including failed ones. */
+    public long calls(String route) {
+        LongAdder count = calls.get(Routes.route(route));
+        return count == null ? 0 : count.sum();
+    }
+
+    private void ords(HttpExchange exchange) throws IOException {
+        String route =
+                Routes.route(exchange.getRequestURI().getPath().substring(ORDS_CONTEXT.length()));
+        byte[] body;
+        if (Routes.MODELS.containsKey(route)) {
+            String key = route + ":" + config.appearancesOf(route);
+            body = responses.computeIfAbsent(key, this::model);
+        } else if (Routes.settingsKey(route).equals(Routes.DOCUMENT)) {
+            body = documentResponse(exchange);
+        } else if (Routes.settingsKey(route).equals(Routes.ROP_REPORT)) {
+            body = reportResponse();
+        } else {
+            drain(exchange);
+            respond(exchange, 404, JSON, "{\"error\":\"No stand-in route\"}".getBytes());
+            return;
+        }
+        reply(exchange, route, JSON, body);
+    }
+
+    private void binary(HttpExchange exchange, String route, byte[] body) throws IOException {
+        reply(exchange, route, PDF, body);
+    }
+
+    /** Counts the call, then after the route's latency sends the body or an error. */
+    private void reply(HttpExchange exchange, String route, String contentType, byte[] body)
+            throws IOException {
+        drain(exchange);
+        calls.computeIfAbsent(route, r -> new LongAdder()).increment();
+        long delay;
+        boolean fail;
+        synchronized (random) {
+            delay = Math.max(0, config.latencyOf(route).sample(random));
+            fail = random.nextDouble() < config.errorRateOf(route);
+        }
+        Runnable send =
+                () -> {
+                    try {
+                        if (fail) {
+                            respond(
+                                    exchange,
+                                    config.errorStatus(),
+                                    JSON,
+                                    "{\"error\":\"Stand-in error\"}".getBytes());
+                        } else {
+                            respond(exchange, 200, contentType, body);
+                        }
+                    } catch (IOException ex) {
+                        // The client went away
+                        exchange.close();
+                    }
+                };
+        if (delay == 0) {
+            send.run();
+        } else {
+            scheduler.schedule(() -> executor.execute(send), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private byte[] model(String key) {
+        String route = key.substring(0, key.lastIndexOf(':'));
+        Object model =
+                ModelGenerator.response(Routes.MODELS.get(route), config.appearancesOf(route));
+        return json(model);
+    }
+
+    private byte[] documentResponse(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getRawQuery();
+        String url = "http://127.0.0.1:" + port() + "/" + Routes.DOCUMENT_CONTENT;
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("resultCd", "1");
+        body.put("resultMessage", "Success");
+        body.put(
+                "url",
+                URLEncoder.encode(
+                        query == null ? url : url + "?" + query, StandardCharsets.UTF_8));
+        return json(body);
+    }
+
+    private byte[] reportResponse() {
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("responseCd", "0");
+        body.put("responseMessageTxt", "Success");
+        // The controllers take the query after the '?' and send it to ADOBE_HOST
+        body.put(
+                "url",
+                URLEncoder.encode(
+                        adobeHost() + "?form=<<FORM>>&app=<<APP>>&ticket=<<TICKET>>",
+                        StandardCharsets.UTF_8));
+        body.put("keyValue", "stand-in-ticket");
+        return json(body);
+    }
+
+    private byte[] json(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void drain(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static byte[] content(int size, String header) {
+        byte[] content = new byte[size];
+        byte[] prefix = header.getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < size; i++) {
+            content[i] = i < prefix.length ? prefix[i] : (byte) (i * 31);
+        }
+        return content;
+    }
+}
@@ -0,0 +1,129 @@
+package ca.bc.gov.open.jci.standin;
+
+import ca.bc.gov.open.jci.civil.GetCivilFileContentResponse;
+import ca.bc.gov.open.jci.civil.secure.GetCivilFileContentSecureResponse;
+import ca.bc.gov.open.jci.common.code.values.GetCodeValuesResponse;
+import ca.bc.gov.open.jci.common.code.values.secure.GetCodeValuesSecureResponse;
+import ca.bc.gov.open.jci.common.criminal.file.content.GetCriminalFileContentResponse;
+import ca.bc.gov.open.jci.common.criminal.file.content.secure.GetCriminalFileContentSecureResponse;
+import ca.bc.gov.open.jci.common.dev.utils.ClearAppearanceResultsResponse;
+import ca.bc.gov.open.jci.common.dev.utils.RecreateCourtListResponse;
+import ca.bc.gov.open.jci.common.participant.info.GetParticipantInfoResponseEx;
+import ca.bc.gov.open.jci.common.process.results.GetHealthResponse;
+import ca.bc.gov.open.jci.common.process.results.GetPingResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessAgeNoticeResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessAppearanceMethodResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessArraignmentResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessBailResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessBanResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessCivilAppearanceMethodResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessCivilOrderResultResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessCivilResultsResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessCriminalResultResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessElectionResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessExhibitResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessFindingResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessGenericResultResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessMatterCallResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessMoveResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessNoteResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessOrderResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessPleaResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessSentenceResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessSpeakerResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessSpecialCourtResponse;
+import ca.bc.gov.open.jci.common.process.results.ProcessVariationResponse;
+import ca.bc.gov.open.jci.common.user.login.GetUserLoginResponseType;
+import ca.bc.gov.open.jci.common.user.mapping.GetParticipantInfoResponse;
+import ca.bc.gov.open.jci.common.user.mapping.MapGuidToParticipantResponse;
+import ca.bc.gov.open.jci.court.one.GetCrtListResponse;
+import ca.bc.gov.open.jci.court.secure.one.GetCrtListSecureResponse;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The ORDS routes the controllers call, relative to ORDS_HOST, and the model each one answers
+ * with. The secure app's routes are the same paths with a /secure suffix.
+ */
+final class Routes {
+
+    /** Answers with a URL to fetch the document from, see {@link OrdsStandIn}. */
+    static final String DOCUMENT = "common/document";
+
+    /** Answers with the Adobe render URL for the report. */
+    static final String ROP_REPORT = "criminal/ropreport";
+
+    /** The stand-in's own document content route, named in DOCUMENT responses. */
+    static final String DOCUMENT_CONTENT = "document";
+
+    /** The Adobe render route, served beside ORDS. */
+    static final String ADOBE = "adobe";
+
+    static final Map<String, Class<?>> MODELS;
+
+    static {
+        Map<String, Class<?>> models = new LinkedHashMap<>();
+        models.put("common/codevalues", GetCodeValuesResponse.class);
+        models.put("common/codevalues/secure", GetCodeValuesSecureResponse.class);
+        models.put("common/courtlist", GetCrtListResponse.class);
+        models.put("common/courtlist/secure", GetCrtListSecureResponse.class);
+        models.put("common/courtlist/recreate", RecreateCourtListResponse.class);
+        models.put("criminal/clear-appr-results", ClearAppearanceResultsResponse.class);
+        models.put("criminal/file", GetCriminalFileContentResponse.class);
+        models.put("criminal/file/secure", GetCriminalFileContentSecureResponse.class);
+        models.put("civil/file", GetCivilFileContentResponse.class);
+        models.put("civil/file/secure", GetCivilFileContentSecureResponse.class);
+        models.put("common/health", GetHealthResponse.class);
+        models.put("common/ping", GetPingResponse.class);
+        models.put("criminal/variation", ProcessVariationResponse.class);
+        models.put("criminal/speaker", ProcessSpeakerResponse.class);
+        models.put("civil/results", ProcessCivilResultsResponse.class);
+        models.put("criminal/appearance-method", ProcessAppearanceMethodResponse.class);
+        models.put("criminal/plea", ProcessPleaResponse.class);
+        models.put("criminal/election", ProcessElectionResponse.class);
+        models.put("criminal/bail", ProcessBailResponse.class);
+        models.put("criminal/results", ProcessCriminalResultResponse.class);
+        models.put("criminal/age-notice", ProcessAgeNoticeResponse.class);
+        models.put("criminal/mattercall", ProcessMatterCallResponse.class);
+        models.put("criminal/sentence", ProcessSentenceResponse.class);
+        models.put("criminal/ban", ProcessBanResponse.class);
+        models.put("criminal/note", ProcessNoteResponse.class);
+        models.put("criminal/arraignment", ProcessArraignmentResponse.class);
+        models.put("criminal/move", ProcessMoveResponse.class);
+        models.put("criminal/finding", ProcessFindingResponse.class);
+        models.put("common/generic-result", ProcessGenericResultResponse.class);
+        models.put("civil/appearance-method", ProcessCivilAppearanceMethodResponse.class);
+        models.put("criminal/order", ProcessOrderResponse.class);
+        models.put("civil/order", ProcessCivilOrderResultResponse.class);
+        models.put("criminal/exhibit", ProcessExhibitResponse.class);
+        models.put("appearance", ProcessSpecialCourtResponse.class);
+        models.put("common/user/mapping/participant-info", GetParticipantInfoResponse.class);
+        models.put("common/participant-info", GetParticipantInfoResponseEx.class);
+        models.put("common/user/mapping/partid-to-guid", MapGuidToParticipantResponse.class);
+        models.put("common/user/login", GetUserLoginResponseType.class);
+        MODELS = Collections.unmodifiableMap(models);
+    }
+
+    private Routes() {}
+
+    /** The route for a request path below the ORDS base, without slashes at either end. */
+    static String route(String path) {
+        int start = 0;
+        int end = path.length();
+        while (start < end && path.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(start, end);
+    }
+
+    /** The route used for settings, which are shared by a route and its /secure variant. */
+    static String settingsKey(String route) {
+        return route.endsWith("/secure")
+                ? route.substring(0, route.length() - "/secure".length())
+                : route;
+    }
+}
@@ -0,0 +1,192 @@
+package ca.bc.gov.open.jci.standin;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Settings for {@link OrdsStandIn}. Each per-route setting has a default and may be overridden for
+ * one route, named by its path below ORDS_HOST, e.g.
+ *
+ * <pre>
+ * latency=lognormal:20:250
+ * latency.common/courtlist=uniform:100-800
+ * error-rate.criminal/file=0.01
+ * appearances.common/courtlist=2000
+ * </pre>
+ *
+ * <p>Overrides apply to a route and its /secure variant. The Adobe render route is named adobe and
+ * the document content route document.
+ */
+public class StandInConfig {
+
+    private int port;
+    private int threads = 16;
+    private Latency latency = Latency.NONE;
+    private double errorRate;
+    private int errorStatus = 500;
+    private int appearances = 50;
+    private int documentBytes = 1024 * 1024;
+    private int reportBytes = 256 * 1024;
+    private long seed = System.nanoTime();
+    private final Map<String, Latency> routeLatency = new HashMap<>();
+    private final Map<String, Double> routeErrorRate = new HashMap<>();
+    private final Map<String, Integer> routeAppearances = new HashMap<>();
+
+    /** Reads the settings described above, anything not given keeps its default. */
+    public static StandInConfig from(Properties properties) {
+        StandInConfig config = new StandInConfig();
+        for (String name : properties.stringPropertyNames()) {
+            String value = properties.getProperty(name).trim();
+            int dot = name.indexOf('.');
+            String key = dot < 0 ? name : name.substring(0, dot);
+            String route = dot < 0 ? null : Routes.route(name.substring(dot + 1));
+            switch (key) {
+                case "port":
+                    config.port(Integer.parseInt(value));
+                    break;
+                case "threads":
+                    config.threads(Integer.parseInt(value));
+                    break;
+                case "latency":
+                    config.latency(route, Latency.parse(value));
+                    break;
+                case "error-rate":
+                    config.errorRate(route, Double.parseDouble(value));
+                    break;
+                case "error-status":
+                    config.errorStatus(Integer.parseInt(value));
+                    break;
+                case "appearances":
+                    config.appearances(route, Integer.parseInt(value));
+                    break;
+                case "document-bytes":
+                    config.documentBytes(Integer.parseInt(value));
+                    break;
+                case "report-bytes":
+                    config.reportBytes(Integer.parseInt(value));
+                    break;
+                case "seed":
+                    config.seed(Long.parseLong(value));
+                    break;
+                default:
+                    // Other properties, e.g. system properties, are not ours
+                    break;
+            }
+        }
+        return config;
+    }
+
+    /** The port to listen on, 0 for any free port. */
+    public StandInConfig port(int port) {
+        this.port = port;
+        return this;
+    }
+
+    /** Threads reading requests and writing responses, delays do not hold them. */
+    public StandInConfig threads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    public StandInConfig latency(Latency latency) {
+        return latency(null, latency);
+    }
+
+    /** The latency of one route, or the default when route is null. */
+    public StandInConfig latency(String route, Latency latency) {
+        if (route == null) {
+            this.latency = latency;
+        } else {
+            routeLatency.put(route, latency);
+        }
+        return this;
+    }
+
+    public StandInConfig errorRate(double errorRate) {
+        return errorRate(null, errorRate);
+    }
+
+    /** The fraction of calls to one route, or by default, answered with errorStatus. */
+    public StandInConfig errorRate(String route, double errorRate) {
+        if (route == null) {
+            this.errorRate = errorRate;
+        } else {
+            routeErrorRate.put(route, errorRate);
+        }
+        return this;
+    }
+
+    public StandInConfig errorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+        return this;
+    }
+
+    public StandInConfig appearances(int appearances) {
+        return appearances(null, appearances);
+    }
+
+    /** The length of the top level lists in one route's response, or by default. */
+    public StandInConfig appearances(String route, int appearances) {
+        if (route == null) {
+            this.appearances = appearances;
+        } else {
+            routeAppearances.put(route, appearances);
+        }
+        return this;
+    }
+
+    /** The size of each document served for getDocument. */
+    public StandInConfig documentBytes(int documentBytes) {
+        this.documentBytes = documentBytes;
+        return this;
+    }
+
+    /** The size of each report rendered for getROPReport. */
+    public StandInConfig reportBytes(int reportBytes) {
+        this.reportBytes = reportBytes;
+        return this;
+    }
+
+    /** Seeds latency and error sampling, so that runs can be repeated. */
+    public StandInConfig seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    int port() {
+        return port;
+    }
+
+    int threads() {
+        return threads;
+    }
+
+    int errorStatus() {
+        return errorStatus;
+    }
+
+    int documentBytes() {
+        return documentBytes;
+    }
+
+    int reportBytes() {
+        return reportBytes;
+    }
+
+    long seed() {
+        return seed;
+    }
+
+    Latency latencyOf(String route) {
+        return routeLatency.getOrDefault(Routes.settingsKey(route), latency);
+    }
+
+    double errorRateOf(String route) {
+        return routeErrorRate.getOrDefault(Routes.settingsKey(route), errorRate);
+    }
+
+    int appearancesOf(String route) {
+        return routeAppearances.getOrDefault(Routes.settingsKey(route), appearances);
+    }
+}